@@ -0,0 +1,15 @@
+-- 为已有数据库添加用户搜索索引
+-- 用户管理的关键字搜索（/user/search）使用 ngram 全文索引代替 LIKE '%关键字%'
+-- 未执行本脚本时搜索自动回退为 LIKE 查询，功能不受影响
+
+USE sso_db;
+
+-- 关闭全文索引停用词：ngram分词下含停用词的词元不会被索引，导致部分关键字搜不到
+-- 该设置在建索引时生效，需具备 SYSTEM_VARIABLES_ADMIN 权限；也可写入 my.cnf 后重启
+SET GLOBAL innodb_ft_enable_stopword = OFF;
+
+-- ngram 默认按2个字符分词（ngram_token_size=2），单字符关键字由应用回退为 LIKE 查询
+-- 大表上建索引耗时较长，建议在低峰期执行
+ALTER TABLE sys_user ADD FULLTEXT INDEX ft_user_search (username, nickname, real_name, phone, email) WITH PARSER ngram;
+
+-- 游标分页按 (create_time, id) 排序，直接使用已有的 idx_create_time（InnoDB二级索引隐含主键列）
@@ -0,0 +1,8 @@
+-- 扩展用户密码字段长度
+-- BCrypt哈希固定60位，原 VARCHAR(32) 只能容纳MD5哈希：
+-- 严格模式下写入BCrypt哈希报错（注册、修改/重置密码、登录后自动迁移失败），非严格模式下被截断导致无法登录
+-- 必须先执行本脚本，再将 password.hash.algorithm 切换为 bcrypt
+
+USE sso_db;
+
+ALTER TABLE sys_user MODIFY COLUMN password VARCHAR(100) NOT NULL COMMENT '密码哈希（MD5+盐值为32位，BCrypt为60位）';
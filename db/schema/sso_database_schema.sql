@@ -13,6 +13,9 @@ DROP DATABASE IF EXISTS sso_db;
 CREATE DATABASE sso_db CHARACTER SET utf8mb4 COLLATE utf8mb4_unicode_ci;
 USE sso_db;
 
+-- 关闭全文索引停用词：ngram分词下含停用词的词元不会被索引，导致部分关键字搜不到
+SET GLOBAL innodb_ft_enable_stopword = OFF;
+
 -- ========================================
 -- 第一部分：核心业务表
 -- ========================================
@@ -21,7 +24,7 @@ USE sso_db;
 CREATE TABLE sys_user (
                           id BIGINT PRIMARY KEY AUTO_INCREMENT COMMENT '用户ID',
                           username VARCHAR(50) NOT NULL UNIQUE COMMENT '用户名',
-                          password VARCHAR(32) NOT NULL COMMENT '密码（MD5+盐值加密，32位MD5哈希）',
+                          password VARCHAR(100) NOT NULL COMMENT '密码哈希（MD5+盐值为32位，BCrypt为60位）',
                           salt VARCHAR(32) NOT NULL COMMENT '密码盐值，32位随机字符串，用于MD5加密',
                           nickname VARCHAR(100) COMMENT '昵称',
                           real_name VARCHAR(50) COMMENT '真实姓名',
@@ -54,7 +57,9 @@ CREATE TABLE sys_user (
                           INDEX idx_status (status),
                           INDEX idx_user_type (user_type),
                           INDEX idx_salt (salt),
-                          INDEX idx_create_time (create_time)
+                          INDEX idx_create_time (create_time),
+    -- 用户搜索（ngram全文索引，建表前需关闭InnoDB全文停用词，见 db/fix/add_user_search_index.sql）
+                          FULLTEXT INDEX ft_user_search (username, nickname, real_name, phone, email) WITH PARSER ngram
 ) COMMENT '用户信息表';
 
 -- 2. 角色表
@@ -6,6 +6,7 @@ import cn.hutool.json.JSONObject;
 import cn.hutool.json.JSONUtil;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.ssoclient.security.SignedAccessTokenVerifier;
 import org.example.ssoclient.service.UserInfoService;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.redis.core.RedisTemplate;
@@ -33,6 +34,7 @@ public class SsoClientController {
 
     private final UserInfoService userInfoService;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final SignedAccessTokenVerifier accessTokenVerifier;
 
     // 防循环重定向配置
     private static final int MAX_REDIRECT_COUNT = 3;
@@ -446,6 +448,31 @@ public class SsoClientController {
 
 
 
+    /**
+     * 本地校验SSO-Server签发的访问令牌（需SSO-Server启用无状态令牌模式）
+     */
+    @GetMapping("/sso/verify-access-token")
+    public Object verifyAccessToken(@RequestParam String token) {
+        if (!accessTokenVerifier.isEnabled()) {
+            return Map.of("code", 400, "message", "未启用签名访问令牌校验");
+        }
+        SignedAccessTokenVerifier.Claims claims = accessTokenVerifier.verify(token);
+        if (claims == null) {
+            return Map.of("code", 200, "data", Map.of(
+                "valid", false,
+                "revoked", accessTokenVerifier.isRevoked(token)
+            ));
+        }
+        return Map.of(
+            "code", 200,
+            "data", Map.of(
+                "valid", true,
+                "userId", claims.getUserId(),
+                "expireAt", claims.getExpireAt()
+            )
+        );
+    }
+
     /**
      * 首页
      */
@@ -0,0 +1,267 @@
+package org.example.ssoclient.security;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.example.common.util.BloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SSO-Server签名访问令牌本地校验器
+ * SSO-Server启用无状态令牌模式（access-token.mode=stateless）后，访问令牌为
+ * {@code sst.<userId>.<签发时间>.<过期时间>.<令牌ID>.<HMAC-SHA256签名>}，
+ * 业务系统可直接在本地验签，无需调用 /auth/verify。令牌不携带权限信息，权限仍以SSO-Server为准；
+ * 旧格式令牌在令牌ID前多一个权限版本字段，过期前仍可校验，该字段被忽略。
+ *
+ * <p>撤销名单与SSO-Server共享：启动时及定时按Redis ZSET {@code sso:token:denylist} 构建本地布隆过滤器，
+ * 之后通过同名频道接收撤销增量。过滤器未命中即判定未撤销，不产生I/O；命中时查询一次Redis确认。
+ * 撤销标识的计算方式与SSO-Server的 AccessTokenDenylist 一致。</p>
+ */
+@Slf4j
+@Component
+public class SignedAccessTokenVerifier {
+
+    private static final String TOKEN_PREFIX = "sst.";
+    private static final String DENYLIST_KEY = "sso:token:denylist";
+    private static final String DENYLIST_CHANNEL = "sso:token:denylist";
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int PAYLOAD_FIELD_COUNT = 4;
+    // 旧格式（含权限版本字段）
+    private static final int LEGACY_PAYLOAD_FIELD_COUNT = 5;
+    private static final String HASHED_KEY_PREFIX = "h:";
+    private static final int HASHED_KEY_BYTES = 16;
+    private static final int MAX_CONFIRMED_ENTRIES = 10000;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+    private final boolean enabled;
+    private final SecretKeySpec secretKey;
+    private final ThreadLocal<Mac> macHolder = ThreadLocal.withInitial(this::newMac);
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+    private final long rebuildIntervalMillis;
+
+    private volatile BloomFilter filter;
+    // 重建期间收到的增量同时写入新过滤器
+    private volatile BloomFilter rebuilding;
+    // 过滤器命中后经Redis确认的结果：撤销标识 → 是否已撤销
+    private final Map<String, Boolean> confirmed = new ConcurrentHashMap<>();
+
+    private final ScheduledExecutorService rebuildExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "token-denylist-rebuild");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    public SignedAccessTokenVerifier(StringRedisTemplate stringRedisTemplate,
+                                     RedisMessageListenerContainer listenerContainer,
+                                     @Value("${access-token.enabled:false}") boolean enabled,
+                                     @Value("${access-token.secret:}") String secret,
+                                     @Value("${access-token.denylist.expected-insertions:100000}") long expectedInsertions,
+                                     @Value("${access-token.denylist.false-positive-rate:0.001}") double falsePositiveRate,
+                                     @Value("${access-token.denylist.rebuild-interval-millis:600000}") long rebuildIntervalMillis) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.listenerContainer = listenerContainer;
+        this.enabled = enabled && !secret.isEmpty();
+        this.secretKey = this.enabled ? new SecretKeySpec(secret.getBytes(StandardCharsets.UTF_8), ALGORITHM) : null;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.rebuildIntervalMillis = rebuildIntervalMillis;
+        this.filter = BloomFilter.create(expectedInsertions, falsePositiveRate);
+        if (enabled && !this.enabled) {
+            log.warn("未配置 access-token.secret，签名访问令牌本地校验未启用");
+        }
+    }
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        listenerContainer.addMessageListener((message, pattern) ->
+                onRevoked(new String(message.getBody(), StandardCharsets.UTF_8)), new ChannelTopic(DENYLIST_CHANNEL));
+        rebuild();
+        rebuildExecutor.scheduleWithFixedDelay(this::rebuild, rebuildIntervalMillis, rebuildIntervalMillis,
+                TimeUnit.MILLISECONDS);
+        log.info("签名访问令牌本地校验已启用");
+    }
+
+    @PreDestroy
+    public void destroy() {
+        rebuildExecutor.shutdownNow();
+    }
+
+    /**
+     * 是否启用
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 本地校验签名访问令牌
+     *
+     * @return 校验通过返回声明，签名无效、已过期或已撤销返回null
+     */
+    public Claims verify(String token) {
+        if (!enabled || token == null || !token.startsWith(TOKEN_PREFIX)) {
+            return null;
+        }
+        int signatureStart = token.lastIndexOf('.');
+        if (signatureStart <= TOKEN_PREFIX.length()) {
+            return null;
+        }
+        String payload = token.substring(TOKEN_PREFIX.length(), signatureStart);
+        try {
+            byte[] signature = Base64.getUrlDecoder().decode(token.substring(signatureStart + 1));
+            byte[] expected = macHolder.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+            if (!MessageDigest.isEqual(signature, expected)) {
+                return null;
+            }
+            String[] fields = payload.split("\\.");
+            if (fields.length != PAYLOAD_FIELD_COUNT && fields.length != LEGACY_PAYLOAD_FIELD_COUNT) {
+                return null;
+            }
+            Claims claims = new Claims(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                    Long.parseLong(fields[2]), fields[fields.length - 1]);
+            long now = System.currentTimeMillis() / 1000;
+            if ((claims.getExpireAt() > 0 && claims.getExpireAt() <= now) || isRevokedKey(claims.getTokenId())) {
+                return null;
+            }
+            return claims;
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * 令牌是否已被SSO-Server撤销（签名令牌与随机令牌均可）
+     */
+    public boolean isRevoked(String token) {
+        return enabled && token != null && isRevokedKey(revocationKey(token));
+    }
+
+    // ========================================
+    // 私有辅助方法
+    // ========================================
+
+    private boolean isRevokedKey(String key) {
+        if (!filter.mightContain(key)) {
+            return false;
+        }
+        Boolean cached = confirmed.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        boolean revoked;
+        try {
+            Double expireAt = stringRedisTemplate.opsForZSet().score(DENYLIST_KEY, key);
+            revoked = expireAt != null && expireAt > System.currentTimeMillis() / 1000;
+        } catch (Exception e) {
+            log.warn("确认访问令牌撤销状态失败，按已撤销处理: key={}, error={}", key, e.getMessage());
+            return true;
+        }
+        if (confirmed.size() >= MAX_CONFIRMED_ENTRIES) {
+            confirmed.clear();
+        }
+        confirmed.put(key, revoked);
+        return revoked;
+    }
+
+    /**
+     * 撤销标识：签名令牌为令牌ID，其他令牌为SHA-256前16字节（Base64URL）
+     */
+    private String revocationKey(String token) {
+        if (token.startsWith(TOKEN_PREFIX)) {
+            String[] parts = token.split("\\.");
+            if (parts.length == PAYLOAD_FIELD_COUNT + 2 || parts.length == LEGACY_PAYLOAD_FIELD_COUNT + 2) {
+                return parts[parts.length - 2];
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HASHED_KEY_PREFIX + Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(Arrays.copyOf(digest, HASHED_KEY_BYTES));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    private void rebuild() {
+        BloomFilter next = BloomFilter.create(expectedInsertions, falsePositiveRate);
+        rebuilding = next;
+        try {
+            long now = System.currentTimeMillis() / 1000;
+            Set<ZSetOperations.TypedTuple<String>> entries =
+                    stringRedisTemplate.opsForZSet().rangeByScoreWithScores(DENYLIST_KEY, now + 1, Double.POSITIVE_INFINITY);
+            if (entries != null) {
+                entries.forEach(entry -> next.put(entry.getValue()));
+            }
+            filter = next;
+            confirmed.clear();
+            log.debug("访问令牌撤销过滤器已重建: size={}", entries != null ? entries.size() : 0);
+        } catch (Exception e) {
+            log.error("重建访问令牌撤销过滤器失败", e);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    private void onRevoked(String payload) {
+        int separator = payload.lastIndexOf(':');
+        if (separator <= 0) {
+            return;
+        }
+        String key = payload.substring(0, separator);
+        filter.put(key);
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(key);
+        }
+        confirmed.put(key, Boolean.TRUE);
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("初始化访问令牌签名算法失败", e);
+        }
+    }
+
+    /**
+     * 令牌声明
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Claims {
+        private final long userId;
+        private final long issuedAt;
+        // 过期时间（秒），0表示永不过期
+        private final long expireAt;
+        private final String tokenId;
+    }
+}
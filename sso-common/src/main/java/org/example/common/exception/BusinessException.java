@@ -227,6 +227,13 @@ public class BusinessException extends RuntimeException {
         return new BusinessException(ResultCode.LOGIN_FAIL_TOO_MANY);
     }
     
+    /**
+     * 创建请求过于频繁异常
+     */
+    public static BusinessException tooManyRequests() {
+        return new BusinessException(ResultCode.TOO_MANY_REQUESTS);
+    }
+    
     /**
      * 创建SSO票据无效异常
      */
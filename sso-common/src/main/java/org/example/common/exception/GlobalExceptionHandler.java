@@ -18,6 +18,7 @@ import org.springframework.web.servlet.NoHandlerFoundException;
 import org.springframework.web.servlet.resource.NoResourceFoundException;
 
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.ConstraintViolation;
 import jakarta.validation.ConstraintViolationException;
 import java.util.List;
@@ -36,11 +37,15 @@ public class GlobalExceptionHandler {
      * 处理业务异常
      */
     @ExceptionHandler(BusinessException.class)
-    @ResponseStatus(HttpStatus.OK)
-    public ApiResponse<Object> handleBusinessException(BusinessException e, HttpServletRequest request) {
+    public ApiResponse<Object> handleBusinessException(BusinessException e, HttpServletRequest request,
+                                                       HttpServletResponse response) {
         log.warn("业务异常: {} - {}", e.getCode(), e.getMessage());
         logRequestInfo(request, e);
         
+        // 过载拒绝使用429状态码，便于网关和客户端退避重试；其余业务异常仍为200
+        response.setStatus(ResultCode.TOO_MANY_REQUESTS.getCode().equals(e.getCode())
+                ? HttpStatus.TOO_MANY_REQUESTS.value() : HttpStatus.OK.value());
+        
         return ApiResponse.error(e.getCode(), e.getMessage(), e.getData())
                          .requestId(getRequestId(request));
     }
@@ -0,0 +1,90 @@
+package org.example.common.model;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * 游标分页结果封装类
+ * 按排序键定位下一页，翻页开销与页码无关；总数可选且可能为近似值
+ *
+ * @param <T> 数据类型
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class CursorPageResult<T> {
+
+    /**
+     * 当前页数据列表
+     */
+    private List<T> list;
+
+    /**
+     * 每页大小
+     */
+    private Integer pageSize;
+
+    /**
+     * 下一页游标（没有下一页时为空）
+     */
+    private String nextCursor;
+
+    /**
+     * 是否有下一页
+     */
+    private Boolean hasNext;
+
+    /**
+     * 总记录数（未请求时为空）
+     */
+    private Long total;
+
+    /**
+     * 总记录数是否精确（超过统计上限时为false，total为上限值）
+     */
+    private Boolean totalExact;
+
+    // ========================================
+    // 静态工厂方法
+    // ========================================
+
+    /**
+     * 创建空的游标分页结果
+     */
+    public static <T> CursorPageResult<T> empty(Integer pageSize) {
+        return CursorPageResult.<T>builder()
+                .list(Collections.emptyList())
+                .pageSize(pageSize)
+                .hasNext(false)
+                .build();
+    }
+
+    /**
+     * 创建游标分页结果
+     */
+    public static <T> CursorPageResult<T> of(List<T> list, Integer pageSize, String nextCursor) {
+        return CursorPageResult.<T>builder()
+                .list(list != null ? list : Collections.emptyList())
+                .pageSize(pageSize)
+                .nextCursor(nextCursor)
+                .hasNext(nextCursor != null)
+                .build();
+    }
+
+    /**
+     * 附加总记录数
+     */
+    public CursorPageResult<T> withTotal(long total, boolean exact) {
+        this.total = total;
+        this.totalExact = exact;
+        return this;
+    }
+}
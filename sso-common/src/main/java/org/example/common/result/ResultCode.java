@@ -16,6 +16,7 @@ public enum ResultCode {
     NOT_FOUND(404, "资源不存在"),
     METHOD_NOT_ALLOWED(405, "请求方法不支持"),
     PARAM_ERROR(400, "参数错误"),
+    TOO_MANY_REQUESTS(429, "请求过于频繁，请稍后重试"),
     
     // 用户相关 (1000-1999)
     USER_NOT_FOUND(1001, "用户不存在"),
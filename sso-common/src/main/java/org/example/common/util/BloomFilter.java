@@ -0,0 +1,159 @@
+package org.example.common.util;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 线程安全的字符串布隆过滤器
+ * 位数组使用 AtomicLongArray，写入与查询可并发进行且无锁；
+ * mightContain 返回 false 表示一定不存在，返回 true 表示可能存在（存在误判）。
+ *
+ * <p>k 个哈希位置由两个64位哈希按双重哈希法 {@code h1 + i * h2} 生成。</p>
+ *
+ * <p>可通过 {@link #writeTo(Path)} 离线导出为文件，再由 {@link MappedBloomFilter} 以内存映射方式只读加载。</p>
+ */
+public class BloomFilter {
+
+    private final AtomicLongArray bits;
+    private final long bitSize;
+    private final int hashCount;
+
+    private BloomFilter(long bitSize, int hashCount) {
+        // 向上取整到64位
+        int words = (int) ((bitSize + 63) >>> 6);
+        this.bits = new AtomicLongArray(words);
+        this.bitSize = (long) words << 6;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * 按预期元素数量与误判率创建
+     *
+     * @param expectedInsertions 预期元素数量
+     * @param falsePositiveRate 期望误判率（0~1）
+     */
+    public static BloomFilter create(long expectedInsertions, double falsePositiveRate) {
+        if (expectedInsertions <= 0) {
+            expectedInsertions = 1;
+        }
+        if (falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("误判率必须在0到1之间: " + falsePositiveRate);
+        }
+        long bitSize = (long) Math.ceil(-expectedInsertions * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        int hashCount = Math.max(1, (int) Math.round((double) bitSize / expectedInsertions * Math.log(2)));
+        return new BloomFilter(Math.max(64, bitSize), hashCount);
+    }
+
+    /**
+     * 写入元素
+     *
+     * @return 是否有位发生变化（false 表示元素可能已存在）
+     */
+    public boolean put(String value) {
+        long h1 = hash1(value);
+        long h2 = hash2(h1);
+        boolean changed = false;
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            changed |= setBit(index);
+        }
+        return changed;
+    }
+
+    /**
+     * 是否可能包含元素
+     */
+    public boolean mightContain(String value) {
+        long h1 = hash1(value);
+        long h2 = hash2(h1);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            if ((bits.get((int) (index >>> 6)) & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 位数组大小（位）
+     */
+    public long bitSize() {
+        return bitSize;
+    }
+
+    /**
+     * 哈希函数个数
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+
+    /**
+     * 导出为 {@link MappedBloomFilter} 文件格式
+     */
+    public void writeTo(Path file) throws IOException {
+        try (OutputStream stream = Files.newOutputStream(file);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream, 1 << 16))) {
+            out.writeInt(MappedBloomFilter.MAGIC);
+            out.writeInt(MappedBloomFilter.FORMAT_VERSION);
+            out.writeInt(hashCount);
+            out.writeInt(0);
+            out.writeLong(bitSize);
+            for (int i = 0; i < bits.length(); i++) {
+                out.writeLong(bits.get(i));
+            }
+        }
+    }
+
+    // ========================================
+    // 哈希函数（与 MappedBloomFilter 共用）
+    // ========================================
+
+    /**
+     * FNV-1a 64位哈希，再经 SplitMix64 混合
+     */
+    static long hash1(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= 0x100000001b3L;
+        }
+        return mix(hash);
+    }
+
+    static long hash2(long h1) {
+        // 第二个哈希必须为奇数，保证步长不为0
+        return mix(h1 ^ 0x9e3779b97f4a7c15L) | 1L;
+    }
+
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+    // ========================================
+    // 私有辅助方法
+    // ========================================
+
+    private boolean setBit(long index) {
+        int word = (int) (index >>> 6);
+        long mask = 1L << index;
+        while (true) {
+            long current = bits.get(word);
+            if ((current & mask) != 0) {
+                return false;
+            }
+            if (bits.compareAndSet(word, current, current | mask)) {
+                return true;
+            }
+        }
+    }
+}
@@ -0,0 +1,31 @@
+package org.example.common.util;
+
+import org.example.common.enums.DeviceType;
+
+/**
+ * User-Agent解析结果（不可变，可在线程间共享缓存）
+ *
+ * @param browser    浏览器名称
+ * @param os         操作系统
+ * @param deviceType 设备类型
+ * @param suspicious 是否为可疑User-Agent（过短、爬虫或自动化工具）
+ */
+public record DeviceInfo(String browser, String os, DeviceType deviceType, boolean suspicious) {
+
+    /**
+     * User-Agent为null时的解析结果
+     */
+    public static final DeviceInfo UNKNOWN = new DeviceInfo("Unknown", "Unknown", DeviceType.UNKNOWN, true);
+
+    /**
+     * 空白User-Agent的解析结果，设备类型沿用旧版本对空白字符串返回的 DESKTOP
+     */
+    public static final DeviceInfo BLANK = new DeviceInfo("Unknown", "Unknown", DeviceType.DESKTOP, true);
+
+    /**
+     * 设备信息描述，如 "Google Chrome on Windows 10"
+     */
+    public String summary() {
+        return browser + " on " + os;
+    }
+}
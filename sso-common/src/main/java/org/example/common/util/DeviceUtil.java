@@ -1,5 +1,6 @@
 package org.example.common.util;
 
+import cn.hutool.cache.impl.LRUCache;
 import cn.hutool.core.util.StrUtil;
 import cn.hutool.crypto.digest.DigestUtil;
 import lombok.extern.slf4j.Slf4j;
@@ -17,34 +18,67 @@ import java.util.regex.Pattern;
 @Slf4j
 public class DeviceUtil {
     
+    // 版本号提取（预编译，解析时不再重复编译）
+    private static final Pattern MAC_VERSION_PATTERN = Pattern.compile("Mac OS X ([\\d_]+)");
+    private static final Pattern ANDROID_VERSION_PATTERN = Pattern.compile("Android ([\\d.]+)");
+    private static final Pattern IOS_VERSION_PATTERN = Pattern.compile("OS ([\\d_]+)");
+    
+    // 爬虫及自动化工具特征
+    private static final Pattern AUTOMATION_PATTERN = Pattern.compile("bot|crawler|spider|curl|wget", Pattern.CASE_INSENSITIVE);
+    
     /**
-     * 解析User-Agent获取设备信息
+     * 解析结果缓存容量：实际流量中不同的User-Agent数量很少
      */
-    public static Map<String, String> parseUserAgent(String userAgent) {
-        Map<String, String> deviceInfo = new HashMap<>();
-        
+    private static final int CACHE_CAPACITY = 1024;
+    
+    /**
+     * 超过该长度的User-Agent不缓存，避免异常请求占用缓存内存
+     */
+    private static final int MAX_CACHED_LENGTH = 512;
+    
+    private static final LRUCache<String, DeviceInfo> PARSE_CACHE = new LRUCache<>(CACHE_CAPACITY);
+    
+    /**
+     * 解析User-Agent（带LRU缓存）
+     * 一次解析得到浏览器、操作系统、设备类型和可疑标记，其余便捷方法均基于此结果；
+     * null 返回 {@link DeviceInfo#UNKNOWN}，空白字符串返回 {@link DeviceInfo#BLANK}
+     */
+    public static DeviceInfo parse(String userAgent) {
+        if (userAgent == null) {
+            return DeviceInfo.UNKNOWN;
+        }
         if (StrUtil.isBlank(userAgent)) {
-            deviceInfo.put("browser", "Unknown");
-            deviceInfo.put("os", "Unknown");
-            deviceInfo.put("deviceType", "Unknown");
-            return deviceInfo;
+            return DeviceInfo.BLANK;
         }
-        
-        // 解析浏览器
-        String browser = parseBrowser(userAgent);
-        deviceInfo.put("browser", browser);
-        
-        // 解析操作系统
-        String os = parseOperatingSystem(userAgent);
-        deviceInfo.put("os", os);
-        
-        // 解析设备类型
-        String deviceType = parseDeviceType(userAgent);
-        deviceInfo.put("deviceType", deviceType);
-        
+        if (userAgent.length() > MAX_CACHED_LENGTH) {
+            return doParse(userAgent);
+        }
+        DeviceInfo cached = PARSE_CACHE.get(userAgent);
+        if (cached == null) {
+            cached = doParse(userAgent);
+            PARSE_CACHE.put(userAgent, cached);
+        }
+        return cached;
+    }
+    
+    /**
+     * 解析User-Agent获取设备信息（兼容旧接口）
+     */
+    public static Map<String, String> parseUserAgent(String userAgent) {
+        DeviceInfo info = parse(userAgent);
+        Map<String, String> deviceInfo = new HashMap<>();
+        deviceInfo.put("browser", info.browser());
+        deviceInfo.put("os", info.os());
+        deviceInfo.put("deviceType", StrUtil.isBlank(userAgent) ? "Unknown" : info.deviceType().getCode());
         return deviceInfo;
     }
     
+    private static DeviceInfo doParse(String userAgent) {
+        boolean suspicious = userAgent.length() < 10 || AUTOMATION_PATTERN.matcher(userAgent).find();
+        return new DeviceInfo(parseBrowser(userAgent), parseOperatingSystem(userAgent),
+                parseDeviceType(userAgent), suspicious);
+    }
+    
     /**
      * 解析浏览器
      */
@@ -55,7 +89,7 @@ public class DeviceUtil {
             return "Google Chrome";
         } else if (userAgent.contains("Firefox/")) {
             return "Mozilla Firefox";
-        } else if (userAgent.contains("Safari/") && !userAgent.contains("Chrome/")) {
+        } else if (userAgent.contains("Safari/")) {
             return "Safari";
         } else if (userAgent.contains("Opera/") || userAgent.contains("OPR/")) {
             return "Opera";
@@ -85,16 +119,14 @@ public class DeviceUtil {
         } else if (userAgent.contains("Windows")) {
             return "Windows";
         } else if (userAgent.contains("Mac OS X")) {
-            Pattern pattern = Pattern.compile("Mac OS X ([\\d_]+)");
-            Matcher matcher = pattern.matcher(userAgent);
+            Matcher matcher = MAC_VERSION_PATTERN.matcher(userAgent);
             if (matcher.find()) {
                 return "macOS " + matcher.group(1).replace("_", ".");
             }
             return "macOS";
         } else if (userAgent.contains("Linux")) {
             if (userAgent.contains("Android")) {
-                Pattern pattern = Pattern.compile("Android ([\\d.]+)");
-                Matcher matcher = pattern.matcher(userAgent);
+                Matcher matcher = ANDROID_VERSION_PATTERN.matcher(userAgent);
                 if (matcher.find()) {
                     return "Android " + matcher.group(1);
                 }
@@ -102,8 +134,7 @@ public class DeviceUtil {
             }
             return "Linux";
         } else if (userAgent.contains("iPhone") || userAgent.contains("iPad")) {
-            Pattern pattern = Pattern.compile("OS ([\\d_]+)");
-            Matcher matcher = pattern.matcher(userAgent);
+            Matcher matcher = IOS_VERSION_PATTERN.matcher(userAgent);
             if (matcher.find()) {
                 return "iOS " + matcher.group(1).replace("_", ".");
             }
@@ -116,15 +147,15 @@ public class DeviceUtil {
     /**
      * 解析设备类型
      */
-    private static String parseDeviceType(String userAgent) {
+    private static DeviceType parseDeviceType(String userAgent) {
         if (userAgent.contains("Mobile") || userAgent.contains("Android") ||
             userAgent.contains("iPhone") || userAgent.contains("BlackBerry") ||
             userAgent.contains("Windows Phone")) {
-            return "mobile";
+            return DeviceType.MOBILE;
         } else if (userAgent.contains("iPad") || userAgent.contains("Tablet")) {
-            return "tablet";
+            return DeviceType.TABLET;
         } else {
-            return "desktop";
+            return DeviceType.DESKTOP;
         }
     }
     
@@ -149,21 +180,19 @@ public class DeviceUtil {
      * 获取设备名称
      */
     public static String getDeviceName(String userAgent) {
-        Map<String, String> deviceInfo = parseUserAgent(userAgent);
-        String browser = deviceInfo.get("browser");
-        String os = deviceInfo.get("os");
-        String deviceType = deviceInfo.get("deviceType");
+        DeviceInfo info = parse(userAgent);
+        String os = info.os();
         
         StringBuilder deviceName = new StringBuilder();
         
-        switch (deviceType) {
-            case "mobile":
+        switch (info.deviceType()) {
+            case MOBILE:
                 deviceName.append("手机");
                 break;
-            case "tablet":
+            case TABLET:
                 deviceName.append("平板");
                 break;
-            case "desktop":
+            case DESKTOP:
                 deviceName.append("电脑");
                 break;
             default:
@@ -171,7 +200,7 @@ public class DeviceUtil {
                 break;
         }
         
-        if (!"Unknown OS".equals(os)) {
+        if (!"Unknown OS".equals(os) && !"Unknown".equals(os)) {
             deviceName.append(" (").append(os).append(")");
         }
         
@@ -182,20 +211,15 @@ public class DeviceUtil {
      * 判断是否为移动设备
      */
     public static boolean isMobileDevice(String userAgent) {
-        if (StrUtil.isBlank(userAgent)) {
-            return false;
-        }
-
-        String deviceType = parseDeviceType(userAgent);
-        return "mobile".equals(deviceType) || "tablet".equals(deviceType);
+        DeviceType deviceType = parse(userAgent).deviceType();
+        return deviceType == DeviceType.MOBILE || deviceType == DeviceType.TABLET;
     }
 
     /**
      * 获取设备信息字符串
      */
     public static String getDeviceInfo(String userAgent) {
-        Map<String, String> deviceInfo = parseUserAgent(userAgent);
-        return String.format("%s on %s", deviceInfo.get("browser"), deviceInfo.get("os"));
+        return parse(userAgent).summary();
     }
 
     /**
@@ -209,16 +233,14 @@ public class DeviceUtil {
      * 获取浏览器名称
      */
     public static String getBrowserName(String userAgent) {
-        Map<String, String> deviceInfo = parseUserAgent(userAgent);
-        return deviceInfo.get("browser");
+        return parse(userAgent).browser();
     }
 
     /**
      * 获取操作系统
      */
     public static String getOperatingSystem(String userAgent) {
-        Map<String, String> deviceInfo = parseUserAgent(userAgent);
-        return deviceInfo.get("os");
+        return parse(userAgent).os();
     }
 
     /**
@@ -229,38 +251,14 @@ public class DeviceUtil {
             return "MEDIUM";
         }
 
-        // 检查是否为可疑User-Agent
-        if (StrUtil.isBlank(userAgent) || userAgent.length() < 10) {
-            return "HIGH";
-        }
-
-        // 检查是否为爬虫或自动化工具
-        String lowerUserAgent = userAgent.toLowerCase();
-        if (lowerUserAgent.contains("bot") ||
-            lowerUserAgent.contains("crawler") ||
-            lowerUserAgent.contains("spider") ||
-            lowerUserAgent.contains("curl") ||
-            lowerUserAgent.contains("wget")) {
-            return "HIGH";
-        }
-
-        return "LOW";
+        // 可疑User-Agent：为空、过短、爬虫或自动化工具
+        return parse(userAgent).suspicious() ? "HIGH" : "LOW";
     }
 
     /**
      * 获取设备类型
      */
     public static DeviceType getDeviceType(String userAgent) {
-        String deviceTypeStr = parseDeviceType(userAgent);
-        switch (deviceTypeStr) {
-            case "mobile":
-                return DeviceType.MOBILE;
-            case "tablet":
-                return DeviceType.TABLET;
-            case "desktop":
-                return DeviceType.DESKTOP;
-            default:
-                return DeviceType.UNKNOWN;
-        }
+        return parse(userAgent).deviceType();
     }
 }
@@ -0,0 +1,92 @@
+package org.example.common.util;
+
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * 内存映射的只读布隆过滤器
+ * 由 {@link BloomFilter#writeTo(Path)} 离线生成的文件直接映射到内存，位数组不占用堆，
+ * 加载只需读取文件头，页面按需由操作系统调入。
+ *
+ * <p>文件格式（大端序）：魔数(int) + 格式版本(int) + 哈希函数个数(int) + 保留(int) + 位数(long) + 位数组(long[])。
+ * 单个文件最大约2GB（约170亿位）。</p>
+ */
+public class MappedBloomFilter {
+
+    static final int MAGIC = 0x53424C46;
+    static final int FORMAT_VERSION = 1;
+    static final int HEADER_LENGTH = 24;
+
+    private final MappedByteBuffer buffer;
+    private final long bitSize;
+    private final int hashCount;
+
+    private MappedBloomFilter(MappedByteBuffer buffer, long bitSize, int hashCount) {
+        this.buffer = buffer;
+        this.bitSize = bitSize;
+        this.hashCount = hashCount;
+    }
+
+    /**
+     * 映射过滤器文件
+     *
+     * @throws IOException 文件不存在、过大或格式不正确
+     */
+    public static MappedBloomFilter open(Path file) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size < HEADER_LENGTH || size > Integer.MAX_VALUE) {
+                throw new IOException("布隆过滤器文件大小无效: " + size);
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+            buffer.order(ByteOrder.BIG_ENDIAN);
+            if (buffer.getInt(0) != MAGIC) {
+                throw new IOException("不是布隆过滤器文件: " + file);
+            }
+            int version = buffer.getInt(4);
+            if (version != FORMAT_VERSION) {
+                throw new IOException("不支持的布隆过滤器文件版本: " + version);
+            }
+            int hashCount = buffer.getInt(8);
+            long bitSize = buffer.getLong(16);
+            if (hashCount <= 0 || bitSize <= 0 || (bitSize & 63) != 0 || HEADER_LENGTH + (bitSize >>> 3) != size) {
+                throw new IOException("布隆过滤器文件头与文件大小不一致: " + file);
+            }
+            return new MappedBloomFilter(buffer, bitSize, hashCount);
+        }
+    }
+
+    /**
+     * 是否可能包含元素
+     */
+    public boolean mightContain(String value) {
+        long h1 = BloomFilter.hash1(value);
+        long h2 = BloomFilter.hash2(h1);
+        for (int i = 0; i < hashCount; i++) {
+            long index = Long.remainderUnsigned(h1 + i * h2, bitSize);
+            long word = buffer.getLong(HEADER_LENGTH + (int) (index >>> 6) * 8);
+            if ((word & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 位数组大小（位）
+     */
+    public long bitSize() {
+        return bitSize;
+    }
+
+    /**
+     * 哈希函数个数
+     */
+    public int hashCount() {
+        return hashCount;
+    }
+}
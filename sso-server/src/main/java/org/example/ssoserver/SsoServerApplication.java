@@ -4,12 +4,14 @@ import org.mybatis.spring.annotation.MapperScan;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication(
     scanBasePackages = {"org.example.ssoserver", "org.example.common"},
     exclude = {SecurityAutoConfiguration.class}  // 排除Spring Security自动配置
 )
 @MapperScan(basePackages = "org.example.ssoserver.mapper")
+@EnableScheduling
 public class SsoServerApplication {
 
 	public static void main(String[] args) {
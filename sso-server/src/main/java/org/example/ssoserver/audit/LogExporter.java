@@ -0,0 +1,253 @@
+package org.example.ssoserver.audit;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ssoserver.entity.SecurityEventLog;
+import org.example.ssoserver.entity.SysLoginLog;
+import org.example.ssoserver.mapper.SecurityEventLogMapper;
+import org.example.ssoserver.mapper.SysLoginLogMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.function.Function;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * 审计日志导出
+ * 按ID游标分批读取登录日志 / 安全事件，逐行写出为CSV或NDJSON：
+ * <ul>
+ *     <li>每批读取后立即写出并丢弃，内存占用只与批大小有关，与导出总行数无关</li>
+ *     <li>按主键游标翻页不需要长事务，也不会像流式结果集那样在导出期间独占数据库连接</li>
+ *     <li>可选gzip压缩，直接写入调用方提供的输出流（通常是HTTP响应流）</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class LogExporter {
+
+    /**
+     * 日志类型
+     */
+    public enum LogType {
+        /** 登录日志 sys_login_log */
+        LOGIN,
+        /** 安全事件日志 security_event_log */
+        SECURITY_EVENT
+    }
+
+    /**
+     * 导出格式
+     */
+    public enum Format {
+        CSV,
+        NDJSON
+    }
+
+    /**
+     * 导出条件（均可为空）
+     *
+     * @param userId 用户ID
+     * @param username 用户账号（仅登录日志）
+     * @param startTime 开始时间（含）
+     * @param endTime 结束时间（不含）
+     */
+    public record Query(Long userId, String username, LocalDateTime startTime, LocalDateTime endTime) {
+    }
+
+    private static final DateTimeFormatter TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+
+    private static final List<Column<SysLoginLog>> LOGIN_COLUMNS = List.of(
+            new Column<>("id", SysLoginLog::getId),
+            new Column<>("userId", SysLoginLog::getUserId),
+            new Column<>("username", SysLoginLog::getUsername),
+            new Column<>("loginType", SysLoginLog::getLoginType),
+            new Column<>("loginIp", SysLoginLog::getLoginIp),
+            new Column<>("loginLocation", SysLoginLog::getLoginLocation),
+            new Column<>("browser", SysLoginLog::getBrowser),
+            new Column<>("os", SysLoginLog::getOs),
+            new Column<>("deviceType", SysLoginLog::getDeviceType),
+            new Column<>("deviceFingerprint", SysLoginLog::getDeviceFingerprint),
+            new Column<>("loginTime", SysLoginLog::getLoginTime),
+            new Column<>("status", SysLoginLog::getStatus),
+            new Column<>("msg", SysLoginLog::getMsg));
+
+    private static final List<Column<SecurityEventLog>> SECURITY_EVENT_COLUMNS = List.of(
+            new Column<>("id", SecurityEventLog::getId),
+            new Column<>("userId", SecurityEventLog::getUserId),
+            new Column<>("eventType", SecurityEventLog::getEventType),
+            new Column<>("eventDescription", SecurityEventLog::getEventDescription),
+            new Column<>("clientIp", SecurityEventLog::getClientIp),
+            new Column<>("userAgent", SecurityEventLog::getUserAgent),
+            new Column<>("riskLevel", SecurityEventLog::getRiskLevel),
+            new Column<>("isHandled", SecurityEventLog::getIsHandled),
+            new Column<>("createTime", SecurityEventLog::getCreateTime));
+
+    private final SysLoginLogMapper loginLogMapper;
+    private final SecurityEventLogMapper securityEventLogMapper;
+    private final int batchSize;
+    private final JsonFactory jsonFactory = new JsonFactory();
+
+    public LogExporter(SysLoginLogMapper loginLogMapper,
+                       SecurityEventLogMapper securityEventLogMapper,
+                       @Value("${log-export.batch-size:1000}") int batchSize) {
+        this.loginLogMapper = loginLogMapper;
+        this.securityEventLogMapper = securityEventLogMapper;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * 导出日志到输出流（输出流由调用方关闭）
+     *
+     * @param type 日志类型
+     * @param format 导出格式
+     * @param gzip 是否gzip压缩
+     * @param query 导出条件
+     * @param out 输出流
+     * @return 导出行数
+     */
+    public long export(LogType type, Format format, boolean gzip, Query query, OutputStream out) throws IOException {
+        GZIPOutputStream gzipOut = gzip ? new GZIPOutputStream(out, 8192) : null;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(gzipOut != null ? gzipOut : out, StandardCharsets.UTF_8));
+
+        long rows = switch (type) {
+            case LOGIN -> exportRows(writer, format, LOGIN_COLUMNS, SysLoginLog::getId,
+                    afterId -> loginLogMapper.selectForExport(afterId, query.userId(), query.username(),
+                            query.startTime(), query.endTime(), batchSize));
+            case SECURITY_EVENT -> exportRows(writer, format, SECURITY_EVENT_COLUMNS, SecurityEventLog::getId,
+                    afterId -> securityEventLogMapper.selectForExport(afterId, query.userId(),
+                            query.startTime(), query.endTime(), batchSize));
+        };
+
+        writer.flush();
+        if (gzipOut != null) {
+            gzipOut.finish();
+        }
+        log.info("日志导出完成: type={}, format={}, gzip={}, rows={}", type, format, gzip, rows);
+        return rows;
+    }
+
+    // ========================================
+    // 私有辅助方法
+    // ========================================
+
+    private <T> long exportRows(Writer writer, Format format, List<Column<T>> columns,
+                                Function<T, Long> idOf, Function<Long, List<T>> fetchAfter) throws IOException {
+        JsonGenerator json = null;
+        if (format == Format.CSV) {
+            // UTF-8 BOM，便于Excel正确识别中文
+            writer.write('\uFEFF');
+            writeCsvHeader(writer, columns);
+        } else {
+            json = jsonFactory.createGenerator(writer);
+            json.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            // 行间仅由writeJsonLine写入换行，去掉默认的空格根值分隔符
+            json.setRootValueSeparator(null);
+        }
+
+        long rows = 0;
+        long afterId = 0;
+        while (true) {
+            List<T> batch = fetchAfter.apply(afterId);
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            for (T row : batch) {
+                if (json != null) {
+                    writeJsonLine(json, columns, row);
+                } else {
+                    writeCsvLine(writer, columns, row);
+                }
+            }
+            rows += batch.size();
+            // 每批写完后推送给客户端
+            if (json != null) {
+                json.flush();
+            } else {
+                writer.flush();
+            }
+            afterId = idOf.apply(batch.get(batch.size() - 1));
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+
+        if (json != null) {
+            json.close();
+        }
+        return rows;
+    }
+
+    private static <T> void writeCsvHeader(Writer writer, List<Column<T>> columns) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(columns.get(i).name());
+        }
+        writer.write("\r\n");
+    }
+
+    private static <T> void writeCsvLine(Writer writer, List<Column<T>> columns, T row) throws IOException {
+        for (int i = 0; i < columns.size(); i++) {
+            if (i > 0) {
+                writer.write(',');
+            }
+            writer.write(csvField(columns.get(i).value().apply(row)));
+        }
+        writer.write("\r\n");
+    }
+
+    private static <T> void writeJsonLine(JsonGenerator json, List<Column<T>> columns, T row) throws IOException {
+        json.writeStartObject();
+        for (Column<T> column : columns) {
+            Object value = column.value().apply(row);
+            json.writeFieldName(column.name());
+            if (value == null) {
+                json.writeNull();
+            } else if (value instanceof Number number) {
+                json.writeNumber(number.longValue());
+            } else {
+                json.writeString(formatValue(value));
+            }
+        }
+        json.writeEndObject();
+        json.writeRaw('\n');
+    }
+
+    /**
+     * CSV字段转义：含分隔符、引号或换行时加引号；以公式字符开头的文本加单引号前缀，避免在表格软件中被当作公式执行
+     */
+    static String csvField(Object value) {
+        if (value == null) {
+            return "";
+        }
+        String text = formatValue(value);
+        if (!(value instanceof Number) && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+            text = "'" + text;
+        }
+        if (text.indexOf(',') >= 0 || text.indexOf('"') >= 0 || text.indexOf('\n') >= 0 || text.indexOf('\r') >= 0) {
+            return '"' + text.replace("\"", "\"\"") + '"';
+        }
+        return text;
+    }
+
+    private static String formatValue(Object value) {
+        return value instanceof LocalDateTime time ? TIME_FORMATTER.format(time) : value.toString();
+    }
+
+    /**
+     * 导出列：列名（CSV表头 / JSON字段名）及取值方法
+     */
+    private record Column<T>(String name, Function<T, Object> value) {
+    }
+}
@@ -0,0 +1,263 @@
+package org.example.ssoserver.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ssoserver.entity.SysLoginLog;
+import org.example.ssoserver.mapper.SysLoginLogMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 登录日志异步批量写入器
+ * 请求线程只负责入队，后台线程按批次大小或时间间隔将日志以多行INSERT写入 sys_login_log，
+ * 登录耗时不再受数据库写入耗时影响。队列有界，写满时按配置的溢出策略处理：
+ * <ul>
+ *     <li>BLOCK：阻塞等待队列空位，超过等待时间仍无空位则丢弃</li>
+ *     <li>DROP：直接丢弃并计数</li>
+ *     <li>SPILL：追加写入本地NDJSON文件，便于事后补录</li>
+ * </ul>
+ * 应用关闭时停止接收新日志，并在超时时间内将队列中剩余日志写完
+ */
+@Slf4j
+@Component
+public class LoginLogWriter {
+
+    /**
+     * 队列溢出策略
+     */
+    public enum OverflowPolicy {
+        BLOCK, DROP, SPILL
+    }
+
+    // 单次等待队列的最长时间（毫秒），保证关闭信号能被及时感知
+    private static final long MAX_POLL_MILLIS = 100;
+
+    private final SysLoginLogMapper loginLogMapper;
+    private final BlockingQueue<SysLoginLog> queue;
+    private final int batchSize;
+    private final long flushIntervalMillis;
+    private final OverflowPolicy overflowPolicy;
+    private final long blockTimeoutMillis;
+    private final long shutdownTimeoutMillis;
+    private final Path spillFile;
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    // 统计计数
+    private final AtomicLong writtenCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong spilledCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    private volatile boolean running;
+    private Thread writerThread;
+
+    public LoginLogWriter(SysLoginLogMapper loginLogMapper,
+                          @Value("${login-log.async.queue-capacity:10000}") int queueCapacity,
+                          @Value("${login-log.async.batch-size:200}") int batchSize,
+                          @Value("${login-log.async.flush-interval-millis:1000}") long flushIntervalMillis,
+                          @Value("${login-log.async.overflow-policy:DROP}") OverflowPolicy overflowPolicy,
+                          @Value("${login-log.async.block-timeout-millis:200}") long blockTimeoutMillis,
+                          @Value("${login-log.async.shutdown-timeout-millis:10000}") long shutdownTimeoutMillis,
+                          @Value("${login-log.async.spill-file:logs/login-log-spill.ndjson}") String spillFile) {
+        this.loginLogMapper = loginLogMapper;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.batchSize = batchSize;
+        this.flushIntervalMillis = flushIntervalMillis;
+        this.overflowPolicy = overflowPolicy;
+        this.blockTimeoutMillis = blockTimeoutMillis;
+        this.shutdownTimeoutMillis = shutdownTimeoutMillis;
+        this.spillFile = Paths.get(spillFile);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        writerThread = new Thread(this::runLoop, "login-log-writer");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("登录日志异步写入器已启动: batchSize={}, flushInterval={}ms, overflowPolicy={}",
+                batchSize, flushIntervalMillis, overflowPolicy);
+    }
+
+    /**
+     * 提交登录日志（不阻塞数据库写入）
+     *
+     * @return 是否已进入写入队列
+     */
+    public boolean submit(SysLoginLog loginLog) {
+        if (loginLog == null) {
+            return false;
+        }
+        if (!running) {
+            // 已停止接收，直接同步写入，避免关闭期间丢失
+            writeBatch(List.of(loginLog));
+            return false;
+        }
+        if (queue.offer(loginLog)) {
+            return true;
+        }
+        switch (overflowPolicy) {
+            case BLOCK:
+                try {
+                    if (queue.offer(loginLog, blockTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                        return true;
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                recordDropped();
+                return false;
+            case SPILL:
+                spill(List.of(loginLog));
+                return false;
+            case DROP:
+            default:
+                recordDropped();
+                return false;
+        }
+    }
+
+    /**
+     * 获取写入统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("queueSize", queue.size());
+        stats.put("remainingCapacity", queue.remainingCapacity());
+        stats.put("overflowPolicy", overflowPolicy.name());
+        stats.put("written", writtenCount.get());
+        stats.put("dropped", droppedCount.get());
+        stats.put("spilled", spilledCount.get());
+        stats.put("failed", failedCount.get());
+        return stats;
+    }
+
+    /**
+     * 停止接收并排空队列
+     */
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        if (writerThread == null) {
+            return;
+        }
+        try {
+            writerThread.join(shutdownTimeoutMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (writerThread.isAlive() || !queue.isEmpty()) {
+            // 超时仍未写完，剩余日志转存到本地文件
+            List<SysLoginLog> remaining = new ArrayList<>();
+            queue.drainTo(remaining);
+            if (!remaining.isEmpty()) {
+                log.warn("登录日志写入器关闭超时，剩余{}条转存到本地文件", remaining.size());
+                spill(remaining);
+            }
+        }
+        log.info("登录日志异步写入器已停止: {}", getStats());
+    }
+
+    // ========================================
+    // 私有辅助方法
+    // ========================================
+
+    private void runLoop() {
+        List<SysLoginLog> batch = new ArrayList<>(batchSize);
+        long deadline = 0L;
+        while (running || !queue.isEmpty()) {
+            try {
+                long timeout = Math.min(MAX_POLL_MILLIS,
+                        batch.isEmpty() ? flushIntervalMillis : deadline - System.currentTimeMillis());
+                SysLoginLog first = timeout > 0 ? queue.poll(timeout, TimeUnit.MILLISECONDS) : queue.poll();
+                if (first != null) {
+                    if (batch.isEmpty()) {
+                        deadline = System.currentTimeMillis() + flushIntervalMillis;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, batchSize - batch.size());
+                }
+
+                // 批次写满、到达时间间隔或正在关闭时写入
+                boolean due = !batch.isEmpty() && System.currentTimeMillis() >= deadline;
+                if (batch.size() >= batchSize || due || (!running && !batch.isEmpty())) {
+                    writeBatch(batch);
+                    batch = new ArrayList<>(batchSize);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            } catch (Exception e) {
+                log.error("登录日志写入线程异常", e);
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+        }
+    }
+
+    private void writeBatch(List<SysLoginLog> batch) {
+        try {
+            loginLogMapper.insertBatch(batch);
+            writtenCount.addAndGet(batch.size());
+        } catch (Exception e) {
+            log.error("批量写入登录日志失败: size={}", batch.size(), e);
+            if (overflowPolicy == OverflowPolicy.SPILL) {
+                spill(batch);
+            } else {
+                failedCount.addAndGet(batch.size());
+            }
+        }
+    }
+
+    private synchronized void spill(List<SysLoginLog> logs) {
+        try {
+            Path parent = spillFile.toAbsolutePath().getParent();
+            if (parent != null) {
+                Files.createDirectories(parent);
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(spillFile, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (SysLoginLog loginLog : logs) {
+                    writer.write(objectMapper.writeValueAsString(loginLog));
+                    writer.newLine();
+                }
+            }
+            spilledCount.addAndGet(logs.size());
+        } catch (IOException e) {
+            log.error("登录日志转存本地文件失败: file={}, size={}", spillFile, logs.size(), e);
+            failedCount.addAndGet(logs.size());
+        }
+    }
+
+    private void recordDropped() {
+        long dropped = droppedCount.incrementAndGet();
+        // 避免突发流量下刷屏，每1000条记录一次
+        if (dropped == 1 || dropped % 1000 == 0) {
+            log.warn("登录日志队列已满，累计丢弃{}条", dropped);
+        }
+    }
+}
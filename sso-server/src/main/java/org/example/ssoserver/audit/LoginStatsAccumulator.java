@@ -0,0 +1,269 @@
+package org.example.ssoserver.audit;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.example.ssoserver.mapper.SysUserMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 用户登录统计写后合并器
+ * 登录成功/失败不再逐次更新 sys_user 热点行，而是按用户在内存中合并，
+ * 定时以JDBC批量方式每个用户写入一条UPDATE。
+ *
+ * <p>登录失败次数以Redis计数器 {@code sso:login:failed:<userId>} 为准（HINCRBY + TTL），
+ * 锁定判断 {@link #getEffectiveFailedCount} 立即看到所有节点的失败；数据库中的失败次数只是写后副本。
+ * Redis不可用或计数器不存在时退回"数据库值 + 本节点未落库增量"。</p>
+ */
+@Slf4j
+@Component
+public class LoginStatsAccumulator {
+
+    private static final String FAILED_COUNT_KEY_PREFIX = "sso:login:failed:";
+    private static final String FAILED_COUNT_FIELD = "count";
+
+    /**
+     * 失败次数+1：计数器不存在时先以数据库中的失败次数为初始值，每次失败刷新过期时间
+     */
+    private static final RedisScript<Long> RECORD_FAILURE_SCRIPT = RedisScript.of(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then redis.call('HSET', KEYS[1], ARGV[1], ARGV[2]) end " +
+            "local count = redis.call('HINCRBY', KEYS[1], ARGV[1], 1) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[3]) " +
+            "return count", Long.class);
+
+    /**
+     * 失败次数清零：保留值为0的计数器，避免其他节点在数据库清零落库前退回旧值
+     */
+    private static final RedisScript<Long> RESET_FAILURES_SCRIPT = RedisScript.of(
+            "redis.call('HSET', KEYS[1], ARGV[1], 0) " +
+            "redis.call('EXPIRE', KEYS[1], ARGV[2]) " +
+            "return 1", Long.class);
+
+    private final SqlSessionFactory sqlSessionFactory;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final int batchSize;
+    private final long failedCountTtlSeconds;
+
+    // 待写入的增量
+    private final Map<Long, PendingLoginStats> pending = new ConcurrentHashMap<>();
+    // 正在写入的增量，写入完成前仍参与失败次数计算
+    private final Map<Long, PendingLoginStats> inFlight = new ConcurrentHashMap<>();
+
+    public LoginStatsAccumulator(SqlSessionFactory sqlSessionFactory,
+                                 StringRedisTemplate stringRedisTemplate,
+                                 @Value("${login-stats.flush-batch-size:500}") int batchSize,
+                                 @Value("${login-stats.failed-count-ttl-seconds:86400}") long failedCountTtlSeconds) {
+        this.sqlSessionFactory = sqlSessionFactory;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.batchSize = batchSize;
+        this.failedCountTtlSeconds = failedCountTtlSeconds;
+    }
+
+    /**
+     * 记录登录成功（登录次数+1，更新最后登录IP与时间，清零失败次数）
+     */
+    public void recordSuccess(Long userId, String loginIp) {
+        LocalDateTime now = LocalDateTime.now();
+        pending.compute(userId, (id, stats) -> {
+            PendingLoginStats current = stats != null ? stats : new PendingLoginStats();
+            current.successCount++;
+            current.lastLoginIp = loginIp;
+            current.lastLoginTime = now;
+            current.resetFailures = true;
+            current.failedCount = 0;
+            return current;
+        });
+        resetFailedCounter(userId);
+    }
+
+    /**
+     * 记录登录失败（失败次数+1）
+     *
+     * @param userId 用户ID
+     * @param persistedCount 数据库中的失败次数（Redis计数器不存在时作为初始值）
+     */
+    public void recordFailure(Long userId, Integer persistedCount) {
+        LocalDateTime now = LocalDateTime.now();
+        pending.compute(userId, (id, stats) -> {
+            PendingLoginStats current = stats != null ? stats : new PendingLoginStats();
+            current.failedCount++;
+            current.lastFailedTime = now;
+            return current;
+        });
+        try {
+            stringRedisTemplate.execute(RECORD_FAILURE_SCRIPT, List.of(FAILED_COUNT_KEY_PREFIX + userId),
+                    FAILED_COUNT_FIELD, String.valueOf(persistedCount != null ? persistedCount : 0),
+                    String.valueOf(failedCountTtlSeconds));
+        } catch (Exception e) {
+            log.warn("Redis登录失败计数更新失败，仅计入本节点: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    /**
+     * 清零尚未落库的失败次数（账号解锁时调用，与数据库中的清零保持一致）
+     */
+    public void resetFailures(Long userId) {
+        pending.compute(userId, (id, stats) -> {
+            PendingLoginStats current = stats != null ? stats : new PendingLoginStats();
+            current.failedCount = 0;
+            current.resetFailures = true;
+            return current;
+        });
+        resetFailedCounter(userId);
+    }
+
+    /**
+     * 获取登录失败次数
+     * 优先读取Redis计数器；不可用或不存在时叠加本节点未落库的增量
+     *
+     * @param userId 用户ID
+     * @param persistedCount 数据库中的失败次数
+     * @return 实际失败次数
+     */
+    public int getEffectiveFailedCount(Long userId, Integer persistedCount) {
+        try {
+            Object shared = stringRedisTemplate.opsForHash().get(FAILED_COUNT_KEY_PREFIX + userId, FAILED_COUNT_FIELD);
+            if (shared != null) {
+                return Integer.parseInt(shared.toString());
+            }
+        } catch (Exception e) {
+            log.warn("读取Redis登录失败计数失败，使用本节点计数: userId={}, error={}", userId, e.getMessage());
+        }
+        int count = persistedCount != null ? persistedCount : 0;
+        PendingLoginStats flushing = inFlight.get(userId);
+        if (flushing != null) {
+            count = flushing.applyFailures(count);
+        }
+        PendingLoginStats stats = pending.get(userId);
+        if (stats != null) {
+            count = stats.applyFailures(count);
+        }
+        return count;
+    }
+
+    /**
+     * 待写入的用户数
+     */
+    public int getPendingSize() {
+        return pending.size();
+    }
+
+    /**
+     * 定时刷新到数据库
+     */
+    @Scheduled(fixedDelayString = "${login-stats.flush-interval-millis:5000}")
+    public void flush() {
+        if (pending.isEmpty()) {
+            return;
+        }
+        List<Long> userIds = new ArrayList<>(pending.keySet());
+        for (int from = 0; from < userIds.size(); from += batchSize) {
+            flushBatch(userIds.subList(from, Math.min(from + batchSize, userIds.size())));
+        }
+    }
+
+    /**
+     * 关闭前写入剩余增量
+     */
+    @PreDestroy
+    public void shutdown() {
+        flush();
+    }
+
+    // ========================================
+    // 私有辅助方法
+    // ========================================
+
+    private void resetFailedCounter(Long userId) {
+        try {
+            stringRedisTemplate.execute(RESET_FAILURES_SCRIPT, List.of(FAILED_COUNT_KEY_PREFIX + userId),
+                    FAILED_COUNT_FIELD, String.valueOf(failedCountTtlSeconds));
+        } catch (Exception e) {
+            log.warn("Redis登录失败计数清零失败: userId={}, error={}", userId, e.getMessage());
+        }
+    }
+
+    private synchronized void flushBatch(List<Long> userIds) {
+        // 先移入写入中集合，再从待写入集合移除，保证失败次数计算始终能看到该增量
+        List<Long> taken = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            PendingLoginStats stats = pending.get(userId);
+            if (stats == null) {
+                continue;
+            }
+            inFlight.put(userId, stats);
+            if (pending.remove(userId, stats)) {
+                taken.add(userId);
+            } else {
+                inFlight.remove(userId);
+            }
+        }
+        if (taken.isEmpty()) {
+            return;
+        }
+
+        try (SqlSession session = sqlSessionFactory.openSession(ExecutorType.BATCH, false)) {
+            SysUserMapper mapper = session.getMapper(SysUserMapper.class);
+            for (Long userId : taken) {
+                PendingLoginStats stats = inFlight.get(userId);
+                mapper.applyLoginStats(userId, stats.successCount, stats.lastLoginIp, stats.lastLoginTime,
+                        stats.resetFailures, stats.failedCount, stats.lastFailedTime);
+            }
+            session.flushStatements();
+            session.commit();
+            log.debug("登录统计批量写入完成: users={}", taken.size());
+        } catch (Exception e) {
+            log.error("登录统计批量写入失败，增量退回待写入集合: users={}", taken.size(), e);
+            for (Long userId : taken) {
+                PendingLoginStats stats = inFlight.get(userId);
+                // 退回期间产生的新增量发生在其之后
+                pending.merge(userId, stats, (later, earlier) -> earlier.followedBy(later));
+            }
+        } finally {
+            taken.forEach(inFlight::remove);
+        }
+    }
+
+    /**
+     * 单个用户的未落库增量（在ConcurrentHashMap.compute中修改，同一用户串行）
+     */
+    private static final class PendingLoginStats {
+        private int successCount;
+        private String lastLoginIp;
+        private LocalDateTime lastLoginTime;
+        // 期间有过成功登录或解锁：失败次数先清零再累加
+        private boolean resetFailures;
+        private int failedCount;
+        private LocalDateTime lastFailedTime;
+
+        private int applyFailures(int base) {
+            return resetFailures ? failedCount : base + failedCount;
+        }
+
+        /**
+         * 合并两段增量，later 发生在 this 之后
+         */
+        private PendingLoginStats followedBy(PendingLoginStats later) {
+            PendingLoginStats merged = new PendingLoginStats();
+            merged.successCount = successCount + later.successCount;
+            merged.lastLoginIp = later.lastLoginTime != null ? later.lastLoginIp : lastLoginIp;
+            merged.lastLoginTime = later.lastLoginTime != null ? later.lastLoginTime : lastLoginTime;
+            merged.resetFailures = resetFailures || later.resetFailures;
+            merged.failedCount = later.resetFailures ? later.failedCount : failedCount + later.failedCount;
+            merged.lastFailedTime = later.lastFailedTime != null ? later.lastFailedTime : lastFailedTime;
+            return merged;
+        }
+    }
+}
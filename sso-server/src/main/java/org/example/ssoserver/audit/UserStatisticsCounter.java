@@ -0,0 +1,211 @@
+package org.example.ssoserver.audit;
+
+import lombok.extern.slf4j.Slf4j;
+import org.example.ssoserver.mapper.SysUserMapper;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * 用户统计计数器
+ * 按"用户类型:状态"分桶计数，保存在Redis哈希 {@code sso:stats:user} 中：
+ * <ul>
+ *     <li>创建用户时对应桶+1，修改类型/状态、逻辑删除时从原桶移到新桶（事务提交后执行）</li>
+ *     <li>定时按数据库 GROUP BY 结果整体重建，修正并发修改或写入失败造成的偏差</li>
+ *     <li>读取统计只需一次 HGETALL；计数不存在时先重建，Redis不可用时回退为一次分组统计查询</li>
+ * </ul>
+ */
+@Slf4j
+@Component
+public class UserStatisticsCounter {
+
+    /**
+     * 计数器Redis key
+     */
+    public static final String COUNTER_KEY = "sso:stats:user";
+
+    // 与数据库列默认值一致
+    private static final String DEFAULT_USER_TYPE = "normal";
+    private static final String DEFAULT_STATUS = "1";
+    private static final String STATUS_ENABLED = "1";
+    private static final String STATUS_DISABLED = "0";
+
+    /**
+     * 计数增量脚本：仅在计数已存在时累加，避免在缺失的计数上只记下增量（缺失时由读取方重建）
+     * KEYS[1]=计数key，ARGV=桶1, 增量1, 桶2, 增量2...
+     */
+    private static final RedisScript<Long> INCREMENT_SCRIPT = RedisScript.of(
+            "if redis.call('EXISTS', KEYS[1]) == 0 then return 0 end " +
+            "for i = 1, #ARGV, 2 do redis.call('HINCRBY', KEYS[1], ARGV[i], ARGV[i + 1]) end " +
+            "return 1", Long.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final SysUserMapper userMapper;
+
+    public UserStatisticsCounter(StringRedisTemplate stringRedisTemplate, SysUserMapper userMapper) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.userMapper = userMapper;
+    }
+
+    /**
+     * 记录新建用户
+     */
+    public void recordCreate(String userType, String status) {
+        String to = bucket(userType, status);
+        afterCommit(() -> stringRedisTemplate.execute(INCREMENT_SCRIPT, List.of(COUNTER_KEY), to, "1"));
+    }
+
+    /**
+     * 记录用户类型或状态变化（类型/状态为null表示未修改）
+     */
+    public void recordChange(String oldType, String oldStatus, String newType, String newStatus) {
+        String from = bucket(oldType, oldStatus);
+        String to = bucket(newType != null ? newType : oldType, newStatus != null ? newStatus : oldStatus);
+        if (from.equals(to)) {
+            return;
+        }
+        afterCommit(() -> stringRedisTemplate.execute(INCREMENT_SCRIPT, List.of(COUNTER_KEY), from, "-1", to, "1"));
+    }
+
+    /**
+     * 获取用户统计信息
+     */
+    public Map<String, Long> getStatistics() {
+        try {
+            Map<Object, Object> counters = stringRedisTemplate.opsForHash().entries(COUNTER_KEY);
+            if (counters.isEmpty()) {
+                return summarize(rebuild());
+            }
+            Map<String, Long> buckets = new HashMap<>();
+            counters.forEach((bucket, count) -> buckets.put(bucket.toString(), Long.parseLong(count.toString())));
+            return summarize(buckets);
+        } catch (Exception e) {
+            log.warn("读取用户统计计数失败，改为查询数据库: {}", e.getMessage());
+            return summarize(loadBuckets());
+        }
+    }
+
+    /**
+     * 定时按数据库校正计数
+     */
+    @Scheduled(initialDelayString = "${user-stats.reconcile-interval-millis:600000}",
+            fixedDelayString = "${user-stats.reconcile-interval-millis:600000}")
+    public void reconcile() {
+        try {
+            rebuild();
+        } catch (Exception e) {
+            log.error("用户统计计数校正失败", e);
+        }
+    }
+
+    // ========================================
+    // 私有辅助方法
+    // ========================================
+
+    /**
+     * 按数据库重建计数
+     * 先写入临时key再RENAME，读取方不会看到写了一半的计数
+     *
+     * @return 重建后的分桶计数
+     */
+    private Map<String, Long> rebuild() {
+        Map<String, Long> buckets = loadBuckets();
+        try {
+            String tempKey = COUNTER_KEY + ":rebuild";
+            Map<String, String> values = new HashMap<>();
+            buckets.forEach((bucket, count) -> values.put(bucket, String.valueOf(count)));
+            if (values.isEmpty()) {
+                stringRedisTemplate.delete(COUNTER_KEY);
+            } else {
+                stringRedisTemplate.delete(tempKey);
+                stringRedisTemplate.opsForHash().putAll(tempKey, values);
+                stringRedisTemplate.rename(tempKey, COUNTER_KEY);
+            }
+            log.debug("用户统计计数已重建: {}", buckets);
+        } catch (Exception e) {
+            log.warn("用户统计计数重建失败: {}", e.getMessage());
+        }
+        return buckets;
+    }
+
+    private Map<String, Long> loadBuckets() {
+        Map<String, Long> buckets = new HashMap<>();
+        List<Map<String, Object>> rows = userMapper.countGroupByTypeAndStatus();
+        if (rows != null) {
+            for (Map<String, Object> row : rows) {
+                Object total = row.get("total");
+                buckets.merge(bucket((String) row.get("userType"), (String) row.get("status")),
+                        total instanceof Number number ? number.longValue() : 0L, Long::sum);
+            }
+        }
+        return buckets;
+    }
+
+    /**
+     * 由分桶计数汇总出统计接口的各项指标
+     */
+    static Map<String, Long> summarize(Map<String, Long> buckets) {
+        long total = 0;
+        long active = 0;
+        long disabled = 0;
+        Map<String, Long> activeByType = new HashMap<>();
+        for (Map.Entry<String, Long> entry : buckets.entrySet()) {
+            int separator = entry.getKey().lastIndexOf(':');
+            String userType = entry.getKey().substring(0, separator);
+            String status = entry.getKey().substring(separator + 1);
+            long count = entry.getValue();
+            total += count;
+            if (STATUS_ENABLED.equals(status)) {
+                active += count;
+                activeByType.merge(userType, count, Long::sum);
+            } else if (STATUS_DISABLED.equals(status)) {
+                disabled += count;
+            }
+        }
+
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("totalUsers", total);
+        statistics.put("activeUsers", active);
+        statistics.put("disabledUsers", disabled);
+        statistics.put("normalUsers", activeByType.getOrDefault("normal", 0L));
+        statistics.put("enterpriseUsers", activeByType.getOrDefault("enterprise", 0L));
+        statistics.put("airlineUsers", activeByType.getOrDefault("airline", 0L));
+        return statistics;
+    }
+
+    static String bucket(String userType, String status) {
+        return Objects.requireNonNullElse(userType, DEFAULT_USER_TYPE) + ":" + Objects.requireNonNullElse(status, DEFAULT_STATUS);
+    }
+
+    /**
+     * 处于事务中时提交后执行，避免回滚的修改计入统计；Redis写入失败留待定时重建修正
+     */
+    private void afterCommit(Runnable action) {
+        Runnable safeAction = () -> {
+            try {
+                action.run();
+            } catch (Exception e) {
+                log.warn("更新用户统计计数失败，等待定时重建: {}", e.getMessage());
+            }
+        };
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    safeAction.run();
+                }
+            });
+        } else {
+            safeAction.run();
+        }
+    }
+}
@@ -0,0 +1,300 @@
+package org.example.ssoserver.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.common.util.BloomFilter;
+import org.example.ssoserver.entity.SysUser;
+import org.example.ssoserver.mapper.SysUserMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 账号存在性过滤器
+ * 用户名、手机号、邮箱各维护一个布隆过滤器，"一定不存在"的查询（注册页逐字检查、不存在账号的登录）直接返回，
+ * 不访问数据库；过滤器命中时仍以数据库结果为准。
+ * <ul>
+ *     <li>启动时按ID游标分页加载全部账号标识，之后定时重建以淘汰已修改的旧标识</li>
+ *     <li>新增或修改账号时在写库之前记录新标识，并通过频道 {@code sso:cache:account} 同步到其他节点；
+ *     频道消息可能丢失，新标识同时写入ZSET {@code sso:account-filter:recent}，各节点定时并入，
+ *     丢失消息造成的误判窗口不超过一个同步间隔</li>
+ *     <li>加载失败或未加载到任何账号时不启用，所有查询回退到数据库</li>
+ * </ul>
+ * 数据库排序规则不区分大小写且忽略尾部空格，因此仅ASCII标识转小写并去除尾部空格后参与过滤，
+ * 含非ASCII字符的标识始终回退到数据库。过滤器键为规范化标识SHA-256的前16字节，广播消息不含账号原文。
+ */
+@Slf4j
+@Component
+public class AccountExistenceFilter {
+
+    /**
+     * 新增账号标识的广播频道
+     */
+    public static final String ACCOUNT_CHANNEL = "sso:cache:account";
+
+    /**
+     * 近期新增标识（成员为"类型:过滤器键"，分值为记录时间毫秒）
+     */
+    public static final String RECENT_KEY = "sso:account-filter:recent";
+
+    /**
+     * 账号标识类型
+     */
+    public enum IdentifierType {
+        USERNAME, PHONE, EMAIL
+    }
+
+    private static final int LOAD_BATCH_SIZE = 5000;
+    private static final int KEY_BYTES = 16;
+    // 近期新增标识的保留时间，重建时并入新过滤器，覆盖重建扫描与未提交事务之间的窗口
+    private static final long RECENT_RETENTION_MILLIS = 10 * 60 * 1000L;
+    // 同步近期新增时与上次读取的重叠时间，覆盖各节点间的时钟偏差
+    private static final long SYNC_OVERLAP_MILLIS = 60 * 1000L;
+
+    private final SysUserMapper userMapper;
+    private final CacheSyncBus cacheSyncBus;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile Map<IdentifierType, BloomFilter> filters;
+    // 重建期间收到的新增标识同时写入新过滤器
+    private volatile Map<IdentifierType, BloomFilter> rebuilding;
+    // 近期新增的过滤器键 → 记录时间
+    private final Map<String, Long> recentKeys = new ConcurrentHashMap<>();
+    // 上次从Redis同步近期新增的时间
+    private volatile long lastSyncMillis;
+
+    public AccountExistenceFilter(SysUserMapper userMapper, CacheSyncBus cacheSyncBus,
+                                  StringRedisTemplate stringRedisTemplate,
+                                  @Value("${account-filter.expected-insertions:1000000}") long expectedInsertions,
+                                  @Value("${account-filter.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.userMapper = userMapper;
+        this.cacheSyncBus = cacheSyncBus;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+    }
+
+    @PostConstruct
+    public void init() {
+        cacheSyncBus.subscribe(ACCOUNT_CHANNEL, this::onMessage);
+        rebuild();
+        syncRecent();
+    }
+
+    /**
+     * 标识是否一定不存在
+     * 返回false表示可能存在或无法判断，调用方需查询数据库
+     */
+    public boolean isDefinitelyAbsent(IdentifierType type, String value) {
+        Map<IdentifierType, BloomFilter> current = filters;
+        if (current == null) {
+            return false;
+        }
+        String key = filterKey(type, value);
+        return key != null && !current.get(type).mightContain(key);
+    }
+
+    /**
+     * 登录账号（用户名、手机号或邮箱）是否一定不存在
+     */
+    public boolean isAccountDefinitelyAbsent(String account) {
+        return isDefinitelyAbsent(IdentifierType.USERNAME, account)
+                && isDefinitelyAbsent(IdentifierType.PHONE, account)
+                && isDefinitelyAbsent(IdentifierType.EMAIL, account);
+    }
+
+    /**
+     * 记录账号的全部标识（需在写库之前调用）
+     */
+    public void record(SysUser user) {
+        if (user == null) {
+            return;
+        }
+        record(IdentifierType.USERNAME, user.getUsername());
+        record(IdentifierType.PHONE, user.getPhone());
+        record(IdentifierType.EMAIL, user.getEmail());
+    }
+
+    /**
+     * 记录单个标识，写入近期新增并广播到其他节点
+     */
+    public void record(IdentifierType type, String value) {
+        String key = filterKey(type, value);
+        if (key == null) {
+            return;
+        }
+        addLocal(type, key);
+        String member = type.name() + ":" + key;
+        try {
+            stringRedisTemplate.opsForZSet().add(RECENT_KEY, member, System.currentTimeMillis());
+        } catch (Exception e) {
+            log.warn("写入近期新增账号标识失败，仅依赖频道同步: {}", e.getMessage());
+        }
+        cacheSyncBus.publish(ACCOUNT_CHANNEL, member);
+    }
+
+    /**
+     * 从Redis并入其他节点近期新增的标识，补偿丢失的频道消息，并清理超过保留时间的记录
+     */
+    @Scheduled(initialDelayString = "${account-filter.sync-interval-millis:5000}",
+            fixedDelayString = "${account-filter.sync-interval-millis:5000}")
+    public void syncRecent() {
+        long now = System.currentTimeMillis();
+        try {
+            Set<String> members = stringRedisTemplate.opsForZSet()
+                    .rangeByScore(RECENT_KEY, lastSyncMillis - SYNC_OVERLAP_MILLIS, Double.POSITIVE_INFINITY);
+            if (members != null) {
+                members.forEach(this::onMessage);
+            }
+            lastSyncMillis = now;
+            stringRedisTemplate.opsForZSet().removeRangeByScore(RECENT_KEY, 0, now - RECENT_RETENTION_MILLIS);
+        } catch (Exception e) {
+            log.warn("同步近期新增账号标识失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 从数据库重建过滤器
+     * 修改过的旧标识在重建后被淘汰；加载失败时保持原过滤器
+     */
+    @Scheduled(initialDelayString = "${account-filter.rebuild-interval-millis:3600000}",
+            fixedDelayString = "${account-filter.rebuild-interval-millis:3600000}")
+    public void rebuild() {
+        Map<IdentifierType, BloomFilter> fresh = newFilters();
+        rebuilding = fresh;
+        long start = System.currentTimeMillis();
+        try {
+            long count = 0;
+            long lastId = 0;
+            while (true) {
+                List<SysUser> batch = userMapper.selectIdentifiersAfter(lastId, LOAD_BATCH_SIZE);
+                if (batch == null || batch.isEmpty()) {
+                    break;
+                }
+                for (SysUser user : batch) {
+                    putKey(fresh, IdentifierType.USERNAME, filterKey(IdentifierType.USERNAME, user.getUsername()));
+                    putKey(fresh, IdentifierType.PHONE, filterKey(IdentifierType.PHONE, user.getPhone()));
+                    putKey(fresh, IdentifierType.EMAIL, filterKey(IdentifierType.EMAIL, user.getEmail()));
+                    lastId = Math.max(lastId, user.getId());
+                }
+                count += batch.size();
+                if (batch.size() < LOAD_BATCH_SIZE) {
+                    break;
+                }
+            }
+
+            if (count == 0) {
+                // 未加载到任何账号（如数据源尚未就绪），不启用过滤
+                log.warn("账号存在性过滤器未加载到账号，暂不启用");
+                return;
+            }
+            // 并入近期新增的标识（可能尚未提交，扫描时不可见）；切换后再并入一次，覆盖切换瞬间的新增
+            long expireBefore = System.currentTimeMillis() - RECENT_RETENTION_MILLIS;
+            recentKeys.entrySet().removeIf(entry -> entry.getValue() < expireBefore);
+            mergeRecent(fresh);
+            filters = fresh;
+            mergeRecent(fresh);
+            log.info("账号存在性过滤器重建完成: 账号数={}, 耗时={}ms", count, System.currentTimeMillis() - start);
+        } catch (Exception e) {
+            log.error("账号存在性过滤器重建失败，继续使用原过滤器", e);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    // ========================================
+    // 私有辅助方法
+    // ========================================
+
+    private void onMessage(String message) {
+        int separator = message.indexOf(':');
+        if (separator <= 0) {
+            return;
+        }
+        try {
+            addLocal(IdentifierType.valueOf(message.substring(0, separator)), message.substring(separator + 1));
+        } catch (IllegalArgumentException e) {
+            log.warn("无法识别的账号同步消息: {}", message);
+        }
+    }
+
+    private void addLocal(IdentifierType type, String key) {
+        recentKeys.put(type.name() + ":" + key, System.currentTimeMillis());
+        Map<IdentifierType, BloomFilter> current = filters;
+        if (current != null) {
+            current.get(type).put(key);
+        }
+        Map<IdentifierType, BloomFilter> pending = rebuilding;
+        if (pending != null) {
+            pending.get(type).put(key);
+        }
+    }
+
+    private void mergeRecent(Map<IdentifierType, BloomFilter> target) {
+        for (String recent : recentKeys.keySet()) {
+            int separator = recent.indexOf(':');
+            putKey(target, IdentifierType.valueOf(recent.substring(0, separator)), recent.substring(separator + 1));
+        }
+    }
+
+    private Map<IdentifierType, BloomFilter> newFilters() {
+        Map<IdentifierType, BloomFilter> map = new EnumMap<>(IdentifierType.class);
+        for (IdentifierType type : IdentifierType.values()) {
+            map.put(type, BloomFilter.create(expectedInsertions, falsePositiveRate));
+        }
+        return map;
+    }
+
+    private static void putKey(Map<IdentifierType, BloomFilter> target, IdentifierType type, String key) {
+        if (key != null) {
+            target.get(type).put(key);
+        }
+    }
+
+    /**
+     * 规范化标识并计算过滤器键，空值或含非ASCII字符时返回null（不参与过滤）
+     */
+    static String filterKey(IdentifierType type, String value) {
+        if (value == null) {
+            return null;
+        }
+        int end = value.length();
+        while (end > 0 && value.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (end == 0) {
+            return null;
+        }
+        char[] normalized = new char[end];
+        for (int i = 0; i < end; i++) {
+            char c = value.charAt(i);
+            if (c > 0x7F) {
+                return null;
+            }
+            normalized[i] = c >= 'A' && c <= 'Z' ? (char) (c + ('a' - 'A')) : c;
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(type.name().getBytes(StandardCharsets.US_ASCII));
+            digest.update((byte) ':');
+            byte[] hash = digest.digest(new String(normalized).getBytes(StandardCharsets.US_ASCII));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, KEY_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+}
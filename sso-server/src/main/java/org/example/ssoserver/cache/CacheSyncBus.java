@@ -0,0 +1,92 @@
+package org.example.ssoserver.cache;
+
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.listener.ChannelTopic;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * 本地缓存集群同步总线
+ * 基于Redis发布/订阅，在各节点之间广播本地缓存失效消息
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class CacheSyncBus {
+
+    // 订阅启动失败后的重试间隔（秒）
+    private static final long RETRY_INTERVAL_SECONDS = 10;
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisMessageListenerContainer listenerContainer;
+
+    private final ScheduledExecutorService retryExecutor = Executors.newSingleThreadScheduledExecutor(r -> {
+        Thread thread = new Thread(r, "cache-sync-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    /**
+     * 订阅频道（需在应用就绪前调用，例如在@PostConstruct中）
+     *
+     * @param channel 频道名称
+     * @param handler 消息处理器（入参为消息内容）
+     */
+    public void subscribe(String channel, Consumer<String> handler) {
+        listenerContainer.addMessageListener((message, pattern) -> {
+            String payload = new String(message.getBody(), StandardCharsets.UTF_8);
+            try {
+                handler.accept(payload);
+            } catch (Exception e) {
+                log.error("处理缓存同步消息失败: channel={}, payload={}", channel, payload, e);
+            }
+        }, new ChannelTopic(channel));
+    }
+
+    /**
+     * 广播消息
+     * 广播失败只记录日志，本地缓存依赖TTL兜底
+     *
+     * @param channel 频道名称
+     * @param payload 消息内容
+     */
+    public void publish(String channel, String payload) {
+        try {
+            stringRedisTemplate.convertAndSend(channel, payload);
+        } catch (Exception e) {
+            log.warn("广播缓存同步消息失败: channel={}, payload={}, error={}", channel, payload, e.getMessage());
+        }
+    }
+
+    /**
+     * 应用就绪后启动订阅
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void startListening() {
+        try {
+            listenerContainer.start();
+            log.info("缓存同步订阅已启动");
+        } catch (Exception e) {
+            log.warn("缓存同步订阅启动失败，{}秒后重试: {}", RETRY_INTERVAL_SECONDS, e.getMessage());
+            // 重置容器状态，便于下次重新启动
+            listenerContainer.stop();
+            retryExecutor.schedule(this::startListening, RETRY_INTERVAL_SECONDS, TimeUnit.SECONDS);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        retryExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,88 @@
+package org.example.ssoserver.cache;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ssoserver.mapper.SysMenuMapper;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 菜单树快照缓存
+ * 首次访问时构建，菜单新增/修改/删除后失效并广播到其他节点，下次访问时重建
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MenuTreeCache {
+
+    /**
+     * 菜单树失效频道
+     */
+    public static final String INVALIDATE_CHANNEL = "sso:cache:menu";
+
+    private final SysMenuMapper menuMapper;
+    private final CacheSyncBus cacheSyncBus;
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile MenuTreeSnapshot snapshot;
+
+    @PostConstruct
+    public void init() {
+        cacheSyncBus.subscribe(INVALIDATE_CHANNEL, message -> invalidateLocally());
+    }
+
+    /**
+     * 获取当前快照，不存在时从数据库构建
+     */
+    public MenuTreeSnapshot getSnapshot() {
+        MenuTreeSnapshot current = snapshot;
+        if (current != null) {
+            return current;
+        }
+        synchronized (this) {
+            current = snapshot;
+            if (current != null) {
+                return current;
+            }
+            // 构建期间发生失效时不保存本次结果，避免覆盖为旧数据
+            long expectedVersion = version.get();
+            current = MenuTreeSnapshot.build(menuMapper.selectAllEnabled());
+            if (expectedVersion == version.get()) {
+                snapshot = current;
+            }
+            log.debug("菜单树快照已重建: size={}", current.size());
+            return current;
+        }
+    }
+
+    /**
+     * 失效快照并广播到其他节点
+     * 处于事务中时在提交后执行，避免重建时读到提交前的数据
+     */
+    public void invalidate() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    invalidateAndBroadcast();
+                }
+            });
+        } else {
+            invalidateAndBroadcast();
+        }
+    }
+
+    private void invalidateAndBroadcast() {
+        invalidateLocally();
+        cacheSyncBus.publish(INVALIDATE_CHANNEL, "rebuild");
+    }
+
+    private void invalidateLocally() {
+        version.incrementAndGet();
+        snapshot = null;
+    }
+}
@@ -0,0 +1,101 @@
+package org.example.ssoserver.cache;
+
+import org.example.common.model.MenuDTO;
+import org.example.ssoserver.entity.SysMenu;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+
+/**
+ * 全局启用菜单树快照
+ * 按菜单ID和父菜单ID建立索引，一次线性构建，构建后只读；
+ * 用户菜单为按用户菜单ID集合对整棵树的投影，无需访问数据库
+ */
+public final class MenuTreeSnapshot {
+
+    /**
+     * 根节点的父菜单ID
+     */
+    public static final Long ROOT_PARENT_ID = 0L;
+
+    private final List<SysMenu> menus;
+    private final Map<Long, SysMenu> menuIndex;
+    private final Map<Long, List<SysMenu>> childrenIndex;
+
+    private MenuTreeSnapshot(List<SysMenu> menus, Map<Long, SysMenu> menuIndex, Map<Long, List<SysMenu>> childrenIndex) {
+        this.menus = menus;
+        this.menuIndex = menuIndex;
+        this.childrenIndex = childrenIndex;
+    }
+
+    /**
+     * 构建快照，时间复杂度 O(n)
+     *
+     * @param enabledMenus 启用的菜单，需按 parent_id、order_num 排序（同级顺序即输入顺序）
+     */
+    public static MenuTreeSnapshot build(List<SysMenu> enabledMenus) {
+        List<SysMenu> menus = enabledMenus != null ? List.copyOf(enabledMenus) : List.of();
+        Map<Long, SysMenu> menuIndex = new HashMap<>(menus.size() * 2);
+        Map<Long, List<SysMenu>> childrenIndex = new HashMap<>();
+        for (SysMenu menu : menus) {
+            menuIndex.put(menu.getId(), menu);
+            childrenIndex.computeIfAbsent(menu.getParentId(), key -> new ArrayList<>()).add(menu);
+        }
+        childrenIndex.replaceAll((parentId, children) -> Collections.unmodifiableList(children));
+        return new MenuTreeSnapshot(menus, Collections.unmodifiableMap(menuIndex), Collections.unmodifiableMap(childrenIndex));
+    }
+
+    public int size() {
+        return menus.size();
+    }
+
+    public SysMenu getMenu(Long menuId) {
+        return menuIndex.get(menuId);
+    }
+
+    /**
+     * 按菜单ID集合过滤，保持 parent_id、order_num 顺序
+     */
+    public List<SysMenu> filter(Set<Long> menuIds) {
+        List<SysMenu> result = new ArrayList<>();
+        for (SysMenu menu : menus) {
+            if (menuIds.contains(menu.getId())) {
+                result.add(menu);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * 生成完整菜单树
+     */
+    public List<MenuDTO> toTree(Function<SysMenu, MenuDTO> converter) {
+        return project(ROOT_PARENT_ID, null, converter);
+    }
+
+    /**
+     * 生成用户菜单树：只保留菜单ID集合中的节点，父节点不在集合中时其子树不可见
+     */
+    public List<MenuDTO> project(Set<Long> menuIds, Function<SysMenu, MenuDTO> converter) {
+        return project(ROOT_PARENT_ID, menuIds, converter);
+    }
+
+    private List<MenuDTO> project(Long parentId, Set<Long> menuIds, Function<SysMenu, MenuDTO> converter) {
+        List<SysMenu> children = childrenIndex.getOrDefault(parentId, List.of());
+        List<MenuDTO> result = new ArrayList<>(children.size());
+        for (SysMenu menu : children) {
+            if (menuIds != null && !menuIds.contains(menu.getId())) {
+                continue;
+            }
+            MenuDTO dto = converter.apply(menu);
+            dto.setChildren(project(menu.getId(), menuIds, converter));
+            result.add(dto);
+        }
+        return result;
+    }
+}
@@ -0,0 +1,42 @@
+package org.example.ssoserver.cache;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 带版本号的用户权限缓存条目
+ * 写入时记录全局版本号、用户版本号及用户所属角色的版本号，读取时与当前版本号比对，不一致即视为过期
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class PermissionCacheEntry {
+
+    /**
+     * 写入时的全局版本号
+     */
+    private Long generation;
+
+    /**
+     * 写入时的用户版本号
+     */
+    private Long userGeneration;
+
+    /**
+     * 写入时用户所属各角色的版本号（角色ID -> 版本号）
+     */
+    private Map<Long, Long> roleGenerations;
+
+    /**
+     * 缓存内容（角色标识或权限标识列表）
+     */
+    private List<String> values;
+}
@@ -0,0 +1,203 @@
+package org.example.ssoserver.cache;
+
+import cn.hutool.cache.impl.LRUCache;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ssoserver.security.PermissionCatalog;
+import org.example.ssoserver.security.PermissionSnapshot;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * 用户权限本地缓存（L1）
+ * 位于Redis缓存（L2）之前，容量有界、固定TTL，并通过发布/订阅在集群内同步失效。
+ * 缓存内容为经权限目录编译后的位图快照
+ */
+@Slf4j
+@Component
+public class PermissionLocalCache {
+
+    /**
+     * 权限缓存失效频道
+     */
+    public static final String INVALIDATE_CHANNEL = "sso:cache:permission";
+
+    // 失效消息格式
+    private static final String USER_MESSAGE_PREFIX = "user:";
+    private static final String ALL_MESSAGE = "all";
+
+    // 单条失效消息携带的最大用户数，超出时整体失效本地缓存
+    private static final int MAX_USERS_PER_MESSAGE = 1000;
+
+    private final CacheSyncBus cacheSyncBus;
+    private final LRUCache<Long, PermissionSnapshot> roleCache;
+    private final LRUCache<Long, PermissionSnapshot> permissionCache;
+    private final LRUCache<Long, Set<Long>> menuCache;
+
+    // 角色与权限各自独立的ID空间；角色校验保持Sa-Token默认的模糊匹配
+    private final PermissionCatalog roleCatalog = new PermissionCatalog(false);
+    private final PermissionCatalog permissionCatalog = new PermissionCatalog();
+
+    public PermissionLocalCache(CacheSyncBus cacheSyncBus,
+                                @Value("${permission-cache.local.max-size:10000}") int maxSize,
+                                @Value("${permission-cache.local.expire-seconds:60}") long expireSeconds) {
+        this.cacheSyncBus = cacheSyncBus;
+        this.roleCache = new LRUCache<>(maxSize, expireSeconds * 1000);
+        this.permissionCache = new LRUCache<>(maxSize, expireSeconds * 1000);
+        this.menuCache = new LRUCache<>(maxSize, expireSeconds * 1000);
+    }
+
+    @PostConstruct
+    public void init() {
+        cacheSyncBus.subscribe(INVALIDATE_CHANNEL, this::onInvalidateMessage);
+    }
+
+    // ========================================
+    // 读写
+    // ========================================
+
+    public PermissionSnapshot getRoles(Long userId) {
+        // 不刷新访问时间，保证TTL为固定过期
+        return roleCache.get(userId, false);
+    }
+
+    /**
+     * 编译并缓存用户角色
+     *
+     * @return 编译后的角色快照
+     */
+    public PermissionSnapshot putRoles(Long userId, List<String> roles) {
+        PermissionSnapshot snapshot = roleCatalog.compile(roles != null ? roles : List.of());
+        roleCache.put(userId, snapshot);
+        return snapshot;
+    }
+
+    public PermissionSnapshot getPermissions(Long userId) {
+        return permissionCache.get(userId, false);
+    }
+
+    /**
+     * 编译并缓存用户权限
+     *
+     * @return 编译后的权限快照
+     */
+    public PermissionSnapshot putPermissions(Long userId, List<String> permissions) {
+        PermissionSnapshot snapshot = permissionCatalog.compile(permissions != null ? permissions : List.of());
+        permissionCache.put(userId, snapshot);
+        return snapshot;
+    }
+
+    public Set<Long> getMenuIds(Long userId) {
+        return menuCache.get(userId, false);
+    }
+
+    /**
+     * 缓存用户菜单ID集合
+     *
+     * @return 不可修改的菜单ID集合
+     */
+    public Set<Long> putMenuIds(Long userId, Collection<Long> menuIds) {
+        Set<Long> ids = menuIds != null ? Set.copyOf(menuIds) : Set.of();
+        menuCache.put(userId, ids);
+        return ids;
+    }
+
+    // ========================================
+    // 失效
+    // ========================================
+
+    /**
+     * 失效指定用户（本节点立即生效，并广播到其他节点）
+     */
+    public void evictUser(Long userId) {
+        evictUserLocally(userId);
+        cacheSyncBus.publish(INVALIDATE_CHANNEL, USER_MESSAGE_PREFIX + userId);
+    }
+
+    /**
+     * 批量失效用户（本节点立即生效，并以一条消息广播到其他节点）
+     */
+    public void evictUsers(Collection<Long> userIds) {
+        if (userIds == null || userIds.isEmpty()) {
+            return;
+        }
+        if (userIds.size() > MAX_USERS_PER_MESSAGE) {
+            evictAll();
+            return;
+        }
+        userIds.forEach(this::evictUserLocally);
+        String ids = userIds.stream().map(String::valueOf).collect(Collectors.joining(","));
+        cacheSyncBus.publish(INVALIDATE_CHANNEL, USER_MESSAGE_PREFIX + ids);
+    }
+
+    /**
+     * 失效全部用户（本节点立即生效，并广播到其他节点）
+     */
+    public void evictAll() {
+        evictAllLocally();
+        cacheSyncBus.publish(INVALIDATE_CHANNEL, ALL_MESSAGE);
+    }
+
+    /**
+     * 获取缓存统计信息
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("roles", buildStats(roleCache, roleCatalog));
+        stats.put("permissions", buildStats(permissionCache, permissionCatalog));
+        stats.put("menus", buildStats(menuCache, null));
+        return stats;
+    }
+
+    // ========================================
+    // 私有辅助方法
+    // ========================================
+
+    private void onInvalidateMessage(String message) {
+        if (ALL_MESSAGE.equals(message)) {
+            evictAllLocally();
+        } else if (message.startsWith(USER_MESSAGE_PREFIX)) {
+            for (String id : message.substring(USER_MESSAGE_PREFIX.length()).split(",")) {
+                evictUserLocally(Long.valueOf(id));
+            }
+        } else {
+            log.warn("未知的权限缓存失效消息: {}", message);
+        }
+    }
+
+    private void evictUserLocally(Long userId) {
+        roleCache.remove(userId);
+        permissionCache.remove(userId);
+        menuCache.remove(userId);
+    }
+
+    private void evictAllLocally() {
+        roleCache.clear();
+        permissionCache.clear();
+        menuCache.clear();
+    }
+
+    private Map<String, Object> buildStats(LRUCache<Long, ?> cache, PermissionCatalog catalog) {
+        long hits = cache.getHitCount();
+        long misses = cache.getMissCount();
+        long total = hits + misses;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("capacity", cache.capacity());
+        stats.put("hitCount", hits);
+        stats.put("missCount", misses);
+        stats.put("hitRate", total == 0 ? 0D : (double) hits / total);
+        if (catalog != null) {
+            stats.put("catalogSize", catalog.size());
+        }
+        return stats;
+    }
+}
@@ -0,0 +1,106 @@
+package org.example.ssoserver.cache;
+
+import cn.hutool.cache.impl.LRUCache;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * 用户快照本地缓存
+ * 票据验证、令牌刷新等只需判断用户能否登录的路径按ID读取 {@link UserSnapshot}，不再每次按主键查询 sys_user。
+ * 容量有界、固定TTL；用户资料、状态、锁定、密码变更时失效，并通过发布/订阅在集群内同步。
+ */
+@Slf4j
+@Component
+public class UserLocalCache {
+
+    /**
+     * 用户缓存失效频道
+     */
+    public static final String INVALIDATE_CHANNEL = "sso:cache:user";
+
+    private final CacheSyncBus cacheSyncBus;
+    private final LRUCache<Long, UserSnapshot> cache;
+
+    public UserLocalCache(CacheSyncBus cacheSyncBus,
+                          @Value("${user-cache.local.max-size:10000}") int maxSize,
+                          @Value("${user-cache.local.expire-seconds:60}") long expireSeconds) {
+        this.cacheSyncBus = cacheSyncBus;
+        this.cache = new LRUCache<>(maxSize, expireSeconds * 1000);
+    }
+
+    @PostConstruct
+    public void init() {
+        cacheSyncBus.subscribe(INVALIDATE_CHANNEL, this::onInvalidateMessage);
+    }
+
+    public UserSnapshot get(Long userId) {
+        // 不刷新访问时间，保证TTL为固定过期
+        return cache.get(userId, false);
+    }
+
+    public void put(UserSnapshot snapshot) {
+        cache.put(snapshot.id(), snapshot);
+    }
+
+    /**
+     * 失效指定用户并广播到其他节点
+     * 本节点立即失效；处于事务中时提交后再失效一次并广播，避免事务期间重新加载到提交前的数据
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        cache.remove(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    evictAndBroadcast(userId);
+                }
+            });
+        } else {
+            evictAndBroadcast(userId);
+        }
+    }
+
+    /**
+     * 获取缓存统计信息
+     */
+    public Map<String, Object> getStats() {
+        long hits = cache.getHitCount();
+        long misses = cache.getMissCount();
+        long total = hits + misses;
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("size", cache.size());
+        stats.put("capacity", cache.capacity());
+        stats.put("hitCount", hits);
+        stats.put("missCount", misses);
+        stats.put("hitRate", total == 0 ? 0D : (double) hits / total);
+        return stats;
+    }
+
+    // ========================================
+    // 私有辅助方法
+    // ========================================
+
+    private void evictAndBroadcast(Long userId) {
+        cache.remove(userId);
+        cacheSyncBus.publish(INVALIDATE_CHANNEL, String.valueOf(userId));
+    }
+
+    private void onInvalidateMessage(String message) {
+        try {
+            cache.remove(Long.valueOf(message));
+        } catch (NumberFormatException e) {
+            log.warn("未知的用户缓存失效消息: {}", message);
+        }
+    }
+}
@@ -0,0 +1,52 @@
+package org.example.ssoserver.cache;
+
+import org.example.ssoserver.entity.SysUser;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * 用户精简快照
+ * 仅包含登录状态判断和构建用户信息所需的字段，不含密码、盐值及每次登录都会变化的统计字段
+ */
+public record UserSnapshot(Long id, String username, String nickname, String realName,
+                           String phone, String email, String avatar, Integer gender, LocalDate birthday,
+                           String userType, String status, Integer isLocked,
+                           LocalDateTime createTime, String remark) {
+
+    public static UserSnapshot of(SysUser user) {
+        return new UserSnapshot(user.getId(), user.getUsername(), user.getNickname(), user.getRealName(),
+                user.getPhone(), user.getEmail(), user.getAvatar(), user.getGender(), user.getBirthday(),
+                user.getUserType(), user.getStatus(), user.getIsLocked(),
+                user.getCreateTime(), user.getRemark());
+    }
+
+    /**
+     * 是否可以登录（与 {@link SysUser#canLogin()} 一致）
+     */
+    public boolean canLogin() {
+        return "1".equals(status) && !(isLocked != null && isLocked == 1);
+    }
+
+    /**
+     * 还原为仅含快照字段的用户实体
+     */
+    public SysUser toUser() {
+        SysUser user = new SysUser();
+        user.setId(id);
+        user.setUsername(username);
+        user.setNickname(nickname);
+        user.setRealName(realName);
+        user.setPhone(phone);
+        user.setEmail(email);
+        user.setAvatar(avatar);
+        user.setGender(gender);
+        user.setBirthday(birthday);
+        user.setUserType(userType);
+        user.setStatus(status);
+        user.setIsLocked(isLocked);
+        user.setCreateTime(createTime);
+        user.setRemark(remark);
+        return user;
+    }
+}
@@ -2,21 +2,34 @@ package org.example.ssoserver.config;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.example.ssoserver.serializer.BinaryValueCodec;
+import org.example.ssoserver.serializer.CompactRedisSerializer;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.redis.connection.RedisConnectionFactory;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.listener.RedisMessageListenerContainer;
 import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
 import org.springframework.data.redis.serializer.StringRedisSerializer;
 
+import java.util.List;
+
 /**
  * Redis配置类
  */
 @Configuration
 public class RedisConfig {
 
+    /**
+     * 值写入格式：binary（热点类型使用紧凑二进制）或 json
+     */
+    public static final String VALUE_CODEC_BINARY = "binary";
+
     @Bean
-    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory) {
+    public RedisTemplate<String, Object> redisTemplate(RedisConnectionFactory connectionFactory,
+                                                       List<BinaryValueCodec<?>> codecs,
+                                                       @Value("${redis.value-codec:binary}") String valueCodec) {
         RedisTemplate<String, Object> template = new RedisTemplate<>();
         template.setConnectionFactory(connectionFactory);
 
@@ -24,18 +37,40 @@ public class RedisConfig {
         template.setKeySerializer(new StringRedisSerializer());
         template.setHashKeySerializer(new StringRedisSerializer());
 
-        // 配置支持JSR310时间的ObjectMapper
+        // 热点类型写为紧凑二进制，其余类型及旧数据仍走JSON
+        CompactRedisSerializer valueSerializer = new CompactRedisSerializer(jsonRedisSerializer(), codecs,
+                VALUE_CODEC_BINARY.equalsIgnoreCase(valueCodec));
+        template.setValueSerializer(valueSerializer);
+        template.setHashValueSerializer(valueSerializer);
+
+        template.afterPropertiesSet();
+        return template;
+    }
+
+    /**
+     * 支持JSR310时间并携带类型信息的JSON序列化器
+     */
+    public static GenericJackson2JsonRedisSerializer jsonRedisSerializer() {
         ObjectMapper objectMapper = new ObjectMapper();
         objectMapper.registerModule(new JavaTimeModule());
         // 启用类型信息，解决反序列化时的类型转换问题
         objectMapper.activateDefaultTyping(objectMapper.getPolymorphicTypeValidator(), ObjectMapper.DefaultTyping.NON_FINAL);
+        return new GenericJackson2JsonRedisSerializer(objectMapper);
+    }
 
-        // 使用配置了JSR310的JSON序列化器作为value的序列化器
-        GenericJackson2JsonRedisSerializer jsonSerializer = new GenericJackson2JsonRedisSerializer(objectMapper);
-        template.setValueSerializer(jsonSerializer);
-        template.setHashValueSerializer(jsonSerializer);
-
-        template.afterPropertiesSet();
-        return template;
+    /**
+     * Redis消息监听容器（用于本地缓存的集群失效广播）
+     * 不随容器自动启动，由CacheSyncBus在应用就绪后启动，避免Redis不可用时阻断应用启动
+     */
+    @Bean
+    public RedisMessageListenerContainer redisMessageListenerContainer(RedisConnectionFactory connectionFactory) {
+        RedisMessageListenerContainer container = new RedisMessageListenerContainer() {
+            @Override
+            public boolean isAutoStartup() {
+                return false;
+            }
+        };
+        container.setConnectionFactory(connectionFactory);
+        return container;
     }
 }
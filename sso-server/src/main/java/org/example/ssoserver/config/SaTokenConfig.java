@@ -3,9 +3,18 @@ package org.example.ssoserver.config;
 import cn.dev33.satoken.interceptor.SaInterceptor;
 import cn.dev33.satoken.router.SaRouter;
 import cn.dev33.satoken.stp.StpInterface;
+import cn.dev33.satoken.stp.StpLogic;
 import cn.dev33.satoken.stp.StpUtil;
+import cn.dev33.satoken.fun.strategy.SaHasElementFunction;
+import cn.dev33.satoken.strategy.SaStrategy;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.example.ssoserver.security.PermissionSnapshot;
 import org.example.ssoserver.service.PermissionService;
+import org.example.ssoserver.token.AccessTokenDenylist;
+import org.example.ssoserver.token.SignedAccessTokenCodec;
+import org.example.ssoserver.token.StatelessStpLogic;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
@@ -44,6 +53,31 @@ public class SaTokenConfig implements WebMvcConfigurer {
         })).addPathPatterns("/**");
     }
     
+    /**
+     * 注册权限匹配策略
+     * StpInterface返回的列表来自用户权限快照且前缀树匹配与模糊匹配结果一致时，直接使用快照的位图和前缀树匹配，
+     * 避免Sa-Token默认的逐项模糊匹配；角色列表、含段内或中间段通配的权限列表及其他列表仍使用默认策略
+     */
+    @PostConstruct
+    public void registerPermissionMatcher() {
+        SaHasElementFunction defaultHasElement = SaStrategy.instance.hasElement;
+        SaStrategy.instance.setHasElement((list, element) -> {
+            PermissionSnapshot snapshot = PermissionSnapshot.of(list);
+            return snapshot != null && snapshot.isTrieMatchable()
+                    ? snapshot.implies(element) : defaultHasElement.apply(list, element);
+        });
+    }
+    
+    /**
+     * 无状态签名访问令牌模式（access-token.mode=stateless）
+     * Sa-Token自动注入该StpLogic，令牌校验改为本地验签
+     */
+    @Bean
+    @ConditionalOnProperty(name = "access-token.mode", havingValue = SignedAccessTokenCodec.MODE_STATELESS)
+    public StpLogic statelessStpLogic(SignedAccessTokenCodec tokenCodec, AccessTokenDenylist denylist) {
+        return new StatelessStpLogic(tokenCodec, denylist);
+    }
+    
     /**
      * 自定义权限验证接口扩展
      */
@@ -17,8 +17,9 @@ import org.example.ssoserver.service.AuthService;
 import org.example.ssoserver.service.SysUserService;
 import org.example.ssoserver.dto.RefreshTokenInfo;
 import org.example.ssoserver.service.impl.AuthServiceImpl;
-import org.springframework.data.redis.core.RedisTemplate;
+import org.example.ssoserver.token.RefreshTokenStore;
 import org.springframework.validation.annotation.Validated;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -46,10 +47,7 @@ public class AuthController {
 
     private final AuthService authService;
     private final SysUserService userService;
-    private final RedisTemplate<String, Object> redisTemplate;
-
-    // Refresh Token前缀
-    private static final String REFRESH_TOKEN_PREFIX = "sso:refresh:";
+    private final RefreshTokenStore refreshTokenStore;
     
     // ========================================
     // 用户登录相关接口
@@ -83,6 +81,9 @@ public class AuthController {
 
         } catch (BusinessException e) {
             log.warn("用户登录失败: account={}, reason={}", request.getAccount(), e.getMessage());
+            if (ResultCode.TOO_MANY_REQUESTS.getCode().equals(e.getCode())) {
+                httpResponse.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+            }
             return ApiResponse.error(e.getCode(), e.getMessage());
         } catch (Exception e) {
             log.error("用户登录异常: account={}", request.getAccount(), e);
@@ -326,16 +327,15 @@ public class AuthController {
     public ApiResponse<Void> revokeRefreshToken(@RequestParam @NotBlank String refreshToken) {
         try {
             // 验证refresh token存在并获取用户信息
-            String refreshKey = REFRESH_TOKEN_PREFIX + refreshToken;
-            Object refreshTokenInfo = redisTemplate.opsForValue().get(refreshKey);
+            RefreshTokenInfo refreshTokenInfo = refreshTokenStore.get(refreshToken);
 
             if (refreshTokenInfo == null) {
                 return ApiResponse.error("Refresh Token不存在");
             }
 
             // 删除refresh token
-            Boolean deleted = redisTemplate.delete(refreshKey);
-            if (Boolean.TRUE.equals(deleted)) {
+            boolean deleted = refreshTokenStore.delete(refreshToken);
+            if (deleted) {
                 log.info("Refresh Token撤销成功: refreshToken={}", refreshToken);
                 return ApiResponse.success("Refresh Token撤销成功");
             } else {
@@ -354,8 +354,7 @@ public class AuthController {
     @Operation(summary = "获取Refresh Token状态", description = "获取Refresh Token的详细信息（仅用于调试）")
     public ApiResponse<Map<String, Object>> getRefreshTokenStatus(@RequestParam @NotBlank String refreshToken) {
         try {
-            String refreshKey = REFRESH_TOKEN_PREFIX + refreshToken;
-            RefreshTokenInfo refreshTokenInfo = (RefreshTokenInfo) redisTemplate.opsForValue().get(refreshKey);
+            RefreshTokenInfo refreshTokenInfo = refreshTokenStore.get(refreshToken);
 
             if (refreshTokenInfo == null) {
                 return ApiResponse.error("Refresh Token不存在或已过期");
@@ -386,19 +385,8 @@ public class AuthController {
     @Operation(summary = "Refresh Token统计", description = "获取Refresh Token的使用统计信息")
     public ApiResponse<Map<String, Object>> getRefreshTokenStatistics() {
         try {
-            Map<String, Object> stats = new HashMap<>();
-
-            // 使用Redis的keys命令获取所有refresh token的数量（注意：生产环境应避免使用keys）
-            // 这里为了演示，我们返回一些模拟的统计信息
-            stats.put("totalRefreshTokens", "模拟数据");
-            stats.put("activeRefreshTokens", "模拟数据");
-            stats.put("expiredRefreshTokens", "模拟数据");
-            stats.put("averageLifetime", "模拟数据");
-            stats.put("topUsers", "模拟数据");
-
-            // 实际实现应该使用Redis的SCAN命令或者维护单独的统计数据结构
+            Map<String, Object> stats = refreshTokenStore.getStatistics();
             log.info("获取Refresh Token统计信息");
-
             return ApiResponse.success("统计信息获取成功", stats);
         } catch (Exception e) {
             log.error("获取Refresh Token统计信息异常", e);
@@ -414,14 +402,13 @@ public class AuthController {
     @Operation(summary = "清理过期Refresh Token", description = "清理所有过期的Refresh Token（管理员功能）")
     public ApiResponse<Map<String, Object>> cleanupExpiredRefreshTokens() {
         try {
-            // 这里应该实现清理逻辑
-            // 实际实现可以使用Redis的SCAN命令遍历所有refresh token，删除过期的
+            long cleaned = refreshTokenStore.cleanupExpired();
 
             Map<String, Object> result = new HashMap<>();
-            result.put("cleanedTokens", 0);
-            result.put("remainingTokens", "模拟数据");
+            result.put("cleanedTokens", cleaned);
+            result.put("remainingTokens", refreshTokenStore.getStatistics().get("totalTokens"));
 
-            log.info("清理过期Refresh Token完成");
+            log.info("清理过期Refresh Token完成: cleaned={}", cleaned);
 
             return ApiResponse.success("清理完成", result);
         } catch (Exception e) {
@@ -430,6 +417,29 @@ public class AuthController {
         }
     }
 
+    /**
+     * 撤销用户的全部Refresh Token
+     */
+    @PostMapping("/refresh-token/revoke-all/{userId}")
+    @SaCheckRole("ADMIN")
+    @Operation(summary = "撤销用户全部Refresh Token", description = "撤销指定用户的全部刷新令牌（管理员功能）")
+    public ApiResponse<Map<String, Object>> revokeAllRefreshTokens(@PathVariable Long userId) {
+        try {
+            long revoked = refreshTokenStore.revokeAll(userId);
+
+            Map<String, Object> result = new HashMap<>();
+            result.put("userId", userId);
+            result.put("revokedTokens", revoked);
+
+            log.info("撤销用户全部Refresh Token完成: userId={}, revoked={}", userId, revoked);
+
+            return ApiResponse.success("撤销完成", result);
+        } catch (Exception e) {
+            log.error("撤销用户全部Refresh Token异常: userId={}", userId, e);
+            return ApiResponse.error("撤销失败");
+        }
+    }
+
     // ========================================
     // 用户信息相关接口
     // ========================================
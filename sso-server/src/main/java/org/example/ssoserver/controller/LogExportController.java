@@ -0,0 +1,85 @@
+package org.example.ssoserver.controller;
+
+import cn.dev33.satoken.annotation.SaCheckPermission;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.example.common.exception.BusinessException;
+import org.example.common.result.ResultCode;
+import org.example.ssoserver.audit.LogExporter;
+import org.example.ssoserver.audit.LogExporter.Format;
+import org.example.ssoserver.audit.LogExporter.LogType;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.*;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+
+import jakarta.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 审计日志导出控制器
+ * 登录日志、安全事件日志以CSV或NDJSON流式导出，数据量不受内存限制
+ */
+@Slf4j
+@RestController
+@RequestMapping("/log")
+@RequiredArgsConstructor
+@Tag(name = "审计日志", description = "登录日志、安全事件日志导出接口")
+public class LogExportController {
+
+    private static final DateTimeFormatter FILE_TIME_FORMATTER = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private final LogExporter logExporter;
+
+    /**
+     * 导出审计日志
+     * 时间格式 yyyy-MM-dd HH:mm:ss，时间范围为 [startTime, endTime)
+     */
+    @GetMapping("/export")
+    @SaCheckPermission("monitor:loginlog:list")
+    @Operation(summary = "导出审计日志", description = "按时间范围和用户流式导出登录日志或安全事件日志，支持CSV/NDJSON及gzip压缩")
+    public void exportLogs(
+            @RequestParam(defaultValue = "login") String type,
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            @RequestParam(required = false) Long userId,
+            @RequestParam(required = false) String username,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime startTime,
+            @RequestParam(required = false) @DateTimeFormat(pattern = "yyyy-MM-dd HH:mm:ss") LocalDateTime endTime,
+            HttpServletResponse response) throws IOException {
+        LogType logType = switch (type) {
+            case "login" -> LogType.LOGIN;
+            case "security" -> LogType.SECURITY_EVENT;
+            default -> throw new BusinessException(ResultCode.PARAM_ERROR, "不支持的日志类型: " + type);
+        };
+        Format exportFormat = switch (format) {
+            case "csv" -> Format.CSV;
+            case "ndjson" -> Format.NDJSON;
+            default -> throw new BusinessException(ResultCode.PARAM_ERROR, "不支持的导出格式: " + format);
+        };
+        if (startTime != null && endTime != null && !startTime.isBefore(endTime)) {
+            throw new BusinessException(ResultCode.PARAM_ERROR, "开始时间必须早于结束时间");
+        }
+        if (logType == LogType.SECURITY_EVENT && username != null) {
+            throw new BusinessException(ResultCode.PARAM_ERROR, "安全事件日志仅支持按用户ID筛选");
+        }
+
+        String fileName = (logType == LogType.LOGIN ? "login_log_" : "security_event_log_")
+                + LocalDateTime.now().format(FILE_TIME_FORMATTER) + "." + format + (gzip ? ".gz" : "");
+        response.setContentType(gzip ? "application/gzip"
+                : exportFormat == Format.CSV ? "text/csv;charset=UTF-8" : "application/x-ndjson;charset=UTF-8");
+        response.setHeader("Content-Disposition", "attachment; filename=\"" + fileName + "\"");
+
+        log.info("导出审计日志: type={}, format={}, gzip={}, userId={}, username={}, startTime={}, endTime={}",
+                type, format, gzip, userId, username, startTime, endTime);
+        try {
+            logExporter.export(logType, exportFormat, gzip,
+                    new LogExporter.Query(userId, username, startTime, endTime), response.getOutputStream());
+        } catch (IOException e) {
+            // 响应已开始写出，无法再返回错误信息（通常是客户端中断下载）
+            log.warn("审计日志导出中断: type={}, {}", type, e.getMessage());
+        }
+    }
+}
@@ -468,6 +468,21 @@ public class PermissionController {
         }
     }
 
+    /**
+     * 获取权限缓存统计
+     */
+    @GetMapping("/cache/stats")
+    @SaCheckRole("ADMIN")
+    @Operation(summary = "权限缓存统计", description = "获取本节点权限本地缓存的命中率等统计信息")
+    public ApiResponse<Map<String, Object>> getPermissionCacheStats() {
+        try {
+            return ApiResponse.success(permissionService.getPermissionCacheStats());
+        } catch (Exception e) {
+            log.error("获取权限缓存统计异常", e);
+            return ApiResponse.error("获取权限缓存统计失败");
+        }
+    }
+
     // ========================================
     // 私有辅助方法
     // ========================================
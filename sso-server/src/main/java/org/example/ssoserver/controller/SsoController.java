@@ -19,6 +19,7 @@ import org.example.ssoserver.service.SysUserService;
 import org.example.ssoserver.service.UserRegisterService;
 import org.springframework.stereotype.Controller;
 import org.springframework.ui.Model;
+import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.ModelAndView;
 import io.swagger.v3.oas.annotations.Operation;
@@ -145,9 +146,11 @@ public class SsoController {
             LoginResponse loginResponse = authService.ssoLogin(loginRequest);
 
             if (loginResponse != null && loginResponse.getAccessToken() != null) {
-                // 登录成功，生成SSO票据
+                // 登录成功，复用登录时已签发的SSO票据（未指定重定向地址时才单独签发）
                 Long userId = StpUtil.getLoginIdAsLong();
-                String ticket = authService.generateSsoTicket(userId, clientId, redirect);
+                String ticket = loginResponse.getTicket() != null
+                        ? loginResponse.getTicket()
+                        : authService.generateSsoTicket(userId, clientId, redirect);
 
                 log.info("SSO登录成功: username={}, userId={}, ticket={}", username, userId, ticket);
 
@@ -164,6 +167,14 @@ public class SsoController {
                 response.getWriter().write("{\"code\":400,\"message\":\"用户名或密码错误\"}");
             }
         } catch (Exception e) {
+            if (e instanceof BusinessException be && ResultCode.TOO_MANY_REQUESTS.getCode().equals(be.getCode())) {
+                log.warn("SSO登录被拒绝: username={}, reason={}", username, be.getMessage());
+                response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                response.setContentType("application/json;charset=UTF-8");
+                response.getWriter().write("{\"code\":" + ResultCode.TOO_MANY_REQUESTS.getCode()
+                        + ",\"message\":\"" + be.getMessage() + "\"}");
+                return;
+            }
             log.error("SSO登录异常: username={}", username, e);
             response.setContentType("application/json;charset=UTF-8");
             response.getWriter().write("{\"code\":500,\"message\":\"登录失败：" + e.getMessage() + "\"}");
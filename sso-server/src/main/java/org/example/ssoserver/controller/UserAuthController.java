@@ -5,6 +5,7 @@ import cn.hutool.core.util.StrUtil;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -16,8 +17,10 @@ import org.example.ssoserver.dto.RegisterRequest;
 import org.example.ssoserver.dto.RegisterResponse;
 import org.example.ssoserver.entity.SysUser;
 import org.example.ssoserver.security.CustomAuthenticationProvider;
+import org.example.ssoserver.security.ratelimit.LoginRateLimiter;
 import org.example.ssoserver.service.UserRegisterService;
 import org.example.ssoserver.util.Md5SaltUtil;
+import org.springframework.http.HttpStatus;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
@@ -45,6 +48,7 @@ public class UserAuthController {
     private final UserRegisterService userRegisterService;
     private final AuthenticationManager authenticationManager;
     private final CustomAuthenticationProvider customAuthenticationProvider;
+    private final LoginRateLimiter loginRateLimiter;
     
     /**
      * 用户注册
@@ -79,20 +83,34 @@ public class UserAuthController {
     @PostMapping("/login")
     @Operation(summary = "用户登录", description = "用户密码登录接口，支持用户名、手机号、邮箱登录")
     public ApiResponse<LoginResponse> login(@Valid @RequestBody LoginRequest request,
-                                          HttpServletRequest httpRequest) {
+                                          HttpServletRequest httpRequest,
+                                          HttpServletResponse httpResponse) {
         try {
             log.info("用户登录请求: account={}, loginType={}", request.getAccount(), request.getLoginType());
             
             // 设置客户端信息
             enrichLoginRequest(request, httpRequest);
             
+            // 按账号/IP/网段限流，与其他密码登录入口共用限额
+            LoginRateLimiter.Permit permit = loginRateLimiter.tryAcquire(request.getAccount(), request.getClientIp());
+            if (permit == null) {
+                log.warn("用户登录被限流: account={}, ip={}", request.getAccount(), request.getClientIp());
+                httpResponse.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+                return ApiResponse.error(ResultCode.TOO_MANY_REQUESTS.getCode(), "登录尝试过于频繁，请稍后重试");
+            }
+            
             // 使用 Spring Security 进行认证
-            Authentication authentication = new UsernamePasswordAuthenticationToken(
+            UsernamePasswordAuthenticationToken authentication = new UsernamePasswordAuthenticationToken(
                     request.getAccount(), request.getPassword());
+            // 客户端IP作为认证详情传给认证提供者，用于记录最后登录IP
+            authentication.setDetails(request.getClientIp());
             
             Authentication result = authenticationManager.authenticate(authentication);
             
             if (result.isAuthenticated()) {
+                // 登录成功不计入限流
+                permit.refund();
+                
                 // 认证成功，获取用户信息
                 SysUser user = (SysUser) result.getPrincipal();
 
@@ -7,6 +7,7 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.common.model.ApiResponse;
 import org.example.common.model.UserDTO;
+import org.example.common.model.CursorPageResult;
 import org.example.common.model.PageResult;
 import org.example.common.exception.BusinessException;
 import org.example.common.result.ResultCode;
@@ -65,6 +66,31 @@ public class UserController {
         }
     }
     
+    /**
+     * 搜索用户（游标分页）
+     * 适用于大数据量：关键字走全文索引，按创建时间倒序，翻页传入上一页返回的 nextCursor
+     */
+    @GetMapping("/search")
+    @SaCheckPermission("system:user:list")
+    @Operation(summary = "搜索用户", description = "按关键字搜索用户，游标分页，可选返回近似总数")
+    public ApiResponse<CursorPageResult<UserDTO>> searchUsers(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") Integer pageSize,
+            @RequestParam(required = false) String userType,
+            @RequestParam(required = false) String status,
+            @RequestParam(required = false) String keyword,
+            @RequestParam(defaultValue = "false") boolean withTotal) {
+        try {
+            CursorPageResult<UserDTO> result = userService.searchUsers(cursor, pageSize, userType, status, keyword, withTotal);
+            return ApiResponse.success(result);
+        } catch (BusinessException e) {
+            return ApiResponse.error(e.getCode(), e.getMessage());
+        } catch (Exception e) {
+            log.error("搜索用户异常", e);
+            return ApiResponse.error("搜索用户失败");
+        }
+    }
+    
     /**
      * 根据ID查询用户详情
      */
@@ -395,21 +421,8 @@ public class UserController {
     @Operation(summary = "用户统计", description = "获取用户统计信息")
     public ApiResponse<Map<String, Object>> getUserStatistics() {
         try {
-            Map<String, Object> statistics = new HashMap<>();
-
-            // 总用户数
-            statistics.put("totalUsers", userService.countUsers(null, null));
-
-            // 正常用户数
-            statistics.put("activeUsers", userService.countUsers(null, "1"));
-
-            // 禁用用户数
-            statistics.put("disabledUsers", userService.countUsers(null, "0"));
-
-            // 各类型用户数
-            statistics.put("normalUsers", userService.countUsers("normal", "1"));
-            statistics.put("enterpriseUsers", userService.countUsers("enterprise", "1"));
-            statistics.put("airlineUsers", userService.countUsers("airline", "1"));
+            // 总用户数、正常/禁用用户数、各类型正常用户数，由统计计数器维护
+            Map<String, Object> statistics = new HashMap<>(userService.getUserStatistics());
 
             return ApiResponse.success(statistics);
         } catch (Exception e) {
@@ -4,6 +4,7 @@ import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.example.common.model.UserDTO;
 
 import java.time.LocalDateTime;
 
@@ -34,5 +35,10 @@ public class SsoTicketInfo {
      * 创建时间
      */
     private LocalDateTime createTime;
+    
+    /**
+     * 签发时的用户信息快照（含角色与权限），验证票据时直接返回，无需查询数据库
+     */
+    private UserDTO user;
 }
 
@@ -0,0 +1,75 @@
+package org.example.ssoserver.entity;
+
+import com.baomidou.mybatisplus.annotation.*;
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * 安全事件日志实体类
+ * 对应数据库表：security_event_log
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@TableName("security_event_log")
+public class SecurityEventLog {
+    
+    /**
+     * ID
+     */
+    @TableId(value = "id", type = IdType.AUTO)
+    private Long id;
+    
+    /**
+     * 用户ID
+     */
+    @TableField("user_id")
+    private Long userId;
+    
+    /**
+     * 事件类型，见 {@link org.example.common.enums.SecurityEventType}
+     */
+    @TableField("event_type")
+    private String eventType;
+    
+    /**
+     * 事件描述
+     */
+    @TableField("event_description")
+    private String eventDescription;
+    
+    /**
+     * 客户端IP
+     */
+    @TableField("client_ip")
+    private String clientIp;
+    
+    /**
+     * User-Agent
+     */
+    @TableField("user_agent")
+    private String userAgent;
+    
+    /**
+     * 风险级别：LOW、MEDIUM、HIGH
+     */
+    @TableField("risk_level")
+    private String riskLevel;
+    
+    /**
+     * 是否已处理：0-否，1-是
+     */
+    @TableField("is_handled")
+    private Integer isHandled;
+    
+    /**
+     * 创建时间
+     */
+    @TableField("create_time")
+    private LocalDateTime createTime;
+}
@@ -0,0 +1,37 @@
+package org.example.ssoserver.mapper;
+
+import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
+import org.example.ssoserver.entity.SecurityEventLog;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * 安全事件日志Mapper接口
+ */
+public interface SecurityEventLogMapper extends BaseMapper<SecurityEventLog> {
+
+    /**
+     * 按ID游标分批查询安全事件（用于导出）
+     * @param afterId 上一批最后一个ID
+     * @param userId 用户ID，可为空
+     * @param startTime 开始时间（含），可为空
+     * @param endTime 结束时间（不含），可为空
+     * @param limit 每批条数
+     * @return 安全事件列表
+     */
+    @Select("<script>" +
+            "SELECT id, user_id, event_type, event_description, client_ip, user_agent, risk_level, is_handled, create_time " +
+            "FROM security_event_log WHERE id &gt; #{afterId}" +
+            "<if test='userId != null'> AND user_id = #{userId}</if>" +
+            "<if test='startTime != null'> AND create_time &gt;= #{startTime}</if>" +
+            "<if test='endTime != null'> AND create_time &lt; #{endTime}</if>" +
+            " ORDER BY id LIMIT #{limit}" +
+            "</script>")
+    List<SecurityEventLog> selectForExport(@Param("afterId") long afterId, @Param("userId") Long userId,
+                                           @Param("startTime") LocalDateTime startTime,
+                                           @Param("endTime") LocalDateTime endTime,
+                                           @Param("limit") int limit);
+}
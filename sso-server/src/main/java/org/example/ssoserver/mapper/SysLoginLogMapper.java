@@ -1,11 +1,57 @@
 package org.example.ssoserver.mapper;
 
 import com.baomidou.mybatisplus.core.mapper.BaseMapper;
+import org.apache.ibatis.annotations.Insert;
+import org.apache.ibatis.annotations.Param;
+import org.apache.ibatis.annotations.Select;
 import org.example.ssoserver.entity.SysLoginLog;
 
+import java.time.LocalDateTime;
+import java.util.List;
+
 /**
  * 登录日志Mapper接口
  */
 public interface SysLoginLogMapper extends BaseMapper<SysLoginLog> {
-    
+
+    /**
+     * 批量插入登录日志（单条多行INSERT）
+     * @param logs 登录日志列表
+     * @return 插入行数
+     */
+    @Insert("<script>" +
+            "INSERT INTO sys_login_log (user_id, username, login_type, login_ip, login_location, browser, os, " +
+            "device_type, device_fingerprint, login_time, status, msg) VALUES " +
+            "<foreach collection='logs' item='item' separator=','>" +
+            "(#{item.userId}, #{item.username}, #{item.loginType}, #{item.loginIp}, #{item.loginLocation}, " +
+            "#{item.browser}, #{item.os}, #{item.deviceType}, #{item.deviceFingerprint}, #{item.loginTime}, " +
+            "#{item.status}, #{item.msg})" +
+            "</foreach>" +
+            "</script>")
+    int insertBatch(@Param("logs") List<SysLoginLog> logs);
+
+    /**
+     * 按ID游标分批查询登录日志（用于导出）
+     * @param afterId 上一批最后一个ID
+     * @param userId 用户ID，可为空
+     * @param username 用户账号，可为空
+     * @param startTime 开始时间（含），可为空
+     * @param endTime 结束时间（不含），可为空
+     * @param limit 每批条数
+     * @return 登录日志列表
+     */
+    @Select("<script>" +
+            "SELECT id, user_id, username, login_type, login_ip, login_location, browser, os, device_type, " +
+            "device_fingerprint, login_time, status, msg FROM sys_login_log WHERE id &gt; #{afterId}" +
+            "<if test='userId != null'> AND user_id = #{userId}</if>" +
+            "<if test='username != null'> AND username = #{username}</if>" +
+            "<if test='startTime != null'> AND login_time &gt;= #{startTime}</if>" +
+            "<if test='endTime != null'> AND login_time &lt; #{endTime}</if>" +
+            " ORDER BY id LIMIT #{limit}" +
+            "</script>")
+    List<SysLoginLog> selectForExport(@Param("afterId") long afterId, @Param("userId") Long userId,
+                                      @Param("username") String username,
+                                      @Param("startTime") LocalDateTime startTime,
+                                      @Param("endTime") LocalDateTime endTime,
+                                      @Param("limit") int limit);
 }
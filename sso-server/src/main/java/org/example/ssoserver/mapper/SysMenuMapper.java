@@ -43,6 +43,16 @@ public interface SysMenuMapper extends BaseMapper<SysMenu> {
     @Select("SELECT menu_id FROM sys_role_menu WHERE role_id = #{roleId}")
     List<Long> selectMenuIdsByRoleId(@Param("roleId") Long roleId);
     
+    /**
+     * 根据用户ID查询菜单ID列表
+     * @param userId 用户ID
+     * @return 菜单ID列表
+     */
+    @Select("SELECT DISTINCT rm.menu_id FROM sys_role_menu rm " +
+            "INNER JOIN sys_user_role ur ON rm.role_id = ur.role_id " +
+            "WHERE ur.user_id = #{userId}")
+    List<Long> selectMenuIdsByUserId(@Param("userId") Long userId);
+    
     /**
      * 根据用户ID查询权限标识列表
      * @param userId 用户ID
@@ -9,11 +9,33 @@ import org.example.ssoserver.entity.SysUser;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
 
 /**
  * 用户信息Mapper接口
  */
 public interface SysUserMapper extends BaseMapper<SysUser> {
+
+    /**
+     * 用户搜索的过滤条件：全文检索与LIKE二选一（fulltext / like 参数），均为空时不按关键字过滤
+     */
+    String USER_SEARCH_CONDITIONS =
+            // create_time 是分页游标的一部分，为空的行无法生成游标，不参与搜索
+            " AND create_time IS NOT NULL" +
+            "<if test='userType != null'> AND user_type = #{userType}</if>" +
+            "<if test='status != null'> AND status = #{status}</if>" +
+            "<if test='fulltext != null'> AND MATCH(username, nickname, real_name, phone, email) AGAINST(#{fulltext} IN BOOLEAN MODE)</if>" +
+            "<if test='like != null'> AND (username LIKE #{like} OR nickname LIKE #{like} OR real_name LIKE #{like}" +
+            " OR phone LIKE #{like} OR email LIKE #{like})</if>";
+    
+    /**
+     * 按ID游标分页查询账号标识（仅用户名、手机号、邮箱），用于构建账号存在性过滤器
+     * @param afterId 上一页最后一个ID
+     * @param limit 每页条数
+     * @return 用户标识列表
+     */
+    @Select("SELECT id, username, phone, email FROM sys_user WHERE id > #{afterId} ORDER BY id LIMIT #{limit}")
+    List<SysUser> selectIdentifiersAfter(@Param("afterId") long afterId, @Param("limit") int limit);
     
     /**
      * 根据用户名查询用户
@@ -40,12 +62,19 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
     SysUser selectByEmail(@Param("email") String email);
     
     /**
-     * 根据登录账号查询用户（支持用户名、手机号、邮箱）
+     * 根据登录账号在多个标识列中查询用户（账号类型无法确定时使用）
+     * 每列一个分支以UNION合并，各分支均可使用对应的单列索引
      * @param account 登录账号
-     * @return 用户信息
+     * @param columns 候选列名（仅限 username、phone、email）
+     * @return 匹配的用户，最多2条
      */
-    @Select("SELECT * FROM sys_user WHERE (username = #{account} OR phone = #{account} OR email = #{account}) AND status = '1'")
-    SysUser selectByAccount(@Param("account") String account);
+    @Select("<script>" +
+            "<foreach collection='columns' item='column' separator=' UNION '>" +
+            "SELECT * FROM sys_user WHERE ${column} = #{account} AND status = '1'" +
+            "</foreach>" +
+            " LIMIT 2" +
+            "</script>")
+    List<SysUser> selectByAccountUnion(@Param("account") String account, @Param("columns") List<String> columns);
     
     /**
      * 检查用户名是否存在
@@ -97,6 +126,32 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
             "last_failed_login_time = #{failTime} WHERE id = #{userId}")
     int updateLoginFailInfo(@Param("userId") Long userId, @Param("failTime") LocalDateTime failTime);
     
+    /**
+     * 合并写入一段时间内的登录统计增量
+     * @param userId 用户ID
+     * @param successCount 登录成功次数
+     * @param loginIp 最后登录IP（期间无成功登录时为null）
+     * @param loginTime 最后登录时间（期间无成功登录时为null）
+     * @param resetFailures 期间是否有成功登录或解锁（失败次数先清零）
+     * @param failedCount 清零后（或原有基础上）新增的失败次数
+     * @param failTime 最后失败时间（期间无失败时为null）
+     * @return 更新行数
+     */
+    @Update("UPDATE sys_user SET login_count = login_count + #{successCount}, " +
+            "last_login_ip = COALESCE(#{loginIp}, last_login_ip), " +
+            "last_login_time = COALESCE(#{loginTime}, last_login_time), " +
+            "failed_login_count = CASE WHEN #{resetFailures} THEN #{failedCount} " +
+            "ELSE failed_login_count + #{failedCount} END, " +
+            "last_failed_login_time = COALESCE(#{failTime}, last_failed_login_time) " +
+            "WHERE id = #{userId}")
+    int applyLoginStats(@Param("userId") Long userId,
+                        @Param("successCount") int successCount,
+                        @Param("loginIp") String loginIp,
+                        @Param("loginTime") LocalDateTime loginTime,
+                        @Param("resetFailures") boolean resetFailures,
+                        @Param("failedCount") int failedCount,
+                        @Param("failTime") LocalDateTime failTime);
+    
     /**
      * 锁定用户账号
      * @param userId 用户ID
@@ -136,6 +191,44 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
             "WHERE ur.role_id = #{roleId} AND u.status = '1'")
     List<SysUser> selectByRoleId(@Param("roleId") Long roleId);
     
+    /**
+     * 搜索用户（游标分页），按 create_time、id 倒序
+     * @param userType 用户类型，可为空
+     * @param status 状态，可为空
+     * @param fulltext 全文检索表达式（BOOLEAN MODE），可为空
+     * @param like LIKE匹配模式（已转义），可为空
+     * @param cursorTime 上一页最后一条的创建时间，首页为空
+     * @param cursorId 上一页最后一条的ID
+     * @param limit 查询条数
+     * @return 用户列表（不含密码和盐值）
+     */
+    @Select("<script>" +
+            "SELECT id, username, nickname, real_name, phone, email, avatar, gender, birthday, status, user_type, " +
+            "last_login_time, last_login_ip, login_count, create_time, update_time, remark FROM sys_user" +
+            "<where>" + USER_SEARCH_CONDITIONS +
+            "<if test='cursorTime != null'> AND (create_time &lt; #{cursorTime} OR (create_time = #{cursorTime} AND id &lt; #{cursorId}))</if>" +
+            "</where>" +
+            " ORDER BY create_time DESC, id DESC LIMIT #{limit}" +
+            "</script>")
+    List<SysUser> searchUsers(@Param("userType") String userType, @Param("status") String status,
+                              @Param("fulltext") String fulltext, @Param("like") String like,
+                              @Param("cursorTime") LocalDateTime cursorTime, @Param("cursorId") Long cursorId,
+                              @Param("limit") int limit);
+    
+    /**
+     * 统计搜索结果数量，最多统计到上限
+     * @param limit 统计上限
+     * @return 匹配数量（不超过上限）
+     */
+    @Select("<script>" +
+            "SELECT COUNT(*) FROM (SELECT 1 FROM sys_user" +
+            "<where>" + USER_SEARCH_CONDITIONS + "</where>" +
+            " LIMIT #{limit}) t" +
+            "</script>")
+    long countSearchUsers(@Param("userType") String userType, @Param("status") String status,
+                          @Param("fulltext") String fulltext, @Param("like") String like,
+                          @Param("limit") int limit);
+    
     /**
      * 根据用户类型查询用户列表
      * @param userType 用户类型
@@ -177,4 +270,11 @@ public interface SysUserMapper extends BaseMapper<SysUser> {
      */
     @Select("SELECT COUNT(*) FROM sys_user WHERE user_type = #{userType} AND status = '1'")
     long countByUserType(@Param("userType") String userType);
+    
+    /**
+     * 按用户类型和状态分组统计用户数量
+     * @return 分组统计结果（userType、status、total）
+     */
+    @Select("SELECT user_type AS userType, status, COUNT(*) AS total FROM sys_user GROUP BY user_type, status")
+    List<Map<String, Object>> countGroupByTypeAndStatus();
 }
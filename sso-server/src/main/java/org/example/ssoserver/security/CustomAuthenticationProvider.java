@@ -2,9 +2,10 @@ package org.example.ssoserver.security;
 
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.example.ssoserver.audit.LoginStatsAccumulator;
 import org.example.ssoserver.entity.SysUser;
-import org.example.ssoserver.mapper.SysUserMapper;
-import org.example.ssoserver.util.Md5SaltUtil;
+import org.example.ssoserver.service.PasswordService;
+import org.example.ssoserver.service.SysUserService;
 import org.springframework.security.authentication.AuthenticationProvider;
 import org.springframework.security.authentication.BadCredentialsException;
 import org.springframework.security.authentication.DisabledException;
@@ -15,13 +16,12 @@ import org.springframework.security.core.AuthenticationException;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.stereotype.Component;
 
-import java.time.LocalDateTime;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
  * 自定义认证提供者
- * 使用 MD5 + 盐值进行密码验证
+ * 密码校验委托给 PasswordService（按存储哈希的格式选择算法）
  * 
  * @author SSO Team
  * @since 2.0.0
@@ -31,7 +31,9 @@ import java.util.List;
 @Slf4j
 public class CustomAuthenticationProvider implements AuthenticationProvider {
     
-    private final SysUserMapper userMapper;
+    private final PasswordService passwordService;
+    private final SysUserService userService;
+    private final LoginStatsAccumulator loginStatsAccumulator;
     
     /**
      * 最大登录失败次数
@@ -47,7 +49,7 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
         
         try {
             // 1. 查询用户信息
-            SysUser user = userMapper.selectByAccount(username);
+            SysUser user = userService.getUserByAccount(username);
             if (user == null) {
                 log.warn("用户不存在: {}", username);
                 throw new BadCredentialsException("用户名或密码错误");
@@ -57,11 +59,11 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
             checkUserStatus(user);
             
             // 3. 验证密码
-            boolean passwordMatches = Md5SaltUtil.matches(password, user.getPassword(), user.getSalt());
+            boolean passwordMatches = passwordService.matchesWithSalt(password, user.getPassword(), user.getSalt());
             
             if (passwordMatches) {
                 // 密码正确 - 重置失败次数并更新登录信息
-                handleSuccessfulLogin(user);
+                handleSuccessfulLogin(user, authentication.getDetails() instanceof String ip ? ip : null);
                 
                 // 创建认证成功的 Authentication 对象
                 List<SimpleGrantedAuthority> authorities = new ArrayList<>();
@@ -89,9 +91,9 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
                 
             } else {
                 // 密码错误 - 记录失败次数
-                handleFailedLogin(user);
+                int failedCount = handleFailedLogin(user);
                 
-                log.warn("用户密码错误: username={}, failedCount={}", username, user.getFailedLoginCount() + 1);
+                log.warn("用户密码错误: username={}, failedCount={}", username, failedCount);
                 throw new BadCredentialsException("用户名或密码错误");
             }
             
@@ -120,80 +122,37 @@ public class CustomAuthenticationProvider implements AuthenticationProvider {
             throw new LockedException("账号已被锁定，请联系管理员");
         }
         
-        // 检查登录失败次数
-        if (user.getFailedLoginCount() != null && user.getFailedLoginCount() >= MAX_FAILED_ATTEMPTS) {
+        // 检查登录失败次数（以Redis计数器为准，与SSO登录入口一致）
+        int failedCount = loginStatsAccumulator.getEffectiveFailedCount(user.getId(), user.getFailedLoginCount());
+        if (failedCount >= MAX_FAILED_ATTEMPTS) {
             // 自动锁定账号
-            lockUser(user);
+            userService.lockUser(user.getId(), "登录失败次数过多");
             log.warn("用户因登录失败次数过多被自动锁定: userId={}, username={}, failedCount={}", 
-                    user.getId(), user.getUsername(), user.getFailedLoginCount());
+                    user.getId(), user.getUsername(), failedCount);
             throw new LockedException("登录失败次数过多，账号已被锁定");
         }
     }
     
     /**
-     * 处理登录成功
+     * 处理登录成功（登录统计与失败次数清零经合并器写入）
      */
-    private void handleSuccessfulLogin(SysUser user) {
-        try {
-            SysUser updateUser = new SysUser();
-            updateUser.setId(user.getId());
-            updateUser.setFailedLoginCount(0);  // 重置失败次数
-            updateUser.setLastLoginTime(LocalDateTime.now());
-            updateUser.setLoginCount((user.getLoginCount() != null ? user.getLoginCount() : 0) + 1);
-            
-            userMapper.updateById(updateUser);
-            
-            log.debug("更新用户登录信息成功: userId={}", user.getId());
-            
-        } catch (Exception e) {
-            log.error("更新用户登录信息失败: userId={}", user.getId(), e);
-        }
-    }
-    
-    /**
-     * 处理登录失败
-     */
-    private void handleFailedLogin(SysUser user) {
-        try {
-            int newFailedCount = (user.getFailedLoginCount() != null ? user.getFailedLoginCount() : 0) + 1;
-            
-            SysUser updateUser = new SysUser();
-            updateUser.setId(user.getId());
-            updateUser.setFailedLoginCount(newFailedCount);
-            updateUser.setLastFailedLoginTime(LocalDateTime.now());
-            
-            // 如果达到最大失败次数，锁定账号
-            if (newFailedCount >= MAX_FAILED_ATTEMPTS) {
-                updateUser.setIsLocked(1);
-                updateUser.setLockTime(LocalDateTime.now());
-            }
-            
-            userMapper.updateById(updateUser);
-            
-            log.debug("更新用户登录失败信息: userId={}, failedCount={}", user.getId(), newFailedCount);
-            
-        } catch (Exception e) {
-            log.error("更新用户登录失败信息失败: userId={}", user.getId(), e);
-        }
+    private void handleSuccessfulLogin(SysUser user, String loginIp) {
+        userService.updateLoginInfo(user.getId(), loginIp);
     }
     
     /**
-     * 锁定用户账号
+     * 处理登录失败，达到最大失败次数时锁定账号
+     *
+     * @return 记录后的失败次数
      */
-    private void lockUser(SysUser user) {
-        try {
-            SysUser updateUser = new SysUser();
-            updateUser.setId(user.getId());
-            updateUser.setIsLocked(1);
-            updateUser.setLockTime(LocalDateTime.now());
-            
-            userMapper.updateById(updateUser);
-            
+    private int handleFailedLogin(SysUser user) {
+        userService.recordLoginFailure(user.getId(), user.getFailedLoginCount());
+        int failedCount = loginStatsAccumulator.getEffectiveFailedCount(user.getId(), user.getFailedLoginCount());
+        if (failedCount >= MAX_FAILED_ATTEMPTS) {
+            userService.lockUser(user.getId(), "登录失败次数过多");
             log.info("用户账号已被锁定: userId={}, username={}", user.getId(), user.getUsername());
-            
-        } catch (Exception e) {
-            log.error("锁定用户账号失败: userId={}", user.getId(), e);
         }
+        return failedCount;
     }
     
     @Override
@@ -0,0 +1,62 @@
+package org.example.ssoserver.security;
+
+import org.example.ssoserver.entity.SysUser;
+
+import java.util.List;
+
+/**
+ * 登录主体
+ * 登录流程开始时一次性加载的用户授权上下文（角色、权限、数据范围），
+ * 同一次登录中的角色校验、响应构建等环节复用该对象，不再逐项查询缓存或数据库
+ */
+public final class LoginPrincipal {
+
+    private final SysUser user;
+    private final PermissionSnapshot roles;
+    private final PermissionSnapshot permissions;
+    private final String dataScope;
+
+    public LoginPrincipal(SysUser user, PermissionSnapshot roles, PermissionSnapshot permissions, String dataScope) {
+        this.user = user;
+        this.roles = roles != null ? roles : PermissionSnapshot.empty();
+        this.permissions = permissions != null ? permissions : PermissionSnapshot.empty();
+        this.dataScope = dataScope;
+    }
+
+    public SysUser getUser() {
+        return user;
+    }
+
+    public Long getUserId() {
+        return user != null ? user.getId() : null;
+    }
+
+    /**
+     * 角色标识列表（不可修改）
+     */
+    public List<String> getRoles() {
+        return roles.getValues();
+    }
+
+    /**
+     * 权限标识列表（不可修改）
+     */
+    public List<String> getPermissions() {
+        return permissions.getValues();
+    }
+
+    /**
+     * 数据权限范围
+     */
+    public String getDataScope() {
+        return dataScope;
+    }
+
+    public boolean hasRole(String roleKey) {
+        return roles.contains(roleKey);
+    }
+
+    public boolean hasPermission(String permission) {
+        return permissions.implies(permission);
+    }
+}
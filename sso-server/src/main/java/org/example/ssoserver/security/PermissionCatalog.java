@@ -0,0 +1,110 @@
+package org.example.ssoserver.security;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 权限目录
+ * 为每个权限标识（sys_menu.perms 或角色标识）分配一个稠密的整数ID，
+ * 用户的有效权限据此编译为位图，校验时只需按字（long）做位运算
+ *
+ * <p>ID在首次出现时分配且不回收，目录大小上限为系统中不同权限标识的数量。</p>
+ */
+public class PermissionCatalog {
+
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final AtomicInteger sequence = new AtomicInteger();
+    // 快照是否编译通配授权并替代Sa-Token默认的模糊匹配（角色目录关闭）
+    private final boolean wildcardMatching;
+
+    public PermissionCatalog() {
+        this(true);
+    }
+
+    public PermissionCatalog(boolean wildcardMatching) {
+        this.wildcardMatching = wildcardMatching;
+    }
+
+    /**
+     * 快照是否编译通配授权
+     */
+    public boolean isWildcardMatching() {
+        return wildcardMatching;
+    }
+
+    /**
+     * 获取权限标识的ID
+     *
+     * @param name 权限标识
+     * @return ID，未登记时返回-1（任何用户都不可能拥有该权限）
+     */
+    public int idOf(String name) {
+        if (name == null) {
+            return -1;
+        }
+        Integer id = ids.get(name);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * 登记权限标识，已登记时返回原ID
+     */
+    public int register(String name) {
+        return ids.computeIfAbsent(name, key -> sequence.getAndIncrement());
+    }
+
+    /**
+     * 已登记的权限标识数量
+     */
+    public int size() {
+        return ids.size();
+    }
+
+    /**
+     * 将权限标识列表编译为快照
+     */
+    public PermissionSnapshot compile(Collection<String> values) {
+        long[] words = new long[0];
+        for (String value : values) {
+            if (value == null || value.isEmpty()) {
+                continue;
+            }
+            int id = register(value);
+            int wordIndex = id >>> 6;
+            if (wordIndex >= words.length) {
+                words = Arrays.copyOf(words, Math.max(wordIndex + 1, words.length * 2));
+            }
+            words[wordIndex] |= 1L << id;
+        }
+        return new PermissionSnapshot(this, values, words);
+    }
+
+    /**
+     * 将权限标识编译为查询掩码
+     *
+     * @param requireAll 为true时，只要有一个标识未登记即返回null（全部满足的校验必然失败）；
+     *                   为false时忽略未登记的标识
+     * @return 掩码
+     */
+    long[] mask(boolean requireAll, String... names) {
+        long[] words = new long[0];
+        for (String name : names) {
+            int id = idOf(name);
+            if (id < 0) {
+                if (requireAll) {
+                    return null;
+                }
+                continue;
+            }
+            int wordIndex = id >>> 6;
+            if (wordIndex >= words.length) {
+                words = Arrays.copyOf(words, wordIndex + 1);
+            }
+            words[wordIndex] |= 1L << id;
+        }
+        return words;
+    }
+}
@@ -0,0 +1,213 @@
+package org.example.ssoserver.security;
+
+import java.util.AbstractList;
+import java.util.Collection;
+import java.util.List;
+import java.util.RandomAccess;
+
+/**
+ * 用户权限快照
+ * 保存原始权限标识列表及其编译后的位图，单个、任一、全部校验均为位运算；
+ * 含通配符的授权（如 system:*）额外编译为前缀树，由 implies 系列方法使用。
+ * 目录关闭通配匹配时（角色）不编译前缀树。
+ */
+public final class PermissionSnapshot {
+
+    private static final PermissionSnapshot EMPTY = new PermissionSnapshot(null, List.of(), new long[0]);
+
+    private final PermissionCatalog catalog;
+    private final GrantedList values;
+    private final long[] words;
+    private final PermissionTrie wildcardTrie;
+    // 前缀树匹配结果是否与Sa-Token默认的模糊匹配一致
+    private final boolean trieMatchable;
+
+    PermissionSnapshot(PermissionCatalog catalog, Collection<String> values, long[] words) {
+        this.catalog = catalog;
+        this.values = new GrantedList(values.toArray(new String[0]));
+        this.words = words;
+
+        boolean wildcardMatching = catalog != null && catalog.isWildcardMatching();
+        PermissionTrie trie = null;
+        boolean matchable = wildcardMatching;
+        if (wildcardMatching) {
+            for (String value : values) {
+                if (PermissionTrie.isWildcard(value)) {
+                    if (trie == null) {
+                        trie = new PermissionTrie();
+                    }
+                    trie.add(value);
+                    matchable &= PermissionTrie.isTrailingWildcard(value);
+                }
+            }
+        }
+        this.wildcardTrie = trie;
+        this.trieMatchable = matchable;
+    }
+
+    /**
+     * 空快照（不拥有任何权限）
+     */
+    public static PermissionSnapshot empty() {
+        return EMPTY;
+    }
+
+    /**
+     * 若列表来自权限快照（getValues返回值），返回对应快照，否则返回null
+     */
+    public static PermissionSnapshot of(List<?> list) {
+        return list instanceof GrantedList granted ? granted.snapshot() : null;
+    }
+
+    /**
+     * 是否可以用 {@link #implies} 替代Sa-Token默认的模糊匹配
+     * 目录开启通配匹配，且所有通配授权均为 {@code *} 或末段通配（如 system:*）时成立；
+     * 段内通配（如 admin*）、中间段通配（模糊匹配可跨多个分段）需交给默认策略
+     */
+    public boolean isTrieMatchable() {
+        return trieMatchable;
+    }
+
+    /**
+     * 原始权限标识列表（不可修改）
+     */
+    public List<String> getValues() {
+        return values;
+    }
+
+    // ========================================
+    // 精确匹配
+    // ========================================
+
+    /**
+     * 是否拥有指定权限
+     */
+    public boolean contains(String name) {
+        if (catalog == null) {
+            return false;
+        }
+        int id = catalog.idOf(name);
+        return id >= 0 && (id >>> 6) < words.length && (words[id >>> 6] & (1L << id)) != 0;
+    }
+
+    /**
+     * 是否拥有任一权限
+     */
+    public boolean containsAny(String... names) {
+        if (catalog == null || names == null || names.length == 0) {
+            return false;
+        }
+        if (names.length == 1) {
+            return contains(names[0]);
+        }
+        long[] mask = catalog.mask(false, names);
+        int length = Math.min(mask.length, words.length);
+        for (int i = 0; i < length; i++) {
+            if ((words[i] & mask[i]) != 0) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否拥有全部权限
+     */
+    public boolean containsAll(String... names) {
+        if (names == null || names.length == 0) {
+            return true;
+        }
+        if (catalog == null) {
+            return false;
+        }
+        long[] mask = catalog.mask(true, names);
+        if (mask == null) {
+            return false;
+        }
+        for (int i = 0; i < mask.length; i++) {
+            long word = i < words.length ? words[i] : 0L;
+            if ((word & mask[i]) != mask[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    // ========================================
+    // 通配匹配
+    // ========================================
+
+    /**
+     * 权限是否被授予（精确匹配或被通配授权覆盖）
+     */
+    public boolean implies(String name) {
+        return contains(name) || (wildcardTrie != null && wildcardTrie.matches(name));
+    }
+
+    /**
+     * 是否被授予任一权限
+     */
+    public boolean impliesAny(String... names) {
+        if (containsAny(names)) {
+            return true;
+        }
+        if (wildcardTrie == null || names == null) {
+            return false;
+        }
+        for (String name : names) {
+            if (wildcardTrie.matches(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 是否被授予全部权限
+     */
+    public boolean impliesAll(String... names) {
+        if (wildcardTrie == null) {
+            return containsAll(names);
+        }
+        if (names == null) {
+            return true;
+        }
+        for (String name : names) {
+            if (!implies(name)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 快照持有的只读权限列表，contains 走位图
+     */
+    private final class GrantedList extends AbstractList<String> implements RandomAccess {
+
+        private final String[] elements;
+
+        private GrantedList(String[] elements) {
+            this.elements = elements;
+        }
+
+        private PermissionSnapshot snapshot() {
+            return PermissionSnapshot.this;
+        }
+
+        @Override
+        public String get(int index) {
+            return elements[index];
+        }
+
+        @Override
+        public int size() {
+            return elements.length;
+        }
+
+        @Override
+        public boolean contains(Object o) {
+            return o instanceof String name && PermissionSnapshot.this.contains(name);
+        }
+    }
+}
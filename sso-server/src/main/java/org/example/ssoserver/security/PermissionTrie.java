@@ -0,0 +1,102 @@
+package org.example.ssoserver.security;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 通配符权限前缀树
+ * 按 module:resource:action 的分段组织用户授予的权限，支持以下通配写法：
+ * <ul>
+ *     <li>{@code *}：拥有全部权限</li>
+ *     <li>{@code system:*}：末段通配，匹配 system 下任意一级或多级权限，如 system:user、system:user:edit</li>
+ *     <li>{@code system:*:list}：中间段通配，仅匹配一个分段，如 system:user:list、system:role:list</li>
+ * </ul>
+ * 校验时间复杂度为 O(分段数)，与用户拥有的权限数量无关。构建完成后只读，可在多线程间共享。
+ */
+public final class PermissionTrie {
+
+    private static final String WILDCARD = "*";
+    private static final char SEPARATOR = ':';
+
+    private final Node root = new Node();
+
+    /**
+     * 是否为通配符权限
+     */
+    public static boolean isWildcard(String permission) {
+        return permission != null && permission.indexOf('*') >= 0;
+    }
+
+    /**
+     * 是否为 {@code *} 或末段通配（如 system:*），此类写法的匹配结果与Sa-Token模糊匹配一致
+     */
+    public static boolean isTrailingWildcard(String permission) {
+        int index = permission != null ? permission.indexOf('*') : -1;
+        return index >= 0 && index == permission.length() - 1
+                && (index == 0 || permission.charAt(index - 1) == SEPARATOR);
+    }
+
+    /**
+     * 添加授予的权限
+     */
+    void add(String permission) {
+        Node node = root;
+        int start = 0;
+        while (true) {
+            int end = permission.indexOf(SEPARATOR, start);
+            String segment = end < 0 ? permission.substring(start) : permission.substring(start, end);
+            if (WILDCARD.equals(segment)) {
+                if (node.wildcard == null) {
+                    node.wildcard = new Node();
+                }
+                node = node.wildcard;
+            } else {
+                node = node.children.computeIfAbsent(segment, key -> new Node());
+            }
+            if (end < 0) {
+                break;
+            }
+            start = end + 1;
+        }
+        node.terminal = true;
+    }
+
+    /**
+     * 校验权限是否被授予的权限（含通配）覆盖
+     */
+    public boolean matches(String permission) {
+        if (permission == null || permission.isEmpty()) {
+            return false;
+        }
+        return matches(root, permission, 0);
+    }
+
+    private boolean matches(Node node, String permission, int start) {
+        int end = permission.indexOf(SEPARATOR, start);
+        String segment = end < 0 ? permission.substring(start) : permission.substring(start, end);
+        boolean last = end < 0;
+
+        Node wildcard = node.wildcard;
+        if (wildcard != null) {
+            // 末段通配：覆盖剩余的一级或多级
+            if (wildcard.terminal) {
+                return true;
+            }
+            if (!last && matches(wildcard, permission, end + 1)) {
+                return true;
+            }
+        }
+
+        Node child = node.children.get(segment);
+        if (child == null) {
+            return false;
+        }
+        return last ? child.terminal : matches(child, permission, end + 1);
+    }
+
+    private static final class Node {
+        private final Map<String, Node> children = new HashMap<>(4);
+        private Node wildcard;
+        private boolean terminal;
+    }
+}
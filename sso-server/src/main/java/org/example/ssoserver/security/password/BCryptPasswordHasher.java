@@ -0,0 +1,43 @@
+package org.example.ssoserver.security.password;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.stereotype.Component;
+
+/**
+ * BCrypt哈希
+ * 盐值与代价因子编码在哈希值内，用户表中的盐值字段不参与计算
+ */
+@Component
+public class BCryptPasswordHasher implements PasswordHasher {
+
+    public static final String ALGORITHM = "bcrypt";
+
+    private final BCryptPasswordEncoder encoder;
+
+    public BCryptPasswordHasher(@Value("${password.hash.bcrypt-strength:10}") int strength) {
+        this.encoder = new BCryptPasswordEncoder(strength);
+    }
+
+    @Override
+    public String algorithm() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public boolean recognizes(String encodedPassword) {
+        return encodedPassword != null && encodedPassword.length() == 60
+                && (encodedPassword.startsWith("$2a$") || encodedPassword.startsWith("$2b$")
+                || encodedPassword.startsWith("$2y$"));
+    }
+
+    @Override
+    public String encode(String rawPassword, String salt) {
+        return encoder.encode(rawPassword);
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String encodedPassword, String salt) {
+        return rawPassword != null && encoder.matches(rawPassword, encodedPassword);
+    }
+}
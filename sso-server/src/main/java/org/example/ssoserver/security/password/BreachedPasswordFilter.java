@@ -0,0 +1,137 @@
+package org.example.ssoserver.security.password;
+
+import cn.hutool.core.util.StrUtil;
+import cn.hutool.crypto.digest.DigestUtil;
+import lombok.extern.slf4j.Slf4j;
+import org.example.common.util.BloomFilter;
+import org.example.common.util.MappedBloomFilter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Locale;
+
+/**
+ * 泄露密码筛查
+ * 离线构建的布隆过滤器文件以内存映射方式加载，不占用堆内存；过滤器中存放密码的SHA-1（大写十六进制），
+ * 可直接使用公开泄露库提供的SHA-1哈希列表构建。
+ *
+ * <p>构建方式：{@code java -cp <classpath> org.example.ssoserver.security.password.BreachedPasswordFilter <输入文件> <输出文件> [误判率]}，
+ * 输入文件每行一个明文密码或 {@code SHA1[:次数]}。未配置 password.breached-filter.path 时不启用筛查。</p>
+ */
+@Slf4j
+@Component
+public class BreachedPasswordFilter {
+
+    private static final double DEFAULT_FALSE_POSITIVE_RATE = 0.001;
+
+    private final MappedBloomFilter filter;
+
+    public BreachedPasswordFilter(@Value("${password.breached-filter.path:}") String path) {
+        this.filter = load(path);
+    }
+
+    /**
+     * 是否已加载过滤器
+     */
+    public boolean isEnabled() {
+        return filter != null;
+    }
+
+    /**
+     * 密码是否出现在泄露库中（存在误判，不会漏判）
+     */
+    public boolean isBreached(String password) {
+        if (filter == null || password == null) {
+            return false;
+        }
+        return filter.mightContain(sha1(password));
+    }
+
+    // ========================================
+    // 离线构建
+    // ========================================
+
+    /**
+     * 离线构建过滤器文件
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("用法: BreachedPasswordFilter <输入文件> <输出文件> [误判率]");
+            return;
+        }
+        Path input = Paths.get(args[0]);
+        Path output = Paths.get(args[1]);
+        double falsePositiveRate = args.length > 2 ? Double.parseDouble(args[2]) : DEFAULT_FALSE_POSITIVE_RATE;
+
+        long start = System.currentTimeMillis();
+        long count;
+        try (var lines = Files.lines(input, StandardCharsets.UTF_8)) {
+            count = lines.filter(StrUtil::isNotBlank).count();
+        }
+        BloomFilter bloomFilter = BloomFilter.create(count, falsePositiveRate);
+        try (BufferedReader reader = Files.newBufferedReader(input, StandardCharsets.UTF_8)) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                if (StrUtil.isNotBlank(line)) {
+                    bloomFilter.put(toKey(line.strip()));
+                }
+            }
+        }
+        bloomFilter.writeTo(output);
+        System.out.printf("已写入 %s: 条目=%d, 位数=%d, 哈希函数=%d, 大小=%dKB, 耗时=%dms%n", output, count,
+                bloomFilter.bitSize(), bloomFilter.hashCount(), Files.size(output) / 1024,
+                System.currentTimeMillis() - start);
+    }
+
+    /**
+     * 输入行转换为过滤器键：已是SHA-1（可带 :次数 后缀）则直接使用，否则按明文计算SHA-1
+     */
+    static String toKey(String line) {
+        int colon = line.indexOf(':');
+        String candidate = colon == 40 ? line.substring(0, 40) : line;
+        if (candidate.length() == 40 && isHex(candidate)) {
+            return candidate.toUpperCase(Locale.ROOT);
+        }
+        return sha1(line);
+    }
+
+    // ========================================
+    // 私有辅助方法
+    // ========================================
+
+    private static MappedBloomFilter load(String path) {
+        if (StrUtil.isBlank(path)) {
+            log.info("未配置泄露密码过滤器文件，跳过泄露密码筛查");
+            return null;
+        }
+        long start = System.nanoTime();
+        try {
+            MappedBloomFilter mapped = MappedBloomFilter.open(Paths.get(path));
+            log.info("泄露密码过滤器已加载: path={}, 位数={}, 哈希函数={}, 耗时={}ms", path,
+                    mapped.bitSize(), mapped.hashCount(), (System.nanoTime() - start) / 1_000_000);
+            return mapped;
+        } catch (IOException e) {
+            log.error("泄露密码过滤器加载失败，跳过泄露密码筛查: path={}", path, e);
+            return null;
+        }
+    }
+
+    private static String sha1(String password) {
+        return DigestUtil.sha1Hex(password).toUpperCase(Locale.ROOT);
+    }
+
+    private static boolean isHex(String value) {
+        for (int i = 0; i < value.length(); i++) {
+            if (Character.digit(value.charAt(i), 16) < 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
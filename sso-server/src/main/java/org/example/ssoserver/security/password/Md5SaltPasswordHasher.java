@@ -0,0 +1,33 @@
+package org.example.ssoserver.security.password;
+
+import org.example.ssoserver.util.Md5SaltUtil;
+import org.springframework.stereotype.Component;
+
+/**
+ * MD5 + 盐值哈希（历史算法，仅为兼容存量密码保留）
+ */
+@Component
+public class Md5SaltPasswordHasher implements PasswordHasher {
+
+    public static final String ALGORITHM = "md5-salt";
+
+    @Override
+    public String algorithm() {
+        return ALGORITHM;
+    }
+
+    @Override
+    public boolean recognizes(String encodedPassword) {
+        return Md5SaltUtil.isValidHash(encodedPassword);
+    }
+
+    @Override
+    public String encode(String rawPassword, String salt) {
+        return Md5SaltUtil.encrypt(rawPassword, salt);
+    }
+
+    @Override
+    public boolean matches(String rawPassword, String encodedPassword, String salt) {
+        return Md5SaltUtil.matches(rawPassword, encodedPassword, salt);
+    }
+}
@@ -0,0 +1,109 @@
+package org.example.ssoserver.security.password;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.example.common.exception.BusinessException;
+import org.example.common.result.ResultCode;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 密码哈希专用线程池
+ * 将CPU密集的哈希计算与Tomcat请求线程隔离：线程数与等待队列均有上限，
+ * 队列满时立即拒绝（429），避免撞库流量占满请求线程拖垮票据校验等其他接口。
+ */
+@Slf4j
+@Component
+public class PasswordHashExecutor {
+
+    private final ThreadPoolExecutor executor;
+    private final long awaitTimeoutMillis;
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong timeoutCount = new AtomicLong();
+
+    public PasswordHashExecutor(@Value("${password.hash.pool-size:0}") int poolSize,
+                                @Value("${password.hash.queue-capacity:64}") int queueCapacity,
+                                @Value("${password.hash.await-timeout-millis:3000}") long awaitTimeoutMillis) {
+        int threads = poolSize > 0 ? poolSize : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        AtomicInteger threadIndex = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(Math.max(1, queueCapacity)), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + threadIndex.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        this.awaitTimeoutMillis = awaitTimeoutMillis;
+        log.info("密码哈希线程池初始化: 线程数={}, 队列容量={}, 等待超时={}ms", threads, queueCapacity, awaitTimeoutMillis);
+    }
+
+    /**
+     * 在哈希线程池中执行任务并等待结果
+     *
+     * @throws BusinessException 队列已满或等待超时（TOO_MANY_REQUESTS）
+     */
+    public <T> T execute(Callable<T> task) {
+        Future<T> future;
+        try {
+            future = executor.submit(task);
+        } catch (RejectedExecutionException e) {
+            long rejected = rejectedCount.incrementAndGet();
+            if ((rejected & 1023) == 1) {
+                log.warn("密码哈希队列已满，拒绝请求: 累计拒绝={}", rejected);
+            }
+            throw BusinessException.tooManyRequests();
+        }
+
+        try {
+            return future.get(awaitTimeoutMillis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            future.cancel(true);
+            timeoutCount.incrementAndGet();
+            log.warn("密码哈希等待超时: {}ms", awaitTimeoutMillis);
+            throw BusinessException.tooManyRequests();
+        } catch (InterruptedException e) {
+            future.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new BusinessException(ResultCode.SYSTEM_ERROR, "密码校验被中断");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtimeException) {
+                throw runtimeException;
+            }
+            throw new IllegalStateException("密码哈希计算失败", cause);
+        }
+    }
+
+    /**
+     * 获取线程池统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("poolSize", executor.getMaximumPoolSize());
+        stats.put("activeThreads", executor.getActiveCount());
+        stats.put("queueDepth", executor.getQueue().size());
+        stats.put("queueRemaining", executor.getQueue().remainingCapacity());
+        stats.put("completedTasks", executor.getCompletedTaskCount());
+        stats.put("rejectedTotal", rejectedCount.get());
+        stats.put("timeoutTotal", timeoutCount.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+}
@@ -0,0 +1,32 @@
+package org.example.ssoserver.security.password;
+
+/**
+ * 密码哈希算法SPI
+ * 实现类注册为Spring Bean后由 PasswordService 自动收集，按 password.hash.algorithm 选择新密码使用的算法；
+ * 校验时按已存储哈希的格式选择算法，因此多种算法的哈希可以并存，登录成功后再透明迁移到当前算法。
+ */
+public interface PasswordHasher {
+
+    /**
+     * 算法标识（与 password.hash.algorithm 配置对应）
+     */
+    String algorithm();
+
+    /**
+     * 是否能识别该哈希值的格式
+     */
+    boolean recognizes(String encodedPassword);
+
+    /**
+     * 计算密码哈希
+     *
+     * @param rawPassword 原始密码
+     * @param salt 用户盐值（自带盐值的算法可忽略）
+     */
+    String encode(String rawPassword, String salt);
+
+    /**
+     * 校验密码
+     */
+    boolean matches(String rawPassword, String encodedPassword, String salt);
+}
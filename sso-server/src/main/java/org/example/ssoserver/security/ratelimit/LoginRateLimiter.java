@@ -0,0 +1,396 @@
+package org.example.ssoserver.security.ratelimit;
+
+import cn.hutool.cache.impl.LRUCache;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisOperations;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.net.InetAddress;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 登录限流器
+ * 按账号、客户端IP、IP网段（IPv4 /24，IPv6 /64）三个维度限制登录尝试，在任何数据库查询和密码哈希之前拒绝：
+ * <ul>
+ *     <li>本地令牌桶：每个维度的键一个桶，容量为窗口内上限，按窗口匀速补充，单节点突发在本地即被拦截</li>
+ *     <li>Redis滑动窗口：定时将各节点的本地消耗增量合并到按窗口编号分段的计数器
+ *         {@code sso:ratelimit:{维度}:{键摘要}:{窗口编号}}，按"上一窗口加权 + 当前窗口"估算集群内的尝试次数，
+ *         超出上限的键在本地标记封禁到估算值回落为止</li>
+ * </ul>
+ * 登录成功会归还本次消耗，因此实际计入的是失败和进行中的尝试；Redis不可用时仅按本地令牌桶限流。
+ * Redis key中的账号和IP均为SHA-256摘要，不保存原文。
+ */
+@Slf4j
+@Component
+public class LoginRateLimiter {
+
+    private static final String REDIS_KEY_PREFIX = "sso:ratelimit:";
+    private static final int KEY_DIGEST_BYTES = 12;
+
+    /**
+     * 限流维度
+     */
+    public enum Dimension {
+        ACCOUNT, IP, SUBNET
+    }
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final boolean enabled;
+    private final Map<Dimension, Limit> limits = new HashMap<>();
+    // 本地令牌桶，超出容量时淘汰最久未使用的键
+    private final LRUCache<String, TokenBucket> buckets;
+    // 尚未同步到Redis的消耗增量：本地键 → 增量（归还时为负）
+    private final Map<String, AtomicInteger> pendingDeltas = new ConcurrentHashMap<>();
+    // 集群计数超限的键 → 封禁截止时间（毫秒）
+    private final Map<String, Long> blockedUntil = new ConcurrentHashMap<>();
+
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong clusterBlockedCount = new AtomicLong();
+
+    public LoginRateLimiter(StringRedisTemplate stringRedisTemplate,
+                            @Value("${login-rate-limit.enabled:true}") boolean enabled,
+                            @Value("${login-rate-limit.max-tracked-keys:100000}") int maxTrackedKeys,
+                            @Value("${login-rate-limit.account.limit:10}") int accountLimit,
+                            @Value("${login-rate-limit.account.window-seconds:300}") int accountWindowSeconds,
+                            @Value("${login-rate-limit.ip.limit:30}") int ipLimit,
+                            @Value("${login-rate-limit.ip.window-seconds:60}") int ipWindowSeconds,
+                            @Value("${login-rate-limit.subnet.limit:120}") int subnetLimit,
+                            @Value("${login-rate-limit.subnet.window-seconds:60}") int subnetWindowSeconds) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.enabled = enabled;
+        this.buckets = new LRUCache<>(maxTrackedKeys);
+        limits.put(Dimension.ACCOUNT, new Limit(accountLimit, accountWindowSeconds));
+        limits.put(Dimension.IP, new Limit(ipLimit, ipWindowSeconds));
+        limits.put(Dimension.SUBNET, new Limit(subnetLimit, subnetWindowSeconds));
+        log.info("登录限流器: enabled={}, 账号={}, IP={}, 网段={}", enabled,
+                limits.get(Dimension.ACCOUNT), limits.get(Dimension.IP), limits.get(Dimension.SUBNET));
+    }
+
+    /**
+     * 尝试获取一次登录许可
+     *
+     * @param account 登录账号，可为空
+     * @param clientIp 客户端IP，可为空
+     * @return 许可（登录成功后调用 {@link Permit#refund()} 归还）；超出限制时返回null
+     */
+    public Permit tryAcquire(String account, String clientIp) {
+        if (!enabled) {
+            return Permit.NONE;
+        }
+        List<String> keys = new ArrayList<>(3);
+        addKey(keys, Dimension.ACCOUNT, normalizeAccount(account));
+        addKey(keys, Dimension.IP, clientIp);
+        addKey(keys, Dimension.SUBNET, subnetOf(clientIp));
+
+        long now = System.currentTimeMillis();
+        for (String key : keys) {
+            Long until = blockedUntil.get(key);
+            if (until != null && until > now) {
+                rejectedCount.incrementAndGet();
+                return null;
+            }
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            if (!bucketOf(keys.get(i)).tryConsume()) {
+                // 部分维度已扣减，归还后拒绝
+                for (int j = 0; j < i; j++) {
+                    bucketOf(keys.get(j)).refund();
+                }
+                rejectedCount.incrementAndGet();
+                return null;
+            }
+        }
+        for (String key : keys) {
+            addPending(key, 1);
+        }
+        return new Permit(this, keys);
+    }
+
+    /**
+     * 将本地消耗增量同步到Redis，并按集群滑动窗口计数更新封禁状态
+     */
+    @Scheduled(fixedDelayString = "${login-rate-limit.sync-interval-millis:1000}")
+    public void syncWithCluster() {
+        long now = System.currentTimeMillis();
+        blockedUntil.values().removeIf(until -> until <= now);
+        if (!enabled || pendingDeltas.isEmpty()) {
+            return;
+        }
+
+        List<String> keys = new ArrayList<>(pendingDeltas.size());
+        List<Integer> deltas = new ArrayList<>(pendingDeltas.size());
+        for (Map.Entry<String, AtomicInteger> entry : pendingDeltas.entrySet()) {
+            int delta = entry.getValue().getAndSet(0);
+            if (delta == 0) {
+                // 与addPending在同一键上互斥，仅移除期间仍为0的条目，不会丢失并发累加
+                pendingDeltas.computeIfPresent(entry.getKey(), (k, v) -> v.get() == 0 ? null : v);
+                continue;
+            }
+            keys.add(entry.getKey());
+            deltas.add(delta);
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        try {
+            List<Object> results = stringRedisTemplate.executePipelined(new SessionCallback<Object>() {
+                @Override
+                @SuppressWarnings("unchecked")
+                public <K, V> Object execute(RedisOperations<K, V> operations) {
+                    RedisOperations<String, String> ops = (RedisOperations<String, String>) operations;
+                    for (int i = 0; i < keys.size(); i++) {
+                        Limit limit = limitOf(keys.get(i));
+                        long window = now / limit.windowMillis();
+                        String current = redisKey(keys.get(i), window);
+                        ops.opsForValue().increment(current, deltas.get(i));
+                        ops.expire(current, limit.windowMillis() * 2, TimeUnit.MILLISECONDS);
+                        ops.opsForValue().get(redisKey(keys.get(i), window - 1));
+                    }
+                    return null;
+                }
+            });
+            for (int i = 0; i < keys.size(); i++) {
+                Limit limit = limitOf(keys.get(i));
+                long current = toLong(results.get(i * 3));
+                long previous = toLong(results.get(i * 3 + 2));
+                long until = blockedUntil(previous, current, limit, now);
+                if (until > now) {
+                    blockedUntil.put(keys.get(i), until);
+                    clusterBlockedCount.incrementAndGet();
+                }
+            }
+        } catch (Exception e) {
+            // 增量放回，下次重试
+            for (int i = 0; i < keys.size(); i++) {
+                addPending(keys.get(i), deltas.get(i));
+            }
+            log.warn("登录限流同步Redis失败，暂按本地限流: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 获取统计信息
+     */
+    public Map<String, Object> getStatistics() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("trackedKeys", buckets.size());
+        stats.put("pendingKeys", pendingDeltas.size());
+        stats.put("blockedKeys", blockedUntil.size());
+        stats.put("rejectedCount", rejectedCount.get());
+        stats.put("clusterBlockedCount", clusterBlockedCount.get());
+        return stats;
+    }
+
+    // ========================================
+    // 许可
+    // ========================================
+
+    /**
+     * 登录许可，登录成功后归还
+     */
+    public static final class Permit {
+
+        static final Permit NONE = new Permit(null, List.of());
+
+        private final LoginRateLimiter limiter;
+        private final List<String> keys;
+
+        private Permit(LoginRateLimiter limiter, List<String> keys) {
+            this.limiter = limiter;
+            this.keys = keys;
+        }
+
+        /**
+         * 归还本次消耗（登录成功不计入限制）
+         */
+        public void refund() {
+            for (String key : keys) {
+                limiter.bucketOf(key).refund();
+                limiter.addPending(key, -1);
+            }
+        }
+    }
+
+    // ========================================
+    // 私有辅助方法
+    // ========================================
+
+    private TokenBucket bucketOf(String key) {
+        return buckets.get(key, () -> new TokenBucket(limitOf(key)));
+    }
+
+    private Limit limitOf(String key) {
+        return limits.get(Dimension.values()[key.charAt(0) - '0']);
+    }
+
+    /**
+     * 累加待同步增量，累加在compute内完成，避免写入同步时刚被移除的计数器
+     */
+    private void addPending(String key, int delta) {
+        pendingDeltas.compute(key, (k, v) -> {
+            AtomicInteger counter = v != null ? v : new AtomicInteger();
+            counter.addAndGet(delta);
+            return counter;
+        });
+    }
+
+    /**
+     * 本地键：维度序号 + ":" + 值
+     */
+    private static void addKey(List<String> keys, Dimension dimension, String value) {
+        if (value != null && !value.isBlank()) {
+            keys.add(dimension.ordinal() + ":" + value);
+        }
+    }
+
+    private static String normalizeAccount(String account) {
+        return account == null ? null : account.trim().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * 计算IP所属网段：IPv4取前24位，IPv6取前64位；无法解析时返回null
+     */
+    static String subnetOf(String ip) {
+        if (ip == null || ip.isBlank()) {
+            return null;
+        }
+        if (ip.indexOf(':') < 0) {
+            int lastDot = ip.lastIndexOf('.');
+            return lastDot > 0 ? ip.substring(0, lastDot) + ".0/24" : null;
+        }
+        try {
+            // 含冒号的一定是IPv6字面量，不会触发DNS解析
+            byte[] address = InetAddress.getByName(ip).getAddress();
+            if (address.length == 4) {
+                return (address[0] & 0xFF) + "." + (address[1] & 0xFF) + "." + (address[2] & 0xFF) + ".0/24";
+            }
+            StringBuilder subnet = new StringBuilder(24);
+            for (int i = 0; i < 8; i += 2) {
+                subnet.append(Integer.toHexString(((address[i] & 0xFF) << 8) | (address[i + 1] & 0xFF))).append(':');
+            }
+            return subnet.append(":/64").toString();
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    /**
+     * 按滑动窗口估算值计算封禁截止时间：估算值 = 上一窗口计数 × 上一窗口剩余占比 + 当前窗口计数
+     *
+     * @return 封禁截止时间（毫秒），未超限时返回0
+     */
+    static long blockedUntil(long previous, long current, Limit limit, long now) {
+        long windowMillis = limit.windowMillis();
+        long windowStart = now - now % windowMillis;
+        double elapsed = (double) (now - windowStart) / windowMillis;
+        if (previous * (1 - elapsed) + current < limit.maxAttempts()) {
+            return 0;
+        }
+        if (current >= limit.maxAttempts() || previous <= 0) {
+            // 当前窗口已超限，至少封禁到窗口结束
+            return windowStart + windowMillis;
+        }
+        // 上一窗口的权重衰减到 (上限 - 当前计数) / 上一窗口计数 时回落
+        double releaseAt = 1 - (double) (limit.maxAttempts() - current) / previous;
+        return windowStart + (long) Math.ceil(releaseAt * windowMillis);
+    }
+
+    private static String redisKey(String localKey, long window) {
+        Dimension dimension = Dimension.values()[localKey.charAt(0) - '0'];
+        return REDIS_KEY_PREFIX + dimension.name().toLowerCase(Locale.ROOT) + ":" + digest(localKey) + ":" + window;
+    }
+
+    private static String digest(String value) {
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(value.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(Arrays.copyOf(hash, KEY_DIGEST_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    private static long toLong(Object value) {
+        if (value instanceof Number number) {
+            return number.longValue();
+        }
+        if (value instanceof String text) {
+            try {
+                return Long.parseLong(text);
+            } catch (NumberFormatException e) {
+                return 0;
+            }
+        }
+        return 0;
+    }
+
+    /**
+     * 限流规则：窗口内最多尝试次数
+     */
+    record Limit(int maxAttempts, int windowSeconds) {
+
+        long windowMillis() {
+            return windowSeconds * 1000L;
+        }
+
+        @Override
+        public String toString() {
+            return maxAttempts + "次/" + windowSeconds + "秒";
+        }
+    }
+
+    /**
+     * 本地令牌桶，容量为窗口内上限，按窗口匀速补充
+     */
+    static final class TokenBucket {
+
+        private final int capacity;
+        private final double refillPerNano;
+        private double tokens;
+        private long lastRefillNanos;
+
+        TokenBucket(Limit limit) {
+            this.capacity = limit.maxAttempts();
+            this.refillPerNano = (double) limit.maxAttempts() / TimeUnit.SECONDS.toNanos(limit.windowSeconds());
+            this.tokens = capacity;
+            this.lastRefillNanos = System.nanoTime();
+        }
+
+        synchronized boolean tryConsume() {
+            refill();
+            if (tokens < 1) {
+                return false;
+            }
+            tokens -= 1;
+            return true;
+        }
+
+        synchronized void refund() {
+            tokens = Math.min(capacity, tokens + 1);
+        }
+
+        private void refill() {
+            long now = System.nanoTime();
+            tokens = Math.min(capacity, tokens + (now - lastRefillNanos) * refillPerNano);
+            lastRefillNanos = now;
+        }
+    }
+}
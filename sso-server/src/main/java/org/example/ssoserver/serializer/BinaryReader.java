@@ -0,0 +1,93 @@
+package org.example.ssoserver.serializer;
+
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 紧凑二进制读取器，与 {@link BinaryWriter} 的编码一一对应
+ */
+public class BinaryReader {
+
+    private final byte[] buffer;
+    private int position;
+
+    public BinaryReader(byte[] buffer, int offset) {
+        this.buffer = buffer;
+        this.position = offset;
+    }
+
+    public int readByte() {
+        if (position >= buffer.length) {
+            throw new SerializationException("二进制数据不完整");
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    public Boolean readBoolean() {
+        int flag = readByte();
+        return flag == 0 ? null : flag == 2;
+    }
+
+    public Long readLong() {
+        return readByte() == 0 ? null : readVarLong();
+    }
+
+    public Integer readInt() {
+        Long value = readLong();
+        return value == null ? null : value.intValue();
+    }
+
+    public long readVarLong() {
+        long zigzag = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = readByte();
+            zigzag |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return (zigzag >>> 1) ^ -(zigzag & 1);
+            }
+        }
+        throw new SerializationException("变长整数格式错误");
+    }
+
+    public String readString() {
+        int length = (int) readVarLong() - 1;
+        if (length < 0) {
+            return null;
+        }
+        if (position + length > buffer.length) {
+            throw new SerializationException("二进制数据不完整");
+        }
+        String value = new String(buffer, position, length, StandardCharsets.UTF_8);
+        position += length;
+        return value;
+    }
+
+    public List<String> readStringList() {
+        int size = (int) readVarLong() - 1;
+        if (size < 0) {
+            return null;
+        }
+        List<String> values = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            values.add(readString());
+        }
+        return values;
+    }
+
+    public LocalDateTime readDateTime() {
+        Long millis = readLong();
+        return millis == null ? null : LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneOffset.UTC);
+    }
+
+    public LocalDate readDate() {
+        Long epochDay = readLong();
+        return epochDay == null ? null : LocalDate.ofEpochDay(epochDay);
+    }
+}
@@ -0,0 +1,41 @@
+package org.example.ssoserver.serializer;
+
+/**
+ * Redis值的紧凑二进制编解码器
+ * 实现类注册为Spring Bean后由 {@link CompactRedisSerializer} 自动收集，按值的精确类型匹配。
+ *
+ * <p>字段增删时递增 {@link CompactRedisSerializer#SCHEMA_VERSION}，并在 {@link #read} 中按版本号兼容旧格式。</p>
+ *
+ * @param <T> 值类型
+ */
+public interface BinaryValueCodec<T> {
+
+    /**
+     * 值类型（按精确类型匹配，不匹配子类）
+     */
+    Class<T> type();
+
+    /**
+     * 类型标识，写入头部，全局唯一且一旦使用不可更改
+     */
+    byte typeId();
+
+    /**
+     * 是否能编码该值，不能时交给JSON序列化器
+     */
+    default boolean supports(T value) {
+        return true;
+    }
+
+    /**
+     * 编码
+     */
+    void write(T value, BinaryWriter out);
+
+    /**
+     * 解码
+     *
+     * @param version 写入时的格式版本号
+     */
+    T read(BinaryReader in, int version);
+}
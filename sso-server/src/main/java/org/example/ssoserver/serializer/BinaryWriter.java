@@ -0,0 +1,115 @@
+package org.example.ssoserver.serializer;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 紧凑二进制写入器
+ * 整数使用ZigZag变长编码，字符串为"长度+UTF-8字节"，可空字段以长度/标记区分null，
+ * 时间按UTC纪元毫秒（LocalDateTime）或纪元天数（LocalDate）写入。
+ */
+public class BinaryWriter {
+
+    private byte[] buffer;
+    private int position;
+
+    public BinaryWriter(int initialCapacity) {
+        this.buffer = new byte[Math.max(16, initialCapacity)];
+    }
+
+    public BinaryWriter writeByte(int value) {
+        ensureCapacity(1);
+        buffer[position++] = (byte) value;
+        return this;
+    }
+
+    /**
+     * 可空布尔：0=null，1=false，2=true
+     */
+    public BinaryWriter writeBoolean(Boolean value) {
+        return writeByte(value == null ? 0 : (value ? 2 : 1));
+    }
+
+    /**
+     * 可空长整数：先写标记字节，非空时再写ZigZag变长编码
+     */
+    public BinaryWriter writeLong(Long value) {
+        if (value == null) {
+            return writeByte(0);
+        }
+        writeByte(1);
+        return writeVarLong(value);
+    }
+
+    /**
+     * 可空整数
+     */
+    public BinaryWriter writeInt(Integer value) {
+        return writeLong(value == null ? null : value.longValue());
+    }
+
+    /**
+     * 非空长整数（ZigZag变长编码）
+     */
+    public BinaryWriter writeVarLong(long value) {
+        long zigzag = (value << 1) ^ (value >> 63);
+        ensureCapacity(10);
+        while ((zigzag & ~0x7FL) != 0) {
+            buffer[position++] = (byte) ((zigzag & 0x7F) | 0x80);
+            zigzag >>>= 7;
+        }
+        buffer[position++] = (byte) zigzag;
+        return this;
+    }
+
+    /**
+     * 可空字符串：长度+1（0表示null）+ UTF-8字节
+     */
+    public BinaryWriter writeString(String value) {
+        if (value == null) {
+            return writeVarLong(0);
+        }
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        writeVarLong(bytes.length + 1L);
+        ensureCapacity(bytes.length);
+        System.arraycopy(bytes, 0, buffer, position, bytes.length);
+        position += bytes.length;
+        return this;
+    }
+
+    /**
+     * 可空字符串列表：元素数+1（0表示null）+ 各元素
+     */
+    public BinaryWriter writeStringList(List<String> values) {
+        if (values == null) {
+            return writeVarLong(0);
+        }
+        writeVarLong(values.size() + 1L);
+        for (String value : values) {
+            writeString(value);
+        }
+        return this;
+    }
+
+    public BinaryWriter writeDateTime(LocalDateTime value) {
+        return writeLong(value == null ? null : value.toInstant(ZoneOffset.UTC).toEpochMilli());
+    }
+
+    public BinaryWriter writeDate(LocalDate value) {
+        return writeLong(value == null ? null : value.toEpochDay());
+    }
+
+    public byte[] toByteArray() {
+        return Arrays.copyOf(buffer, position);
+    }
+
+    private void ensureCapacity(int extra) {
+        if (position + extra > buffer.length) {
+            buffer = Arrays.copyOf(buffer, Math.max(buffer.length << 1, position + extra));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package org.example.ssoserver.serializer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.SerializationException;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 紧凑二进制Redis值序列化器
+ * 已注册编解码器的热点类型写为 {@code [魔数 0xB1][格式版本][类型标识][字段...]}，
+ * 其余类型（计数器、Map等）仍交给JSON序列化器，保证 INCR 等命令和临时数据不受影响。
+ *
+ * <p>读取时按首字节区分：0xB1 不可能是UTF-8编码JSON的首字节，因此迁移期间旧的JSON值可以直接回退读取，
+ * 关闭二进制写入（redis.value-codec=json）即可回滚。</p>
+ */
+@Slf4j
+public class CompactRedisSerializer implements RedisSerializer<Object> {
+
+    /**
+     * 二进制格式魔数
+     */
+    public static final byte MAGIC = (byte) 0xB1;
+
+    /**
+     * 当前格式版本号（2：权限缓存条目增加用户版本号与角色版本号）
+     */
+    public static final int SCHEMA_VERSION = 2;
+
+    private static final int HEADER_LENGTH = 3;
+
+    private final RedisSerializer<Object> fallback;
+    private final boolean writeBinary;
+    private final Map<Class<?>, BinaryValueCodec<?>> codecsByType = new HashMap<>();
+    private final BinaryValueCodec<?>[] codecsById = new BinaryValueCodec<?>[256];
+
+    public CompactRedisSerializer(RedisSerializer<Object> fallback, List<BinaryValueCodec<?>> codecs, boolean writeBinary) {
+        this.fallback = fallback;
+        this.writeBinary = writeBinary;
+        for (BinaryValueCodec<?> codec : codecs) {
+            int id = codec.typeId() & 0xFF;
+            if (codecsById[id] != null) {
+                throw new IllegalStateException("二进制编解码器类型标识重复: " + id);
+            }
+            codecsById[id] = codec;
+            codecsByType.put(codec.type(), codec);
+        }
+        log.info("Redis值序列化器: 写入格式={}, 二进制类型={}", writeBinary ? "binary" : "json", codecsByType.keySet());
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public byte[] serialize(Object value) throws SerializationException {
+        BinaryValueCodec<Object> codec = value != null && writeBinary
+                ? (BinaryValueCodec<Object>) codecsByType.get(value.getClass()) : null;
+        if (codec == null || !codec.supports(value)) {
+            return fallback.serialize(value);
+        }
+        BinaryWriter out = new BinaryWriter(128);
+        out.writeByte(MAGIC).writeByte(SCHEMA_VERSION).writeByte(codec.typeId());
+        codec.write(value, out);
+        return out.toByteArray();
+    }
+
+    @Override
+    public Object deserialize(byte[] bytes) throws SerializationException {
+        if (bytes == null || bytes.length == 0) {
+            return null;
+        }
+        if (bytes[0] != MAGIC) {
+            // 迁移前写入的JSON值
+            return fallback.deserialize(bytes);
+        }
+        if (bytes.length < HEADER_LENGTH) {
+            throw new SerializationException("二进制数据头不完整");
+        }
+        int version = bytes[1] & 0xFF;
+        if (version > SCHEMA_VERSION) {
+            throw new SerializationException("不支持的二进制格式版本: " + version);
+        }
+        BinaryValueCodec<?> codec = codecsById[bytes[2] & 0xFF];
+        if (codec == null) {
+            throw new SerializationException("未知的二进制类型标识: " + (bytes[2] & 0xFF));
+        }
+        return codec.read(new BinaryReader(bytes, HEADER_LENGTH), version);
+    }
+}
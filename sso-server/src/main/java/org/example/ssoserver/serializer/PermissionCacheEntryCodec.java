@@ -0,0 +1,71 @@
+package org.example.ssoserver.serializer;
+
+import org.example.ssoserver.cache.PermissionCacheEntry;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 用户权限缓存条目编解码器
+ * 格式版本1只含全局版本号与内容，读取时用户版本号、角色版本号为null，条目按过期处理
+ */
+@Component
+public class PermissionCacheEntryCodec implements BinaryValueCodec<PermissionCacheEntry> {
+
+    @Override
+    public Class<PermissionCacheEntry> type() {
+        return PermissionCacheEntry.class;
+    }
+
+    @Override
+    public byte typeId() {
+        return 2;
+    }
+
+    @Override
+    public void write(PermissionCacheEntry value, BinaryWriter out) {
+        out.writeLong(value.getGeneration());
+        out.writeStringList(value.getValues());
+        out.writeLong(value.getUserGeneration());
+        writeGenerations(value.getRoleGenerations(), out);
+    }
+
+    @Override
+    public PermissionCacheEntry read(BinaryReader in, int version) {
+        Long generation = in.readLong();
+        List<String> values = in.readStringList();
+        if (version < 2) {
+            return new PermissionCacheEntry(generation, null, null, values);
+        }
+        return new PermissionCacheEntry(generation, in.readLong(), readGenerations(in), values);
+    }
+
+    /**
+     * 可空版本号映射：条目数+1（0表示null）+ 各条目的ID与版本号
+     */
+    private static void writeGenerations(Map<Long, Long> generations, BinaryWriter out) {
+        if (generations == null) {
+            out.writeVarLong(0);
+            return;
+        }
+        out.writeVarLong(generations.size() + 1L);
+        generations.forEach((id, generation) -> {
+            out.writeVarLong(id);
+            out.writeVarLong(generation);
+        });
+    }
+
+    private static Map<Long, Long> readGenerations(BinaryReader in) {
+        int size = (int) in.readVarLong() - 1;
+        if (size < 0) {
+            return null;
+        }
+        Map<Long, Long> generations = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            generations.put(in.readVarLong(), in.readVarLong());
+        }
+        return generations;
+    }
+}
@@ -0,0 +1,43 @@
+package org.example.ssoserver.serializer;
+
+import org.example.ssoserver.dto.RefreshTokenInfo;
+import org.springframework.stereotype.Component;
+
+/**
+ * Refresh Token信息编解码器
+ */
+@Component
+public class RefreshTokenInfoCodec implements BinaryValueCodec<RefreshTokenInfo> {
+
+    @Override
+    public Class<RefreshTokenInfo> type() {
+        return RefreshTokenInfo.class;
+    }
+
+    @Override
+    public byte typeId() {
+        return 4;
+    }
+
+    @Override
+    public void write(RefreshTokenInfo value, BinaryWriter out) {
+        out.writeLong(value.getUserId());
+        out.writeString(value.getAccessToken());
+        out.writeDateTime(value.getCreateTime());
+        out.writeDateTime(value.getExpireTime());
+        out.writeString(value.getDeviceFingerprint());
+        out.writeString(value.getClientIp());
+    }
+
+    @Override
+    public RefreshTokenInfo read(BinaryReader in, int version) {
+        return RefreshTokenInfo.builder()
+                .userId(in.readLong())
+                .accessToken(in.readString())
+                .createTime(in.readDateTime())
+                .expireTime(in.readDateTime())
+                .deviceFingerprint(in.readString())
+                .clientIp(in.readString())
+                .build();
+    }
+}
@@ -0,0 +1,45 @@
+package org.example.ssoserver.serializer;
+
+import lombok.RequiredArgsConstructor;
+import org.example.ssoserver.dto.SsoTicketInfo;
+import org.springframework.stereotype.Component;
+
+/**
+ * SSO票据编解码器
+ */
+@Component
+@RequiredArgsConstructor
+public class SsoTicketInfoCodec implements BinaryValueCodec<SsoTicketInfo> {
+
+    private final UserDTOCodec userCodec;
+
+    @Override
+    public Class<SsoTicketInfo> type() {
+        return SsoTicketInfo.class;
+    }
+
+    @Override
+    public byte typeId() {
+        return 3;
+    }
+
+    @Override
+    public void write(SsoTicketInfo value, BinaryWriter out) {
+        out.writeLong(value.getUserId());
+        out.writeString(value.getClientId());
+        out.writeString(value.getRedirectUri());
+        out.writeDateTime(value.getCreateTime());
+        userCodec.writeNullable(value.getUser(), out);
+    }
+
+    @Override
+    public SsoTicketInfo read(BinaryReader in, int version) {
+        return SsoTicketInfo.builder()
+                .userId(in.readLong())
+                .clientId(in.readString())
+                .redirectUri(in.readString())
+                .createTime(in.readDateTime())
+                .user(userCodec.readNullable(in, version))
+                .build();
+    }
+}
@@ -0,0 +1,46 @@
+package org.example.ssoserver.serializer;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+
+/**
+ * 字符串列表编解码器（角色、权限列表等）
+ */
+@Component
+@SuppressWarnings({"unchecked", "rawtypes"})
+public class StringListCodec implements BinaryValueCodec<ArrayList> {
+
+    @Override
+    public Class<ArrayList> type() {
+        return ArrayList.class;
+    }
+
+    @Override
+    public byte typeId() {
+        return 1;
+    }
+
+    /**
+     * 只有全部元素为字符串时才按字符串列表编码，其余列表交给JSON
+     */
+    @Override
+    public boolean supports(ArrayList value) {
+        for (Object element : value) {
+            if (element != null && !(element instanceof String)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void write(ArrayList value, BinaryWriter out) {
+        out.writeStringList(value);
+    }
+
+    @Override
+    public ArrayList read(BinaryReader in, int version) {
+        return (ArrayList) in.readStringList();
+    }
+}
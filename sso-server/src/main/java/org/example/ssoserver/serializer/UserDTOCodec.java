@@ -0,0 +1,98 @@
+package org.example.ssoserver.serializer;
+
+import org.example.common.model.UserDTO;
+import org.springframework.stereotype.Component;
+
+/**
+ * 用户信息编解码器（SSO票据中的用户快照）
+ */
+@Component
+public class UserDTOCodec implements BinaryValueCodec<UserDTO> {
+
+    @Override
+    public Class<UserDTO> type() {
+        return UserDTO.class;
+    }
+
+    @Override
+    public byte typeId() {
+        return 5;
+    }
+
+    @Override
+    public void write(UserDTO value, BinaryWriter out) {
+        out.writeLong(value.getId());
+        out.writeString(value.getUsername());
+        out.writeString(value.getNickname());
+        out.writeString(value.getRealName());
+        out.writeString(value.getPhone());
+        out.writeString(value.getEmail());
+        out.writeString(value.getAvatar());
+        out.writeInt(value.getGender());
+        out.writeString(value.getGenderDesc());
+        out.writeDate(value.getBirthday());
+        out.writeString(value.getStatus());
+        out.writeString(value.getStatusDesc());
+        out.writeString(value.getUserType());
+        out.writeString(value.getUserTypeDesc());
+        out.writeDateTime(value.getLastLoginTime());
+        out.writeString(value.getLastLoginIp());
+        out.writeInt(value.getLoginCount());
+        out.writeDateTime(value.getCreateTime());
+        out.writeDateTime(value.getUpdateTime());
+        out.writeStringList(value.getRoles());
+        out.writeStringList(value.getPermissions());
+        out.writeBoolean(value.getIsNewDevice());
+        out.writeInt(value.getActiveDeviceCount());
+        out.writeStringList(value.getBoundProviders());
+        out.writeString(value.getRemark());
+    }
+
+    @Override
+    public UserDTO read(BinaryReader in, int version) {
+        return UserDTO.builder()
+                .id(in.readLong())
+                .username(in.readString())
+                .nickname(in.readString())
+                .realName(in.readString())
+                .phone(in.readString())
+                .email(in.readString())
+                .avatar(in.readString())
+                .gender(in.readInt())
+                .genderDesc(in.readString())
+                .birthday(in.readDate())
+                .status(in.readString())
+                .statusDesc(in.readString())
+                .userType(in.readString())
+                .userTypeDesc(in.readString())
+                .lastLoginTime(in.readDateTime())
+                .lastLoginIp(in.readString())
+                .loginCount(in.readInt())
+                .createTime(in.readDateTime())
+                .updateTime(in.readDateTime())
+                .roles(in.readStringList())
+                .permissions(in.readStringList())
+                .isNewDevice(in.readBoolean())
+                .activeDeviceCount(in.readInt())
+                .boundProviders(in.readStringList())
+                .remark(in.readString())
+                .build();
+    }
+
+    /**
+     * 写入可空的用户信息（供嵌套使用）
+     */
+    void writeNullable(UserDTO value, BinaryWriter out) {
+        out.writeByte(value == null ? 0 : 1);
+        if (value != null) {
+            write(value, out);
+        }
+    }
+
+    /**
+     * 读取可空的用户信息（供嵌套使用）
+     */
+    UserDTO readNullable(BinaryReader in, int version) {
+        return in.readByte() == 0 ? null : read(in, version);
+    }
+}
@@ -224,6 +224,7 @@ public interface AuthService {
         private boolean passed;
         private String reason;
         private List<String> warnings;
+        private boolean newDevice;
         
         public SecurityCheckResult(boolean passed, String reason) {
             this.passed = passed;
@@ -245,5 +246,8 @@ public interface AuthService {
         
         public List<String> getWarnings() { return warnings; }
         public void setWarnings(List<String> warnings) { this.warnings = warnings; }
+        
+        public boolean isNewDevice() { return newDevice; }
+        public void setNewDevice(boolean newDevice) { this.newDevice = newDevice; }
     }
 }
@@ -3,7 +3,7 @@ package org.example.ssoserver.service;
 /**
  * 密码服务接口
  * 提供密码加密、验证、强度检查等功能
- * 使用MD5+随机盐值进行密码加密
+ * 哈希算法可插拔（见 PasswordHasher），哈希计算在专用线程池中执行
  */
 public interface PasswordService {
 
@@ -30,6 +30,13 @@ public interface PasswordService {
      */
     boolean matchesWithSalt(String rawPassword, String encodedPassword, String salt);
 
+    /**
+     * 已存储的哈希是否需要迁移到当前算法（登录成功后透明重新哈希）
+     * @param encodedPassword 已存储的哈希值
+     * @return 是否需要重新哈希
+     */
+    boolean needsRehash(String encodedPassword);
+
     /**
      * 加密密码（兼容旧接口）
      * @param rawPassword 明文密码
@@ -72,4 +79,11 @@ public interface PasswordService {
      * @return 是否为弱密码
      */
     boolean isWeakPassword(String password);
+
+    /**
+     * 检查密码是否出现在公开泄露的密码库中
+     * @param password 密码
+     * @return 是否已泄露（未加载泄露密码库时始终为false）
+     */
+    boolean isBreachedPassword(String password);
 }
@@ -5,8 +5,11 @@ import org.example.common.model.MenuDTO;
 import org.example.common.model.UserDTO;
 import org.example.ssoserver.entity.SysRole;
 import org.example.ssoserver.entity.SysMenu;
+import org.example.ssoserver.entity.SysUser;
+import org.example.ssoserver.security.LoginPrincipal;
 
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -33,6 +36,14 @@ public interface PermissionService {
      */
     List<String> getUserPermissions(Long userId);
     
+    /**
+     * 一次性加载用户的登录主体（角色、权限、数据范围）
+     * 缓存通过一次批量读取获取，未命中部分再回源数据库
+     * @param user 已通过认证的用户
+     * @return 登录主体
+     */
+    LoginPrincipal loadLoginPrincipal(SysUser user);
+    
     /**
      * 获取用户的菜单权限
      * @param userId 用户ID
@@ -79,6 +90,14 @@ public interface PermissionService {
      */
     boolean hasAnyPermission(Long userId, String... permissions);
     
+    /**
+     * 检查用户是否有全部权限
+     * @param userId 用户ID
+     * @param permissions 权限标识列表
+     * @return 是否有全部权限
+     */
+    boolean hasAllPermissions(Long userId, String... permissions);
+    
     // ========================================
     // 角色管理
     // ========================================
@@ -252,6 +271,12 @@ public interface PermissionService {
      */
     void clearAllPermissionCache();
     
+    /**
+     * 获取权限本地缓存统计信息（命中/未命中次数、容量等）
+     * @return 统计信息
+     */
+    Map<String, Object> getPermissionCacheStats();
+    
     // ========================================
     // 权限验证辅助方法
     // ========================================
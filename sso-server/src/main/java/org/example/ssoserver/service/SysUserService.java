@@ -4,10 +4,13 @@ import com.baomidou.mybatisplus.extension.plugins.pagination.Page;
 import org.example.common.dto.LoginRequest;
 import org.example.common.dto.LoginResponse;
 import org.example.common.model.UserDTO;
+import org.example.common.model.CursorPageResult;
 import org.example.common.model.PageResult;
+import org.example.ssoserver.cache.UserSnapshot;
 import org.example.ssoserver.entity.SysUser;
 
 import java.util.List;
+import java.util.Map;
 
 /**
  * 用户服务接口
@@ -61,6 +64,14 @@ public interface SysUserService {
      */
     SysUser getUserById(Long id);
 
+    /**
+     * 根据ID查询用户精简快照（优先读取本地缓存）
+     * 用于只需判断能否登录、构建用户信息的高频路径
+     * @param id 用户ID
+     * @return 用户快照，不存在时返回null
+     */
+    UserSnapshot getUserSnapshot(Long id);
+
     /**
      * 根据用户名查询用户
      * @param username 用户名
@@ -168,9 +179,10 @@ public interface SysUserService {
     /**
      * 记录登录失败
      * @param userId 用户ID
+     * @param failedLoginCount 数据库中当前的失败次数
      * @return 是否成功
      */
-    boolean recordLoginFailure(Long userId);
+    boolean recordLoginFailure(Long userId, Integer failedLoginCount);
 
     /**
      * 锁定用户账号
@@ -237,6 +249,20 @@ public interface SysUserService {
      */
     PageResult<UserDTO> getUserPage(Integer pageNum, Integer pageSize, String userType, String status, String keyword);
 
+    /**
+     * 搜索用户（游标分页，适用于大数据量）
+     * 关键字优先使用全文索引匹配，按创建时间倒序
+     * @param cursor 上一页返回的游标，首页为空
+     * @param pageSize 页大小
+     * @param userType 用户类型
+     * @param status 状态
+     * @param keyword 关键词
+     * @param withTotal 是否统计总数（超过统计上限时为近似值）
+     * @return 游标分页结果
+     */
+    CursorPageResult<UserDTO> searchUsers(String cursor, Integer pageSize, String userType, String status,
+                                          String keyword, boolean withTotal);
+
     /**
      * 根据角色查询用户列表
      * @param roleId 角色ID
@@ -256,6 +282,12 @@ public interface SysUserService {
      */
     long countUsers(String userType, String status);
 
+    /**
+     * 获取用户统计信息（总数、启用/禁用数、各类型启用用户数）
+     * @return 统计项名称到数量的映射
+     */
+    Map<String, Long> getUserStatistics();
+
     /**
      * 获取需要解锁的用户列表
      * @param lockMinutes 锁定分钟数
@@ -1,5 +1,6 @@
 package org.example.ssoserver.service.impl;
 
+import cn.dev33.satoken.stp.StpLogic;
 import cn.dev33.satoken.stp.StpUtil;
 import cn.hutool.core.util.IdUtil;
 import cn.hutool.core.util.StrUtil;
@@ -11,21 +12,32 @@ import org.example.common.model.UserDTO;
 import org.example.common.exception.BusinessException;
 import org.example.common.result.ResultCode;
 import org.example.common.util.EncryptUtil;
+import org.example.common.util.DeviceInfo;
 import org.example.common.util.DeviceUtil;
+import org.example.ssoserver.cache.UserSnapshot;
 import org.example.ssoserver.entity.SysUser;
 import org.example.ssoserver.entity.SysLoginLog;
 import org.example.ssoserver.service.AuthService;
 import org.example.ssoserver.service.SysUserService;
 import org.example.ssoserver.dto.SsoTicketInfo;
 import org.example.ssoserver.dto.RefreshTokenInfo;
+import org.example.ssoserver.security.LoginPrincipal;
+import org.example.ssoserver.security.ratelimit.LoginRateLimiter;
+import org.example.ssoserver.token.AccessTokenDenylist;
+import org.example.ssoserver.token.RefreshTokenStore;
+import org.example.ssoserver.token.SignedAccessTokenCodec;
 import org.example.ssoserver.service.PermissionService;
-import org.example.ssoserver.mapper.SysLoginLogMapper;
+import org.example.ssoserver.audit.LoginLogWriter;
+import org.example.ssoserver.audit.LoginStatsAccumulator;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Service;
 import org.springframework.beans.factory.annotation.Value;
 
-import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
 import java.util.concurrent.TimeUnit;
 
@@ -39,52 +51,55 @@ public class AuthServiceImpl implements AuthService {
     
     private final SysUserService userService;
     private final PermissionService permissionService;
-    private final SysLoginLogMapper loginLogMapper;
+    private final LoginLogWriter loginLogWriter;
+    private final LoginStatsAccumulator loginStatsAccumulator;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final RefreshTokenStore refreshTokenStore;
+    private final SignedAccessTokenCodec accessTokenCodec;
+    private final AccessTokenDenylist accessTokenDenylist;
+    private final LoginRateLimiter loginRateLimiter;
     
     // SSO票据前缀
     private static final String SSO_TICKET_PREFIX = "sso:ticket:";
     // SSO票据有效期（分钟）
     private static final int SSO_TICKET_EXPIRE_MINUTES = 5;
+    // SSO票据已使用标记后缀
+    private static final String SSO_TICKET_USED_SUFFIX = ":used";
 
-    // Refresh Token前缀
-    private static final String REFRESH_TOKEN_PREFIX = "sso:refresh:";
-
-    // Refresh Token锁前缀（用于并发控制）
-    private static final String REFRESH_TOKEN_LOCK_PREFIX = "sso:refresh:lock:";
-
-    // 锁过期时间（秒）
-    private static final int LOCK_EXPIRE_SECONDS = 30;
+    /**
+     * 票据兑换脚本：读取票据，若存在则设置已使用标记（仅首次生效），返回 {票据内容, 是否首次使用}
+     * KEYS[1]=票据key，KEYS[2]=已使用标记key，ARGV[1]=标记有效期（秒）
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> REDEEM_TICKET_SCRIPT = RedisScript.of(
+            "local payload = redis.call('GET', KEYS[1]) " +
+            "if not payload then return false end " +
+            "local marked = redis.call('SET', KEYS[2], '1', 'EX', ARGV[1], 'NX') " +
+            "return {payload, marked and 1 or 0}", List.class);
 
     // Refresh Token配置（从配置文件读取）
     @Value("${refresh-token.expire-days:7}")
     private int refreshTokenExpireDays;
 
-    @Value("${refresh-token.auto-renewal:true}")
-    private boolean refreshTokenAutoRenewal;
-
-    @Value("${refresh-token.renewal-threshold-days:1}")
-    private int refreshTokenRenewalThresholdDays;
-
     @Value("${refresh-token.device-fingerprint-check:true}")
     private boolean deviceFingerprintCheck;
     
     @Override
     public LoginResponse ssoLogin(LoginRequest request) {
+        // 按账号/IP/网段限流，在任何数据库查询和密码哈希之前拒绝
+        LoginRateLimiter.Permit permit = acquireLoginPermit(request.getAccount(), request.getClientIp());
         try {
             // 根据登录类型执行不同的登录逻辑
-            switch (request.getLoginType()) {
-                case "password":
-                    return passwordLogin(request.getAccount(), request.getPassword(), request);
-                case "sms":
-                    return smsLogin(request.getAccount(), request.getVerificationCode(), request);
-                case "email":
-                    return emailLogin(request.getAccount(), request.getVerificationCode(), request);
-                case "oauth":
-                    return oauthLogin(request.getProvider(), request.getCode(), request.getState(), request);
-                default:
-                    throw BusinessException.paramError("不支持的登录类型");
-            }
+            LoginResponse response = switch (request.getLoginType()) {
+                case "password" -> doPasswordLogin(request.getAccount(), request.getPassword(), request);
+                case "sms" -> smsLogin(request.getAccount(), request.getVerificationCode(), request);
+                case "email" -> emailLogin(request.getAccount(), request.getVerificationCode(), request);
+                case "oauth" -> oauthLogin(request.getProvider(), request.getCode(), request.getState(), request);
+                default -> throw BusinessException.paramError("不支持的登录类型");
+            };
+            // 登录成功不计入限流
+            permit.refund();
+            return response;
         } catch (BusinessException e) {
             // 记录登录失败日志
             recordLoginLog(null, request, false, e.getMessage());
@@ -98,6 +113,17 @@ public class AuthServiceImpl implements AuthService {
     
     @Override
     public LoginResponse passwordLogin(String account, String password, LoginRequest request) {
+        // 直接调用的密码登录同样限流
+        LoginRateLimiter.Permit permit = acquireLoginPermit(account, request.getClientIp());
+        LoginResponse response = doPasswordLogin(account, password, request);
+        permit.refund();
+        return response;
+    }
+    
+    /**
+     * 密码登录（调用方已完成限流）
+     */
+    private LoginResponse doPasswordLogin(String account, String password, LoginRequest request) {
         // 验证用户
         SysUser user = userService.validateUser(account, password);
         if (user == null) {
@@ -110,18 +136,20 @@ public class AuthServiceImpl implements AuthService {
             throw new BusinessException(ResultCode.LOGIN_FAIL_TOO_MANY, securityCheck.getReason());
         }
         
+        // 一次性加载登录主体，角色校验与登录响应共用
+        LoginPrincipal principal = permissionService.loadLoginPrincipal(user);
+        
         // 验证用户角色（如果指定了期望角色）
         if (request.getExpectedRole() != null && !request.getExpectedRole().isEmpty()) {
-            List<String> userRoles = getUserRoles(user.getId());
-            if (!userRoles.contains(request.getExpectedRole())) {
+            if (!principal.hasRole(request.getExpectedRole())) {
                 throw new BusinessException(ResultCode.LOGIN_FAIL_TOO_MANY, 
                     "用户角色不匹配，期望角色：" + request.getExpectedRole() + 
-                    "，实际角色：" + String.join(",", userRoles));
+                    "，实际角色：" + String.join(",", principal.getRoles()));
             }
         }
         
         // 执行登录
-        return performLogin(user, request, securityCheck.getWarnings());
+        return performLogin(principal, request, securityCheck.getWarnings(), securityCheck.isNewDevice());
     }
     
     @Override
@@ -156,6 +184,18 @@ public class AuthServiceImpl implements AuthService {
     
     @Override
     public String generateSsoTicket(Long userId, String clientId, String redirectUri) {
+        SysUser user = userService.getUserById(userId);
+        if (user == null || !user.canLogin()) {
+            throw BusinessException.userNotFound();
+        }
+        return generateSsoTicket(permissionService.loadLoginPrincipal(user), clientId, redirectUri);
+    }
+
+    /**
+     * 生成SSO票据，票据中携带签发时的用户信息快照
+     */
+    private String generateSsoTicket(LoginPrincipal principal, String clientId, String redirectUri) {
+        Long userId = principal.getUserId();
         try {
             // 生成唯一票据
             String ticket = IdUtil.fastSimpleUUID();
@@ -166,6 +206,7 @@ public class AuthServiceImpl implements AuthService {
                     .clientId(clientId)
                     .redirectUri(redirectUri)
                     .createTime(LocalDateTime.now())
+                    .user(buildUserSnapshot(principal))
                     .build();
             
             // 存储到Redis，设置过期时间
@@ -184,9 +225,15 @@ public class AuthServiceImpl implements AuthService {
     public UserDTO validateSsoTicket(String ticket, String clientId) {
         try {
             String key = SSO_TICKET_PREFIX + ticket;
-            SsoTicketInfo ticketInfo = (SsoTicketInfo) redisTemplate.opsForValue().get(key);
             
-            if (ticketInfo == null) {
+            // 读取票据并标记已使用，一次原子操作完成；脚本返回列表中的票据内容按value序列化器反序列化
+            @SuppressWarnings({"unchecked", "rawtypes"})
+            RedisSerializer<List> resultSerializer = (RedisSerializer) redisTemplate.getValueSerializer();
+            List<?> redeemed = redisTemplate.execute(REDEEM_TICKET_SCRIPT, StringRedisSerializer.UTF_8,
+                    resultSerializer, List.of(key, key + SSO_TICKET_USED_SUFFIX),
+                    String.valueOf(SSO_TICKET_EXPIRE_MINUTES * 60));
+            
+            if (redeemed == null || redeemed.isEmpty() || !(redeemed.get(0) instanceof SsoTicketInfo ticketInfo)) {
                 throw BusinessException.ssoTicketInvalid();
             }
             
@@ -195,31 +242,21 @@ public class AuthServiceImpl implements AuthService {
                 throw new BusinessException(ResultCode.SSO_TICKET_INVALID, "客户端ID不匹配");
             }
             
-            // 获取用户信息
-            SysUser user = userService.getUserById(ticketInfo.getUserId());
-            if (user == null || !user.canLogin()) {
-                throw BusinessException.userNotFound();
-            }
+            // 票据已被使用过时，在有效期内仍可重复验证
+            boolean firstUse = redeemed.size() > 1 && redeemed.get(1) instanceof Number marked && marked.longValue() == 1L;
+            log.debug("{}: ticket={}", firstUse ? "首次使用票据" : "票据已被使用，但在有效期内", ticket);
             
-            // 标记票据已使用，但保留一段时间以支持重复验证
-            String usedKey = key + ":used";
-            Boolean isUsed = redisTemplate.hasKey(usedKey);
-
-            if (Boolean.TRUE.equals(isUsed)) {
-                // 票据已被使用过，但在有效期内可以重复验证
-                log.debug("票据已被使用，但在有效期内: ticket={}", ticket);
-            } else {
-                // 首次使用，标记为已使用
-                redisTemplate.opsForValue().set(usedKey, "true", Duration.ofMinutes(5));
-                log.debug("首次使用票据: ticket={}", ticket);
+            // 优先使用签发时的用户快照，旧格式票据回退到数据库查询
+            UserDTO userDTO = ticketInfo.getUser();
+            if (userDTO == null) {
+                UserSnapshot user = userService.getUserSnapshot(ticketInfo.getUserId());
+                if (user == null || !user.canLogin()) {
+                    throw BusinessException.userNotFound();
+                }
+                userDTO = buildUserSnapshot(permissionService.loadLoginPrincipal(user.toUser()));
             }
             
-            // 转换为DTO并返回
-            UserDTO userDTO = userService.convertToDTO(user);
-            userDTO.setRoles(getUserRoles(user.getId()));
-            userDTO.setPermissions(getUserPermissions(user.getId()));
-            
-            log.info("SSO票据验证成功: ticket={}, userId={}", ticket, user.getId());
+            log.info("SSO票据验证成功: ticket={}, userId={}", ticket, userDTO.getId());
             return userDTO;
         } catch (BusinessException e) {
             throw e;
@@ -233,8 +270,8 @@ public class AuthServiceImpl implements AuthService {
     public boolean destroySsoTicket(String ticket) {
         try {
             String key = SSO_TICKET_PREFIX + ticket;
-            Boolean deleted = redisTemplate.delete(key);
-            return Boolean.TRUE.equals(deleted);
+            Long deleted = redisTemplate.delete(List.of(key, key + SSO_TICKET_USED_SUFFIX));
+            return deleted != null && deleted > 0;
         } catch (Exception e) {
             log.error("销毁SSO票据失败: ticket={}", ticket, e);
             return false;
@@ -244,7 +281,8 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public boolean ssoLogout(Long userId) {
         try {
-            // Sa-Token登出
+            // 记录撤销后再登出，其他节点据此判定令牌失效
+            revokeUserTokens(userId);
             StpUtil.logout(userId);
             
             // 清理相关缓存
@@ -281,6 +319,13 @@ public class AuthServiceImpl implements AuthService {
     
     @Override
     public String generateRefreshToken(Long userId) {
+        return generateRefreshToken(userId, null, null, null);
+    }
+
+    /**
+     * 生成refresh token，登录时直接写入关联的access token与设备信息，只需一次写入
+     */
+    private String generateRefreshToken(Long userId, String accessToken, String deviceFingerprint, String clientIp) {
         try {
             // 生成唯一refresh token
             String refreshToken = IdUtil.fastSimpleUUID();
@@ -288,17 +333,15 @@ public class AuthServiceImpl implements AuthService {
             // 构建refresh token信息
             RefreshTokenInfo refreshTokenInfo = RefreshTokenInfo.builder()
                     .userId(userId)
-                    .accessToken(null) // 在登录时会更新为对应的access token
+                    .accessToken(accessToken)
                     .createTime(LocalDateTime.now())
                     .expireTime(LocalDateTime.now().plusDays(refreshTokenExpireDays))
-                    .deviceFingerprint(null) // 在登录时会设置
-                    .clientIp(null) // 在登录时会设置
+                    .deviceFingerprint(deviceFingerprint)
+                    .clientIp(clientIp)
                     .build();
 
-            // 存储到Redis，设置过期时间
-            String key = REFRESH_TOKEN_PREFIX + refreshToken;
-            redisTemplate.opsForValue().set(key, refreshTokenInfo,
-                    refreshTokenExpireDays, TimeUnit.DAYS);
+            // 存储到Redis，过期时间与记录中的过期时间一致
+            refreshTokenStore.save(refreshToken, refreshTokenInfo);
 
             log.info("生成Refresh Token成功: userId={}, refreshToken={}", userId, refreshToken);
             return refreshToken;
@@ -320,110 +363,13 @@ public class AuthServiceImpl implements AuthService {
     
     @Override
     public String refreshAccessToken(String refreshToken) {
-        // 生成锁的key
-        String lockKey = REFRESH_TOKEN_LOCK_PREFIX + refreshToken;
-        String lockValue = IdUtil.fastSimpleUUID();
-
-        try {
-            // 尝试获取分布式锁
-            Boolean lockAcquired = redisTemplate.opsForValue().setIfAbsent(lockKey, lockValue,
-                    LOCK_EXPIRE_SECONDS, TimeUnit.SECONDS);
-
-            if (Boolean.FALSE.equals(lockAcquired)) {
-                log.warn("Refresh Token正在被其他请求处理: refreshToken={}", refreshToken);
-                throw new BusinessException(ResultCode.ERROR, "Refresh Token正在处理中，请稍后重试");
-            }
-
-            String key = REFRESH_TOKEN_PREFIX + refreshToken;
-            RefreshTokenInfo refreshTokenInfo = (RefreshTokenInfo) redisTemplate.opsForValue().get(key);
-
-            if (refreshTokenInfo == null) {
-                throw new BusinessException(ResultCode.TOKEN_INVALID, "Refresh Token不存在或已过期");
-            }
-
-            // 检查refresh token是否过期
-            if (refreshTokenInfo.getExpireTime().isBefore(LocalDateTime.now())) {
-                // 删除过期的refresh token
-                redisTemplate.delete(key);
-                log.warn("Refresh Token已过期: userId={}, refreshToken={}", refreshTokenInfo.getUserId(), refreshToken);
-                throw new BusinessException(ResultCode.TOKEN_INVALID, "Refresh Token已过期");
-            }
-
-            // 检查是否需要自动续期
-            LocalDateTime now = LocalDateTime.now();
-            LocalDateTime renewalThreshold = now.plusDays(refreshTokenRenewalThresholdDays);
-            boolean needsRenewal = refreshTokenAutoRenewal &&
-                                  refreshTokenInfo.getExpireTime().isBefore(renewalThreshold);
-
-            // 如果启用了设备指纹检查，验证设备一致性
-            if (deviceFingerprintCheck && refreshTokenInfo.getDeviceFingerprint() != null) {
-                // 验证设备指纹是否匹配（这里需要从请求中获取当前设备指纹）
-                // 由于refresh token接口可能没有完整的请求信息，我们暂时记录日志
-                log.debug("设备指纹检查已启用，存储的指纹: {}, IP: {}",
-                         refreshTokenInfo.getDeviceFingerprint(), refreshTokenInfo.getClientIp());
-            }
-
-            // 获取用户ID
-            Long userId = refreshTokenInfo.getUserId();
-
-            // 检查用户是否仍然有效
-            SysUser user = userService.getUserById(userId);
-            if (user == null || !user.canLogin()) {
-                // 删除无效的refresh token
-                redisTemplate.delete(key);
-                throw new BusinessException(ResultCode.USER_NOT_FOUND, "用户不存在或已被禁用");
-            }
-
-            // 生成新的access token
-            StpUtil.login(userId);
-            String newAccessToken = StpUtil.getTokenValue();
-
-            // 更新refresh token信息中的access token
-            refreshTokenInfo.setAccessToken(newAccessToken);
-
-            // 如果需要自动续期，延长refresh token的过期时间
-            if (needsRenewal) {
-                LocalDateTime newExpireTime = now.plusDays(refreshTokenExpireDays);
-                refreshTokenInfo.setExpireTime(newExpireTime);
-                refreshTokenInfo.setCreateTime(now); // 更新创建时间
-
-                log.info("Refresh Token自动续期: userId={}, oldExpireTime={}, newExpireTime={}",
-                        userId, refreshTokenInfo.getExpireTime(), newExpireTime);
-            }
-
-            // 重新存储到Redis
-            redisTemplate.opsForValue().set(key, refreshTokenInfo,
-                    refreshTokenExpireDays, TimeUnit.DAYS);
-
-            log.info("Refresh Token刷新成功: userId={}, refreshToken={}, newAccessToken={}, renewed={}",
-                    userId, refreshToken, newAccessToken, needsRenewal);
-
-            return newAccessToken;
-        } catch (BusinessException e) {
-            throw e;
-        } catch (Exception e) {
-            log.error("Refresh Token刷新异常: refreshToken={}", refreshToken, e);
-            throw new BusinessException(ResultCode.TOKEN_INVALID, "Refresh Token刷新失败");
-        } finally {
-            // 释放分布式锁
-            try {
-                Object lockValueObj = redisTemplate.opsForValue().get(lockKey);
-                if (lockValueObj instanceof String) {
-                    String currentLockValue = (String) lockValueObj;
-                    if (lockValue.equals(currentLockValue)) {
-                        redisTemplate.delete(lockKey);
-                        log.debug("Refresh Token锁已释放: refreshToken={}", refreshToken);
-                    }
-                }
-            } catch (Exception e) {
-                log.warn("释放Refresh Token锁失败: refreshToken={}, error={}", refreshToken, e.getMessage());
-            }
-        }
+        return rotateRefreshToken(refreshToken, null);
     }
     
     @Override
     public boolean destroyToken(String token) {
         try {
+            accessTokenDenylist.revoke(token);
             StpUtil.logoutByTokenValue(token);
             return true;
         } catch (Exception e) {
@@ -435,7 +381,9 @@ public class AuthServiceImpl implements AuthService {
     @Override
     public boolean destroyAllTokens(Long userId) {
         try {
+            revokeUserTokens(userId);
             StpUtil.logout(userId);
+            refreshTokenStore.revokeAll(userId);
             return true;
         } catch (Exception e) {
             log.error("销毁用户所有令牌失败: userId={}", userId, e);
@@ -465,23 +413,32 @@ public class AuthServiceImpl implements AuthService {
 
     @Override
     public void recordLoginLog(SysUser user, LoginRequest request, boolean success, String message) {
+        recordLoginLog(user, request, success, message, getLocationByIp(request.getClientIp()));
+    }
+
+    /**
+     * 记录登录日志（登录地点由调用方提供，避免重复查询）
+     */
+    private void recordLoginLog(SysUser user, LoginRequest request, boolean success, String message, String location) {
         try {
+            DeviceInfo deviceInfo = DeviceUtil.parse(request.getUserAgent());
             SysLoginLog loginLog = SysLoginLog.builder()
                     .userId(user != null ? user.getId() : null)
                     .username(user != null ? user.getUsername() : request.getAccount())
                     .loginType(request.getLoginType())
                     .loginIp(request.getClientIp())
-                    .loginLocation(getLocationByIp(request.getClientIp()))
-                    .browser(DeviceUtil.getBrowserName(request.getUserAgent()))
-                    .os(DeviceUtil.getOperatingSystem(request.getUserAgent()))
-                    .deviceType(DeviceUtil.getDeviceType(request.getUserAgent()).getCode())
+                    .loginLocation(location)
+                    .browser(deviceInfo.browser())
+                    .os(deviceInfo.os())
+                    .deviceType(deviceInfo.deviceType().getCode())
                     .deviceFingerprint(request.getDeviceFingerprint())
                     .loginTime(LocalDateTime.now())
                     .status(success ? "1" : "0")
                     .msg(message)
                     .build();
 
-            loginLogMapper.insert(loginLog);
+            // 异步批量写入，不占用登录请求的数据库耗时
+            loginLogWriter.submit(loginLog);
         } catch (Exception e) {
             log.error("记录登录日志失败", e);
         }
@@ -495,13 +452,14 @@ public class AuthServiceImpl implements AuthService {
                 return new SecurityCheckResult(false, "账号已被禁用或锁定");
             }
 
-            // 检查登录失败次数
-            if (user.getFailedLoginCount() != null && user.getFailedLoginCount() >= 5) {
+            // 检查登录失败次数（以Redis计数器为准，包含其他节点尚未落库的失败）
+            if (loginStatsAccumulator.getEffectiveFailedCount(user.getId(), user.getFailedLoginCount()) >= 5) {
                 return new SecurityCheckResult(false, "登录失败次数过多，账号已被锁定");
             }
 
             // 检查设备安全性（暂时放宽检测，只记录日志）
-            String riskLevel = DeviceUtil.getDeviceRiskLevel(request.getUserAgent(), isNewDevice(user.getId(), request));
+            boolean newDevice = isNewDevice(user.getId(), request);
+            String riskLevel = DeviceUtil.getDeviceRiskLevel(request.getUserAgent(), newDevice);
             if ("HIGH".equals(riskLevel)) {
                 log.warn("检测到高风险设备登录: userId={}, userAgent={}, ip={}",
                         user.getId(), request.getUserAgent(), request.getClientIp());
@@ -510,9 +468,11 @@ public class AuthServiceImpl implements AuthService {
             }
 
             // 生成安全警告
-            List<String> warnings = generateSecurityWarnings(user, request);
+            List<String> warnings = generateSecurityWarnings(newDevice);
 
-            return new SecurityCheckResult(true, "安全检查通过", warnings);
+            SecurityCheckResult result = new SecurityCheckResult(true, "安全检查通过", warnings);
+            result.setNewDevice(newDevice);
+            return result;
         } catch (Exception e) {
             log.error("安全检查异常", e);
             return new SecurityCheckResult(false, "安全检查失败");
@@ -530,39 +490,49 @@ public class AuthServiceImpl implements AuthService {
     // ========================================
 
     /**
-     * 执行登录
+     * 获取登录限流许可，超出账号/IP/网段限制时抛出429
+     */
+    private LoginRateLimiter.Permit acquireLoginPermit(String account, String clientIp) {
+        LoginRateLimiter.Permit permit = loginRateLimiter.tryAcquire(account, clientIp);
+        if (permit == null) {
+            log.debug("登录尝试过于频繁: account={}, ip={}", account, clientIp);
+            throw new BusinessException(ResultCode.TOO_MANY_REQUESTS, "登录尝试过于频繁，请稍后重试");
+        }
+        return permit;
+    }
+
+    /**
+     * 执行登录（验证码登录等未预先加载登录主体的场景）
      */
     private LoginResponse performLogin(SysUser user, LoginRequest request, List<String> warnings) {
+        return performLogin(permissionService.loadLoginPrincipal(user), request, warnings,
+                isNewDevice(user.getId(), request));
+    }
+
+    /**
+     * 执行登录
+     */
+    private LoginResponse performLogin(LoginPrincipal principal, LoginRequest request, List<String> warnings,
+                                       boolean newDevice) {
+        SysUser user = principal.getUser();
         try {
             // 生成访问令牌
             String accessToken = generateAccessToken(user, request.getRememberMe() != null ? request.getRememberMe() : false);
 
-            // 生成refresh token
-            String refreshToken = generateRefreshToken(user.getId());
-
-            // 更新refresh token信息，关联access token和设备信息
-            String refreshKey = REFRESH_TOKEN_PREFIX + refreshToken;
-            RefreshTokenInfo refreshTokenInfo = (RefreshTokenInfo) redisTemplate.opsForValue().get(refreshKey);
-            if (refreshTokenInfo != null) {
-                refreshTokenInfo.setAccessToken(accessToken);
-
-                // 生成或使用设备指纹
-                String deviceFingerprint = generateDeviceFingerprint(request);
-                refreshTokenInfo.setDeviceFingerprint(deviceFingerprint);
-                refreshTokenInfo.setClientIp(request.getClientIp());
-
-                redisTemplate.opsForValue().set(refreshKey, refreshTokenInfo,
-                        refreshTokenExpireDays, TimeUnit.DAYS);
-
-                log.debug("Refresh Token设备信息更新: userId={}, deviceFingerprint={}, ip={}",
-                         user.getId(), deviceFingerprint, request.getClientIp());
-            }
+            // 生成refresh token，同时关联access token和设备信息
+            String deviceFingerprint = generateDeviceFingerprint(request);
+            String refreshToken = generateRefreshToken(user.getId(), accessToken, deviceFingerprint, request.getClientIp());
+            log.debug("Refresh Token设备信息: userId={}, deviceFingerprint={}, ip={}",
+                     user.getId(), deviceFingerprint, request.getClientIp());
 
             // 更新用户登录信息
             userService.updateLoginInfo(user.getId(), request.getClientIp());
 
+            // 登录地点只查询一次，日志与响应共用
+            String loginLocation = getLocationByIp(request.getClientIp());
+
             // 记录登录日志
-            recordLoginLog(user, request, true, "登录成功");
+            recordLoginLog(user, request, true, "登录成功", loginLocation);
 
             // 构建登录响应
             LoginResponse response = LoginResponse.builder()
@@ -577,18 +547,18 @@ public class AuthServiceImpl implements AuthService {
                     .realName(user.getRealName())
                     .avatar(user.getAvatar())
                     .userType(user.getUserType())
-                    .roles(getUserRoles(user.getId()))
-                    .permissions(getUserPermissions(user.getId()))
-                    .isNewDevice(isNewDevice(user.getId(), request))
+                    .roles(principal.getRoles())
+                    .permissions(principal.getPermissions())
+                    .isNewDevice(newDevice)
                     .deviceType(DeviceUtil.getDeviceType(request.getUserAgent()).getCode())
-                    .loginLocation(getLocationByIp(request.getClientIp()))
+                    .loginLocation(loginLocation)
                     .loginTime(LocalDateTime.now())
                     .securityWarnings(warnings)
                     .build();
 
             // 如果是SSO登录，生成重定向信息
             if (StrUtil.isNotBlank(request.getRedirectUri())) {
-                String ticket = generateSsoTicket(user.getId(), request.getClientId(), request.getRedirectUri());
+                String ticket = generateSsoTicket(principal, request.getClientId(), request.getRedirectUri());
                 response.setTicket(ticket);
                 response.setRedirectUri(request.getRedirectUri());
                 response.setState(request.getState());
@@ -601,6 +571,16 @@ public class AuthServiceImpl implements AuthService {
         }
     }
 
+    /**
+     * 构建用户信息快照（角色与权限复制为普通列表，便于序列化）
+     */
+    private UserDTO buildUserSnapshot(LoginPrincipal principal) {
+        UserDTO userDTO = userService.convertToDTO(principal.getUser());
+        userDTO.setRoles(new ArrayList<>(principal.getRoles()));
+        userDTO.setPermissions(new ArrayList<>(principal.getPermissions()));
+        return userDTO;
+    }
+
     /**
      * 检查是否为新设备
      */
@@ -620,11 +600,11 @@ public class AuthServiceImpl implements AuthService {
     /**
      * 生成安全警告
      */
-    private List<String> generateSecurityWarnings(SysUser user, LoginRequest request) {
+    private List<String> generateSecurityWarnings(boolean newDevice) {
         List<String> warnings = new java.util.ArrayList<>();
 
         // 检查是否为新设备
-        if (isNewDevice(user.getId(), request)) {
+        if (newDevice) {
             warnings.add("检测到新设备登录");
         }
 
@@ -658,83 +638,77 @@ public class AuthServiceImpl implements AuthService {
     }
 
     /**
-     * 验证设备指纹
+     * 增强的Refresh Token刷新（带设备验证）
      */
-    private boolean validateDeviceFingerprint(String storedFingerprint, String currentFingerprint) {
-        if (!deviceFingerprintCheck) {
-            return true; // 如果未启用设备指纹检查，直接通过
+    public String refreshAccessTokenWithValidation(String refreshToken, String currentDeviceFingerprint, String currentIp) {
+        if (deviceFingerprintCheck && currentDeviceFingerprint == null) {
+            log.warn("设备指纹验证失败: 当前指纹为空, ip={}", currentIp);
+            throw new BusinessException(ResultCode.TOKEN_INVALID, "设备指纹验证失败，可能存在安全风险");
         }
+        return rotateRefreshToken(refreshToken, deviceFingerprintCheck ? currentDeviceFingerprint : null);
+    }
 
-        if (storedFingerprint == null || currentFingerprint == null) {
-            log.warn("设备指纹验证失败: 存储指纹或当前指纹为空");
-            return false;
+    /**
+     * 将用户当前的全部访问令牌加入撤销名单
+     */
+    private void revokeUserTokens(Long userId) {
+        for (String token : StpUtil.getTokenValueListByLoginId(userId)) {
+            accessTokenDenylist.revoke(token);
         }
-
-        boolean isValid = storedFingerprint.equals(currentFingerprint);
-        log.debug("设备指纹验证: stored={}, current={}, valid={}",
-                 storedFingerprint, currentFingerprint, isValid);
-        return isValid;
     }
 
     /**
-     * 增强的Refresh Token刷新（带设备验证）
+     * 轮换refresh token并签发新的访问令牌
+     * 校验、续期与记录新令牌由存储层一次原子操作完成；宽限期内的并发刷新返回同一个访问令牌
+     *
+     * @param deviceFingerprint 需校验的设备指纹，为null时不校验
      */
-    public String refreshAccessTokenWithValidation(String refreshToken, String currentDeviceFingerprint, String currentIp) {
+    private String rotateRefreshToken(String refreshToken, String deviceFingerprint) {
         try {
-            String key = REFRESH_TOKEN_PREFIX + refreshToken;
-            RefreshTokenInfo refreshTokenInfo = (RefreshTokenInfo) redisTemplate.opsForValue().get(key);
-
-            if (refreshTokenInfo == null) {
-                throw new BusinessException(ResultCode.TOKEN_INVALID, "Refresh Token不存在或已过期");
-            }
-
-            // 检查refresh token是否过期
-            LocalDateTime now = LocalDateTime.now();
-            if (refreshTokenInfo.getExpireTime().isBefore(now)) {
-                redisTemplate.delete(key);
-                log.warn("Refresh Token已过期: userId={}, refreshToken={}", refreshTokenInfo.getUserId(), refreshToken);
-                throw new BusinessException(ResultCode.TOKEN_INVALID, "Refresh Token已过期");
+            // 轮换前先检查用户是否仍然有效，避免为已禁用或锁定的用户签发访问令牌
+            Long tokenOwner = refreshTokenStore.getUserId(refreshToken);
+            if (tokenOwner != null) {
+                checkRefreshUser(tokenOwner, refreshToken, null);
             }
 
-            // 验证设备指纹
-            if (!validateDeviceFingerprint(refreshTokenInfo.getDeviceFingerprint(), currentDeviceFingerprint)) {
-                log.warn("设备指纹验证失败: userId={}, refreshToken={}", refreshTokenInfo.getUserId(), refreshToken);
-                throw new BusinessException(ResultCode.TOKEN_INVALID, "设备指纹验证失败，可能存在安全风险");
-            }
-
-            // 检查是否需要自动续期
-            LocalDateTime renewalThreshold = now.plusDays(refreshTokenRenewalThresholdDays);
-            boolean needsRenewal = refreshTokenAutoRenewal &&
-                                  refreshTokenInfo.getExpireTime().isBefore(renewalThreshold);
-
-            // 获取用户ID并验证用户
-            Long userId = refreshTokenInfo.getUserId();
-            SysUser user = userService.getUserById(userId);
-            if (user == null || !user.canLogin()) {
-                redisTemplate.delete(key);
-                throw new BusinessException(ResultCode.USER_NOT_FOUND, "用户不存在或已被禁用");
-            }
-
-            // 生成新的access token
-            StpUtil.login(userId);
-            String newAccessToken = StpUtil.getTokenValue();
-
-            // 更新refresh token信息
-            refreshTokenInfo.setAccessToken(newAccessToken);
-
-            if (needsRenewal) {
-                LocalDateTime newExpireTime = now.plusDays(refreshTokenExpireDays);
-                refreshTokenInfo.setExpireTime(newExpireTime);
-                refreshTokenInfo.setCreateTime(now);
-                log.info("Refresh Token自动续期: userId={}, newExpireTime={}", userId, newExpireTime);
+            // 预先生成候选访问令牌，轮换成功后以该值登录（签名令牌需要绑定用户ID）
+            StpLogic stpLogic = StpUtil.getStpLogic();
+            String candidateToken = stpLogic.createTokenValue(accessTokenCodec.isEnabled() ? tokenOwner : null, null,
+                    stpLogic.getConfigOrGlobal().getTimeout(), null);
+
+            RefreshTokenStore.Rotation rotation = refreshTokenStore.rotate(refreshToken, candidateToken, deviceFingerprint);
+            switch (rotation.getStatus()) {
+                case ROTATED:
+                    break;
+                case REUSED:
+                    // 并发刷新同样需要校验用户；轮换方尚未完成登录时补登，保证返回的令牌已可用
+                    checkRefreshUser(rotation.getUserId(), refreshToken, rotation.getAccessToken());
+                    if (stpLogic.getLoginIdNotHandle(rotation.getAccessToken()) == null) {
+                        StpUtil.login(rotation.getUserId(),
+                                stpLogic.createSaLoginParameter().setToken(rotation.getAccessToken()));
+                    }
+                    log.info("宽限期内重复刷新，返回已签发的访问令牌: userId={}", rotation.getUserId());
+                    return rotation.getAccessToken();
+                case EXPIRED:
+                    log.warn("Refresh Token已过期: userId={}, refreshToken={}", rotation.getUserId(), refreshToken);
+                    throw new BusinessException(ResultCode.TOKEN_INVALID, "Refresh Token已过期");
+                case DEVICE_MISMATCH:
+                    log.warn("设备指纹验证失败: userId={}, refreshToken={}", rotation.getUserId(), refreshToken);
+                    throw new BusinessException(ResultCode.TOKEN_INVALID, "设备指纹验证失败，可能存在安全风险");
+                default:
+                    throw new BusinessException(ResultCode.TOKEN_INVALID, "Refresh Token不存在或已过期");
             }
 
-            redisTemplate.opsForValue().set(key, refreshTokenInfo, refreshTokenExpireDays, TimeUnit.DAYS);
+            // 轮换期间用户可能被禁用，再次检查；失败时撤销已签发的候选令牌（签名令牌仅凭签名即可通过校验）
+            Long userId = rotation.getUserId();
+            checkRefreshUser(userId, refreshToken, rotation.getAccessToken());
 
-            log.info("Refresh Token刷新成功: userId={}, refreshToken={}, newAccessToken={}, renewed={}, deviceValid={}",
-                    userId, refreshToken, newAccessToken, needsRenewal, true);
+            // 以轮换时记录的令牌值登录
+            StpUtil.login(userId, stpLogic.createSaLoginParameter().setToken(rotation.getAccessToken()));
 
-            return newAccessToken;
+            log.info("Refresh Token刷新成功: userId={}, refreshToken={}, renewed={}, expireTime={}",
+                    userId, refreshToken, rotation.isRenewed(), rotation.getExpireTime());
+            return rotation.getAccessToken();
         } catch (BusinessException e) {
             throw e;
         } catch (Exception e) {
@@ -743,5 +717,22 @@ public class AuthServiceImpl implements AuthService {
         }
     }
 
+    /**
+     * 检查refresh token所属用户是否仍可登录
+     * 不可登录时删除该refresh token并撤销已签发的访问令牌
+     *
+     * @param issuedToken 本次轮换已签发的访问令牌，尚未签发时为null
+     */
+    private void checkRefreshUser(Long userId, String refreshToken, String issuedToken) {
+        UserSnapshot user = userService.getUserSnapshot(userId);
+        if (user == null || !user.canLogin()) {
+            // 删除无效的refresh token
+            refreshTokenStore.delete(refreshToken);
+            if (issuedToken != null) {
+                accessTokenDenylist.revoke(issuedToken);
+            }
+            throw new BusinessException(ResultCode.USER_NOT_FOUND, "用户不存在或已被禁用");
+        }
+    }
 
 }
@@ -3,33 +3,74 @@ package org.example.ssoserver.service.impl;
 import cn.hutool.core.util.RandomUtil;
 import cn.hutool.core.util.StrUtil;
 import lombok.extern.slf4j.Slf4j;
+import org.example.ssoserver.security.password.BreachedPasswordFilter;
+import org.example.ssoserver.security.password.Md5SaltPasswordHasher;
+import org.example.ssoserver.security.password.PasswordHashExecutor;
+import org.example.ssoserver.security.password.PasswordHasher;
 import org.example.ssoserver.service.PasswordService;
 import org.example.ssoserver.util.Md5SaltUtil;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.util.Arrays;
 import java.util.List;
-import java.util.regex.Pattern;
+import java.util.Set;
+import java.util.concurrent.Callable;
 
 /**
  * 密码服务实现
- * 使用MD5+随机盐值进行密码加密和验证
+ * 新密码使用 password.hash.algorithm 指定的算法，校验时按存储哈希的格式选择算法；
+ * 哈希计算提交到 PasswordHashExecutor，不占用请求线程的CPU时间
  */
 @Slf4j
 @Service
 public class PasswordServiceImpl implements PasswordService {
 
-    // 密码强度正则表达式
-    private static final Pattern WEAK_PATTERN = Pattern.compile("^[a-z]+$|^[A-Z]+$|^\\d+$");
-    private static final Pattern MEDIUM_PATTERN = Pattern.compile("^(?=.*[a-zA-Z])(?=.*\\d)[a-zA-Z\\d]{6,}$");
-    private static final Pattern STRONG_PATTERN = Pattern.compile("^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,}$");
+    // 字符类别（单次扫描得到的位掩码）
+    private static final int CHAR_LOWER = 1;
+    private static final int CHAR_UPPER = 1 << 1;
+    private static final int CHAR_DIGIT = 1 << 2;
+    private static final int CHAR_SPECIAL = 1 << 3;
+    private static final int CHAR_OTHER = 1 << 4;
+    private static final int CHAR_LETTER = CHAR_LOWER | CHAR_UPPER;
 
-    // 常见弱密码列表
-    private static final List<String> WEAK_PASSWORDS = Arrays.asList(
+    // 强密码允许的特殊字符
+    private static final String SPECIAL_CHARS = "@$!%*?&";
+
+    // 常见弱密码列表（小写）
+    private static final Set<String> WEAK_PASSWORDS = Set.of(
         "123456", "password", "123456789", "12345678", "12345", "1234567", "1234567890",
         "qwerty", "abc123", "111111", "123123", "admin", "letmein", "welcome", "monkey",
         "password123", "admin123", "root", "user", "test", "guest", "demo", "sample"
     );
+    private static final int WEAK_PASSWORD_MAX_LENGTH = WEAK_PASSWORDS.stream().mapToInt(String::length).max().orElse(0);
+
+    private final List<PasswordHasher> hashers;
+    private final PasswordHasher currentHasher;
+    private final PasswordHashExecutor hashExecutor;
+    private final BreachedPasswordFilter breachedPasswordFilter;
+
+    /**
+     * 不依赖容器的实例：MD5+盐值，在调用线程中直接计算，不做泄露密码筛查
+     */
+    public PasswordServiceImpl() {
+        this(List.of(new Md5SaltPasswordHasher()), null, null, Md5SaltPasswordHasher.ALGORITHM);
+    }
+
+    @Autowired
+    public PasswordServiceImpl(List<PasswordHasher> hashers,
+                               PasswordHashExecutor hashExecutor,
+                               BreachedPasswordFilter breachedPasswordFilter,
+                               @Value("${password.hash.algorithm:md5-salt}") String algorithm) {
+        this.hashers = hashers;
+        this.hashExecutor = hashExecutor;
+        this.breachedPasswordFilter = breachedPasswordFilter;
+        this.currentHasher = hashers.stream()
+                .filter(hasher -> hasher.algorithm().equalsIgnoreCase(algorithm))
+                .findFirst()
+                .orElseThrow(() -> new IllegalStateException("不支持的密码哈希算法: " + algorithm));
+        log.info("密码哈希算法: {}", currentHasher.algorithm());
+    }
 
     /**
      * 生成随机盐值
@@ -40,13 +81,13 @@ public class PasswordServiceImpl implements PasswordService {
     }
 
     /**
-     * 使用MD5+盐值加密密码
+     * 使用当前算法加密密码
      * @param rawPassword 原始密码
      * @param salt 盐值
      * @return 加密后的密码
      */
     public String encodePasswordWithSalt(String rawPassword, String salt) {
-        return Md5SaltUtil.encrypt(rawPassword, salt);
+        return compute(() -> currentHasher.encode(rawPassword, salt));
     }
 
     @Override
@@ -64,7 +105,41 @@ public class PasswordServiceImpl implements PasswordService {
      * @return 是否匹配
      */
     public boolean matchesWithSalt(String rawPassword, String encodedPassword, String salt) {
-        return Md5SaltUtil.matches(rawPassword, encodedPassword, salt);
+        PasswordHasher hasher = resolveHasher(encodedPassword);
+        return compute(() -> hasher.matches(rawPassword, encodedPassword, salt));
+    }
+
+    @Override
+    public boolean needsRehash(String encodedPassword) {
+        return encodedPassword != null && !currentHasher.recognizes(encodedPassword);
+    }
+
+    /**
+     * 按存储哈希的格式选择算法，无法识别时使用当前算法（校验必然失败）
+     */
+    private PasswordHasher resolveHasher(String encodedPassword) {
+        if (currentHasher.recognizes(encodedPassword)) {
+            return currentHasher;
+        }
+        for (PasswordHasher hasher : hashers) {
+            if (hasher.recognizes(encodedPassword)) {
+                return hasher;
+            }
+        }
+        return currentHasher;
+    }
+
+    private <T> T compute(Callable<T> task) {
+        if (hashExecutor == null) {
+            try {
+                return task.call();
+            } catch (RuntimeException e) {
+                throw e;
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        return hashExecutor.execute(task);
     }
 
     @Override
@@ -86,13 +161,16 @@ public class PasswordServiceImpl implements PasswordService {
             return 0;
         }
 
-        // 强密码检查
-        if (STRONG_PATTERN.matcher(password).matches()) {
+        int classes = charClasses(password);
+
+        // 强密码：8位以上，同时包含大小写字母、数字和特殊字符，且不含其他字符
+        if (password.length() >= 8 && (classes & CHAR_OTHER) == 0
+                && (classes & (CHAR_LOWER | CHAR_UPPER | CHAR_DIGIT | CHAR_SPECIAL)) == (CHAR_LOWER | CHAR_UPPER | CHAR_DIGIT | CHAR_SPECIAL)) {
             return 2;
         }
 
-        // 中等密码检查
-        if (MEDIUM_PATTERN.matcher(password).matches()) {
+        // 中等密码：6位以上，仅由字母和数字组成且两者都有
+        if (password.length() >= 6 && (classes & (CHAR_SPECIAL | CHAR_OTHER)) == 0 && hasLetterAndDigit(classes)) {
             return 1;
         }
 
@@ -112,7 +190,7 @@ public class PasswordServiceImpl implements PasswordService {
         }
 
         // 基本要求：至少包含字母和数字
-        return password.matches("^(?=.*[a-zA-Z])(?=.*\\d).+$");
+        return hasLetterAndDigit(charClasses(password));
     }
 
     @Override
@@ -156,25 +234,21 @@ public class PasswordServiceImpl implements PasswordService {
             return true;
         }
 
-        log.debug("检查密码强度: password={}", password);
-
         // 检查是否在弱密码列表中（只检查完全匹配，不检查包含关系）
-        String lowerPassword = password.toLowerCase();
-        for (String weakPassword : WEAK_PASSWORDS) {
-            if (lowerPassword.equals(weakPassword)) {
-                log.debug("密码在弱密码列表中: {}", weakPassword);
-                return true;
-            }
+        if (password.length() <= WEAK_PASSWORD_MAX_LENGTH && WEAK_PASSWORDS.contains(password.toLowerCase())) {
+            log.debug("密码在弱密码列表中");
+            return true;
         }
 
         // 如果密码包含字母和数字，就不认为是弱密码
-        if (password.matches("^(?=.*[a-zA-Z])(?=.*\\d).+$")) {
+        int classes = charClasses(password);
+        if (hasLetterAndDigit(classes)) {
             log.debug("密码包含字母和数字，判定为强密码");
             return false;
         }
 
-        // 检查是否为纯数字、纯字母等简单模式
-        if (WEAK_PATTERN.matcher(password).matches()) {
+        // 检查是否为纯数字、纯小写字母或纯大写字母
+        if (classes == CHAR_LOWER || classes == CHAR_UPPER || classes == CHAR_DIGIT) {
             log.debug("密码为纯数字或纯字母，判定为弱密码");
             return true;
         }
@@ -195,40 +269,53 @@ public class PasswordServiceImpl implements PasswordService {
         return false;
     }
 
+    @Override
+    public boolean isBreachedPassword(String password) {
+        return breachedPasswordFilter != null && breachedPasswordFilter.isBreached(password);
+    }
+
     /**
-     * 检查是否为重复字符模式
+     * 单次扫描得到密码包含的字符类别（仅ASCII字母、数字计入对应类别）
      */
-    private boolean isRepeatingPattern(String password) {
-        if (password.length() < 3) {
-            return false;
-        }
-
-        // 检查是否为同一字符重复
-        char firstChar = password.charAt(0);
-        boolean allSame = true;
-        for (int i = 1; i < password.length(); i++) {
-            if (password.charAt(i) != firstChar) {
-                allSame = false;
-                break;
+    private static int charClasses(String password) {
+        int classes = 0;
+        for (int i = 0; i < password.length(); i++) {
+            char c = password.charAt(i);
+            if (c >= 'a' && c <= 'z') {
+                classes |= CHAR_LOWER;
+            } else if (c >= 'A' && c <= 'Z') {
+                classes |= CHAR_UPPER;
+            } else if (c >= '0' && c <= '9') {
+                classes |= CHAR_DIGIT;
+            } else if (SPECIAL_CHARS.indexOf(c) >= 0) {
+                classes |= CHAR_SPECIAL;
+            } else {
+                classes |= CHAR_OTHER;
             }
         }
-        if (allSame) {
-            return true;
+        return classes;
+    }
+
+    private static boolean hasLetterAndDigit(int classes) {
+        return (classes & CHAR_LETTER) != 0 && (classes & CHAR_DIGIT) != 0;
+    }
+
+    /**
+     * 检查是否为重复字符模式（如：aaa、123123、abcabc）
+     * 存在周期 p（不超过长度一半）使每个字符都等于其前 p 位的字符即为重复，逐字符比较不分配子串
+     */
+    private boolean isRepeatingPattern(String password) {
+        int length = password.length();
+        if (length < 3) {
+            return false;
         }
 
-        // 检查是否为简单重复模式（如：123123、abcabc）
-        for (int len = 1; len <= password.length() / 2; len++) {
-            String pattern = password.substring(0, len);
-            boolean isRepeating = true;
-            for (int i = len; i < password.length(); i += len) {
-                int endIndex = Math.min(i + len, password.length());
-                String segment = password.substring(i, endIndex);
-                if (!pattern.startsWith(segment)) {
-                    isRepeating = false;
-                    break;
-                }
+        for (int period = 1; period <= length / 2; period++) {
+            int i = period;
+            while (i < length && password.charAt(i) == password.charAt(i - period)) {
+                i++;
             }
-            if (isRepeating && len < password.length()) {
+            if (i == length) {
                 return true;
             }
         }
@@ -1,27 +1,48 @@
 package org.example.ssoserver.service.impl;
 
+import cn.dev33.satoken.util.SaFoxUtil;
 import com.baomidou.mybatisplus.core.conditions.query.QueryWrapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.common.model.RoleDTO;
 import org.example.common.model.MenuDTO;
 import org.example.common.model.UserDTO;
+import org.example.ssoserver.cache.MenuTreeCache;
+import org.example.ssoserver.cache.PermissionCacheEntry;
+import org.example.ssoserver.cache.PermissionLocalCache;
 import org.example.ssoserver.entity.SysRole;
 import org.example.ssoserver.entity.SysMenu;
 import org.example.ssoserver.entity.SysUserRole;
 import org.example.ssoserver.entity.SysRoleMenu;
+import org.example.ssoserver.entity.SysUser;
 import org.example.ssoserver.mapper.SysRoleMapper;
 import org.example.ssoserver.mapper.SysMenuMapper;
 import org.example.ssoserver.mapper.SysUserRoleMapper;
 import org.example.ssoserver.mapper.SysRoleMenuMapper;
+import org.example.ssoserver.security.LoginPrincipal;
+import org.example.ssoserver.security.PermissionSnapshot;
 import org.example.ssoserver.service.PermissionService;
 import org.example.ssoserver.service.SysUserService;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisOperations;
 import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.SessionCallback;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.data.redis.serializer.StringRedisSerializer;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Set;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 import java.util.concurrent.TimeUnit;
 
@@ -39,72 +60,142 @@ public class PermissionServiceImpl implements PermissionService {
     private final SysRoleMenuMapper roleMenuMapper;
     private final SysUserService userService;
     private final RedisTemplate<String, Object> redisTemplate;
+    private final PermissionLocalCache permissionLocalCache;
+    private final MenuTreeCache menuTreeCache;
     
     // 缓存前缀
     private static final String USER_ROLES_CACHE_PREFIX = "user:roles:";
     private static final String USER_PERMISSIONS_CACHE_PREFIX = "user:permissions:";
+    private static final String USER_MENUS_CACHE_PREFIX = "user:menus:";
+    private static final String USER_DATA_SCOPE_CACHE_PREFIX = "user:datascope:";
     private static final String ROLE_PERMISSIONS_CACHE_PREFIX = "role:permissions:";
     
+    // 全局缓存版本号，菜单变更或全量清除时递增，旧版本的缓存条目被惰性忽略
+    private static final String GLOBAL_GENERATION_KEY = "perm:gen:global";
+    
+    // 角色版本号前缀，角色权限变更提交后递增，记录了旧版本号的成员缓存条目被惰性忽略
+    private static final String ROLE_GENERATION_PREFIX = "perm:gen:role:";
+    
+    // 用户版本号前缀，用户角色分配变更提交后递增
+    private static final String USER_GENERATION_PREFIX = "perm:gen:user:";
+    
+    // 用户版本号保留时间（小时），长于缓存过期时间，版本号过期重置时记录旧版本号的条目已全部过期
+    private static final int USER_GENERATION_EXPIRE_HOURS = 24;
+    
+    // 定向清除角色成员缓存时每条DEL命令包含的用户数
+    private static final int EVICT_BATCH_SIZE = 500;
+    
     // 缓存过期时间（小时）
     private static final int CACHE_EXPIRE_HOURS = 2;
     
+    // 默认数据权限范围（仅本人数据）
+    private static final String DEFAULT_DATA_SCOPE = "5";
+    
     // ========================================
     // 用户权限查询
     // ========================================
     
     @Override
     public List<String> getUserRoles(Long userId) {
-        try {
-            // 先从缓存获取
-            String cacheKey = USER_ROLES_CACHE_PREFIX + userId;
-            @SuppressWarnings("unchecked")
-            List<String> cachedRoles = (List<String>) redisTemplate.opsForValue().get(cacheKey);
-            if (cachedRoles != null) {
-                return cachedRoles;
-            }
-            
-            // 从数据库查询
-            List<String> roles = roleMapper.selectRoleKeysByUserId(userId);
-            
-            // 存入缓存
-            redisTemplate.opsForValue().set(cacheKey, roles, CACHE_EXPIRE_HOURS, TimeUnit.HOURS);
-            
-            return roles;
-        } catch (Exception e) {
-            log.error("获取用户角色失败: userId={}", userId, e);
-            return List.of();
-        }
+        return getRoleSnapshot(userId).getValues();
     }
     
     @Override
     public List<String> getUserPermissions(Long userId) {
+        return getPermissionSnapshot(userId).getValues();
+    }
+    
+    @Override
+    public LoginPrincipal loadLoginPrincipal(SysUser user) {
+        Long userId = user.getId();
         try {
-            // 先从缓存获取
-            String cacheKey = USER_PERMISSIONS_CACHE_PREFIX + userId;
-            @SuppressWarnings("unchecked")
-            List<String> cachedPermissions = (List<String>) redisTemplate.opsForValue().get(cacheKey);
-            if (cachedPermissions != null) {
-                return cachedPermissions;
+            String rolesKey = USER_ROLES_CACHE_PREFIX + userId;
+            String permissionsKey = USER_PERMISSIONS_CACHE_PREFIX + userId;
+            String dataScopeKey = USER_DATA_SCOPE_CACHE_PREFIX + userId;
+
+            // 本地缓存命中的部分不再读取Redis
+            PermissionSnapshot roles = permissionLocalCache.getRoles(userId);
+            PermissionSnapshot permissions = permissionLocalCache.getPermissions(userId);
+
+            // 其余缓存条目与全局、用户版本号一次读取
+            String userGenerationKey = USER_GENERATION_PREFIX + userId;
+            List<String> keys = new ArrayList<>(5);
+            keys.add(GLOBAL_GENERATION_KEY);
+            keys.add(userGenerationKey);
+            keys.add(dataScopeKey);
+            if (roles == null) {
+                keys.add(rolesKey);
             }
-            
-            // 从数据库查询
-            List<String> permissions = menuMapper.selectPermissionsByUserId(userId);
-            
-            // 存入缓存
-            redisTemplate.opsForValue().set(cacheKey, permissions, CACHE_EXPIRE_HOURS, TimeUnit.HOURS);
-            
-            return permissions;
+            if (permissions == null) {
+                keys.add(permissionsKey);
+            }
+            List<Object> cached = redisTemplate.opsForValue().multiGet(keys);
+            Map<String, Object> cachedValues = new HashMap<>();
+            if (cached != null) {
+                for (int i = 0; i < keys.size(); i++) {
+                    cachedValues.put(keys.get(i), cached.get(i));
+                }
+            }
+            long globalGeneration = toGeneration(cachedValues.get(GLOBAL_GENERATION_KEY));
+            long userGeneration = toGeneration(cachedValues.get(userGenerationKey));
+            // 各条目记录的角色版本号一次读取
+            Map<Long, Long> roleGenerations = getRoleGenerations(recordedRoleIds(
+                    cachedValues.get(rolesKey), cachedValues.get(permissionsKey), cachedValues.get(dataScopeKey)));
+
+            List<String> roleKeys = roles == null ? currentValues(cachedValues.get(rolesKey),
+                    globalGeneration, userGeneration, roleGenerations) : null;
+            List<String> permissionKeys = permissions == null ? currentValues(cachedValues.get(permissionsKey),
+                    globalGeneration, userGeneration, roleGenerations) : null;
+            List<String> dataScope = currentValues(cachedValues.get(dataScopeKey),
+                    globalGeneration, userGeneration, roleGenerations);
+
+            // 未命中部分回源数据库，角色标识与数据范围来自同一次角色查询
+            boolean rolesMissing = roles == null && roleKeys == null;
+            boolean permissionsMissing = permissions == null && permissionKeys == null;
+            if (rolesMissing || permissionsMissing || dataScope == null) {
+                // 角色版本号在查询数据库之前读取，保证加载期间提交的角色变更会使本次写入的条目失效
+                Map<Long, Long> loadedRoleGenerations = getRoleGenerations(userRoleMapper.selectRoleIdsByUserId(userId));
+                Map<String, PermissionCacheEntry> misses = new HashMap<>();
+                if (rolesMissing || dataScope == null) {
+                    List<SysRole> userRoles = roleMapper.selectByUserId(userId);
+                    if (rolesMissing) {
+                        roleKeys = userRoles.stream().map(SysRole::getRoleKey).collect(Collectors.toList());
+                        misses.put(rolesKey, buildCacheEntry(globalGeneration, userGeneration,
+                                loadedRoleGenerations, roleKeys));
+                    }
+                    if (dataScope == null) {
+                        dataScope = new ArrayList<>(List.of(resolveDataScope(userRoles)));
+                        misses.put(dataScopeKey, buildCacheEntry(globalGeneration, userGeneration,
+                                loadedRoleGenerations, dataScope));
+                    }
+                }
+                if (permissionsMissing) {
+                    permissionKeys = menuMapper.selectPermissionsByUserId(userId);
+                    misses.put(permissionsKey, buildCacheEntry(globalGeneration, userGeneration,
+                            loadedRoleGenerations, permissionKeys));
+                }
+                writeCacheEntries(misses);
+            }
+
+            if (roles == null) {
+                roles = permissionLocalCache.putRoles(userId, roleKeys);
+            }
+            if (permissions == null) {
+                permissions = permissionLocalCache.putPermissions(userId, permissionKeys);
+            }
+            return new LoginPrincipal(user, roles, permissions,
+                    dataScope.isEmpty() ? DEFAULT_DATA_SCOPE : dataScope.get(0));
         } catch (Exception e) {
-            log.error("获取用户权限失败: userId={}", userId, e);
-            return List.of();
+            log.error("加载登录主体失败: userId={}", userId, e);
+            return new LoginPrincipal(user, PermissionSnapshot.empty(), PermissionSnapshot.empty(), DEFAULT_DATA_SCOPE);
         }
     }
     
     @Override
     public List<MenuDTO> getUserMenus(Long userId) {
         try {
-            List<SysMenu> menus = menuMapper.selectByUserId(userId);
-            return buildMenuTree(convertToMenuDTO(menus), 0L);
+            // 从全局菜单树快照按用户菜单ID投影
+            return menuTreeCache.getSnapshot().project(getUserMenuIds(userId), this::convertToMenuDTO);
         } catch (Exception e) {
             log.error("获取用户菜单失败: userId={}", userId, e);
             return List.of();
@@ -114,11 +205,14 @@ public class PermissionServiceImpl implements PermissionService {
     @Override
     public List<String> getUserButtonPermissions(Long userId) {
         try {
-            List<SysMenu> menus = menuMapper.selectByUserId(userId);
-            return menus.stream()
-                    .filter(menu -> "F".equals(menu.getMenuType()) && menu.getPerms() != null)
-                    .map(SysMenu::getPerms)
-                    .collect(Collectors.toList());
+            List<SysMenu> menus = menuTreeCache.getSnapshot().filter(getUserMenuIds(userId));
+            List<String> buttons = new ArrayList<>();
+            for (SysMenu menu : menus) {
+                if ("F".equals(menu.getMenuType()) && menu.getPerms() != null) {
+                    buttons.add(menu.getPerms());
+                }
+            }
+            return buttons;
         } catch (Exception e) {
             log.error("获取用户按钮权限失败: userId={}", userId, e);
             return List.of();
@@ -127,21 +221,27 @@ public class PermissionServiceImpl implements PermissionService {
     
     @Override
     public boolean hasRole(Long userId, String roleKey) {
-        List<String> roles = getUserRoles(userId);
-        return roles.contains(roleKey);
+        return getRoleSnapshot(userId).contains(roleKey);
     }
     
     @Override
     public boolean hasPermission(Long userId, String permission) {
-        List<String> permissions = getUserPermissions(userId);
-        return permissions.contains(permission);
+        return impliesPermission(getPermissionSnapshot(userId), permission);
     }
     
     @Override
     public boolean hasAnyRole(Long userId, String... roleKeys) {
-        List<String> userRoles = getUserRoles(userId);
-        for (String roleKey : roleKeys) {
-            if (userRoles.contains(roleKey)) {
+        return getRoleSnapshot(userId).containsAny(roleKeys);
+    }
+    
+    @Override
+    public boolean hasAnyPermission(Long userId, String... permissions) {
+        PermissionSnapshot snapshot = getPermissionSnapshot(userId);
+        if (snapshot.isTrieMatchable() || permissions == null) {
+            return snapshot.impliesAny(permissions);
+        }
+        for (String permission : permissions) {
+            if (impliesPermission(snapshot, permission)) {
                 return true;
             }
         }
@@ -149,14 +249,17 @@ public class PermissionServiceImpl implements PermissionService {
     }
     
     @Override
-    public boolean hasAnyPermission(Long userId, String... permissions) {
-        List<String> userPermissions = getUserPermissions(userId);
+    public boolean hasAllPermissions(Long userId, String... permissions) {
+        PermissionSnapshot snapshot = getPermissionSnapshot(userId);
+        if (snapshot.isTrieMatchable() || permissions == null) {
+            return snapshot.impliesAll(permissions);
+        }
         for (String permission : permissions) {
-            if (userPermissions.contains(permission)) {
-                return true;
+            if (!impliesPermission(snapshot, permission)) {
+                return false;
             }
         }
-        return false;
+        return true;
     }
     
     // ========================================
@@ -195,6 +298,9 @@ public class PermissionServiceImpl implements PermissionService {
     @Transactional(rollbackFor = Exception.class)
     public boolean deleteRole(Long roleId) {
         try {
+            // 关联删除前先取出角色成员，用于定向清除缓存
+            List<Long> memberIds = userRoleMapper.selectUserIdsByRoleId(roleId);
+            
             // 删除角色菜单关联
             roleMenuMapper.deleteByRoleId(roleId);
             // 删除用户角色关联
@@ -203,8 +309,8 @@ public class PermissionServiceImpl implements PermissionService {
             int result = roleMapper.deleteById(roleId);
             
             if (result > 0) {
-                // 清除相关缓存
-                refreshRolePermissionCache(roleId);
+                // 事务提交后清除相关缓存
+                runAfterCommit(() -> evictRoleMembers(roleId, memberIds));
             }
             return result > 0;
         } catch (Exception e) {
@@ -265,6 +371,10 @@ public class PermissionServiceImpl implements PermissionService {
     public boolean createMenu(SysMenu menu) {
         try {
             int result = menuMapper.insert(menu);
+            if (result > 0) {
+                // 重建菜单树快照
+                menuTreeCache.invalidate();
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("创建菜单失败: menuName={}", menu.getMenuName(), e);
@@ -280,6 +390,7 @@ public class PermissionServiceImpl implements PermissionService {
             if (result > 0) {
                 // 清除相关缓存
                 clearAllPermissionCache();
+                menuTreeCache.invalidate();
             }
             return result > 0;
         } catch (Exception e) {
@@ -300,6 +411,7 @@ public class PermissionServiceImpl implements PermissionService {
             if (result > 0) {
                 // 清除相关缓存
                 clearAllPermissionCache();
+                menuTreeCache.invalidate();
             }
             return result > 0;
         } catch (Exception e) {
@@ -321,8 +433,7 @@ public class PermissionServiceImpl implements PermissionService {
     @Override
     public List<MenuDTO> getAllMenusTree() {
         try {
-            List<SysMenu> menus = menuMapper.selectAllEnabled();
-            return buildMenuTree(convertToMenuDTO(menus), 0L);
+            return menuTreeCache.getSnapshot().toTree(this::convertToMenuDTO);
         } catch (Exception e) {
             log.error("获取所有菜单树失败", e);
             return List.of();
@@ -462,31 +573,16 @@ public class PermissionServiceImpl implements PermissionService {
 
     @Override
     public void refreshUserPermissionCache(Long userId) {
-        try {
-            // 删除用户相关缓存
-            redisTemplate.delete(USER_ROLES_CACHE_PREFIX + userId);
-            redisTemplate.delete(USER_PERMISSIONS_CACHE_PREFIX + userId);
-        } catch (Exception e) {
-            log.error("刷新用户权限缓存失败: userId={}", userId, e);
-        }
+        // 事务提交后再清除，避免并发读取在提交前回源并把旧数据写回
+        runAfterCommit(() -> evictUser(userId));
     }
 
     @Override
     public void refreshRolePermissionCache(Long roleId) {
         try {
-            // 删除角色相关缓存
-            redisTemplate.delete(ROLE_PERMISSIONS_CACHE_PREFIX + roleId);
-
-            // 删除所有用户的权限缓存（因为角色权限变更会影响用户权限）
-            Set<String> userKeys = redisTemplate.keys(USER_ROLES_CACHE_PREFIX + "*");
-            if (userKeys != null && !userKeys.isEmpty()) {
-                redisTemplate.delete(userKeys);
-            }
-
-            Set<String> permissionKeys = redisTemplate.keys(USER_PERMISSIONS_CACHE_PREFIX + "*");
-            if (permissionKeys != null && !permissionKeys.isEmpty()) {
-                redisTemplate.delete(permissionKeys);
-            }
+            // 只清除持有该角色的用户缓存，成员在事务内读取，清除在事务提交后执行
+            List<Long> memberIds = userRoleMapper.selectUserIdsByRoleId(roleId);
+            runAfterCommit(() -> evictRoleMembers(roleId, memberIds));
         } catch (Exception e) {
             log.error("刷新角色权限缓存失败: roleId={}", roleId, e);
         }
@@ -494,24 +590,20 @@ public class PermissionServiceImpl implements PermissionService {
 
     @Override
     public void clearAllPermissionCache() {
-        try {
-            // 删除所有权限相关缓存
-            Set<String> userRoleKeys = redisTemplate.keys(USER_ROLES_CACHE_PREFIX + "*");
-            Set<String> userPermissionKeys = redisTemplate.keys(USER_PERMISSIONS_CACHE_PREFIX + "*");
-            Set<String> rolePermissionKeys = redisTemplate.keys(ROLE_PERMISSIONS_CACHE_PREFIX + "*");
-
-            if (userRoleKeys != null && !userRoleKeys.isEmpty()) {
-                redisTemplate.delete(userRoleKeys);
+        runAfterCommit(() -> {
+            try {
+                // 递增全局版本号，所有用户缓存在下次读取时视为过期，旧条目等待自然过期
+                redisTemplate.opsForValue().increment(GLOBAL_GENERATION_KEY);
+            } catch (Exception e) {
+                log.error("清除所有权限缓存失败", e);
             }
-            if (userPermissionKeys != null && !userPermissionKeys.isEmpty()) {
-                redisTemplate.delete(userPermissionKeys);
-            }
-            if (rolePermissionKeys != null && !rolePermissionKeys.isEmpty()) {
-                redisTemplate.delete(rolePermissionKeys);
-            }
-        } catch (Exception e) {
-            log.error("清除所有权限缓存失败", e);
-        }
+            permissionLocalCache.evictAll();
+        });
+    }
+
+    @Override
+    public Map<String, Object> getPermissionCacheStats() {
+        return permissionLocalCache.getStats();
     }
 
     // ========================================
@@ -520,13 +612,15 @@ public class PermissionServiceImpl implements PermissionService {
 
     @Override
     public List<MenuDTO> buildMenuTree(List<MenuDTO> menus, Long parentId) {
-        return menus.stream()
-                .filter(menu -> parentId.equals(menu.getParentId()))
-                .map(menu -> {
-                    menu.setChildren(buildMenuTree(menus, menu.getId()));
-                    return menu;
-                })
-                .collect(Collectors.toList());
+        // 先按父菜单ID分组，再一次性挂接子节点，时间复杂度 O(n)
+        Map<Long, List<MenuDTO>> childrenMap = new HashMap<>();
+        for (MenuDTO menu : menus) {
+            childrenMap.computeIfAbsent(menu.getParentId(), key -> new ArrayList<>()).add(menu);
+        }
+        for (MenuDTO menu : menus) {
+            menu.setChildren(childrenMap.getOrDefault(menu.getId(), new ArrayList<>()));
+        }
+        return childrenMap.getOrDefault(parentId, new ArrayList<>());
     }
 
     @Override
@@ -570,15 +664,12 @@ public class PermissionServiceImpl implements PermissionService {
     @Override
     public String getUserDataScope(Long userId) {
         try {
-            List<SysRole> roles = roleMapper.selectByUserId(userId);
-            // 取最高权限的数据范围
-            return roles.stream()
-                    .map(SysRole::getDataScope)
-                    .min(String::compareTo)
-                    .orElse("5"); // 默认仅本人数据权限
+            List<String> dataScope = getVersionedCache(USER_DATA_SCOPE_CACHE_PREFIX + userId, userId,
+                    id -> new ArrayList<>(List.of(resolveDataScope(roleMapper.selectByUserId(id)))));
+            return dataScope.isEmpty() ? DEFAULT_DATA_SCOPE : dataScope.get(0);
         } catch (Exception e) {
             log.error("获取用户数据权限范围失败: userId={}", userId, e);
-            return "5";
+            return DEFAULT_DATA_SCOPE;
         }
     }
 
@@ -608,6 +699,292 @@ public class PermissionServiceImpl implements PermissionService {
     // 私有辅助方法
     // ========================================
 
+    /**
+     * 获取用户角色快照（本地缓存 -> Redis -> 数据库）
+     */
+    private PermissionSnapshot getRoleSnapshot(Long userId) {
+        try {
+            // 先从本地缓存获取
+            PermissionSnapshot localRoles = permissionLocalCache.getRoles(userId);
+            if (localRoles != null) {
+                return localRoles;
+            }
+
+            // 再从Redis缓存获取，未命中或版本过期时从数据库查询
+            List<String> roles = getVersionedCache(USER_ROLES_CACHE_PREFIX + userId, userId,
+                    roleMapper::selectRoleKeysByUserId);
+            return permissionLocalCache.putRoles(userId, roles);
+        } catch (Exception e) {
+            log.error("获取用户角色失败: userId={}", userId, e);
+            return PermissionSnapshot.empty();
+        }
+    }
+
+    /**
+     * 获取用户权限快照（本地缓存 -> Redis -> 数据库）
+     */
+    private PermissionSnapshot getPermissionSnapshot(Long userId) {
+        try {
+            // 先从本地缓存获取
+            PermissionSnapshot localPermissions = permissionLocalCache.getPermissions(userId);
+            if (localPermissions != null) {
+                return localPermissions;
+            }
+
+            // 再从Redis缓存获取，未命中或版本过期时从数据库查询
+            List<String> permissions = getVersionedCache(USER_PERMISSIONS_CACHE_PREFIX + userId, userId,
+                    menuMapper::selectPermissionsByUserId);
+            return permissionLocalCache.putPermissions(userId, permissions);
+        } catch (Exception e) {
+            log.error("获取用户权限失败: userId={}", userId, e);
+            return PermissionSnapshot.empty();
+        }
+    }
+
+    /**
+     * 判断权限快照是否包含指定权限
+     * 与SaTokenConfig注册的匹配策略一致：前缀树无法精确表达时按Sa-Token默认的逐项模糊匹配
+     */
+    private static boolean impliesPermission(PermissionSnapshot snapshot, String permission) {
+        if (snapshot.isTrieMatchable()) {
+            return snapshot.implies(permission);
+        }
+        List<String> values = snapshot.getValues();
+        if (values.contains(permission)) {
+            return true;
+        }
+        for (String pattern : values) {
+            if (SaFoxUtil.vagueMatch(pattern, permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 获取用户菜单ID集合（本地缓存 -> Redis -> 数据库）
+     */
+    private Set<Long> getUserMenuIds(Long userId) {
+        Set<Long> localMenuIds = permissionLocalCache.getMenuIds(userId);
+        if (localMenuIds != null) {
+            return localMenuIds;
+        }
+
+        // 菜单ID以字符串形式存入带版本号的缓存条目
+        List<String> menuIds = getVersionedCache(USER_MENUS_CACHE_PREFIX + userId, userId,
+                id -> menuMapper.selectMenuIdsByUserId(id).stream()
+                        .map(String::valueOf)
+                        .collect(Collectors.toList()));
+        return permissionLocalCache.putMenuIds(userId, menuIds.stream()
+                .map(Long::valueOf)
+                .collect(Collectors.toList()));
+    }
+
+    /**
+     * 读取带版本号的用户缓存，未命中或版本过期时从数据库加载并回写
+     */
+    private List<String> getVersionedCache(String cacheKey, Long userId, Function<Long, List<String>> loader) {
+        // 缓存条目与全局、用户版本号一次读取
+        List<Object> cached = redisTemplate.opsForValue().multiGet(
+                List.of(cacheKey, GLOBAL_GENERATION_KEY, USER_GENERATION_PREFIX + userId));
+        Object cachedValue = cached != null ? cached.get(0) : null;
+        long globalGeneration = cached != null ? toGeneration(cached.get(1)) : 0L;
+        long userGeneration = cached != null ? toGeneration(cached.get(2)) : 0L;
+
+        List<String> cachedValues = currentValues(cachedValue, globalGeneration, userGeneration,
+                getRoleGenerations(recordedRoleIds(cachedValue)));
+        if (cachedValues != null) {
+            return cachedValues;
+        }
+
+        // 版本号在查询数据库之前读取，保证加载期间提交的全局、用户或角色变更会使本次写入的条目失效
+        Map<Long, Long> roleGenerations = getRoleGenerations(userRoleMapper.selectRoleIdsByUserId(userId));
+        List<String> values = loader.apply(userId);
+
+        redisTemplate.opsForValue().set(cacheKey,
+                buildCacheEntry(globalGeneration, userGeneration, roleGenerations, values),
+                CACHE_EXPIRE_HOURS, TimeUnit.HOURS);
+        return values;
+    }
+
+    /**
+     * 缓存条目记录的全局、用户及各角色版本号均与当前版本号一致时返回其内容，否则返回null
+     */
+    private List<String> currentValues(Object cachedValue, long globalGeneration, long userGeneration,
+                                       Map<Long, Long> roleGenerations) {
+        if (cachedValue instanceof PermissionCacheEntry entry
+                && entry.getGeneration() != null
+                && entry.getGeneration() == globalGeneration
+                && entry.getUserGeneration() != null
+                && entry.getUserGeneration() == userGeneration
+                && isRoleGenerationsCurrent(entry.getRoleGenerations(), roleGenerations)
+                && entry.getValues() != null) {
+            return entry.getValues();
+        }
+        return null;
+    }
+
+    private PermissionCacheEntry buildCacheEntry(long generation, long userGeneration,
+                                                 Map<Long, Long> roleGenerations, List<String> values) {
+        return PermissionCacheEntry.builder()
+                .generation(generation)
+                .userGeneration(userGeneration)
+                .roleGenerations(roleGenerations)
+                .values(values)
+                .build();
+    }
+
+    /**
+     * 批量读取角色版本号，不存在的按0处理
+     */
+    private Map<Long, Long> getRoleGenerations(Collection<Long> roleIds) {
+        Map<Long, Long> generations = new HashMap<>();
+        if (roleIds == null || roleIds.isEmpty()) {
+            return generations;
+        }
+        List<Long> ids = new ArrayList<>(roleIds);
+        List<Object> values = redisTemplate.opsForValue().multiGet(ids.stream()
+                .map(roleId -> ROLE_GENERATION_PREFIX + roleId)
+                .collect(Collectors.toList()));
+        for (int i = 0; i < ids.size(); i++) {
+            generations.put(ids.get(i), values != null ? toGeneration(values.get(i)) : 0L);
+        }
+        return generations;
+    }
+
+    /**
+     * 收集缓存条目中记录的角色ID，用于一次读取其当前版本号
+     */
+    private Set<Long> recordedRoleIds(Object... cachedValues) {
+        Set<Long> roleIds = new HashSet<>();
+        for (Object cachedValue : cachedValues) {
+            if (cachedValue instanceof PermissionCacheEntry entry && entry.getRoleGenerations() != null) {
+                roleIds.addAll(entry.getRoleGenerations().keySet());
+            }
+        }
+        return roleIds;
+    }
+
+    /**
+     * 条目记录的各角色版本号是否均为当前版本（未记录角色版本号的旧格式条目视为过期）
+     */
+    private boolean isRoleGenerationsCurrent(Map<Long, Long> recorded, Map<Long, Long> current) {
+        if (recorded == null) {
+            return false;
+        }
+        for (Map.Entry<Long, Long> entry : recorded.entrySet()) {
+            if (!Objects.equals(entry.getValue(), current.getOrDefault(entry.getKey(), 0L))) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * 存在事务时在提交后执行，否则立即执行
+     */
+    private void runAfterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * 在一个管道中回写多个缓存条目
+     */
+    private void writeCacheEntries(Map<String, PermissionCacheEntry> entries) {
+        if (entries.isEmpty()) {
+            return;
+        }
+        redisTemplate.executePipelined(new SessionCallback<Object>() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <K, V> Object execute(RedisOperations<K, V> operations) {
+                RedisOperations<String, Object> ops = (RedisOperations<String, Object>) operations;
+                entries.forEach((key, entry) -> ops.opsForValue().set(key, entry, CACHE_EXPIRE_HOURS, TimeUnit.HOURS));
+                return null;
+            }
+        });
+    }
+
+    /**
+     * 取用户各角色中最高的数据权限范围（数值越小范围越大）
+     */
+    private String resolveDataScope(List<SysRole> roles) {
+        return roles.stream()
+                .map(SysRole::getDataScope)
+                .filter(Objects::nonNull)
+                .min(String::compareTo)
+                .orElse(DEFAULT_DATA_SCOPE);
+    }
+
+    /**
+     * 清除单个用户的权限缓存
+     * 先递增用户版本号，使并发读取在变更提交前回源、在删除之后写回的条目同样失效
+     */
+    private void evictUser(Long userId) {
+        try {
+            String userGenerationKey = USER_GENERATION_PREFIX + userId;
+            redisTemplate.opsForValue().increment(userGenerationKey);
+            redisTemplate.expire(userGenerationKey, USER_GENERATION_EXPIRE_HOURS, TimeUnit.HOURS);
+
+            // 删除用户相关缓存
+            redisTemplate.delete(List.of(USER_ROLES_CACHE_PREFIX + userId, USER_PERMISSIONS_CACHE_PREFIX + userId,
+                    USER_MENUS_CACHE_PREFIX + userId, USER_DATA_SCOPE_CACHE_PREFIX + userId));
+        } catch (Exception e) {
+            log.error("刷新用户权限缓存失败: userId={}", userId, e);
+        }
+        // 在Redis删除之后失效本地缓存并广播到其他节点，避免本地缓存被旧的Redis数据回填
+        permissionLocalCache.evictUser(userId);
+    }
+
+    /**
+     * 定向清除角色成员的权限缓存
+     * 先递增角色版本号，使并发读取在变更提交前回源、在删除之后写回的条目同样失效；
+     * Redis删除按批次在一个管道中发出，本地缓存按用户失效并广播
+     */
+    private void evictRoleMembers(Long roleId, List<Long> memberIds) {
+        try {
+            redisTemplate.opsForValue().increment(ROLE_GENERATION_PREFIX + roleId);
+
+            // 删除角色相关缓存
+            redisTemplate.delete(ROLE_PERMISSIONS_CACHE_PREFIX + roleId);
+
+            if (memberIds != null && !memberIds.isEmpty()) {
+                RedisSerializer<String> keySerializer = new StringRedisSerializer();
+                redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                    for (int from = 0; from < memberIds.size(); from += EVICT_BATCH_SIZE) {
+                        List<Long> batch = memberIds.subList(from, Math.min(from + EVICT_BATCH_SIZE, memberIds.size()));
+                        byte[][] keys = new byte[batch.size() * 4][];
+                        for (int i = 0; i < batch.size(); i++) {
+                            keys[i * 4] = keySerializer.serialize(USER_ROLES_CACHE_PREFIX + batch.get(i));
+                            keys[i * 4 + 1] = keySerializer.serialize(USER_PERMISSIONS_CACHE_PREFIX + batch.get(i));
+                            keys[i * 4 + 2] = keySerializer.serialize(USER_MENUS_CACHE_PREFIX + batch.get(i));
+                            keys[i * 4 + 3] = keySerializer.serialize(USER_DATA_SCOPE_CACHE_PREFIX + batch.get(i));
+                        }
+                        connection.keyCommands().del(keys);
+                    }
+                    return null;
+                });
+            }
+            log.debug("定向清除角色成员权限缓存: roleId={}, members={}", roleId, memberIds == null ? 0 : memberIds.size());
+        } catch (Exception e) {
+            log.error("清除角色成员权限缓存失败: roleId={}", roleId, e);
+        }
+        permissionLocalCache.evictUsers(memberIds);
+    }
+
+    private long toGeneration(Object value) {
+        return value instanceof Number number ? number.longValue() : 0L;
+    }
+
     /**
      * 转换为RoleDTO列表
      */
@@ -634,15 +1011,6 @@ public class PermissionServiceImpl implements PermissionService {
                 .build();
     }
 
-    /**
-     * 转换为MenuDTO列表
-     */
-    private List<MenuDTO> convertToMenuDTO(List<SysMenu> menus) {
-        return menus.stream()
-                .map(this::convertToMenuDTO)
-                .collect(Collectors.toList());
-    }
-
     /**
      * 转换为MenuDTO
      */
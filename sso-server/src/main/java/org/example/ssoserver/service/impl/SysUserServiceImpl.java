@@ -7,6 +7,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.example.common.dto.LoginRequest;
 import org.example.common.dto.LoginResponse;
 import org.example.common.model.UserDTO;
+import org.example.common.model.CursorPageResult;
 import org.example.common.model.PageResult;
 import org.example.common.exception.BusinessException;
 import org.example.common.result.ResultCode;
@@ -14,15 +15,28 @@ import org.example.common.util.EncryptUtil;
 import org.example.common.util.DesensitizeUtil;
 import org.example.common.enums.UserType;
 import org.example.common.enums.Gender;
+import org.example.ssoserver.audit.LoginStatsAccumulator;
+import org.example.ssoserver.audit.UserStatisticsCounter;
+import org.example.ssoserver.cache.AccountExistenceFilter;
+import org.example.ssoserver.cache.AccountExistenceFilter.IdentifierType;
+import org.example.ssoserver.cache.UserLocalCache;
+import org.example.ssoserver.cache.UserSnapshot;
 import org.example.ssoserver.entity.SysUser;
 import org.example.ssoserver.mapper.SysUserMapper;
 import org.example.ssoserver.service.PasswordService;
 import org.example.ssoserver.service.SysUserService;
+import org.example.ssoserver.util.AccountClassifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.nio.charset.StandardCharsets;
+import java.sql.SQLException;
 import java.time.LocalDateTime;
+import java.util.Base64;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 /**
@@ -35,6 +49,27 @@ public class SysUserServiceImpl implements SysUserService {
 
     private final SysUserMapper userMapper;
     private final PasswordService passwordService;
+    private final LoginStatsAccumulator loginStatsAccumulator;
+    private final AccountExistenceFilter accountExistenceFilter;
+    private final UserLocalCache userLocalCache;
+    private final UserStatisticsCounter userStatisticsCounter;
+
+    // 用户搜索：MySQL全文索引不可用时的错误码（无匹配的FULLTEXT索引 / 存储引擎不支持）
+    private static final int ER_FT_MATCHING_KEY_NOT_FOUND = 1191;
+    private static final int ER_TABLE_CANT_HANDLE_FT = 1214;
+    private static final int MAX_SEARCH_PAGE_SIZE = 100;
+
+    // 是否使用ngram全文索引搜索，数据库缺少索引时自动关闭
+    @Value("${user-search.fulltext-enabled:true}")
+    private volatile boolean searchFulltextEnabled;
+
+    // 与MySQL ngram_token_size一致，更短的关键字无法命中全文索引
+    @Value("${user-search.ngram-token-size:2}")
+    private int searchNgramTokenSize;
+
+    // 总数统计上限，超过时返回近似值
+    @Value("${user-search.count-limit:10000}")
+    private int searchCountLimit;
     
     // ========================================
     // 用户认证相关
@@ -61,10 +96,13 @@ public class SysUserServiceImpl implements SysUserService {
                 return null;
             }
             
-            // 验证密码 - 使用MD5+盐值验证
+            // 验证密码 - 按存储哈希的格式选择算法
             if (user.getSalt() != null && !user.getSalt().isEmpty()) {
-                // 使用新的MD5+盐值验证方式
                 if (passwordService.matchesWithSalt(password, user.getPassword(), user.getSalt())) {
+                    // 旧算法的哈希在登录成功后透明迁移到当前算法
+                    if (passwordService.needsRehash(user.getPassword())) {
+                        updateUserPasswordWithSalt(user.getId(), password);
+                    }
                     return user;
                 }
             } else {
@@ -78,8 +116,11 @@ public class SysUserServiceImpl implements SysUserService {
             }
 
             // 记录登录失败
-            recordLoginFailure(user.getId());
+            recordLoginFailure(user.getId(), user.getFailedLoginCount());
             return null;
+        } catch (BusinessException e) {
+            // 哈希线程池过载等业务异常直接抛出，不能当作密码错误
+            throw e;
         } catch (Exception e) {
             log.error("验证用户失败: account={}", account, e);
             return null;
@@ -87,7 +128,7 @@ public class SysUserServiceImpl implements SysUserService {
     }
 
     /**
-     * 为用户更新密码并添加盐值（用于兼容旧密码）
+     * 使用当前算法重新生成用户密码哈希和盐值（用于迁移旧密码）
      */
     private void updateUserPasswordWithSalt(Long userId, String rawPassword) {
         try {
@@ -101,7 +142,8 @@ public class SysUserServiceImpl implements SysUserService {
             updateUser.setPasswordUpdateTime(LocalDateTime.now());
 
             userMapper.updateById(updateUser);
-            log.info("为用户 {} 更新密码并添加盐值", userId);
+            userLocalCache.evict(userId);
+            log.info("为用户 {} 更新密码哈希", userId);
         } catch (Exception e) {
             log.error("更新用户密码盐值失败: userId={}", userId, e);
         }
@@ -138,6 +180,24 @@ public class SysUserServiceImpl implements SysUserService {
         }
     }
     
+    @Override
+    public UserSnapshot getUserSnapshot(Long id) {
+        if (id == null) {
+            return null;
+        }
+        UserSnapshot snapshot = userLocalCache.get(id);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        SysUser user = getUserById(id);
+        if (user == null) {
+            return null;
+        }
+        snapshot = UserSnapshot.of(user);
+        userLocalCache.put(snapshot);
+        return snapshot;
+    }
+    
     @Override
     public SysUser getUserByUsername(String username) {
         try {
@@ -171,7 +231,29 @@ public class SysUserServiceImpl implements SysUserService {
     @Override
     public SysUser getUserByAccount(String account) {
         try {
-            return userMapper.selectByAccount(account);
+            // 按账号格式确定候选列，并排除过滤器判定一定不存在的列
+            Set<IdentifierType> candidates = AccountClassifier.candidates(account);
+            candidates.removeIf(type -> accountExistenceFilter.isDefinitelyAbsent(type, account));
+            if (candidates.isEmpty()) {
+                return null;
+            }
+            if (candidates.size() == 1) {
+                return switch (candidates.iterator().next()) {
+                    case USERNAME -> userMapper.selectByUsername(account);
+                    case PHONE -> userMapper.selectByPhone(account);
+                    case EMAIL -> userMapper.selectByEmail(account);
+                };
+            }
+            List<String> columns = candidates.stream().map(AccountClassifier::columnOf).toList();
+            List<SysUser> users = userMapper.selectByAccountUnion(account, columns);
+            if (users == null || users.isEmpty()) {
+                return null;
+            }
+            if (users.size() > 1) {
+                log.warn("账号匹配到多个用户: account={}", account);
+                return null;
+            }
+            return users.get(0);
         } catch (Exception e) {
             log.error("根据账号查询用户失败: account={}", account, e);
             return null;
@@ -246,8 +328,14 @@ public class SysUserServiceImpl implements SysUserService {
                 user.setUserType("normal");
             }
             
+            accountExistenceFilter.record(user);
             int result = userMapper.insert(user);
+            if (result > 0) {
+                userStatisticsCounter.recordCreate(user.getUserType(), user.getStatus());
+            }
             return result > 0;
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             log.error("创建用户失败: username={}", user.getUsername(), e);
             return false;
@@ -260,8 +348,18 @@ public class SysUserServiceImpl implements SysUserService {
         try {
             // 不更新密码字段
             user.setPassword(null);
+            // 用户名、手机号、邮箱可能被修改，记录新标识（旧标识在下次重建时淘汰）
+            accountExistenceFilter.record(user);
+            // 修改了类型或状态时需要原值来调整统计计数
+            SysUser oldUser = user.getUserType() != null || user.getStatus() != null
+                    ? userMapper.selectById(user.getId()) : null;
             
             int result = userMapper.updateById(user);
+            userLocalCache.evict(user.getId());
+            if (result > 0 && oldUser != null) {
+                userStatisticsCounter.recordChange(oldUser.getUserType(), oldUser.getStatus(),
+                        user.getUserType(), user.getStatus());
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("更新用户失败: id={}", user.getId(), e);
@@ -278,8 +376,13 @@ public class SysUserServiceImpl implements SysUserService {
             user.setId(userId);
             user.setStatus("0");
             user.setUpdateTime(LocalDateTime.now());
+            SysUser oldUser = userMapper.selectById(userId);
             
             int result = userMapper.updateById(user);
+            userLocalCache.evict(userId);
+            if (result > 0 && oldUser != null) {
+                userStatisticsCounter.recordChange(oldUser.getUserType(), oldUser.getStatus(), null, "0");
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("删除用户失败: userId={}", userId, e);
@@ -295,8 +398,13 @@ public class SysUserServiceImpl implements SysUserService {
             user.setId(userId);
             user.setStatus(status);
             user.setUpdateTime(LocalDateTime.now());
+            SysUser oldUser = userMapper.selectById(userId);
             
             int result = userMapper.updateById(user);
+            userLocalCache.evict(userId);
+            if (result > 0 && oldUser != null) {
+                userStatisticsCounter.recordChange(oldUser.getUserType(), oldUser.getStatus(), null, status);
+            }
             return result > 0;
         } catch (Exception e) {
             log.error("更新用户状态失败: userId={}, status={}", userId, status, e);
@@ -320,7 +428,10 @@ public class SysUserServiceImpl implements SysUserService {
             updateUser.setPasswordUpdateTime(LocalDateTime.now());
 
             int result = userMapper.updateById(updateUser);
+            userLocalCache.evict(userId);
             return result > 0;
+        } catch (BusinessException e) {
+            throw e;
         } catch (Exception e) {
             log.error("重置密码失败: userId={}", userId, e);
             return false;
@@ -359,6 +470,11 @@ public class SysUserServiceImpl implements SysUserService {
                 throw new BusinessException(ResultCode.PARAM_ERROR, "新密码过于简单，请使用更复杂的密码");
             }
 
+            // 检查新密码是否出现在公开泄露的密码库中
+            if (passwordService.isBreachedPassword(newPassword)) {
+                throw new BusinessException(ResultCode.PARAM_ERROR, "该密码已在公开泄露的密码库中出现，请更换密码");
+            }
+
             // 生成新的盐值并加密新密码
             String newSalt = passwordService.generateSalt();
             String encryptedPassword = passwordService.encodePasswordWithSalt(newPassword, newSalt);
@@ -371,6 +487,7 @@ public class SysUserServiceImpl implements SysUserService {
             updateUser.setPasswordUpdateTime(LocalDateTime.now());
 
             int result = userMapper.updateById(updateUser);
+            userLocalCache.evict(userId);
             return result > 0;
         } catch (BusinessException e) {
             throw e;
@@ -385,11 +502,11 @@ public class SysUserServiceImpl implements SysUserService {
     // ========================================
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
     public boolean updateLoginInfo(Long userId, String loginIp) {
         try {
-            int result = userMapper.updateLoginInfo(userId, loginIp, LocalDateTime.now());
-            return result > 0;
+            // 按用户合并后定时批量写入，避免突发登录争用同一行
+            loginStatsAccumulator.recordSuccess(userId, loginIp);
+            return true;
         } catch (Exception e) {
             log.error("更新登录信息失败: userId={}, loginIp={}", userId, loginIp, e);
             return false;
@@ -397,11 +514,11 @@ public class SysUserServiceImpl implements SysUserService {
     }
 
     @Override
-    @Transactional(rollbackFor = Exception.class)
-    public boolean recordLoginFailure(Long userId) {
+    public boolean recordLoginFailure(Long userId, Integer failedLoginCount) {
         try {
-            int result = userMapper.updateLoginFailInfo(userId, LocalDateTime.now());
-            return result > 0;
+            // 失败次数立即计入Redis计数器，各节点的锁定判断可见；数据库定时批量写入
+            loginStatsAccumulator.recordFailure(userId, failedLoginCount);
+            return true;
         } catch (Exception e) {
             log.error("记录登录失败失败: userId={}", userId, e);
             return false;
@@ -413,6 +530,7 @@ public class SysUserServiceImpl implements SysUserService {
     public boolean lockUser(Long userId, String reason) {
         try {
             int result = userMapper.lockUser(userId, LocalDateTime.now());
+            userLocalCache.evict(userId);
             return result > 0;
         } catch (Exception e) {
             log.error("锁定用户失败: userId={}, reason={}", userId, reason, e);
@@ -425,6 +543,8 @@ public class SysUserServiceImpl implements SysUserService {
     public boolean unlockUser(Long userId) {
         try {
             int result = userMapper.unlockUser(userId);
+            userLocalCache.evict(userId);
+            loginStatsAccumulator.resetFailures(userId);
             return result > 0;
         } catch (Exception e) {
             log.error("解锁用户失败: userId={}", userId, e);
@@ -444,6 +564,9 @@ public class SysUserServiceImpl implements SysUserService {
     @Override
     public boolean isUsernameExists(String username, Long excludeId) {
         try {
+            if (accountExistenceFilter.isDefinitelyAbsent(IdentifierType.USERNAME, username)) {
+                return false;
+            }
             Long id = excludeId != null ? excludeId : 0L;
             int count = userMapper.checkUsernameExists(username, id);
             return count > 0;
@@ -456,6 +579,9 @@ public class SysUserServiceImpl implements SysUserService {
     @Override
     public boolean isPhoneExists(String phone, Long excludeId) {
         try {
+            if (accountExistenceFilter.isDefinitelyAbsent(IdentifierType.PHONE, phone)) {
+                return false;
+            }
             Long id = excludeId != null ? excludeId : 0L;
             int count = userMapper.checkPhoneExists(phone, id);
             return count > 0;
@@ -468,6 +594,9 @@ public class SysUserServiceImpl implements SysUserService {
     @Override
     public boolean isEmailExists(String email, Long excludeId) {
         try {
+            if (accountExistenceFilter.isDefinitelyAbsent(IdentifierType.EMAIL, email)) {
+                return false;
+            }
             Long id = excludeId != null ? excludeId : 0L;
             int count = userMapper.checkEmailExists(email, id);
             return count > 0;
@@ -515,6 +644,65 @@ public class SysUserServiceImpl implements SysUserService {
         }
     }
 
+    @Override
+    public CursorPageResult<UserDTO> searchUsers(String cursor, Integer pageSize, String userType, String status,
+                                                 String keyword, boolean withTotal) {
+        int size = pageSize == null || pageSize < 1 ? 20 : Math.min(pageSize, MAX_SEARCH_PAGE_SIZE);
+        String type = userType != null && !userType.isBlank() ? userType : null;
+        String state = status != null && !status.isBlank() ? status : null;
+        String term = keyword != null && !keyword.isBlank() ? keyword.trim() : null;
+
+        LocalDateTime cursorTime = null;
+        Long cursorId = null;
+        if (cursor != null && !cursor.isBlank()) {
+            try {
+                String decoded = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+                int separator = decoded.lastIndexOf('_');
+                cursorTime = LocalDateTime.parse(decoded.substring(0, separator));
+                cursorId = Long.valueOf(decoded.substring(separator + 1));
+            } catch (Exception e) {
+                throw BusinessException.paramError("无效的分页游标");
+            }
+        }
+
+        String fulltext = toFulltextPhrase(term);
+        String like = fulltext == null && term != null ? "%" + escapeLike(term) + "%" : null;
+        try {
+            List<SysUser> users;
+            try {
+                users = userMapper.searchUsers(type, state, fulltext, like, cursorTime, cursorId, size + 1);
+            } catch (Exception e) {
+                if (fulltext == null || !isFulltextUnavailable(e)) {
+                    throw e;
+                }
+                log.warn("sys_user缺少全文索引，用户搜索回退为LIKE查询（执行 db/fix/add_user_search_index.sql 可启用）");
+                searchFulltextEnabled = false;
+                fulltext = null;
+                like = "%" + escapeLike(term) + "%";
+                users = userMapper.searchUsers(type, state, null, like, cursorTime, cursorId, size + 1);
+            }
+
+            String nextCursor = null;
+            if (users.size() > size) {
+                users = users.subList(0, size);
+                // 查询已排除 create_time 为空的行，游标总能生成
+                SysUser last = users.get(size - 1);
+                nextCursor = Base64.getUrlEncoder().withoutPadding().encodeToString(
+                        (last.getCreateTime() + "_" + last.getId()).getBytes(StandardCharsets.UTF_8));
+            }
+
+            CursorPageResult<UserDTO> result = CursorPageResult.of(convertToDTO(users), size, nextCursor);
+            if (withTotal) {
+                long total = userMapper.countSearchUsers(type, state, fulltext, like, searchCountLimit + 1);
+                result.withTotal(Math.min(total, searchCountLimit), total <= searchCountLimit);
+            }
+            return result;
+        } catch (Exception e) {
+            log.error("搜索用户失败: keyword={}", keyword, e);
+            return CursorPageResult.empty(size);
+        }
+    }
+
     @Override
     public List<UserDTO> getUsersByRole(Long roleId) {
         try {
@@ -548,6 +736,11 @@ public class SysUserServiceImpl implements SysUserService {
         }
     }
 
+    @Override
+    public Map<String, Long> getUserStatistics() {
+        return userStatisticsCounter.getStatistics();
+    }
+
     @Override
     public List<SysUser> getUsersToUnlock(int lockMinutes) {
         try {
@@ -572,6 +765,37 @@ public class SysUserServiceImpl implements SysUserService {
     // 私有辅助方法
     // ========================================
 
+    /**
+     * 构造全文检索短语：整个关键字作为短语匹配，效果接近 LIKE '%关键字%'
+     * 全文检索关闭或关键字短于ngram分词长度时返回null
+     */
+    private String toFulltextPhrase(String term) {
+        if (!searchFulltextEnabled || term == null) {
+            return null;
+        }
+        // 双引号在短语中无法转义，直接去除
+        String phrase = term.replace("\"", "").trim();
+        if (phrase.codePointCount(0, phrase.length()) < searchNgramTokenSize) {
+            return null;
+        }
+        return "\"" + phrase + "\"";
+    }
+
+    private static String escapeLike(String term) {
+        return term.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static boolean isFulltextUnavailable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof SQLException sqlException
+                    && (sqlException.getErrorCode() == ER_FT_MATCHING_KEY_NOT_FOUND
+                    || sqlException.getErrorCode() == ER_TABLE_CANT_HANDLE_FT)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     /**
      * 获取性别描述
      */
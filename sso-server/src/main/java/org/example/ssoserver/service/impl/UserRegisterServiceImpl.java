@@ -5,6 +5,9 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.example.common.exception.BusinessException;
 import org.example.common.result.ResultCode;
+import org.example.ssoserver.audit.UserStatisticsCounter;
+import org.example.ssoserver.cache.AccountExistenceFilter;
+import org.example.ssoserver.cache.AccountExistenceFilter.IdentifierType;
 import org.example.ssoserver.dto.RegisterRequest;
 import org.example.ssoserver.dto.RegisterResponse;
 import org.example.ssoserver.entity.SysUser;
@@ -29,6 +32,8 @@ public class UserRegisterServiceImpl implements UserRegisterService {
     private final SysUserMapper sysUserMapper;
     private final SysUserRoleMapper sysUserRoleMapper;
     private final PasswordService passwordService;
+    private final AccountExistenceFilter accountExistenceFilter;
+    private final UserStatisticsCounter userStatisticsCounter;
 
     @Override
     @Transactional(rollbackFor = Exception.class)
@@ -43,11 +48,13 @@ public class UserRegisterServiceImpl implements UserRegisterService {
             // 2. 创建用户实体
             SysUser user = buildUserFromRequest(registerRequest);
 
-            // 3. 保存用户
+            // 3. 保存用户（先记录账号标识，避免写入后短暂被过滤器判为不存在）
+            accountExistenceFilter.record(user);
             int result = sysUserMapper.insert(user);
             if (result <= 0) {
                 throw new BusinessException(ResultCode.BUSINESS_ERROR, "用户注册失败");
             }
+            userStatisticsCounter.recordCreate(user.getUserType(), user.getStatus());
 
             // 4. 分配默认角色
             assignDefaultRole(user.getId(), registerRequest.getUserType());
@@ -69,6 +76,9 @@ public class UserRegisterServiceImpl implements UserRegisterService {
 
     @Override
     public boolean isUsernameExists(String username) {
+        if (accountExistenceFilter.isDefinitelyAbsent(IdentifierType.USERNAME, username)) {
+            return false;
+        }
         LambdaQueryWrapper<SysUser> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(SysUser::getUsername, username);
         return sysUserMapper.selectCount(wrapper) > 0;
@@ -76,6 +86,9 @@ public class UserRegisterServiceImpl implements UserRegisterService {
 
     @Override
     public boolean isPhoneExists(String phone) {
+        if (accountExistenceFilter.isDefinitelyAbsent(IdentifierType.PHONE, phone)) {
+            return false;
+        }
         LambdaQueryWrapper<SysUser> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(SysUser::getPhone, phone);
         return sysUserMapper.selectCount(wrapper) > 0;
@@ -83,6 +96,9 @@ public class UserRegisterServiceImpl implements UserRegisterService {
 
     @Override
     public boolean isEmailExists(String email) {
+        if (accountExistenceFilter.isDefinitelyAbsent(IdentifierType.EMAIL, email)) {
+            return false;
+        }
         LambdaQueryWrapper<SysUser> wrapper = new LambdaQueryWrapper<>();
         wrapper.eq(SysUser::getEmail, email);
         return sysUserMapper.selectCount(wrapper) > 0;
@@ -123,6 +139,11 @@ public class UserRegisterServiceImpl implements UserRegisterService {
             throw new BusinessException(ResultCode.PARAM_ERROR, "密码过于简单，请使用更复杂的密码");
         }
 
+        // 检查是否出现在公开泄露的密码库中
+        if (passwordService.isBreachedPassword(password)) {
+            throw new BusinessException(ResultCode.PARAM_ERROR, "该密码已在公开泄露的密码库中出现，请更换密码");
+        }
+
         // 注释掉密码强度检查，只要包含字母和数字即可
         // int strength = passwordService.checkPasswordStrength(password);
         // if (strength == 0) {
@@ -0,0 +1,41 @@
+package org.example.ssoserver.token;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.ToString;
+
+/**
+ * 签名访问令牌的声明
+ */
+@Getter
+@ToString
+@AllArgsConstructor
+public class AccessTokenClaims {
+
+    /**
+     * 用户ID
+     */
+    private final long userId;
+
+    /**
+     * 签发时间（秒）
+     */
+    private final long issuedAt;
+
+    /**
+     * 过期时间（秒），0表示永不过期
+     */
+    private final long expireAt;
+
+    /**
+     * 令牌唯一标识，用于撤销
+     */
+    private final String tokenId;
+
+    /**
+     * 是否已过期
+     */
+    public boolean isExpired(long nowSeconds) {
+        return expireAt > 0 && expireAt <= nowSeconds;
+    }
+}
@@ -0,0 +1,227 @@
+package org.example.ssoserver.token;
+
+import cn.dev33.satoken.stp.StpUtil;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.example.common.util.BloomFilter;
+import org.example.ssoserver.cache.CacheSyncBus;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 访问令牌撤销名单
+ * 登出、踢下线、销毁令牌时记录被撤销的令牌，签名令牌在过期前仍可验签通过，必须经过该名单检查：
+ * <ul>
+ *     <li>Redis ZSET {@code sso:token:denylist}：撤销标识 → 过期时间（秒），唯一可信来源</li>
+ *     <li>Redis频道 {@code sso:token:denylist}：消息为 {@code 撤销标识:过期时间}，增量同步到各节点和客户端</li>
+ *     <li>本地布隆过滤器：绝大多数未撤销的令牌在本地即可判定"一定未撤销"，不产生任何I/O；
+ *         仅在过滤器命中时查询一次Redis确认，确认结果在本地缓存</li>
+ * </ul>
+ * 布隆过滤器无法删除元素，定时按Redis中仍有效的条目重建，已过期的撤销记录随之淘汰。
+ *
+ * <p>撤销标识：签名令牌为令牌ID；随机令牌为令牌值SHA-256的前16字节（Base64URL），避免在频道中广播令牌原文。</p>
+ */
+@Slf4j
+@Component
+public class AccessTokenDenylist {
+
+    /**
+     * Redis key与广播频道
+     */
+    public static final String DENYLIST_KEY = "sso:token:denylist";
+    public static final String DENYLIST_CHANNEL = "sso:token:denylist";
+
+    // 随机令牌撤销标识前缀，与签名令牌ID区分
+    private static final String HASHED_KEY_PREFIX = "h:";
+    private static final int HASHED_KEY_BYTES = 16;
+    // 本地确认结果缓存上限，超过后整体清空
+    private static final int MAX_CONFIRMED_ENTRIES = 10000;
+
+    private final SignedAccessTokenCodec tokenCodec;
+    private final StringRedisTemplate stringRedisTemplate;
+    private final CacheSyncBus cacheSyncBus;
+    private final long expectedInsertions;
+    private final double falsePositiveRate;
+
+    private volatile BloomFilter filter;
+    // 重建期间收到的增量同时写入新过滤器
+    private volatile BloomFilter rebuilding;
+    // 过滤器命中后经Redis确认的结果：撤销标识 → 是否已撤销
+    private final Map<String, Boolean> confirmed = new ConcurrentHashMap<>();
+
+    public AccessTokenDenylist(SignedAccessTokenCodec tokenCodec, StringRedisTemplate stringRedisTemplate,
+                               CacheSyncBus cacheSyncBus,
+                               @Value("${access-token.denylist.expected-insertions:100000}") long expectedInsertions,
+                               @Value("${access-token.denylist.false-positive-rate:0.001}") double falsePositiveRate) {
+        this.tokenCodec = tokenCodec;
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.cacheSyncBus = cacheSyncBus;
+        this.expectedInsertions = expectedInsertions;
+        this.falsePositiveRate = falsePositiveRate;
+        this.filter = BloomFilter.create(expectedInsertions, falsePositiveRate);
+    }
+
+    @PostConstruct
+    public void init() {
+        cacheSyncBus.subscribe(DENYLIST_CHANNEL, this::onMessage);
+        rebuild();
+    }
+
+    /**
+     * 撤销令牌（需在登出清理令牌之前调用，以便读取随机令牌的剩余有效期）
+     */
+    public void revoke(String token) {
+        if (token == null || token.isEmpty()) {
+            return;
+        }
+        long expireAt;
+        if (tokenCodec.isSignedToken(token)) {
+            AccessTokenClaims claims = tokenCodec.decode(token);
+            if (claims == null) {
+                return;
+            }
+            expireAt = claims.getExpireAt() > 0 ? claims.getExpireAt() : Long.MAX_VALUE;
+        } else {
+            long timeout = StpUtil.getStpLogic().getTokenTimeout(token);
+            if (timeout == -2) {
+                // 令牌不存在或已过期
+                return;
+            }
+            expireAt = timeout > 0 ? System.currentTimeMillis() / 1000 + timeout : Long.MAX_VALUE;
+        }
+        String key = revocationKey(token);
+        if (Boolean.TRUE.equals(confirmed.get(key))) {
+            return;
+        }
+        try {
+            stringRedisTemplate.opsForZSet().add(DENYLIST_KEY, key, expireAt);
+        } catch (Exception e) {
+            log.error("写入访问令牌撤销名单失败: key={}", key, e);
+        }
+        // 先写入Redis再加入本地过滤器：与重建并发时，重建要么扫描到该键，要么已设置rebuilding并同时写入新过滤器
+        addLocal(key);
+        confirmed.put(key, Boolean.TRUE);
+        // 先写入Redis再广播，保证其他节点确认时能查到
+        cacheSyncBus.publish(DENYLIST_CHANNEL, key + ":" + expireAt);
+    }
+
+    /**
+     * 令牌是否已撤销
+     */
+    public boolean isTokenRevoked(String token) {
+        return token != null && isRevoked(revocationKey(token));
+    }
+
+    /**
+     * 撤销标识是否已撤销
+     * 过滤器未命中时直接返回false；命中时查询Redis确认，查询失败按已撤销处理
+     */
+    public boolean isRevoked(String key) {
+        if (!filter.mightContain(key)) {
+            return false;
+        }
+        Boolean cached = confirmed.get(key);
+        if (cached != null) {
+            return cached;
+        }
+        boolean revoked;
+        try {
+            Double expireAt = stringRedisTemplate.opsForZSet().score(DENYLIST_KEY, key);
+            revoked = expireAt != null && expireAt > System.currentTimeMillis() / 1000;
+        } catch (Exception e) {
+            log.warn("确认访问令牌撤销状态失败，按已撤销处理: key={}, error={}", key, e.getMessage());
+            return true;
+        }
+        if (confirmed.size() >= MAX_CONFIRMED_ENTRIES) {
+            confirmed.clear();
+        }
+        confirmed.put(key, revoked);
+        return revoked;
+    }
+
+    /**
+     * 计算令牌的撤销标识
+     */
+    public String revocationKey(String token) {
+        if (tokenCodec.isSignedToken(token)) {
+            AccessTokenClaims claims = tokenCodec.decode(token);
+            if (claims != null) {
+                return claims.getTokenId();
+            }
+        }
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return HASHED_KEY_PREFIX + Base64.getUrlEncoder().withoutPadding()
+                    .encodeToString(Arrays.copyOf(digest, HASHED_KEY_BYTES));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256不可用", e);
+        }
+    }
+
+    /**
+     * 定时按Redis中仍有效的撤销记录重建过滤器，并清除Redis中已过期的记录
+     */
+    @Scheduled(fixedDelayString = "${access-token.denylist.rebuild-interval-millis:600000}",
+            initialDelayString = "${access-token.denylist.rebuild-interval-millis:600000}")
+    public void rebuild() {
+        BloomFilter next = BloomFilter.create(expectedInsertions, falsePositiveRate);
+        rebuilding = next;
+        try {
+            long now = System.currentTimeMillis() / 1000;
+            stringRedisTemplate.opsForZSet().removeRangeByScore(DENYLIST_KEY, Double.NEGATIVE_INFINITY, now);
+            Set<ZSetOperations.TypedTuple<String>> entries =
+                    stringRedisTemplate.opsForZSet().rangeByScoreWithScores(DENYLIST_KEY, now + 1, Double.POSITIVE_INFINITY);
+            int size = 0;
+            if (entries != null) {
+                for (ZSetOperations.TypedTuple<String> entry : entries) {
+                    if (entry.getValue() != null) {
+                        next.put(entry.getValue());
+                        size++;
+                    }
+                }
+            }
+            filter = next;
+            confirmed.clear();
+            log.debug("访问令牌撤销过滤器已重建: size={}", size);
+        } catch (Exception e) {
+            // 保留旧过滤器，宁可多查Redis也不能漏判
+            log.error("重建访问令牌撤销过滤器失败", e);
+        } finally {
+            rebuilding = null;
+        }
+    }
+
+    // ========================================
+    // 私有辅助方法
+    // ========================================
+
+    private void addLocal(String key) {
+        filter.put(key);
+        BloomFilter next = rebuilding;
+        if (next != null) {
+            next.put(key);
+        }
+    }
+
+    private void onMessage(String payload) {
+        int separator = payload.lastIndexOf(':');
+        if (separator <= 0) {
+            return;
+        }
+        String key = payload.substring(0, separator);
+        addLocal(key);
+        confirmed.put(key, Boolean.TRUE);
+    }
+}
@@ -0,0 +1,587 @@
+package org.example.ssoserver.token;
+
+import jakarta.annotation.PostConstruct;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.example.ssoserver.dto.RefreshTokenInfo;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.connection.DataType;
+import org.springframework.data.redis.core.Cursor;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.ScanOptions;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Refresh Token存储
+ * 每个refresh token以Redis Hash保存（字段均为字符串，时间为毫秒时间戳），
+ * 轮换（校验过期、自动续期、记录新的访问令牌）由一个Lua脚本原子完成，无需分布式锁。
+ *
+ * <p>宽限期内的并发刷新（如同一页面多个请求同时刷新）直接返回上一次轮换签发的访问令牌，而不是报错。
+ * 旧版本以JSON字符串保存的记录在首次访问时自动迁移为Hash。</p>
+ *
+ * <p>另外维护以下索引，统计、清理与按用户撤销均无需扫描键空间：</p>
+ * <ul>
+ *     <li>{@code sso:refresh-idx:user:<userId>}：用户的refresh token，ZSET，分值为过期时间</li>
+ *     <li>{@code sso:refresh-idx:expiry}：全部refresh token（成员为 {@code 用户ID:token}），ZSET，分值为过期时间</li>
+ *     <li>{@code sso:refresh-idx:users}：用户持有的refresh token数量，ZSET</li>
+ *     <li>{@code sso:refresh-idx:stats}：签发、轮换、撤销、过期清理计数，Hash</li>
+ * </ul>
+ *
+ * <p>refresh token由客户端传入，拼接key前先校验为32位十六进制；索引使用独立前缀，
+ * 即使校验被绕过，构造的token也无法指向索引key。</p>
+ */
+@Slf4j
+@Component
+public class RefreshTokenStore {
+
+    /**
+     * Refresh Token key前缀
+     */
+    public static final String KEY_PREFIX = "sso:refresh:";
+
+    // 索引key：与token记录使用不同前缀，客户端传入的token无法构造出索引key
+    private static final String INDEX_PREFIX = "sso:refresh-idx:";
+    private static final String USER_INDEX_PREFIX = INDEX_PREFIX + "user:";
+    private static final String EXPIRY_INDEX_KEY = INDEX_PREFIX + "expiry";
+    private static final String USER_COUNT_KEY = INDEX_PREFIX + "users";
+    private static final String STATS_KEY = INDEX_PREFIX + "stats";
+
+    // 旧版本与token记录共用前缀的索引key，启动时迁移
+    private static final String LEGACY_USER_INDEX_PREFIX = KEY_PREFIX + "user:";
+    private static final String LEGACY_INDEX_PREFIX = KEY_PREFIX + "index:";
+
+    // refresh token格式：IdUtil.fastSimpleUUID() 生成的32位小写十六进制
+    private static final Pattern TOKEN_PATTERN = Pattern.compile("[0-9a-f]{32}");
+
+    // 每次清理脚本处理的最大数量
+    private static final int CLEANUP_BATCH_SIZE = 500;
+
+    // 统计中展示的持有数量最多的用户数
+    private static final int TOP_USER_LIMIT = 10;
+
+    // Hash字段
+    private static final String FIELD_USER_ID = "userId";
+    private static final String FIELD_ACCESS_TOKEN = "accessToken";
+    private static final String FIELD_CREATE_TIME = "createTime";
+    private static final String FIELD_EXPIRE_TIME = "expireTime";
+    private static final String FIELD_DEVICE_FINGERPRINT = "deviceFingerprint";
+    private static final String FIELD_CLIENT_IP = "clientIp";
+
+    /**
+     * 从索引中移除一个token的公共Lua片段
+     * 调用前需定义 prefix（用户索引前缀）、token、uid 变量；全局索引成员为 "用户ID:token"
+     */
+    private static final String LUA_UNINDEX =
+            "if uid and uid ~= '' then " +
+            "  redis.call('ZREM', KEYS[2], uid .. ':' .. token) " +
+            "  if redis.call('ZREM', prefix .. uid, token) == 1 " +
+            "      and tonumber(redis.call('ZINCRBY', KEYS[3], -1, uid)) <= 0 then " +
+            "    redis.call('ZREM', KEYS[3], uid) " +
+            "  end " +
+            "end ";
+
+    /**
+     * 保存脚本：覆盖写入Hash、设置过期时间点并登记索引
+     * KEYS[1]=key，KEYS[2]=全局过期索引，KEYS[3]=用户计数，KEYS[4]=统计；
+     * ARGV[1]=用户索引前缀，ARGV[2]=token，ARGV[3]=用户ID，ARGV[4]=过期时间点（毫秒），ARGV[5..]=字段与值
+     */
+    private static final RedisScript<Long> SAVE_SCRIPT = RedisScript.of(
+            "local prefix, token, uid = ARGV[1], ARGV[2], ARGV[3] " +
+            "redis.call('DEL', KEYS[1]) " +
+            "redis.call('HSET', KEYS[1], unpack(ARGV, 5)) " +
+            "redis.call('PEXPIREAT', KEYS[1], ARGV[4]) " +
+            "redis.call('ZADD', KEYS[2], ARGV[4], uid .. ':' .. token) " +
+            "if redis.call('ZADD', prefix .. uid, ARGV[4], token) == 1 then " +
+            "  redis.call('ZINCRBY', KEYS[3], 1, uid) " +
+            "  redis.call('HINCRBY', KEYS[4], 'issued', 1) " +
+            "end " +
+            "return 1", Long.class);
+
+    /**
+     * 删除脚本：删除记录并移出索引
+     * KEYS[1]=key，KEYS[2]=全局过期索引，KEYS[3]=用户计数，KEYS[4]=统计；ARGV[1]=用户索引前缀，ARGV[2]=token
+     */
+    private static final RedisScript<Long> DELETE_SCRIPT = RedisScript.of(
+            "local prefix, token = ARGV[1], ARGV[2] " +
+            "local uid = redis.call('HGET', KEYS[1], 'userId') " +
+            "local deleted = redis.call('DEL', KEYS[1]) " +
+            LUA_UNINDEX +
+            "if deleted > 0 then redis.call('HINCRBY', KEYS[4], 'revoked', 1) end " +
+            "return deleted", Long.class);
+
+    /**
+     * 撤销用户全部refresh token
+     * KEYS[1]=用户索引，KEYS[2]=全局过期索引，KEYS[3]=用户计数，KEYS[4]=统计；ARGV[1]=key前缀，ARGV[2]=用户ID
+     */
+    private static final RedisScript<Long> REVOKE_USER_SCRIPT = RedisScript.of(
+            "local tokens = redis.call('ZRANGE', KEYS[1], 0, -1) " +
+            "for _, token in ipairs(tokens) do " +
+            "  redis.call('DEL', ARGV[1] .. token) " +
+            "  redis.call('ZREM', KEYS[2], ARGV[2] .. ':' .. token) " +
+            "end " +
+            "redis.call('DEL', KEYS[1]) " +
+            "redis.call('ZREM', KEYS[3], ARGV[2]) " +
+            "if #tokens > 0 then redis.call('HINCRBY', KEYS[4], 'revoked', #tokens) end " +
+            "return #tokens", Long.class);
+
+    /**
+     * 清理脚本：按全局过期索引删除已过期的记录与索引项（记录本身通常已由TTL删除）
+     * KEYS[1]=key前缀（仅占位），KEYS[2]=全局过期索引，KEYS[3]=用户计数，KEYS[4]=统计；
+     * ARGV[1]=用户索引前缀，ARGV[2]=当前时间（毫秒），ARGV[3]=本批最大数量，ARGV[4]=key前缀
+     */
+    private static final RedisScript<Long> CLEANUP_SCRIPT = RedisScript.of(
+            "local prefix = ARGV[1] " +
+            "local expired = redis.call('ZRANGEBYSCORE', KEYS[2], '-inf', ARGV[2], 'LIMIT', 0, tonumber(ARGV[3])) " +
+            "for _, member in ipairs(expired) do " +
+            "  local sep = string.find(member, ':', 1, true) " +
+            "  local uid, token = string.sub(member, 1, sep - 1), string.sub(member, sep + 1) " +
+            "  redis.call('DEL', ARGV[4] .. token) " +
+            LUA_UNINDEX +
+            "end " +
+            "if #expired > 0 then redis.call('HINCRBY', KEYS[4], 'expired', #expired) end " +
+            "return #expired", Long.class);
+
+    /**
+     * 轮换脚本
+     * KEYS[1]=key，KEYS[2]=全局过期索引，KEYS[3]=用户计数，KEYS[4]=统计；
+     * ARGV[1]=当前时间（毫秒），ARGV[2]=候选访问令牌，ARGV[3]=宽限期（毫秒），
+     * ARGV[4]=续期阈值（毫秒，空串表示不续期），ARGV[5]=续期后的有效期（毫秒），ARGV[6]=需校验的设备指纹（空串表示不校验），
+     * ARGV[7]=用户索引前缀，ARGV[8]=token
+     * 返回 {状态, 用户ID, 访问令牌, 过期时间点, 是否续期}
+     */
+    @SuppressWarnings("rawtypes")
+    private static final RedisScript<List> ROTATE_SCRIPT = RedisScript.of(
+            "local now = tonumber(ARGV[1]) " +
+            "local prefix, token = ARGV[7], ARGV[8] " +
+            "local kind = redis.call('TYPE', KEYS[1]).ok " +
+            "if kind == 'none' then return {'MISSING'} end " +
+            "if kind ~= 'hash' then return {'LEGACY'} end " +
+            "local v = redis.call('HMGET', KEYS[1], 'userId', 'expireTime', 'accessToken', 'rotatedAt', 'deviceFingerprint') " +
+            "local uid = v[1] " +
+            "local expireAt = tonumber(v[2]) " +
+            "if not expireAt or expireAt <= now then " +
+            "  redis.call('DEL', KEYS[1]) " +
+            LUA_UNINDEX +
+            "  redis.call('HINCRBY', KEYS[4], 'expired', 1) " +
+            "  return {'EXPIRED', uid or ''} " +
+            "end " +
+            "if ARGV[6] ~= '' and v[5] ~= ARGV[6] then return {'DEVICE_MISMATCH', uid} end " +
+            "local rotatedAt = tonumber(v[4]) " +
+            "if rotatedAt and v[3] and now - rotatedAt < tonumber(ARGV[3]) then " +
+            "  return {'REUSED', uid, v[3], tostring(expireAt), '0'} " +
+            "end " +
+            "local renewed = '0' " +
+            "if ARGV[4] ~= '' and expireAt - now < tonumber(ARGV[4]) then " +
+            "  expireAt = now + tonumber(ARGV[5]) " +
+            "  renewed = '1' " +
+            "  redis.call('HSET', KEYS[1], 'createTime', ARGV[1], 'expireTime', tostring(expireAt)) " +
+            "  redis.call('ZADD', KEYS[2], expireAt, uid .. ':' .. token) " +
+            "  redis.call('ZADD', prefix .. uid, expireAt, token) " +
+            "end " +
+            "redis.call('HSET', KEYS[1], 'accessToken', ARGV[2], 'rotatedAt', ARGV[1]) " +
+            "redis.call('PEXPIREAT', KEYS[1], expireAt) " +
+            "redis.call('HINCRBY', KEYS[4], 'rotated', 1) " +
+            "return {'ROTATED', uid, ARGV[2], tostring(expireAt), renewed}", List.class);
+
+    private final StringRedisTemplate stringRedisTemplate;
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    @Value("${refresh-token.expire-days:7}")
+    private int expireDays;
+
+    @Value("${refresh-token.auto-renewal:true}")
+    private boolean autoRenewal;
+
+    @Value("${refresh-token.renewal-threshold-days:1}")
+    private int renewalThresholdDays;
+
+    @Value("${refresh-token.rotation-grace-seconds:10}")
+    private int rotationGraceSeconds;
+
+    public RefreshTokenStore(StringRedisTemplate stringRedisTemplate, RedisTemplate<String, Object> redisTemplate) {
+        this.stringRedisTemplate = stringRedisTemplate;
+        this.redisTemplate = redisTemplate;
+    }
+
+    /**
+     * 将旧版本的索引key迁移到独立前缀下（新key已存在时合并）
+     */
+    @PostConstruct
+    public void migrateLegacyIndexes() {
+        try {
+            int migrated = 0;
+            for (String name : List.of("expiry", "users", "stats")) {
+                migrated += migrateIndexKey(LEGACY_INDEX_PREFIX + name, INDEX_PREFIX + name);
+            }
+            ScanOptions options = ScanOptions.scanOptions().match(LEGACY_USER_INDEX_PREFIX + "*").count(500).build();
+            try (Cursor<String> cursor = stringRedisTemplate.scan(options)) {
+                while (cursor.hasNext()) {
+                    String legacyKey = cursor.next();
+                    migrated += migrateIndexKey(legacyKey,
+                            USER_INDEX_PREFIX + legacyKey.substring(LEGACY_USER_INDEX_PREFIX.length()));
+                }
+            }
+            if (migrated > 0) {
+                log.info("Refresh Token索引已迁移到独立前缀: count={}", migrated);
+            }
+        } catch (Exception e) {
+            log.warn("Refresh Token索引迁移失败: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * 校验refresh token格式（32位小写十六进制）
+     * 所有以客户端传入的token拼接key的操作都需先经过此校验
+     */
+    public static boolean isWellFormed(String refreshToken) {
+        return refreshToken != null && TOKEN_PATTERN.matcher(refreshToken).matches();
+    }
+
+    // ========================================
+    // 读写
+    // ========================================
+
+    /**
+     * 保存refresh token（覆盖已有记录）
+     */
+    public void save(String refreshToken, RefreshTokenInfo info) {
+        if (!isWellFormed(refreshToken)) {
+            throw new IllegalArgumentException("refresh token格式错误");
+        }
+        List<String> args = new ArrayList<>(16);
+        args.add(USER_INDEX_PREFIX);
+        args.add(refreshToken);
+        args.add(String.valueOf(info.getUserId()));
+        args.add(String.valueOf(toMillis(info.getExpireTime())));
+        addField(args, FIELD_USER_ID, info.getUserId());
+        addField(args, FIELD_ACCESS_TOKEN, info.getAccessToken());
+        addField(args, FIELD_CREATE_TIME, info.getCreateTime() != null ? toMillis(info.getCreateTime()) : null);
+        addField(args, FIELD_EXPIRE_TIME, toMillis(info.getExpireTime()));
+        addField(args, FIELD_DEVICE_FINGERPRINT, info.getDeviceFingerprint());
+        addField(args, FIELD_CLIENT_IP, info.getClientIp());
+        stringRedisTemplate.execute(SAVE_SCRIPT, indexKeys(KEY_PREFIX + refreshToken), args.toArray());
+    }
+
+    /**
+     * 读取refresh token信息
+     *
+     * @return 不存在时返回null
+     */
+    public RefreshTokenInfo get(String refreshToken) {
+        if (!isWellFormed(refreshToken)) {
+            return null;
+        }
+        String key = KEY_PREFIX + refreshToken;
+        Map<Object, Object> fields;
+        try {
+            fields = stringRedisTemplate.opsForHash().entries(key);
+        } catch (Exception e) {
+            // 旧版本的JSON字符串记录（WRONGTYPE）
+            return migrateLegacy(refreshToken);
+        }
+        if (fields.isEmpty()) {
+            return null;
+        }
+        return RefreshTokenInfo.builder()
+                .userId(parseLong(fields.get(FIELD_USER_ID)))
+                .accessToken((String) fields.get(FIELD_ACCESS_TOKEN))
+                .createTime(toDateTime(parseLong(fields.get(FIELD_CREATE_TIME))))
+                .expireTime(toDateTime(parseLong(fields.get(FIELD_EXPIRE_TIME))))
+                .deviceFingerprint((String) fields.get(FIELD_DEVICE_FINGERPRINT))
+                .clientIp((String) fields.get(FIELD_CLIENT_IP))
+                .build();
+    }
+
+    /**
+     * 读取refresh token所属用户ID
+     *
+     * @return 不存在时返回null
+     */
+    public Long getUserId(String refreshToken) {
+        if (!isWellFormed(refreshToken)) {
+            return null;
+        }
+        try {
+            return parseLong(stringRedisTemplate.opsForHash().get(KEY_PREFIX + refreshToken, FIELD_USER_ID));
+        } catch (Exception e) {
+            // 旧版本的JSON字符串记录（WRONGTYPE）
+            RefreshTokenInfo info = migrateLegacy(refreshToken);
+            return info != null ? info.getUserId() : null;
+        }
+    }
+
+    /**
+     * 删除refresh token
+     */
+    public boolean delete(String refreshToken) {
+        if (!isWellFormed(refreshToken)) {
+            return false;
+        }
+        String key = KEY_PREFIX + refreshToken;
+        if (!"hash".equals(keyType(key))) {
+            // 旧格式记录未登记索引，直接删除
+            return Boolean.TRUE.equals(stringRedisTemplate.delete(key));
+        }
+        Long deleted = stringRedisTemplate.execute(DELETE_SCRIPT, indexKeys(key), USER_INDEX_PREFIX, refreshToken);
+        return deleted != null && deleted > 0;
+    }
+
+    /**
+     * 撤销用户的全部refresh token
+     *
+     * @return 撤销数量
+     */
+    public long revokeAll(Long userId) {
+        Long revoked = stringRedisTemplate.execute(REVOKE_USER_SCRIPT, indexKeys(USER_INDEX_PREFIX + userId),
+                KEY_PREFIX, String.valueOf(userId));
+        return revoked != null ? revoked : 0L;
+    }
+
+    // ========================================
+    // 统计与清理
+    // ========================================
+
+    /**
+     * 清理已过期的refresh token索引项（分批执行，每批一个脚本）
+     *
+     * @return 清理数量
+     */
+    public long cleanupExpired() {
+        String now = String.valueOf(System.currentTimeMillis());
+        long total = 0;
+        while (true) {
+            Long cleaned = stringRedisTemplate.execute(CLEANUP_SCRIPT, indexKeys(KEY_PREFIX),
+                    USER_INDEX_PREFIX, now, String.valueOf(CLEANUP_BATCH_SIZE), KEY_PREFIX);
+            long count = cleaned != null ? cleaned : 0L;
+            total += count;
+            if (count < CLEANUP_BATCH_SIZE) {
+                return total;
+            }
+        }
+    }
+
+    /**
+     * 定时清理过期索引项
+     */
+    @Scheduled(fixedDelayString = "${refresh-token.cleanup-interval-millis:3600000}",
+            initialDelayString = "${refresh-token.cleanup-interval-millis:3600000}")
+    public void scheduledCleanup() {
+        try {
+            long cleaned = cleanupExpired();
+            if (cleaned > 0) {
+                log.info("定时清理过期Refresh Token完成: count={}", cleaned);
+            }
+        } catch (Exception e) {
+            log.error("定时清理过期Refresh Token失败", e);
+        }
+    }
+
+    /**
+     * 获取refresh token统计信息
+     * 过期数量为已过期但尚未被清理的索引项数量
+     */
+    public Map<String, Object> getStatistics() {
+        long now = System.currentTimeMillis();
+        ZSetOperations<String, String> zSetOps = stringRedisTemplate.opsForZSet();
+        Long total = zSetOps.zCard(EXPIRY_INDEX_KEY);
+        Long active = zSetOps.count(EXPIRY_INDEX_KEY, now + 1, Double.POSITIVE_INFINITY);
+        long totalCount = total != null ? total : 0L;
+        long activeCount = active != null ? active : 0L;
+
+        List<Map<String, Object>> topUsers = new ArrayList<>();
+        Set<ZSetOperations.TypedTuple<String>> tuples =
+                zSetOps.reverseRangeWithScores(USER_COUNT_KEY, 0, TOP_USER_LIMIT - 1);
+        if (tuples != null) {
+            for (ZSetOperations.TypedTuple<String> tuple : tuples) {
+                Map<String, Object> item = new LinkedHashMap<>();
+                item.put("userId", parseLong(tuple.getValue()));
+                item.put("tokenCount", tuple.getScore() != null ? tuple.getScore().longValue() : 0L);
+                topUsers.add(item);
+            }
+        }
+
+        Map<Object, Object> counters = stringRedisTemplate.opsForHash().entries(STATS_KEY);
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("totalTokens", totalCount);
+        stats.put("activeTokens", activeCount);
+        stats.put("expiredTokens", totalCount - activeCount);
+        stats.put("userCount", zSetOps.zCard(USER_COUNT_KEY));
+        stats.put("topUsers", topUsers);
+        for (String counter : List.of("issued", "rotated", "revoked", "expired")) {
+            Long value = parseLong(counters.get(counter));
+            stats.put(counter + "Total", value != null ? value : 0L);
+        }
+        stats.put("timestamp", now);
+        return stats;
+    }
+
+    // ========================================
+    // 轮换
+    // ========================================
+
+    /**
+     * 原子轮换refresh token
+     *
+     * @param refreshToken refresh token
+     * @param candidateAccessToken 预先生成的新访问令牌，轮换成功时记录到refresh token中
+     * @param deviceFingerprint 需校验的设备指纹，为null时不校验
+     * @return 轮换结果
+     */
+    public Rotation rotate(String refreshToken, String candidateAccessToken, String deviceFingerprint) {
+        if (!isWellFormed(refreshToken)) {
+            return new Rotation(RotationStatus.MISSING, null, null, null, false);
+        }
+        Rotation rotation = executeRotate(refreshToken, candidateAccessToken, deviceFingerprint);
+        if (rotation.getStatus() == RotationStatus.LEGACY) {
+            // 旧格式记录迁移后重试一次
+            migrateLegacy(refreshToken);
+            rotation = executeRotate(refreshToken, candidateAccessToken, deviceFingerprint);
+        }
+        return rotation;
+    }
+
+    // ========================================
+    // 私有辅助方法
+    // ========================================
+
+    private Rotation executeRotate(String refreshToken, String candidateAccessToken, String deviceFingerprint) {
+        long now = System.currentTimeMillis();
+        String renewalThreshold = autoRenewal ? String.valueOf(TimeUnit.DAYS.toMillis(renewalThresholdDays)) : "";
+        List<?> result = stringRedisTemplate.execute(ROTATE_SCRIPT, indexKeys(KEY_PREFIX + refreshToken),
+                String.valueOf(now),
+                candidateAccessToken,
+                String.valueOf(TimeUnit.SECONDS.toMillis(rotationGraceSeconds)),
+                renewalThreshold,
+                String.valueOf(TimeUnit.DAYS.toMillis(expireDays)),
+                deviceFingerprint != null ? deviceFingerprint : "",
+                USER_INDEX_PREFIX,
+                refreshToken);
+        if (result == null || result.isEmpty()) {
+            return new Rotation(RotationStatus.MISSING, null, null, null, false);
+        }
+        RotationStatus status = RotationStatus.valueOf(String.valueOf(result.get(0)));
+        Long userId = result.size() > 1 ? parseLong(result.get(1)) : null;
+        String accessToken = result.size() > 2 ? String.valueOf(result.get(2)) : null;
+        LocalDateTime expireTime = result.size() > 3 ? toDateTime(parseLong(result.get(3))) : null;
+        boolean renewed = result.size() > 4 && "1".equals(String.valueOf(result.get(4)));
+        return new Rotation(status, userId, accessToken, expireTime, renewed);
+    }
+
+    /**
+     * 将旧版本的JSON记录迁移为Hash
+     */
+    private RefreshTokenInfo migrateLegacy(String refreshToken) {
+        Object legacy = redisTemplate.opsForValue().get(KEY_PREFIX + refreshToken);
+        if (!(legacy instanceof RefreshTokenInfo info) || info.getExpireTime() == null) {
+            return null;
+        }
+        save(refreshToken, info);
+        log.info("Refresh Token记录已迁移为Hash格式: userId={}", info.getUserId());
+        return info;
+    }
+
+    /**
+     * 迁移单个索引key：新key不存在时直接改名，否则合并后删除旧key
+     *
+     * @return 迁移的key数量
+     */
+    private int migrateIndexKey(String legacyKey, String key) {
+        String type = keyType(legacyKey);
+        if ("none".equals(type)) {
+            return 0;
+        }
+        if (Boolean.TRUE.equals(stringRedisTemplate.renameIfAbsent(legacyKey, key))) {
+            return 1;
+        }
+        if ("zset".equals(type)) {
+            stringRedisTemplate.opsForZSet().unionAndStore(key, legacyKey, key);
+        } else if ("hash".equals(type)) {
+            stringRedisTemplate.opsForHash().entries(legacyKey).forEach((field, value) ->
+                    stringRedisTemplate.opsForHash().increment(key, field, Long.parseLong(String.valueOf(value))));
+        }
+        stringRedisTemplate.delete(legacyKey);
+        return 1;
+    }
+
+    /**
+     * 脚本的KEYS：目标key与各索引key
+     */
+    private List<String> indexKeys(String key) {
+        return List.of(key, EXPIRY_INDEX_KEY, USER_COUNT_KEY, STATS_KEY);
+    }
+
+    private String keyType(String key) {
+        DataType type = stringRedisTemplate.type(key);
+        return type != null ? type.code() : "none";
+    }
+
+    private void addField(List<String> args, String field, Object value) {
+        if (value != null) {
+            args.add(field);
+            args.add(String.valueOf(value));
+        }
+    }
+
+    private Long parseLong(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String text = String.valueOf(value);
+        return text.isEmpty() ? null : Long.valueOf(text);
+    }
+
+    private long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private LocalDateTime toDateTime(Long millis) {
+        return millis != null ? LocalDateTime.ofInstant(Instant.ofEpochMilli(millis), ZoneId.systemDefault()) : null;
+    }
+
+    /**
+     * 轮换结果状态
+     */
+    public enum RotationStatus {
+        /** 轮换成功，签发了新的访问令牌 */
+        ROTATED,
+        /** 宽限期内的重复刷新，返回上一次签发的访问令牌 */
+        REUSED,
+        /** 不存在 */
+        MISSING,
+        /** 已过期（已删除） */
+        EXPIRED,
+        /** 设备指纹不匹配 */
+        DEVICE_MISMATCH,
+        /** 旧版本JSON格式，需要迁移 */
+        LEGACY
+    }
+
+    /**
+     * 轮换结果
+     */
+    @Getter
+    @AllArgsConstructor
+    public static class Rotation {
+        private final RotationStatus status;
+        private final Long userId;
+        private final String accessToken;
+        private final LocalDateTime expireTime;
+        private final boolean renewed;
+    }
+}
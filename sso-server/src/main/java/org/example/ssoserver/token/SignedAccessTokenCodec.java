@@ -0,0 +1,164 @@
+package org.example.ssoserver.token;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * 签名访问令牌编解码器（无状态模式）
+ * 令牌格式：{@code sst.<userId>.<签发时间>.<过期时间>.<令牌ID>.<HMAC-SHA256签名>}，
+ * 各字段均为URL安全字符，签名覆盖前缀之后、签名之前的全部内容。
+ * 令牌不携带权限信息，鉴权时按用户读取带版本号的权限缓存。
+ *
+ * <p>旧格式令牌在令牌ID前多一个权限版本字段，过期前仍可校验，该字段被忽略。</p>
+ *
+ * <p>校验只需本地计算一次HMAC，不访问Redis；撤销通过 {@link AccessTokenDenylist} 完成。
+ * sso-client-backend 中有对应的校验实现，两端需配置相同的密钥。</p>
+ */
+@Slf4j
+@Component
+public class SignedAccessTokenCodec {
+
+    /**
+     * 签名令牌前缀
+     */
+    public static final String TOKEN_PREFIX = "sst.";
+
+    /**
+     * 访问令牌模式：redis（默认，随机令牌）/ stateless（签名令牌）
+     */
+    public static final String MODE_STATELESS = "stateless";
+
+    private static final String ALGORITHM = "HmacSHA256";
+    private static final int PAYLOAD_FIELD_COUNT = 4;
+    // 旧格式（含权限版本字段）
+    private static final int LEGACY_PAYLOAD_FIELD_COUNT = 5;
+    private static final int TOKEN_ID_BYTES = 16;
+    // HMAC-SHA256建议密钥长度
+    private static final int MIN_SECRET_BYTES = 32;
+
+    private static final Base64.Encoder ENCODER = Base64.getUrlEncoder().withoutPadding();
+    private static final Base64.Decoder DECODER = Base64.getUrlDecoder();
+
+    private final boolean enabled;
+    private final SecretKeySpec secretKey;
+    private final SecureRandom random = new SecureRandom();
+    // Mac非线程安全，按线程复用
+    private final ThreadLocal<Mac> macHolder = ThreadLocal.withInitial(this::newMac);
+
+    public SignedAccessTokenCodec(@Value("${access-token.mode:redis}") String mode,
+                                  @Value("${access-token.secret:}") String secret) {
+        this.enabled = MODE_STATELESS.equalsIgnoreCase(mode);
+        byte[] keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        if (enabled && keyBytes.length == 0) {
+            throw new IllegalStateException("无状态访问令牌模式需要配置 access-token.secret");
+        }
+        if (enabled && keyBytes.length < MIN_SECRET_BYTES) {
+            log.warn("访问令牌签名密钥长度不足{}字节，生产环境请使用更长的密钥", MIN_SECRET_BYTES);
+        }
+        this.secretKey = keyBytes.length > 0 ? new SecretKeySpec(keyBytes, ALGORITHM) : null;
+        if (enabled) {
+            log.info("已启用无状态签名访问令牌模式");
+        }
+    }
+
+    /**
+     * 是否启用无状态签名令牌模式
+     */
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 是否为签名令牌（仅检查格式前缀）
+     */
+    public boolean isSignedToken(String token) {
+        return token != null && token.startsWith(TOKEN_PREFIX);
+    }
+
+    /**
+     * 签发令牌
+     *
+     * @param userId 用户ID
+     * @param timeoutSeconds 有效期（秒），小于等于0表示永不过期
+     * @return 签名令牌
+     */
+    public String issue(long userId, long timeoutSeconds) {
+        byte[] tokenId = new byte[TOKEN_ID_BYTES];
+        random.nextBytes(tokenId);
+        long now = System.currentTimeMillis() / 1000;
+        long expireAt = timeoutSeconds > 0 ? now + timeoutSeconds : 0L;
+        String payload = userId + "." + now + "." + expireAt + "." + ENCODER.encodeToString(tokenId);
+        return TOKEN_PREFIX + payload + "." + ENCODER.encodeToString(sign(payload));
+    }
+
+    /**
+     * 校验签名与过期时间
+     *
+     * @return 校验通过返回声明，否则返回null
+     */
+    public AccessTokenClaims verify(String token) {
+        AccessTokenClaims claims = decode(token);
+        if (claims == null || claims.isExpired(System.currentTimeMillis() / 1000)) {
+            return null;
+        }
+        return claims;
+    }
+
+    /**
+     * 校验签名但不校验过期时间（用于撤销等场景）
+     *
+     * @return 签名有效返回声明，否则返回null
+     */
+    public AccessTokenClaims decode(String token) {
+        if (secretKey == null || !isSignedToken(token)) {
+            return null;
+        }
+        int signatureStart = token.lastIndexOf('.');
+        if (signatureStart <= TOKEN_PREFIX.length()) {
+            return null;
+        }
+        String payload = token.substring(TOKEN_PREFIX.length(), signatureStart);
+        try {
+            byte[] signature = DECODER.decode(token.substring(signatureStart + 1));
+            if (!MessageDigest.isEqual(signature, sign(payload))) {
+                return null;
+            }
+            String[] fields = payload.split("\\.");
+            if (fields.length != PAYLOAD_FIELD_COUNT && fields.length != LEGACY_PAYLOAD_FIELD_COUNT) {
+                return null;
+            }
+            return new AccessTokenClaims(Long.parseLong(fields[0]), Long.parseLong(fields[1]),
+                    Long.parseLong(fields[2]), fields[fields.length - 1]);
+        } catch (IllegalArgumentException e) {
+            // 非法Base64或数字
+            return null;
+        }
+    }
+
+    // ========================================
+    // 私有辅助方法
+    // ========================================
+
+    private byte[] sign(String payload) {
+        return macHolder.get().doFinal(payload.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(secretKey);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("初始化访问令牌签名算法失败", e);
+        }
+    }
+}
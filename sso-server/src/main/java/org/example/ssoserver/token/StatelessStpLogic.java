@@ -0,0 +1,75 @@
+package org.example.ssoserver.token;
+
+import cn.dev33.satoken.session.SaSession;
+import cn.dev33.satoken.session.SaTerminalInfo;
+import cn.dev33.satoken.stp.StpLogic;
+import cn.dev33.satoken.stp.StpUtil;
+import cn.dev33.satoken.stp.parameter.SaLogoutParameter;
+
+import java.util.Map;
+
+/**
+ * 无状态签名令牌模式下的StpLogic
+ * 登录时签发 {@link SignedAccessTokenCodec} 格式的令牌；请求校验（拦截器、注解鉴权、getLoginId等）
+ * 只做本地签名校验和撤销名单检查，不再逐请求读取Redis中的 token → loginId 映射。
+ * 会话、终端列表等仍按原方式写入Redis，登出/踢下线时除原有清理外将令牌加入撤销名单。
+ *
+ * <p>签名令牌不参与 active-timeout 活跃度检查，有效期以令牌中的过期时间为准。</p>
+ */
+public class StatelessStpLogic extends StpLogic {
+
+    private final SignedAccessTokenCodec tokenCodec;
+    private final AccessTokenDenylist denylist;
+
+    public StatelessStpLogic(SignedAccessTokenCodec tokenCodec, AccessTokenDenylist denylist) {
+        super(StpUtil.TYPE);
+        this.tokenCodec = tokenCodec;
+        this.denylist = denylist;
+    }
+
+    @Override
+    public String createTokenValue(Object loginId, String device, long timeout, Map<String, Object> extraData) {
+        if (loginId == null) {
+            return super.createTokenValue(null, device, timeout, extraData);
+        }
+        return tokenCodec.issue(Long.parseLong(loginId.toString()), timeout);
+    }
+
+    @Override
+    public String getLoginIdNotHandle(String tokenValue) {
+        if (!tokenCodec.isSignedToken(tokenValue)) {
+            return super.getLoginIdNotHandle(tokenValue);
+        }
+        AccessTokenClaims claims = tokenCodec.verify(tokenValue);
+        if (claims == null || denylist.isRevoked(claims.getTokenId())) {
+            return null;
+        }
+        return String.valueOf(claims.getUserId());
+    }
+
+    @Override
+    public void checkActiveTimeoutByConfig(String tokenValue) {
+        if (!tokenCodec.isSignedToken(tokenValue)) {
+            super.checkActiveTimeoutByConfig(tokenValue);
+        }
+    }
+
+    @Override
+    public void updateLastActiveToNow(String tokenValue) {
+        if (!tokenCodec.isSignedToken(tokenValue)) {
+            super.updateLastActiveToNow(tokenValue);
+        }
+    }
+
+    @Override
+    public void _logoutByTokenValue(String tokenValue, SaLogoutParameter logoutParameter) {
+        super._logoutByTokenValue(tokenValue, logoutParameter);
+        denylist.revoke(tokenValue);
+    }
+
+    @Override
+    public void _removeTerminal(SaSession session, SaTerminalInfo terminal, SaLogoutParameter logoutParameter) {
+        super._removeTerminal(session, terminal, logoutParameter);
+        denylist.revoke(terminal.getTokenValue());
+    }
+}
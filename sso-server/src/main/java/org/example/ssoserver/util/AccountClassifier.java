@@ -0,0 +1,63 @@
+package org.example.ssoserver.util;
+
+import org.example.ssoserver.cache.AccountExistenceFilter.IdentifierType;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * 登录账号分类工具类
+ * 判断账号字符串可能对应的标识列（用户名、手机号、邮箱），以便路由到单列索引的精确查询。
+ *
+ * <p>后台创建的用户名不受注册格式限制，因此用户名始终是候选；
+ * 仅含数字及 {@code +-()} 空格的账号额外可能是手机号，含 {@code @} 的账号额外可能是邮箱。</p>
+ */
+public class AccountClassifier {
+
+    private AccountClassifier() {
+    }
+
+    /**
+     * 账号可能对应的标识列
+     *
+     * @param account 登录账号
+     * @return 候选标识类型，账号为空时返回空集合
+     */
+    public static Set<IdentifierType> candidates(String account) {
+        Set<IdentifierType> types = EnumSet.noneOf(IdentifierType.class);
+        if (account == null || account.isBlank()) {
+            return types;
+        }
+        types.add(IdentifierType.USERNAME);
+        if (account.indexOf('@') >= 0) {
+            types.add(IdentifierType.EMAIL);
+        } else if (isPhoneLike(account)) {
+            types.add(IdentifierType.PHONE);
+        }
+        return types;
+    }
+
+    /**
+     * 标识类型对应的数据库列名
+     */
+    public static String columnOf(IdentifierType type) {
+        return switch (type) {
+            case USERNAME -> "username";
+            case PHONE -> "phone";
+            case EMAIL -> "email";
+        };
+    }
+
+    private static boolean isPhoneLike(String account) {
+        boolean hasDigit = false;
+        for (int i = 0; i < account.length(); i++) {
+            char c = account.charAt(i);
+            if (c >= '0' && c <= '9') {
+                hasDigit = true;
+            } else if (c != '+' && c != '-' && c != '(' && c != ')' && c != ' ') {
+                return false;
+            }
+        }
+        return hasDigit;
+    }
+}
@@ -0,0 +1,112 @@
+package org.example.ssoserver.audit;
+
+import org.example.ssoserver.audit.LogExporter.Format;
+import org.example.ssoserver.audit.LogExporter.LogType;
+import org.example.ssoserver.entity.SecurityEventLog;
+import org.example.ssoserver.entity.SysLoginLog;
+import org.example.ssoserver.mapper.SecurityEventLogMapper;
+import org.example.ssoserver.mapper.SysLoginLogMapper;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 审计日志导出测试
+ */
+public class LogExporterTest {
+
+    private static final LocalDateTime TIME = LocalDateTime.of(2026, 10, 1, 8, 30, 0);
+
+    /**
+     * 按ID游标分批读取，CSV逐行写出
+     */
+    @Test
+    void testCsvExportPagesByIdCursor() throws Exception {
+        SysLoginLogMapper loginLogMapper = mock(SysLoginLogMapper.class);
+        when(loginLogMapper.selectForExport(eq(0L), eq(7L), isNull(), any(), isNull(), eq(2)))
+                .thenReturn(List.of(loginLog(1L, "alice", "登录成功"), loginLog(5L, "alice", "密码错误, 请重试")));
+        when(loginLogMapper.selectForExport(eq(5L), eq(7L), isNull(), any(), isNull(), eq(2)))
+                .thenReturn(List.of(loginLog(9L, "alice", null)));
+        LogExporter exporter = new LogExporter(loginLogMapper, mock(SecurityEventLogMapper.class), 2);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long rows = exporter.export(LogType.LOGIN, Format.CSV, false,
+                new LogExporter.Query(7L, null, TIME.minusDays(1), null), out);
+
+        assertEquals(3, rows);
+        // 最后一批不足批大小，不再继续查询
+        verify(loginLogMapper, never()).selectForExport(eq(9L), any(), any(), any(), any(), anyInt());
+        String[] lines = out.toString(StandardCharsets.UTF_8).split("\r\n");
+        assertEquals(4, lines.length);
+        assertTrue(lines[0].startsWith("\uFEFFid,userId,username"));
+        assertEquals("1,7,alice,password,10.0.0.1,,,,,,2026-10-01 08:30:00,1,登录成功", lines[1]);
+        assertTrue(lines[2].endsWith(",\"密码错误, 请重试\""));
+        assertTrue(lines[3].endsWith(",1,"));
+    }
+
+    /**
+     * NDJSON + gzip 导出，每行一个JSON对象
+     */
+    @Test
+    void testGzipNdjsonExport() throws Exception {
+        SecurityEventLogMapper securityEventLogMapper = mock(SecurityEventLogMapper.class);
+        SecurityEventLog event = SecurityEventLog.builder()
+                .id(3L).userId(7L).eventType("account_lock").eventDescription("连续失败\n已锁定")
+                .riskLevel("HIGH").isHandled(0).createTime(TIME).build();
+        SecurityEventLog next = SecurityEventLog.builder()
+                .id(4L).userId(7L).eventType("login_abnormal").riskLevel("LOW").isHandled(1).createTime(TIME).build();
+        when(securityEventLogMapper.selectForExport(anyLong(), any(), any(), any(), anyInt()))
+                .thenReturn(List.of(event, next));
+        LogExporter exporter = new LogExporter(mock(SysLoginLogMapper.class), securityEventLogMapper, 100);
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        exporter.export(LogType.SECURITY_EVENT, Format.NDJSON, true, new LogExporter.Query(null, null, null, null), out);
+
+        String text;
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(out.toByteArray()))) {
+            text = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+        // 多行之间只能以换行分隔，不能出现根值分隔空格
+        assertEquals("{\"id\":3,\"userId\":7,\"eventType\":\"account_lock\",\"eventDescription\":\"连续失败\\n已锁定\","
+                + "\"clientIp\":null,\"userAgent\":null,\"riskLevel\":\"HIGH\",\"isHandled\":0,"
+                + "\"createTime\":\"2026-10-01 08:30:00\"}\n"
+                + "{\"id\":4,\"userId\":7,\"eventType\":\"login_abnormal\",\"eventDescription\":null,"
+                + "\"clientIp\":null,\"userAgent\":null,\"riskLevel\":\"LOW\",\"isHandled\":1,"
+                + "\"createTime\":\"2026-10-01 08:30:00\"}\n", text);
+    }
+
+    /**
+     * CSV字段转义及公式注入防护
+     */
+    @Test
+    void testCsvFieldEscaping() {
+        assertEquals("", LogExporter.csvField(null));
+        assertEquals("-1", LogExporter.csvField(-1L));
+        assertEquals("\"a\"\"b\"", LogExporter.csvField("a\"b"));
+        assertEquals("'=HYPERLINK(1)", LogExporter.csvField("=HYPERLINK(1)"));
+        assertEquals("\"'@a,b\"", LogExporter.csvField("@a,b"));
+    }
+
+    private static SysLoginLog loginLog(Long id, String username, String msg) {
+        return SysLoginLog.builder()
+                .id(id).userId(7L).username(username).loginType("password").loginIp("10.0.0.1")
+                .loginTime(TIME).status("1").msg(msg).build();
+    }
+}
@@ -0,0 +1,82 @@
+package org.example.ssoserver.audit;
+
+import org.example.ssoserver.entity.SysLoginLog;
+import org.example.ssoserver.mapper.SysLoginLogMapper;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 登录日志异步批量写入器测试
+ */
+public class LoginLogWriterTest {
+
+    /**
+     * 关闭时应排空队列，且每批不超过配置的批次大小
+     */
+    @Test
+    public void testBatchesAndDrainOnShutdown() {
+        SysLoginLogMapper mapper = mock(SysLoginLogMapper.class);
+        List<Integer> batchSizes = new CopyOnWriteArrayList<>();
+        when(mapper.insertBatch(anyList())).thenAnswer(invocation -> {
+            List<?> batch = invocation.getArgument(0);
+            batchSizes.add(batch.size());
+            return batch.size();
+        });
+
+        LoginLogWriter writer = new LoginLogWriter(mapper, 100, 3, 60_000,
+                LoginLogWriter.OverflowPolicy.DROP, 0, 5_000, "target/login-log-spill.ndjson");
+        writer.start();
+        for (int i = 0; i < 10; i++) {
+            writer.submit(SysLoginLog.builder().username("user" + i).status("1").build());
+        }
+        writer.shutdown();
+
+        assertEquals(10, batchSizes.stream().mapToInt(Integer::intValue).sum());
+        assertEquals(3, batchSizes.stream().mapToInt(Integer::intValue).max().orElse(0));
+        assertEquals(10L, writer.getStats().get("written"));
+    }
+
+    /**
+     * 写入线程阻塞且队列写满时，DROP策略应丢弃并计数
+     */
+    @Test
+    public void testDropPolicyCountsOverflow() throws InterruptedException {
+        SysLoginLogMapper mapper = mock(SysLoginLogMapper.class);
+        CountDownLatch entered = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        when(mapper.insertBatch(anyList())).thenAnswer(invocation -> {
+            entered.countDown();
+            release.await();
+            return ((List<?>) invocation.getArgument(0)).size();
+        });
+
+        LoginLogWriter writer = new LoginLogWriter(mapper, 2, 1, 60_000,
+                LoginLogWriter.OverflowPolicy.DROP, 0, 5_000, "target/login-log-spill.ndjson");
+        writer.start();
+
+        // 第一条被写入线程取走并阻塞在数据库写入上
+        assertTrue(writer.submit(SysLoginLog.builder().username("first").build()));
+        assertTrue(entered.await(5, TimeUnit.SECONDS));
+
+        // 填满队列后继续提交的日志被丢弃
+        assertTrue(writer.submit(SysLoginLog.builder().username("queued1").build()));
+        assertTrue(writer.submit(SysLoginLog.builder().username("queued2").build()));
+        assertFalse(writer.submit(SysLoginLog.builder().username("dropped").build()));
+        assertEquals(1L, writer.getStats().get("dropped"));
+
+        release.countDown();
+        writer.shutdown();
+        assertEquals(3L, writer.getStats().get("written"));
+    }
+}
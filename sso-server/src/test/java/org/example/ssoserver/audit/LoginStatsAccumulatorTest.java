@@ -0,0 +1,85 @@
+package org.example.ssoserver.audit;
+
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSession;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.example.ssoserver.mapper.SysUserMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.HashOperations;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户登录统计写后合并器测试
+ */
+public class LoginStatsAccumulatorTest {
+
+    /**
+     * Redis计数器存在时以其为准（包含其他节点的失败）
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSharedFailedCount() {
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        HashOperations<String, Object, Object> hashOps = mock(HashOperations.class);
+        when(redis.<Object, Object>opsForHash()).thenReturn(hashOps);
+        when(hashOps.get("sso:login:failed:1", "count")).thenReturn("5");
+        LoginStatsAccumulator accumulator = new LoginStatsAccumulator(mock(SqlSessionFactory.class), redis, 500, 86400);
+
+        assertEquals(5, accumulator.getEffectiveFailedCount(1L, 0));
+    }
+
+    /**
+     * Redis计数器不可用时，未落库的失败次数叠加到数据库值上，成功登录后清零
+     */
+    @Test
+    public void testEffectiveFailedCountFallback() {
+        LoginStatsAccumulator accumulator = new LoginStatsAccumulator(mock(SqlSessionFactory.class),
+                mock(StringRedisTemplate.class), 500, 86400);
+
+        accumulator.recordFailure(1L, 3);
+        accumulator.recordFailure(1L, 3);
+        assertEquals(5, accumulator.getEffectiveFailedCount(1L, 3));
+
+        accumulator.recordSuccess(1L, "127.0.0.1");
+        accumulator.recordFailure(1L, 0);
+        assertEquals(1, accumulator.getEffectiveFailedCount(1L, 3));
+
+        assertEquals(4, accumulator.getEffectiveFailedCount(2L, 4));
+    }
+
+    /**
+     * 同一用户的多次登录应合并为一条UPDATE
+     */
+    @Test
+    public void testFlushCoalescesPerUser() {
+        SqlSessionFactory factory = mock(SqlSessionFactory.class);
+        SqlSession session = mock(SqlSession.class);
+        SysUserMapper mapper = mock(SysUserMapper.class);
+        when(factory.openSession(ExecutorType.BATCH, false)).thenReturn(session);
+        when(session.getMapper(SysUserMapper.class)).thenReturn(mapper);
+
+        LoginStatsAccumulator accumulator = new LoginStatsAccumulator(factory, mock(StringRedisTemplate.class), 500, 86400);
+        accumulator.recordFailure(1L, 0);
+        accumulator.recordSuccess(1L, "10.0.0.1");
+        accumulator.recordSuccess(1L, "10.0.0.2");
+        accumulator.recordFailure(2L, 0);
+        accumulator.flush();
+
+        verify(mapper, times(1)).applyLoginStats(eq(1L), eq(2), eq("10.0.0.2"), any(), eq(true), eq(0), any());
+        verify(mapper, times(1)).applyLoginStats(eq(2L), eq(0), any(), any(), eq(false), eq(1), any());
+        verify(mapper, times(2)).applyLoginStats(anyLong(), anyInt(), any(), any(), anyBoolean(), anyInt(), any());
+        verify(session).commit();
+        assertEquals(0, accumulator.getPendingSize());
+    }
+}
@@ -0,0 +1,71 @@
+package org.example.ssoserver.audit;
+
+import org.example.ssoserver.mapper.SysUserMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户统计计数器测试
+ */
+public class UserStatisticsCounterTest {
+
+    /**
+     * 分桶计数汇总后与原先逐项COUNT的口径一致
+     */
+    @Test
+    void testSummarizeMatchesCountQueries() {
+        Map<String, Long> buckets = new HashMap<>();
+        buckets.put("normal:1", 10L);
+        buckets.put("normal:0", 2L);
+        buckets.put("enterprise:1", 4L);
+        buckets.put("airline:1", 3L);
+        buckets.put("airline:0", 1L);
+        buckets.put("admin:1", 1L);
+
+        Map<String, Long> statistics = UserStatisticsCounter.summarize(buckets);
+
+        assertEquals(21L, statistics.get("totalUsers"));
+        assertEquals(18L, statistics.get("activeUsers"));
+        assertEquals(3L, statistics.get("disabledUsers"));
+        assertEquals(10L, statistics.get("normalUsers"));
+        assertEquals(4L, statistics.get("enterpriseUsers"));
+        assertEquals(3L, statistics.get("airlineUsers"));
+    }
+
+    /**
+     * 类型或状态为空时按数据库默认值分桶
+     */
+    @Test
+    void testBucketDefaults() {
+        assertEquals("normal:1", UserStatisticsCounter.bucket(null, null));
+        assertEquals("airline:0", UserStatisticsCounter.bucket("airline", "0"));
+    }
+
+    /**
+     * Redis不可用时回退为一次分组统计查询
+     */
+    @Test
+    void testFallbackToGroupQueryWhenRedisUnavailable() {
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        when(redisTemplate.opsForHash()).thenThrow(new IllegalStateException("redis down"));
+        SysUserMapper userMapper = mock(SysUserMapper.class);
+        when(userMapper.countGroupByTypeAndStatus()).thenReturn(List.of(
+                Map.of("userType", "normal", "status", "1", "total", 5L),
+                Map.of("userType", "enterprise", "status", "0", "total", 2L)));
+
+        Map<String, Long> statistics = new UserStatisticsCounter(redisTemplate, userMapper).getStatistics();
+
+        assertEquals(7L, statistics.get("totalUsers"));
+        assertEquals(5L, statistics.get("activeUsers"));
+        assertEquals(2L, statistics.get("disabledUsers"));
+        assertEquals(0L, statistics.get("enterpriseUsers"));
+    }
+}
@@ -0,0 +1,119 @@
+package org.example.ssoserver.benchmark;
+
+import org.example.ssoserver.security.PermissionCatalog;
+import org.example.ssoserver.security.PermissionSnapshot;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 权限校验基准测试：List.contains 与位图快照对比
+ *
+ * <p>运行方式：mvn test-compile 后执行本类的 main 方法，或
+ * {@code java -cp target/test-classes:<依赖> org.openjdk.jmh.Main PermissionCheckBenchmark}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class PermissionCheckBenchmark {
+
+    @Param({"50", "200"})
+    private int permissionCount;
+
+    private List<String> permissionList;
+    private PermissionSnapshot snapshot;
+
+    private String lastPermission;
+    private String missingPermission;
+    private String[] anyOf;
+    private String[] allOf;
+
+    @Setup
+    public void setup() {
+        permissionList = new ArrayList<>();
+        for (int i = 0; i < permissionCount; i++) {
+            permissionList.add("module" + (i % 10) + ":resource" + i + ":edit");
+        }
+        snapshot = new PermissionCatalog().compile(permissionList);
+
+        // 使用新建的字符串，避免 equals 命中引用相等的快速路径
+        lastPermission = new String(permissionList.get(permissionCount - 1));
+        missingPermission = "module0:resource" + permissionCount + ":edit";
+        anyOf = new String[]{missingPermission, "system:user:list", new String(permissionList.get(permissionCount / 2))};
+        allOf = new String[]{new String(permissionList.get(0)), new String(permissionList.get(permissionCount / 2)), lastPermission};
+    }
+
+    @Benchmark
+    public boolean listContainsHit() {
+        return permissionList.contains(lastPermission);
+    }
+
+    @Benchmark
+    public boolean bitsetContainsHit() {
+        return snapshot.contains(lastPermission);
+    }
+
+    @Benchmark
+    public boolean listContainsMiss() {
+        return permissionList.contains(missingPermission);
+    }
+
+    @Benchmark
+    public boolean bitsetContainsMiss() {
+        return snapshot.contains(missingPermission);
+    }
+
+    @Benchmark
+    public boolean listContainsAny() {
+        for (String permission : anyOf) {
+            if (permissionList.contains(permission)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    @Benchmark
+    public boolean bitsetContainsAny() {
+        return snapshot.containsAny(anyOf);
+    }
+
+    @Benchmark
+    public boolean listContainsAll() {
+        for (String permission : allOf) {
+            if (!permissionList.contains(permission)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    @Benchmark
+    public boolean bitsetContainsAll() {
+        return snapshot.containsAll(allOf);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(PermissionCheckBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
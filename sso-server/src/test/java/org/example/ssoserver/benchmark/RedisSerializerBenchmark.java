@@ -0,0 +1,161 @@
+package org.example.ssoserver.benchmark;
+
+import org.example.common.model.UserDTO;
+import org.example.ssoserver.cache.PermissionCacheEntry;
+import org.example.ssoserver.config.RedisConfig;
+import org.example.ssoserver.dto.RefreshTokenInfo;
+import org.example.ssoserver.dto.SsoTicketInfo;
+import org.example.ssoserver.serializer.CompactRedisSerializer;
+import org.example.ssoserver.serializer.PermissionCacheEntryCodec;
+import org.example.ssoserver.serializer.RefreshTokenInfoCodec;
+import org.example.ssoserver.serializer.SsoTicketInfoCodec;
+import org.example.ssoserver.serializer.StringListCodec;
+import org.example.ssoserver.serializer.UserDTOCodec;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis值序列化基准测试：JSON（GenericJackson2Json）与紧凑二进制对比
+ * 每组参数在初始化时输出两种格式的单值字节数。
+ *
+ * <p>运行方式：mvn test-compile 后执行本类的 main 方法，或
+ * {@code java -cp target/test-classes:<依赖> org.openjdk.jmh.Main RedisSerializerBenchmark}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class RedisSerializerBenchmark {
+
+    @Param({"ticket", "refreshToken", "permission"})
+    private String valueType;
+
+    private GenericJackson2JsonRedisSerializer jsonSerializer;
+    private CompactRedisSerializer binarySerializer;
+
+    private Object value;
+    private byte[] jsonBytes;
+    private byte[] binaryBytes;
+
+    @Setup
+    public void setup() {
+        jsonSerializer = RedisConfig.jsonRedisSerializer();
+        UserDTOCodec userCodec = new UserDTOCodec();
+        binarySerializer = new CompactRedisSerializer(jsonSerializer, List.of(new StringListCodec(),
+                new PermissionCacheEntryCodec(), userCodec, new SsoTicketInfoCodec(userCodec),
+                new RefreshTokenInfoCodec()), true);
+
+        value = switch (valueType) {
+            case "ticket" -> sampleTicket();
+            case "refreshToken" -> sampleRefreshToken();
+            default -> samplePermissionEntry();
+        };
+        jsonBytes = jsonSerializer.serialize(value);
+        binaryBytes = binarySerializer.serialize(value);
+        System.out.printf("%n[%s] json=%d bytes, binary=%d bytes (%.1f%%)%n", valueType,
+                jsonBytes.length, binaryBytes.length, 100.0 * binaryBytes.length / jsonBytes.length);
+    }
+
+    @Benchmark
+    public byte[] jsonEncode() {
+        return jsonSerializer.serialize(value);
+    }
+
+    @Benchmark
+    public byte[] binaryEncode() {
+        return binarySerializer.serialize(value);
+    }
+
+    @Benchmark
+    public Object jsonDecode() {
+        return jsonSerializer.deserialize(jsonBytes);
+    }
+
+    @Benchmark
+    public Object binaryDecode() {
+        return binarySerializer.deserialize(binaryBytes);
+    }
+
+    private static SsoTicketInfo sampleTicket() {
+        LocalDateTime now = LocalDateTime.now();
+        UserDTO user = UserDTO.builder()
+                .id(10086L)
+                .username("zhangsan")
+                .nickname("张三")
+                .realName("张三")
+                .phone("13800138000")
+                .email("zhangsan@example.com")
+                .avatar("https://cdn.example.com/avatar/10086.png")
+                .gender(1)
+                .genderDesc("男")
+                .birthday(LocalDate.of(1990, 5, 20))
+                .status("1")
+                .statusDesc("正常")
+                .userType("USER")
+                .userTypeDesc("普通用户")
+                .lastLoginTime(now.minusHours(3))
+                .lastLoginIp("192.168.1.100")
+                .loginCount(128)
+                .createTime(now.minusDays(300))
+                .updateTime(now.minusDays(1))
+                .roles(new ArrayList<>(List.of("USER", "AUDITOR")))
+                .permissions(new ArrayList<>(List.of("system:user:list", "system:user:query", "system:log:list")))
+                .build();
+        return SsoTicketInfo.builder()
+                .userId(10086L)
+                .clientId("sso-client-backend")
+                .redirectUri("http://localhost:8082/sso/callback")
+                .createTime(now)
+                .user(user)
+                .build();
+    }
+
+    private static RefreshTokenInfo sampleRefreshToken() {
+        LocalDateTime now = LocalDateTime.now();
+        return RefreshTokenInfo.builder()
+                .userId(10086L)
+                .accessToken("3f2b9c1e-6a4d-4e8f-9b7a-1c2d3e4f5a6b")
+                .createTime(now)
+                .expireTime(now.plusDays(7))
+                .deviceFingerprint("a1b2c3d4e5f60718293a4b5c6d7e8f90")
+                .clientIp("192.168.1.100")
+                .build();
+    }
+
+    private static PermissionCacheEntry samplePermissionEntry() {
+        List<String> permissions = new ArrayList<>();
+        for (int i = 0; i < 50; i++) {
+            permissions.add("module" + (i % 10) + ":resource" + i + ":edit");
+        }
+        return new PermissionCacheEntry(42L, 3L, new HashMap<>(Map.of(1L, 7L, 2L, 1L)), permissions);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(RedisSerializerBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+}
@@ -0,0 +1,209 @@
+package org.example.ssoserver.benchmark;
+
+import org.example.ssoserver.security.password.BreachedPasswordFilter;
+import org.example.ssoserver.service.PasswordService;
+import org.example.ssoserver.service.impl.PasswordServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * 弱密码检查基准测试：原正则/子串实现与单次扫描实现对比，以及内存映射泄露密码过滤器的查询耗时
+ *
+ * <p>运行方式：mvn test-compile 后执行本类的 main 方法，或
+ * {@code java -cp target/test-classes:<依赖> org.openjdk.jmh.Main WeakPasswordBenchmark}</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class WeakPasswordBenchmark {
+
+    /**
+     * 典型输入：字母数字混合、纯字母、重复模式
+     */
+    @Param({"MySecure123!", "abcdefghij", "xyzxyzxyzxyz"})
+    private String password;
+
+    private PasswordService passwordService;
+    private BreachedPasswordFilter breachedFilter;
+    private Path filterFile;
+
+    @Setup(Level.Trial)
+    public void setup() throws IOException {
+        passwordService = new PasswordServiceImpl();
+
+        // 构建100万条目的过滤器文件，模拟离线泄露密码库
+        Path input = Files.createTempFile("breached", ".txt");
+        filterFile = Files.createTempFile("breached", ".bloom");
+        try (BufferedWriter writer = Files.newBufferedWriter(input, StandardCharsets.UTF_8)) {
+            for (int i = 0; i < 1_000_000; i++) {
+                writer.write("leaked-password-" + i);
+                writer.newLine();
+            }
+        }
+        BreachedPasswordFilter.main(new String[]{input.toString(), filterFile.toString()});
+        Files.delete(input);
+
+        long start = System.nanoTime();
+        breachedFilter = new BreachedPasswordFilter(filterFile.toString());
+        System.out.printf("%n过滤器映射加载耗时: %.2fms%n", (System.nanoTime() - start) / 1e6);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+        breachedFilter = null;
+        Files.deleteIfExists(filterFile);
+    }
+
+    @Benchmark
+    public boolean legacyIsWeak() {
+        return LegacyChecks.isWeakPassword(password);
+    }
+
+    @Benchmark
+    public boolean scanIsWeak() {
+        return passwordService.isWeakPassword(password);
+    }
+
+    @Benchmark
+    public int legacyStrength() {
+        return LegacyChecks.checkPasswordStrength(password);
+    }
+
+    @Benchmark
+    public int scanStrength() {
+        return passwordService.checkPasswordStrength(password);
+    }
+
+    @Benchmark
+    public boolean breachedLookup() {
+        return breachedFilter.isBreached(password);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+                .include(WeakPasswordBenchmark.class.getSimpleName())
+                .build()).run();
+    }
+
+    /**
+     * 改造前的实现（仅用于对比）
+     */
+    private static final class LegacyChecks {
+
+        private static final Pattern WEAK_PATTERN = Pattern.compile("^[a-z]+$|^[A-Z]+$|^\\d+$");
+        private static final Pattern MEDIUM_PATTERN = Pattern.compile("^(?=.*[a-zA-Z])(?=.*\\d)[a-zA-Z\\d]{6,}$");
+        private static final Pattern STRONG_PATTERN = Pattern.compile("^(?=.*[a-z])(?=.*[A-Z])(?=.*\\d)(?=.*[@$!%*?&])[A-Za-z\\d@$!%*?&]{8,}$");
+        private static final List<String> WEAK_PASSWORDS = Arrays.asList(
+            "123456", "password", "123456789", "12345678", "12345", "1234567", "1234567890",
+            "qwerty", "abc123", "111111", "123123", "admin", "letmein", "welcome", "monkey",
+            "password123", "admin123", "root", "user", "test", "guest", "demo", "sample"
+        );
+
+        static int checkPasswordStrength(String password) {
+            if (isWeakPassword(password)) {
+                return 0;
+            }
+            if (STRONG_PATTERN.matcher(password).matches()) {
+                return 2;
+            }
+            return MEDIUM_PATTERN.matcher(password).matches() ? 1 : 0;
+        }
+
+        static boolean isWeakPassword(String password) {
+            String lowerPassword = password.toLowerCase();
+            for (String weakPassword : WEAK_PASSWORDS) {
+                if (lowerPassword.equals(weakPassword)) {
+                    return true;
+                }
+            }
+            if (password.matches("^(?=.*[a-zA-Z])(?=.*\\d).+$")) {
+                return false;
+            }
+            if (WEAK_PATTERN.matcher(password).matches()) {
+                return true;
+            }
+            return isRepeatingPattern(password) || isSequentialPattern(password);
+        }
+
+        static boolean isRepeatingPattern(String password) {
+            if (password.length() < 3) {
+                return false;
+            }
+            char firstChar = password.charAt(0);
+            boolean allSame = true;
+            for (int i = 1; i < password.length(); i++) {
+                if (password.charAt(i) != firstChar) {
+                    allSame = false;
+                    break;
+                }
+            }
+            if (allSame) {
+                return true;
+            }
+            for (int len = 1; len <= password.length() / 2; len++) {
+                String pattern = password.substring(0, len);
+                boolean isRepeating = true;
+                for (int i = len; i < password.length(); i += len) {
+                    String segment = password.substring(i, Math.min(i + len, password.length()));
+                    if (!pattern.startsWith(segment)) {
+                        isRepeating = false;
+                        break;
+                    }
+                }
+                if (isRepeating) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        static boolean isSequentialPattern(String password) {
+            if (password.length() < 3) {
+                return false;
+            }
+            boolean ascending = true;
+            boolean descending = true;
+            for (int i = 1; i < password.length(); i++) {
+                char prev = password.charAt(i - 1);
+                char curr = password.charAt(i);
+                if (curr != prev + 1) {
+                    ascending = false;
+                }
+                if (curr != prev - 1) {
+                    descending = false;
+                }
+                if (!ascending && !descending) {
+                    break;
+                }
+            }
+            return ascending || descending;
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.example.ssoserver.cache;
+
+import org.example.ssoserver.cache.AccountExistenceFilter.IdentifierType;
+import org.example.ssoserver.entity.SysUser;
+import org.example.ssoserver.mapper.SysUserMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 账号存在性过滤器测试
+ */
+public class AccountExistenceFilterTest {
+
+    /**
+     * 已加载的账号不会被判为不存在，未知账号直接判为不存在；大小写与尾部空格按数据库排序规则视为相同
+     */
+    @Test
+    public void testSeedAndLookup() {
+        SysUserMapper mapper = mock(SysUserMapper.class);
+        when(mapper.selectIdentifiersAfter(eq(0L), anyInt())).thenReturn(List.of(user(1L, "alice", "13800000000", "alice@example.com")));
+        AccountExistenceFilter filter = new AccountExistenceFilter(mapper, mock(CacheSyncBus.class),
+                mock(StringRedisTemplate.class), 1000, 0.001);
+        filter.rebuild();
+
+        assertFalse(filter.isDefinitelyAbsent(IdentifierType.USERNAME, "alice"));
+        assertFalse(filter.isDefinitelyAbsent(IdentifierType.USERNAME, "ALICE "));
+        assertFalse(filter.isDefinitelyAbsent(IdentifierType.EMAIL, "Alice@Example.com"));
+        assertFalse(filter.isAccountDefinitelyAbsent("13800000000"));
+        assertTrue(filter.isDefinitelyAbsent(IdentifierType.USERNAME, "bob"));
+        assertTrue(filter.isDefinitelyAbsent(IdentifierType.PHONE, "alice"));
+        assertTrue(filter.isAccountDefinitelyAbsent("nobody"));
+        // 非ASCII标识不参与过滤
+        assertFalse(filter.isDefinitelyAbsent(IdentifierType.USERNAME, "张三"));
+    }
+
+    /**
+     * 新记录的标识本节点立即可见并广播（不含原文）；重建后仍保留尚未被扫描到的近期新增
+     */
+    @Test
+    public void testRecordSurvivesRebuild() {
+        SysUserMapper mapper = mock(SysUserMapper.class);
+        when(mapper.selectIdentifiersAfter(eq(0L), anyInt())).thenReturn(List.of(user(1L, "alice", null, null)));
+        CacheSyncBus cacheSyncBus = mock(CacheSyncBus.class);
+        AccountExistenceFilter filter = new AccountExistenceFilter(mapper, cacheSyncBus, mock(StringRedisTemplate.class), 1000, 0.001);
+        filter.rebuild();
+
+        filter.record(user(null, "bob", null, "bob@example.com"));
+        assertFalse(filter.isDefinitelyAbsent(IdentifierType.USERNAME, "bob"));
+        verify(cacheSyncBus).publish(eq(AccountExistenceFilter.ACCOUNT_CHANNEL),
+                eq("USERNAME:" + AccountExistenceFilter.filterKey(IdentifierType.USERNAME, "bob")));
+
+        filter.rebuild();
+        assertFalse(filter.isDefinitelyAbsent(IdentifierType.USERNAME, "bob"));
+        assertFalse(filter.isDefinitelyAbsent(IdentifierType.EMAIL, "bob@example.com"));
+    }
+
+    /**
+     * 频道消息丢失时，其他节点记录的标识在下一次同步时从Redis并入
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testSyncRecoversLostMessages() {
+        SysUserMapper mapper = mock(SysUserMapper.class);
+        when(mapper.selectIdentifiersAfter(eq(0L), anyInt())).thenReturn(List.of(user(1L, "alice", null, null)));
+        StringRedisTemplate redis = mock(StringRedisTemplate.class);
+        ZSetOperations<String, String> zSetOps = mock(ZSetOperations.class);
+        when(redis.opsForZSet()).thenReturn(zSetOps);
+        when(zSetOps.rangeByScore(eq(AccountExistenceFilter.RECENT_KEY), anyDouble(), anyDouble()))
+                .thenReturn(Set.of("USERNAME:" + AccountExistenceFilter.filterKey(IdentifierType.USERNAME, "carol")));
+        AccountExistenceFilter filter = new AccountExistenceFilter(mapper, mock(CacheSyncBus.class), redis, 1000, 0.001);
+        filter.rebuild();
+        assertTrue(filter.isDefinitelyAbsent(IdentifierType.USERNAME, "carol"));
+
+        filter.syncRecent();
+        assertFalse(filter.isDefinitelyAbsent(IdentifierType.USERNAME, "carol"));
+    }
+
+    /**
+     * 未加载到任何账号时不启用，全部回退数据库
+     */
+    @Test
+    public void testDisabledWhenEmpty() {
+        SysUserMapper mapper = mock(SysUserMapper.class);
+        AccountExistenceFilter filter = new AccountExistenceFilter(mapper, mock(CacheSyncBus.class),
+                mock(StringRedisTemplate.class), 1000, 0.001);
+        filter.rebuild();
+
+        assertFalse(filter.isAccountDefinitelyAbsent("nobody"));
+        assertNull(AccountExistenceFilter.filterKey(IdentifierType.USERNAME, "   "));
+    }
+
+    private static SysUser user(Long id, String username, String phone, String email) {
+        SysUser user = new SysUser();
+        user.setId(id);
+        user.setUsername(username);
+        user.setPhone(phone);
+        user.setEmail(email);
+        return user;
+    }
+}
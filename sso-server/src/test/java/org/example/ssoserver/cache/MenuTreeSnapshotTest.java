@@ -0,0 +1,77 @@
+package org.example.ssoserver.cache;
+
+import org.example.common.model.MenuDTO;
+import org.example.ssoserver.entity.SysMenu;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Set;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 菜单树快照测试
+ */
+public class MenuTreeSnapshotTest {
+
+    private static final Function<SysMenu, MenuDTO> CONVERTER = menu -> MenuDTO.builder()
+            .id(menu.getId())
+            .parentId(menu.getParentId())
+            .menuName(menu.getMenuName())
+            .build();
+
+    /**
+     * 按 parent_id、order_num 排序的启用菜单
+     */
+    private List<SysMenu> enabledMenus() {
+        return List.of(
+                menu(1L, 0L, "系统管理"),
+                menu(2L, 0L, "航班管理"),
+                menu(11L, 1L, "用户管理"),
+                menu(12L, 1L, "角色管理"),
+                menu(21L, 2L, "航班列表"),
+                menu(111L, 11L, "用户新增"),
+                // 父菜单未启用的孤儿节点
+                menu(99L, 98L, "孤儿菜单"));
+    }
+
+    @Test
+    public void testFullTree() {
+        MenuTreeSnapshot snapshot = MenuTreeSnapshot.build(enabledMenus());
+        List<MenuDTO> tree = snapshot.toTree(CONVERTER);
+
+        assertEquals(2, tree.size());
+        assertEquals(1L, tree.get(0).getId());
+        assertEquals(List.of(11L, 12L), tree.get(0).getChildren().stream().map(MenuDTO::getId).toList());
+        assertEquals(111L, tree.get(0).getChildren().get(0).getChildren().get(0).getId());
+        assertTrue(tree.get(1).getChildren().get(0).getChildren().isEmpty());
+        assertEquals(7, snapshot.size());
+    }
+
+    @Test
+    public void testProjectionByMenuIds() {
+        MenuTreeSnapshot snapshot = MenuTreeSnapshot.build(enabledMenus());
+
+        // 111的父菜单11不在集合中，因此不可见
+        List<MenuDTO> tree = snapshot.project(Set.of(1L, 12L, 111L, 99L), CONVERTER);
+        assertEquals(1, tree.size());
+        assertEquals(List.of(12L), tree.get(0).getChildren().stream().map(MenuDTO::getId).toList());
+
+        // 每次投影生成新的DTO，互不影响
+        List<MenuDTO> again = snapshot.project(Set.of(1L, 12L), CONVERTER);
+        again.get(0).setChildren(List.of());
+        assertEquals(1, snapshot.project(Set.of(1L, 12L), CONVERTER).get(0).getChildren().size());
+
+        assertEquals(List.of(12L, 111L), snapshot.filter(Set.of(111L, 12L)).stream().map(SysMenu::getId).toList());
+    }
+
+    private SysMenu menu(Long id, Long parentId, String name) {
+        SysMenu menu = new SysMenu();
+        menu.setId(id);
+        menu.setParentId(parentId);
+        menu.setMenuName(name);
+        return menu;
+    }
+}
@@ -0,0 +1,77 @@
+package org.example.ssoserver.cache;
+
+import org.example.ssoserver.entity.SysUser;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+
+/**
+ * 用户快照本地缓存测试
+ */
+public class UserLocalCacheTest {
+
+    /**
+     * 快照与实体的登录状态判断一致
+     */
+    @Test
+    public void testSnapshotCanLogin() {
+        SysUser user = new SysUser();
+        user.setId(1L);
+        user.setUsername("alice");
+        user.setStatus("1");
+        user.setIsLocked(0);
+        assertTrue(UserSnapshot.of(user).canLogin());
+
+        user.setIsLocked(1);
+        assertFalse(UserSnapshot.of(user).canLogin());
+        assertEquals(user.canLogin(), UserSnapshot.of(user).canLogin());
+
+        user.setIsLocked(null);
+        user.setStatus("0");
+        assertFalse(UserSnapshot.of(user).canLogin());
+        assertEquals("alice", UserSnapshot.of(user).toUser().getUsername());
+    }
+
+    /**
+     * 本节点失效立即生效并广播；收到其他节点的失效消息同样移除
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testEvictAndRemoteInvalidate() {
+        CacheSyncBus cacheSyncBus = mock(CacheSyncBus.class);
+        UserLocalCache cache = new UserLocalCache(cacheSyncBus, 100, 60);
+        cache.init();
+        ArgumentCaptor<Consumer<String>> handler = ArgumentCaptor.forClass(Consumer.class);
+        verify(cacheSyncBus).subscribe(eq(UserLocalCache.INVALIDATE_CHANNEL), handler.capture());
+
+        UserSnapshot alice = snapshot(1L);
+        cache.put(alice);
+        cache.put(snapshot(2L));
+        assertSame(alice, cache.get(1L));
+
+        cache.evict(1L);
+        assertNull(cache.get(1L));
+        verify(cacheSyncBus).publish(UserLocalCache.INVALIDATE_CHANNEL, "1");
+
+        handler.getValue().accept("2");
+        assertNull(cache.get(2L));
+    }
+
+    private static UserSnapshot snapshot(Long id) {
+        SysUser user = new SysUser();
+        user.setId(id);
+        user.setUsername("user" + id);
+        user.setStatus("1");
+        return UserSnapshot.of(user);
+    }
+}
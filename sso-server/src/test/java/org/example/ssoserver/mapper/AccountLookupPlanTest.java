@@ -0,0 +1,137 @@
+package org.example.ssoserver.mapper;
+
+import org.apache.ibatis.session.Configuration;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * 账号查询执行计划回归测试
+ * 在100万用户的 sys_user 表上检查按账号路由的查询均走单列索引，需要可写的MySQL测试库：
+ * <pre>
+ * mvn test -Dtest=AccountLookupPlanTest -Dsso.plan-test.url=jdbc:mysql://localhost:3306/sso_plan_test \
+ *     -Dsso.plan-test.username=root -Dsso.plan-test.password=...
+ * </pre>
+ * 测试库中不存在 sys_user 表时按正式表结构的索引建表；行数不足时补齐种子数据（约需1分钟）。
+ */
+@EnabledIfSystemProperty(named = "sso.plan-test.url", matches = ".+")
+public class AccountLookupPlanTest {
+
+    private static final int SEED_ROWS = 1_000_000;
+    private static final Configuration MAPPER_CONFIGURATION = new Configuration();
+
+    static {
+        MAPPER_CONFIGURATION.addMapper(SysUserMapper.class);
+    }
+
+    private static String url;
+    private static String username;
+    private static String password;
+
+    @BeforeAll
+    public static void seed() throws Exception {
+        url = System.getProperty("sso.plan-test.url");
+        username = System.getProperty("sso.plan-test.username", "root");
+        password = System.getProperty("sso.plan-test.password", "");
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+             Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE IF NOT EXISTS sys_user (" +
+                    "id BIGINT PRIMARY KEY AUTO_INCREMENT, " +
+                    "username VARCHAR(50) NOT NULL, " +
+                    "password VARCHAR(100) NOT NULL DEFAULT '', " +
+                    "phone VARCHAR(20), " +
+                    "email VARCHAR(100), " +
+                    "status CHAR(1) DEFAULT '1', " +
+                    "INDEX idx_username (username), " +
+                    "INDEX idx_phone (phone), " +
+                    "INDEX idx_email (email), " +
+                    "INDEX idx_status (status)" +
+                    ") ENGINE=InnoDB DEFAULT CHARSET=utf8mb4 COLLATE=utf8mb4_unicode_ci");
+            long existing;
+            try (ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM sys_user")) {
+                rs.next();
+                existing = rs.getLong(1);
+            }
+            if (existing < SEED_ROWS) {
+                statement.execute("SET SESSION cte_max_recursion_depth = " + SEED_ROWS);
+                statement.execute("INSERT INTO sys_user (username, phone, email, status) " +
+                        "WITH RECURSIVE seq (n) AS (SELECT " + (existing + 1) + " UNION ALL SELECT n + 1 FROM seq WHERE n < " + SEED_ROWS + ") " +
+                        "SELECT CONCAT('user', n), CONCAT('138', LPAD(n, 8, '0')), CONCAT('user', n, '@example.com'), " +
+                        "IF(n % 10 = 0, '0', '1') FROM seq");
+                statement.execute("ANALYZE TABLE sys_user");
+            }
+        }
+    }
+
+    @Test
+    public void testExactLookupsUseSingleColumnIndex() throws Exception {
+        assertIndexLookup(explain(sqlOf("selectByUsername", Map.of("username", "user500000")), "user500000"), "idx_username");
+        assertIndexLookup(explain(sqlOf("selectByPhone", Map.of("phone", "13800500000")), "13800500000"), "idx_phone");
+        assertIndexLookup(explain(sqlOf("selectByEmail", Map.of("email", "user500000@example.com")), "user500000@example.com"), "idx_email");
+    }
+
+    /**
+     * UNION回退的每个分支都使用对应列的索引
+     */
+    @Test
+    public void testUnionFallbackUsesIndexPerBranch() throws Exception {
+        String account = "13800500000";
+        List<String> columns = List.of("username", "phone", "email");
+        String sql = sqlOf("selectByAccountUnion", Map.of("account", account, "columns", columns));
+        List<String[]> plan = explain(sql, account, account, account);
+        List<String> keys = new ArrayList<>();
+        for (String[] row : plan) {
+            if (!"UNION RESULT".equals(row[0])) {
+                assertEquals("ref", row[1], "分支未使用索引等值查找");
+                keys.add(row[2]);
+            }
+        }
+        assertEquals(List.of("idx_username", "idx_phone", "idx_email"), keys);
+    }
+
+    private static void assertIndexLookup(List<String[]> plan, String expectedKey) {
+        assertFalse(plan.isEmpty());
+        assertEquals("ref", plan.get(0)[1], "未使用索引等值查找");
+        assertEquals(expectedKey, plan.get(0)[2]);
+    }
+
+    /**
+     * 按映射器注解生成实际执行的SQL（参数为JDBC占位符）
+     */
+    private static String sqlOf(String method, Map<String, Object> params) {
+        return MAPPER_CONFIGURATION.getMappedStatement(SysUserMapper.class.getName() + "." + method)
+                .getBoundSql(new HashMap<>(params)).getSql();
+    }
+
+    /**
+     * 执行EXPLAIN，返回每行的 {select_type, type, key}
+     */
+    private static List<String[]> explain(String sql, String... params) throws Exception {
+        try (Connection connection = DriverManager.getConnection(url, username, password);
+             PreparedStatement statement = connection.prepareStatement("EXPLAIN " + sql)) {
+            for (int i = 0; i < params.length; i++) {
+                statement.setString(i + 1, params[i]);
+            }
+            List<String[]> rows = new ArrayList<>();
+            try (ResultSet rs = statement.executeQuery()) {
+                while (rs.next()) {
+                    rows.add(new String[]{rs.getString("select_type"), rs.getString("type"), rs.getString("key")});
+                }
+            }
+            return rows;
+        }
+    }
+}
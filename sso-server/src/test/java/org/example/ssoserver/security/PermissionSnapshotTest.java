@@ -0,0 +1,114 @@
+package org.example.ssoserver.security;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 权限位图快照测试
+ */
+public class PermissionSnapshotTest {
+
+    @Test
+    public void testSingleAnyAndAllChecks() {
+        PermissionCatalog catalog = new PermissionCatalog();
+        PermissionSnapshot snapshot = catalog.compile(List.of("system:user:list", "system:user:edit", "airline:flight:list"));
+
+        assertTrue(snapshot.contains("system:user:edit"));
+        assertFalse(snapshot.contains("system:user:delete"));
+        assertFalse(snapshot.contains(null));
+
+        assertTrue(snapshot.containsAny("system:role:list", "airline:flight:list"));
+        assertFalse(snapshot.containsAny("system:role:list", "system:menu:list"));
+
+        assertTrue(snapshot.containsAll("system:user:list", "airline:flight:list"));
+        assertFalse(snapshot.containsAll("system:user:list", "system:role:list"));
+        assertTrue(snapshot.containsAll());
+    }
+
+    @Test
+    public void testIdsSpanMultipleWords() {
+        PermissionCatalog catalog = new PermissionCatalog();
+        List<String> all = new ArrayList<>();
+        for (int i = 0; i < 200; i++) {
+            all.add("module" + i + ":resource:list");
+        }
+        // 先登记全部权限，使后续快照中的ID跨越多个long
+        catalog.compile(all);
+
+        PermissionSnapshot snapshot = catalog.compile(List.of("module3:resource:list", "module150:resource:list"));
+        assertEquals(200, catalog.size());
+        assertTrue(snapshot.contains("module150:resource:list"));
+        assertFalse(snapshot.contains("module199:resource:list"));
+        assertTrue(snapshot.containsAll("module3:resource:list", "module150:resource:list"));
+        assertFalse(snapshot.containsAll("module3:resource:list", "module199:resource:list"));
+        assertFalse(snapshot.containsAny("module70:resource:list", "module199:resource:list"));
+    }
+
+    @Test
+    public void testWildcardGrants() {
+        PermissionCatalog catalog = new PermissionCatalog();
+        PermissionSnapshot snapshot = catalog.compile(List.of("system:*", "airline:flight:*", "report:*:list", "order:query"));
+
+        // 末段通配覆盖一级或多级
+        assertTrue(snapshot.implies("system:user"));
+        assertTrue(snapshot.implies("system:user:edit"));
+        assertFalse(snapshot.implies("system"));
+        assertTrue(snapshot.implies("airline:flight:list"));
+        assertFalse(snapshot.implies("airline:crew:list"));
+
+        // 中间段通配只匹配一个分段
+        assertTrue(snapshot.implies("report:sales:list"));
+        assertFalse(snapshot.implies("report:sales:export"));
+        assertFalse(snapshot.implies("report:sales:daily:list"));
+
+        // 精确授权仍然有效，但精确匹配不展开通配
+        assertTrue(snapshot.implies("order:query"));
+        assertFalse(snapshot.contains("system:user:edit"));
+
+        assertTrue(snapshot.impliesAny("order:delete", "airline:flight:edit"));
+        assertTrue(snapshot.impliesAll("system:role:list", "order:query"));
+        assertFalse(snapshot.impliesAll("system:role:list", "order:delete"));
+
+        // 全部权限
+        assertTrue(catalog.compile(List.of("*")).implies("any:thing:at:all"));
+    }
+
+    @Test
+    public void testSnapshotListIsRecognized() {
+        PermissionSnapshot snapshot = new PermissionCatalog().compile(List.of("system:*"));
+        assertTrue(PermissionSnapshot.of(snapshot.getValues()) == snapshot);
+        assertTrue(PermissionSnapshot.of(List.of("system:*")) == null);
+        assertFalse(snapshot.getValues().contains("system:user:list"));
+    }
+
+    @Test
+    public void testEmptySnapshot() {
+        PermissionSnapshot empty = PermissionSnapshot.empty();
+        assertTrue(empty.getValues().isEmpty());
+        assertFalse(empty.contains("system:user:list"));
+        assertFalse(empty.containsAny("system:user:list"));
+        assertFalse(empty.containsAll("system:user:list"));
+    }
+
+    /**
+     * 只有末段通配可替代默认模糊匹配；段内、中间段通配及角色目录交给默认策略
+     */
+    @Test
+    public void testTrieMatchable() {
+        PermissionCatalog catalog = new PermissionCatalog();
+        assertTrue(catalog.compile(List.of("system:*", "*", "order:query")).isTrieMatchable());
+        assertFalse(catalog.compile(List.of("system:*", "admin*")).isTrieMatchable());
+        assertFalse(catalog.compile(List.of("report:*:list")).isTrieMatchable());
+        assertFalse(new PermissionCatalog(false).compile(List.of("admin")).isTrieMatchable());
+
+        assertTrue(PermissionTrie.isTrailingWildcard("*"));
+        assertFalse(PermissionTrie.isTrailingWildcard("system*"));
+        assertFalse(PermissionTrie.isTrailingWildcard("system:*:list"));
+    }
+}
@@ -0,0 +1,54 @@
+package org.example.ssoserver.security.password;
+
+import cn.hutool.crypto.digest.DigestUtil;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 泄露密码筛查测试
+ */
+public class BreachedPasswordFilterTest {
+
+    /**
+     * 离线构建的过滤器文件可映射加载，明文与 SHA1:次数 两种输入格式都能命中
+     */
+    @Test
+    public void testBuildAndLookup(@TempDir Path dir) throws Exception {
+        Path input = dir.resolve("breached.txt");
+        Path output = dir.resolve("breached.bloom");
+        String hashedLine = DigestUtil.sha1Hex("Summer2024!").toUpperCase() + ":1523";
+        Files.write(input, List.of("P@ssw0rd", "qwerty123", "", hashedLine));
+
+        BreachedPasswordFilter.main(new String[]{input.toString(), output.toString(), "0.0001"});
+        BreachedPasswordFilter filter = new BreachedPasswordFilter(output.toString());
+
+        assertTrue(filter.isEnabled());
+        assertTrue(filter.isBreached("P@ssw0rd"));
+        assertTrue(filter.isBreached("qwerty123"));
+        assertTrue(filter.isBreached("Summer2024!"));
+        assertFalse(filter.isBreached("Xk9#mQ2$vLp7"));
+        assertEquals(BreachedPasswordFilter.toKey("P@ssw0rd"), BreachedPasswordFilter.toKey(DigestUtil.sha1Hex("P@ssw0rd")));
+    }
+
+    /**
+     * 未配置或文件损坏时不启用筛查，不影响应用启动
+     */
+    @Test
+    public void testDisabledWhenMissing(@TempDir Path dir) throws Exception {
+        assertFalse(new BreachedPasswordFilter("").isEnabled());
+
+        Path corrupt = dir.resolve("corrupt.bloom");
+        Files.write(corrupt, new byte[64]);
+        BreachedPasswordFilter filter = new BreachedPasswordFilter(corrupt.toString());
+        assertFalse(filter.isEnabled());
+        assertFalse(filter.isBreached("P@ssw0rd"));
+    }
+}
@@ -0,0 +1,81 @@
+package org.example.ssoserver.security.password;
+
+import org.example.common.exception.BusinessException;
+import org.example.common.result.ResultCode;
+import org.example.ssoserver.service.impl.PasswordServiceImpl;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 密码哈希线程池与算法迁移测试
+ */
+public class PasswordHashExecutorTest {
+
+    /**
+     * 线程与队列均占满时立即以429拒绝，不阻塞调用线程
+     */
+    @Test
+    public void testRejectWhenQueueFull() throws Exception {
+        PasswordHashExecutor hashExecutor = new PasswordHashExecutor(1, 1, 3000);
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService callers = Executors.newFixedThreadPool(2);
+        try {
+            callers.submit(() -> hashExecutor.execute(() -> {
+                started.countDown();
+                return release.await(5, TimeUnit.SECONDS);
+            }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+            callers.submit(() -> hashExecutor.execute(() -> true));
+            // 等待第二个任务进入队列
+            for (int i = 0; i < 100 && (int) hashExecutor.getStatistics().get("queueDepth") == 0; i++) {
+                Thread.sleep(10);
+            }
+
+            BusinessException e = assertThrows(BusinessException.class, () -> hashExecutor.execute(() -> true));
+            assertEquals(ResultCode.TOO_MANY_REQUESTS.getCode(), e.getCode());
+            assertEquals(1L, hashExecutor.getStatistics().get("rejectedTotal"));
+        } finally {
+            release.countDown();
+            callers.shutdownNow();
+            hashExecutor.shutdown();
+        }
+    }
+
+    /**
+     * 存量MD5哈希仍可校验并被标记为需要迁移，新哈希使用当前算法
+     */
+    @Test
+    public void testLegacyHashMigration() {
+        PasswordHashExecutor hashExecutor = new PasswordHashExecutor(1, 4, 3000);
+        try {
+            Md5SaltPasswordHasher md5 = new Md5SaltPasswordHasher();
+            BCryptPasswordHasher bcrypt = new BCryptPasswordHasher(4);
+            PasswordServiceImpl passwordService = new PasswordServiceImpl(List.of(md5, bcrypt), hashExecutor,
+                    null, BCryptPasswordHasher.ALGORITHM);
+
+            String salt = passwordService.generateSalt();
+            String legacy = md5.encode("admin123456", salt);
+            assertTrue(passwordService.matchesWithSalt("admin123456", legacy, salt));
+            assertTrue(passwordService.needsRehash(legacy));
+
+            String upgraded = passwordService.encodePasswordWithSalt("admin123456", salt);
+            assertTrue(bcrypt.recognizes(upgraded));
+            assertTrue(passwordService.matchesWithSalt("admin123456", upgraded, salt));
+            assertFalse(passwordService.matchesWithSalt("wrong-password", upgraded, salt));
+            assertFalse(passwordService.needsRehash(upgraded));
+        } finally {
+            hashExecutor.shutdown();
+        }
+    }
+}
@@ -0,0 +1,79 @@
+package org.example.ssoserver.security.ratelimit;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.Mockito.mock;
+
+/**
+ * 登录限流器测试
+ */
+public class LoginRateLimiterTest {
+
+    private LoginRateLimiter newLimiter(int accountLimit, int ipLimit) {
+        return new LoginRateLimiter(mock(StringRedisTemplate.class), true, 1000,
+                accountLimit, 300, ipLimit, 60, 1000, 60);
+    }
+
+    /**
+     * 同一账号超过上限后被拒绝，其他账号不受影响；账号大小写视为相同
+     */
+    @Test
+    public void testAccountLimit() {
+        LoginRateLimiter limiter = newLimiter(3, 100);
+        for (int i = 0; i < 3; i++) {
+            assertNotNull(limiter.tryAcquire("alice", "10.0.0." + i));
+        }
+        assertNull(limiter.tryAcquire("ALICE", "10.0.1.1"));
+        assertNotNull(limiter.tryAcquire("bob", "10.0.1.1"));
+    }
+
+    /**
+     * 登录成功归还许可，不计入限制
+     */
+    @Test
+    public void testRefundOnSuccess() {
+        LoginRateLimiter limiter = newLimiter(2, 100);
+        for (int i = 0; i < 10; i++) {
+            LoginRateLimiter.Permit permit = limiter.tryAcquire("alice", "10.0.0.1");
+            assertNotNull(permit);
+            permit.refund();
+        }
+    }
+
+    /**
+     * 同一IP轮换账号同样受限，被拒绝时不扣减账号维度
+     */
+    @Test
+    public void testIpLimit() {
+        LoginRateLimiter limiter = newLimiter(1, 2);
+        assertNotNull(limiter.tryAcquire("u1", "10.0.0.1"));
+        assertNotNull(limiter.tryAcquire("u2", "10.0.0.1"));
+        assertNull(limiter.tryAcquire("u3", "10.0.0.1"));
+        assertNotNull(limiter.tryAcquire("u3", "10.0.0.2"));
+    }
+
+    @Test
+    public void testSubnet() {
+        assertEquals("192.168.1.0/24", LoginRateLimiter.subnetOf("192.168.1.77"));
+        assertEquals("2001:db8:0:1::/64", LoginRateLimiter.subnetOf("2001:db8:0:1:abcd::1"));
+        assertNull(LoginRateLimiter.subnetOf(null));
+    }
+
+    /**
+     * 滑动窗口估算：上一窗口计数按剩余占比衰减
+     */
+    @Test
+    public void testSlidingWindowBlock() {
+        LoginRateLimiter.Limit limit = new LoginRateLimiter.Limit(10, 60);
+        long windowStart = 600_000L;
+        // 窗口过半：20 × 0.5 + 0 = 10，达到上限；上一窗口权重降到 10/20 时回落，即窗口的一半处之后
+        assertEquals(windowStart + 30_000, LoginRateLimiter.blockedUntil(20, 0, limit, windowStart + 30_000));
+        assertEquals(0, LoginRateLimiter.blockedUntil(20, 0, limit, windowStart + 45_000));
+        // 当前窗口已超限，封禁到窗口结束
+        assertEquals(windowStart + 60_000, LoginRateLimiter.blockedUntil(0, 10, limit, windowStart + 1_000));
+    }
+}
@@ -0,0 +1,93 @@
+package org.example.ssoserver.serializer;
+
+import org.example.common.model.UserDTO;
+import org.example.ssoserver.cache.PermissionCacheEntry;
+import org.example.ssoserver.config.RedisConfig;
+import org.example.ssoserver.dto.RefreshTokenInfo;
+import org.example.ssoserver.dto.SsoTicketInfo;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.serializer.GenericJackson2JsonRedisSerializer;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+/**
+ * 紧凑二进制Redis序列化器测试
+ */
+public class CompactRedisSerializerTest {
+
+    private final GenericJackson2JsonRedisSerializer json = RedisConfig.jsonRedisSerializer();
+
+    private CompactRedisSerializer create(boolean writeBinary) {
+        UserDTOCodec userCodec = new UserDTOCodec();
+        return new CompactRedisSerializer(json, List.of(new StringListCodec(), new PermissionCacheEntryCodec(),
+                userCodec, new SsoTicketInfoCodec(userCodec), new RefreshTokenInfoCodec()), writeBinary);
+    }
+
+    /**
+     * 已注册类型按二进制往返，字段（含null与嵌套用户信息）保持一致
+     */
+    @Test
+    public void testBinaryRoundTrip() {
+        CompactRedisSerializer serializer = create(true);
+        LocalDateTime now = LocalDateTime.now().truncatedTo(ChronoUnit.MILLIS);
+        UserDTO user = UserDTO.builder().id(1L).username("admin").nickname("管理员")
+                .birthday(LocalDate.of(1990, 1, 1)).gender(-1).isNewDevice(false)
+                .roles(new ArrayList<>(List.of("ADMIN"))).createTime(now).build();
+        SsoTicketInfo ticket = SsoTicketInfo.builder().userId(1L).clientId("client")
+                .redirectUri("http://localhost/cb").createTime(now).user(user).build();
+        RefreshTokenInfo refresh = RefreshTokenInfo.builder().userId(Long.MAX_VALUE)
+                .accessToken("token").createTime(now).expireTime(now.plusDays(7)).build();
+        PermissionCacheEntry entry = new PermissionCacheEntry(3L, 2L, new HashMap<>(Map.of(1L, 4L, 9L, 0L)),
+                new ArrayList<>(List.of("a:b", "c:d")));
+
+        for (Object value : List.of(ticket, refresh, entry)) {
+            byte[] bytes = serializer.serialize(value);
+            assertEquals(CompactRedisSerializer.MAGIC, bytes[0]);
+            assertEquals(value, serializer.deserialize(bytes));
+        }
+    }
+
+    /**
+     * 迁移前的JSON值可直接读取；未注册类型（计数器）及回滚模式仍写JSON
+     */
+    @Test
+    public void testJsonCompatibility() {
+        CompactRedisSerializer serializer = create(true);
+        PermissionCacheEntry entry = new PermissionCacheEntry(1L, 0L, new HashMap<>(Map.of(1L, 1L)), new ArrayList<>(List.of("x")));
+        assertEquals(entry, serializer.deserialize(json.serialize(entry)));
+
+        byte[] counter = serializer.serialize(5);
+        assertEquals("5", new String(counter));
+        assertEquals(5, serializer.deserialize(counter));
+
+        List<Object> mixed = new ArrayList<>(List.of(1L, "a"));
+        assertNotEquals(CompactRedisSerializer.MAGIC, serializer.serialize(mixed)[0]);
+
+        byte[] rollback = create(false).serialize(entry);
+        assertNotEquals(CompactRedisSerializer.MAGIC, rollback[0]);
+        assertEquals(entry, serializer.deserialize(rollback));
+    }
+
+    /**
+     * 格式版本1的权限缓存条目仍可读取，缺少的用户版本号、角色版本号为null
+     */
+    @Test
+    public void testReadPermissionEntrySchemaV1() {
+        byte[] bytes = new BinaryWriter(32)
+                .writeByte(CompactRedisSerializer.MAGIC).writeByte(1).writeByte(new PermissionCacheEntryCodec().typeId())
+                .writeLong(5L)
+                .writeStringList(List.of("a:b"))
+                .toByteArray();
+
+        assertEquals(new PermissionCacheEntry(5L, null, null, List.of("a:b")), create(true).deserialize(bytes));
+    }
+}
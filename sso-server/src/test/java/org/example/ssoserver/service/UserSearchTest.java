@@ -0,0 +1,116 @@
+package org.example.ssoserver.service;
+
+import org.example.common.model.CursorPageResult;
+import org.example.common.model.UserDTO;
+import org.example.ssoserver.audit.LoginStatsAccumulator;
+import org.example.ssoserver.audit.UserStatisticsCounter;
+import org.example.ssoserver.cache.AccountExistenceFilter;
+import org.example.ssoserver.cache.UserLocalCache;
+import org.example.ssoserver.entity.SysUser;
+import org.example.ssoserver.mapper.SysUserMapper;
+import org.example.ssoserver.service.impl.SysUserServiceImpl;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 用户搜索（游标分页）测试
+ */
+public class UserSearchTest {
+
+    private SysUserMapper userMapper;
+    private SysUserServiceImpl userService;
+
+    @BeforeEach
+    void setUp() {
+        userMapper = mock(SysUserMapper.class);
+        userService = new SysUserServiceImpl(userMapper, mock(PasswordService.class), mock(LoginStatsAccumulator.class),
+                mock(AccountExistenceFilter.class), mock(UserLocalCache.class), mock(UserStatisticsCounter.class));
+        ReflectionTestUtils.setField(userService, "searchFulltextEnabled", true);
+        ReflectionTestUtils.setField(userService, "searchNgramTokenSize", 2);
+        ReflectionTestUtils.setField(userService, "searchCountLimit", 100);
+    }
+
+    /**
+     * 多取一条判断是否有下一页，游标指向本页最后一条的 (create_time, id)
+     */
+    @Test
+    void testCursorPaging() {
+        LocalDateTime time = LocalDateTime.of(2025, 1, 1, 12, 0);
+        when(userMapper.searchUsers(isNull(), isNull(), eq("\"alice\""), isNull(), isNull(), isNull(), eq(3)))
+                .thenReturn(users(time, 30L, 20L, 10L));
+
+        CursorPageResult<UserDTO> first = userService.searchUsers(null, 2, null, null, " alice ", false);
+        assertEquals(2, first.getList().size());
+        assertTrue(first.getHasNext());
+        assertNull(first.getTotal());
+
+        when(userMapper.searchUsers(isNull(), isNull(), eq("\"alice\""), isNull(), eq(time), eq(20L), eq(3)))
+                .thenReturn(users(time, 10L));
+        CursorPageResult<UserDTO> second = userService.searchUsers(first.getNextCursor(), 2, null, null, "alice", false);
+        assertEquals(1, second.getList().size());
+        assertFalse(second.getHasNext());
+        assertNull(second.getNextCursor());
+    }
+
+    /**
+     * 单字符关键字无法命中ngram索引，使用LIKE并转义通配符；总数超过上限时标记为近似值
+     */
+    @Test
+    void testShortKeywordUsesLikeAndApproximateTotal() {
+        when(userMapper.searchUsers(any(), any(), any(), any(), any(), any(), anyInt())).thenReturn(new ArrayList<>());
+        when(userMapper.countSearchUsers(isNull(), eq("1"), isNull(), eq("%\\_%"), eq(101))).thenReturn(101L);
+
+        CursorPageResult<UserDTO> result = userService.searchUsers(null, 20, "", "1", "_", true);
+        verify(userMapper).searchUsers(isNull(), eq("1"), isNull(), eq("%\\_%"), isNull(), isNull(), eq(21));
+        assertEquals(100L, result.getTotal());
+        assertFalse(result.getTotalExact());
+    }
+
+    /**
+     * 数据库缺少全文索引时回退为LIKE，之后不再尝试全文检索
+     */
+    @Test
+    void testFallbackWhenFulltextIndexMissing() {
+        when(userMapper.searchUsers(any(), any(), eq("\"bob\""), any(), any(), any(), anyInt()))
+                .thenThrow(new DataIntegrityViolationException("no index",
+                        new SQLException("Can't find FULLTEXT index matching the column list", "HY000", 1191)));
+        when(userMapper.searchUsers(any(), any(), isNull(), eq("%bob%"), any(), any(), anyInt()))
+                .thenReturn(users(LocalDateTime.now(), 1L));
+
+        assertEquals(1, userService.searchUsers(null, 20, null, null, "bob", false).getList().size());
+        assertEquals(1, userService.searchUsers(null, 20, null, null, "bob", false).getList().size());
+        verify(userMapper).searchUsers(any(), any(), eq("\"bob\""), any(), any(), any(), anyInt());
+    }
+
+    private static List<SysUser> users(LocalDateTime createTime, Long... ids) {
+        List<SysUser> users = new ArrayList<>();
+        for (Long id : ids) {
+            SysUser user = new SysUser();
+            user.setId(id);
+            user.setUsername("user" + id);
+            user.setStatus("1");
+            user.setCreateTime(createTime);
+            users.add(user);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,50 @@
+package org.example.ssoserver.token;
+
+import org.example.ssoserver.cache.CacheSyncBus;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.ZSetOperations;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * 访问令牌撤销名单测试
+ */
+public class AccessTokenDenylistTest {
+
+    private static final String SECRET = "unit-test-secret-key-0123456789abcdef";
+
+    /**
+     * 未撤销的令牌在本地即判定为未撤销，不访问Redis；撤销后本节点立即可见并广播增量
+     */
+    @Test
+    @SuppressWarnings("unchecked")
+    public void testRevokeAndLocalLookup() {
+        SignedAccessTokenCodec codec = new SignedAccessTokenCodec("stateless", SECRET);
+        StringRedisTemplate redisTemplate = mock(StringRedisTemplate.class);
+        ZSetOperations<String, String> zSetOps = mock(ZSetOperations.class);
+        when(redisTemplate.opsForZSet()).thenReturn(zSetOps);
+        CacheSyncBus cacheSyncBus = mock(CacheSyncBus.class);
+        AccessTokenDenylist denylist = new AccessTokenDenylist(codec, redisTemplate, cacheSyncBus, 1000, 0.001);
+
+        String token = codec.issue(1L, 3600);
+        String other = codec.issue(2L, 3600);
+        assertFalse(denylist.isTokenRevoked(token));
+
+        denylist.revoke(token);
+        String key = denylist.revocationKey(token);
+        assertTrue(denylist.isTokenRevoked(token));
+        assertFalse(denylist.isTokenRevoked(other));
+        verify(zSetOps).add(eq(AccessTokenDenylist.DENYLIST_KEY), eq(key), anyDouble());
+        verify(cacheSyncBus).publish(eq(AccessTokenDenylist.DENYLIST_CHANNEL), anyString());
+        verify(zSetOps, never()).score(anyString(), anyString());
+    }
+}
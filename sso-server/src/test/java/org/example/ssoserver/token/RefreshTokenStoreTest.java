@@ -0,0 +1,47 @@
+package org.example.ssoserver.token;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.StringRedisTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+/**
+ * Refresh Token存储测试
+ */
+public class RefreshTokenStoreTest {
+
+    /**
+     * 只接受32位小写十六进制token
+     */
+    @Test
+    void testTokenFormat() {
+        assertTrue(RefreshTokenStore.isWellFormed("0123456789abcdef0123456789abcdef"));
+        assertFalse(RefreshTokenStore.isWellFormed(null));
+        assertFalse(RefreshTokenStore.isWellFormed("index:stats"));
+        assertFalse(RefreshTokenStore.isWellFormed("user:1"));
+        assertFalse(RefreshTokenStore.isWellFormed("0123456789ABCDEF0123456789ABCDEF"));
+        assertFalse(RefreshTokenStore.isWellFormed("0123456789abcdef0123456789abcdef0"));
+    }
+
+    /**
+     * 格式错误的token不会拼接成key访问Redis（例如指向索引key）
+     */
+    @Test
+    void testMalformedTokenNeverReachesRedis() {
+        StringRedisTemplate stringRedisTemplate = mock(StringRedisTemplate.class);
+        RedisTemplate<String, Object> redisTemplate = mock(RedisTemplate.class);
+        RefreshTokenStore store = new RefreshTokenStore(stringRedisTemplate, redisTemplate);
+
+        assertEquals(RefreshTokenStore.RotationStatus.MISSING, store.rotate("index:stats", "access", null).getStatus());
+        assertFalse(store.delete("index:stats"));
+        assertNull(store.get("user:1"));
+        assertNull(store.getUserId("index:expiry"));
+        verifyNoInteractions(stringRedisTemplate, redisTemplate);
+    }
+}
@@ -0,0 +1,99 @@
+package org.example.ssoserver.token;
+
+import org.junit.jupiter.api.Test;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 签名访问令牌编解码器测试
+ */
+public class SignedAccessTokenCodecTest {
+
+    private static final String SECRET = "unit-test-secret-key-0123456789abcdef";
+
+    /**
+     * 签发的令牌应能本地校验并还原声明
+     */
+    @Test
+    public void testIssueAndVerify() {
+        SignedAccessTokenCodec codec = new SignedAccessTokenCodec("stateless", SECRET);
+
+        String token = codec.issue(42L, 3600);
+        assertTrue(codec.isSignedToken(token));
+
+        AccessTokenClaims claims = codec.verify(token);
+        assertNotNull(claims);
+        assertEquals(42L, claims.getUserId());
+        assertEquals(claims.getIssuedAt() + 3600, claims.getExpireAt());
+        assertNotEquals(claims.getTokenId(), codec.verify(codec.issue(42L, 3600)).getTokenId());
+    }
+
+    /**
+     * 篡改内容或使用其他密钥签名的令牌应校验失败，到达过期时间即视为过期
+     */
+    @Test
+    public void testRejectsTamperedAndExpiredTokens() {
+        SignedAccessTokenCodec codec = new SignedAccessTokenCodec("stateless", SECRET);
+        String token = codec.issue(42L, 3600);
+
+        assertNull(codec.verify(token.replaceFirst("sst\\.42\\.", "sst.43.")));
+        assertNull(codec.verify(token.substring(0, token.length() - 2)));
+        assertNull(codec.verify("sst.garbage"));
+        assertNull(new SignedAccessTokenCodec("stateless", SECRET + "-other").verify(token));
+
+        AccessTokenClaims claims = codec.decode(token);
+        assertTrue(claims.isExpired(claims.getExpireAt()));
+        assertFalse(claims.isExpired(claims.getExpireAt() - 1));
+    }
+
+    /**
+     * 永不过期的令牌过期时间为0
+     */
+    @Test
+    public void testNonExpiringToken() {
+        SignedAccessTokenCodec codec = new SignedAccessTokenCodec("stateless", SECRET);
+        AccessTokenClaims claims = codec.verify(codec.issue(1L, -1));
+        assertNotNull(claims);
+        assertEquals(0L, claims.getExpireAt());
+        assertFalse(claims.isExpired(Long.MAX_VALUE));
+    }
+
+    /**
+     * 启用无状态模式时必须配置密钥
+     */
+    @Test
+    public void testStatelessModeRequiresSecret() {
+        assertThrows(IllegalStateException.class, () -> new SignedAccessTokenCodec("stateless", ""));
+        assertFalse(new SignedAccessTokenCodec("redis", "").isEnabled());
+    }
+
+    /**
+     * 含权限版本字段的旧格式令牌在过期前仍可校验
+     */
+    @Test
+    public void testAcceptsLegacyFormat() throws Exception {
+        SignedAccessTokenCodec codec = new SignedAccessTokenCodec("stateless", SECRET);
+        long now = System.currentTimeMillis() / 1000;
+        String payload = "42." + now + "." + (now + 3600) + ".7.legacyTokenId";
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        String token = "sst." + payload + "." + Base64.getUrlEncoder().withoutPadding()
+                .encodeToString(mac.doFinal(payload.getBytes(StandardCharsets.US_ASCII)));
+
+        AccessTokenClaims claims = codec.verify(token);
+        assertNotNull(claims);
+        assertEquals(42L, claims.getUserId());
+        assertEquals("legacyTokenId", claims.getTokenId());
+    }
+}
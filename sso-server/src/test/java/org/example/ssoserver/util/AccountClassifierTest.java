@@ -0,0 +1,28 @@
+package org.example.ssoserver.util;
+
+import org.example.ssoserver.cache.AccountExistenceFilter.IdentifierType;
+import org.junit.jupiter.api.Test;
+
+import java.util.EnumSet;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * 登录账号分类测试
+ */
+public class AccountClassifierTest {
+
+    @Test
+    public void testCandidates() {
+        assertEquals(EnumSet.of(IdentifierType.USERNAME), AccountClassifier.candidates("admin"));
+        assertEquals(EnumSet.of(IdentifierType.USERNAME), AccountClassifier.candidates("user_13800000000"));
+        // 后台创建的用户名可能与手机号、邮箱同形，用户名始终是候选
+        assertEquals(EnumSet.of(IdentifierType.USERNAME, IdentifierType.PHONE), AccountClassifier.candidates("13800000000"));
+        assertEquals(EnumSet.of(IdentifierType.USERNAME, IdentifierType.PHONE), AccountClassifier.candidates("+86 138-0000-0000"));
+        assertEquals(EnumSet.of(IdentifierType.USERNAME, IdentifierType.EMAIL), AccountClassifier.candidates("admin@sso.com"));
+        assertEquals(EnumSet.of(IdentifierType.USERNAME), AccountClassifier.candidates("---"));
+        assertTrue(AccountClassifier.candidates(" ").isEmpty());
+        assertTrue(AccountClassifier.candidates(null).isEmpty());
+    }
+}